@@ -0,0 +1,337 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH result file ({@code -rf json}) against a checked-in
+ * baseline and exits non-zero when any benchmark regressed by more than the
+ * allowed tolerance.
+ * <p>
+ * JSON is a subset of Ion text, so both files are read with Ion's own
+ * reader. Either file may be JMH's array of results as it is, or a struct
+ * holding that array as {@code results} alongside notes on how it was
+ * recorded. Benchmarks whose names start with one of the struct's {@code
+ * excluded} strings are not compared, as the baseline's host can't measure
+ * them meaningfully.
+ * <p>
+ * A struct may also give the number of {@code cores} of the host that
+ * recorded it. Scores from hosts with different numbers of cores aren't
+ * comparable, so when the baseline's count differs from the results' (or,
+ * if the results don't give one, from that of the host running the check),
+ * the check fails with its own status rather than passing vacuously, unless
+ * {@code --allow-host-mismatch} is given, in which case the scores are
+ * compared anyway.
+ * <p>
+ * Baseline benchmarks that are missing from the results, as when one has
+ * been renamed or deleted, are reported so that they don't drop out of the
+ * comparison unnoticed.
+ * <p>
+ * Usage: {@code BaselineCheck [--allow-host-mismatch] <baseline.json>
+ * <results.json> [tolerance]} where tolerance is a fraction, defaulting to
+ * {@code 0.15}. Exits with status 1 if any benchmark regressed, 2 on bad
+ * usage, and 3 if the hosts don't match.
+ */
+public final class BaselineCheck
+{
+    private static final double DEFAULT_TOLERANCE = 0.15;
+
+    private static final String ALLOW_HOST_MISMATCH = "--allow-host-mismatch";
+
+    private static final int EXIT_REGRESSED = 1;
+    private static final int EXIT_USAGE = 2;
+    private static final int EXIT_HOST_MISMATCH = 3;
+
+    /** A single benchmark score. */
+    static final class Score
+    {
+        final String mode;
+        final double value;
+
+        Score(String mode, double value)
+        {
+            this.mode = mode;
+            this.value = value;
+        }
+
+        /**
+         * Returns the relative slowdown of {@code current} compared to this
+         * score; positive values are regressions.
+         */
+        double slowdown(Score current)
+        {
+            if ("thrpt".equals(mode))
+            {
+                return (value - current.value) / value;
+            }
+            // avgt, sample and ss are all "time per operation".
+            return (current.value - value) / value;
+        }
+    }
+
+    private BaselineCheck() {}
+
+    /** The scores in a result file, and the benchmarks it excludes. */
+    static final class Results
+    {
+        /** Keyed by benchmark name and parameters. */
+        final Map<String, Score> scores = new TreeMap<String, Score>();
+        /** Prefixes of the names of the benchmarks not to compare. */
+        final List<String> excluded = new ArrayList<String>();
+        /** The number of cores of the recording host, or -1 if not given. */
+        int cores = -1;
+
+        boolean isExcluded(String key)
+        {
+            for (String prefix : excluded)
+            {
+                if (key.startsWith(prefix)) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Reads a JMH JSON result file, or a struct wrapping one, into a map
+     * keyed by benchmark name and parameters.
+     */
+    static Results readResults(InputStream in)
+        throws IOException
+    {
+        Results results = new Results();
+        IonReader reader = IonReaderBuilder.standard().build(in);
+        try
+        {
+            IonType type = reader.next();
+            if (type == IonType.STRUCT)
+            {
+                reader.stepIn();
+                while ((type = reader.next()) != null)
+                {
+                    String field = reader.getFieldName();
+                    if ("results".equals(field) && type == IonType.LIST)
+                    {
+                        readRuns(reader, results);
+                    }
+                    else if ("cores".equals(field) && type == IonType.INT)
+                    {
+                        results.cores = reader.intValue();
+                    }
+                    else if ("excluded".equals(field) && type == IonType.LIST)
+                    {
+                        reader.stepIn();
+                        while (reader.next() != null)
+                        {
+                            results.excluded.add(reader.stringValue());
+                        }
+                        reader.stepOut();
+                    }
+                }
+                reader.stepOut();
+            }
+            else if (type == IonType.LIST)
+            {
+                readRuns(reader, results);
+            }
+            else
+            {
+                throw new IOException("Expected a JSON array of results");
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+        return results;
+    }
+
+    private static void readRuns(IonReader reader, Results results)
+    {
+        reader.stepIn();
+        while (reader.next() != null)
+        {
+            readRun(reader, results.scores);
+        }
+        reader.stepOut();
+    }
+
+    private static void readRun(IonReader reader, Map<String, Score> scores)
+    {
+        String benchmark = null;
+        String mode = null;
+        String params = "";
+        Double score = null;
+
+        reader.stepIn();
+        while (reader.next() != null)
+        {
+            String field = reader.getFieldName();
+            if ("benchmark".equals(field))
+            {
+                benchmark = reader.stringValue();
+            }
+            else if ("mode".equals(field))
+            {
+                mode = reader.stringValue();
+            }
+            else if ("params".equals(field))
+            {
+                params = readParams(reader);
+            }
+            else if ("primaryMetric".equals(field))
+            {
+                reader.stepIn();
+                while (reader.next() != null)
+                {
+                    if ("score".equals(reader.getFieldName()))
+                    {
+                        score = Double.valueOf(reader.doubleValue());
+                    }
+                }
+                reader.stepOut();
+            }
+        }
+        reader.stepOut();
+
+        if (benchmark != null && mode != null && score != null)
+        {
+            scores.put(benchmark + params, new Score(mode, score.doubleValue()));
+        }
+    }
+
+    private static String readParams(IonReader reader)
+    {
+        Map<String, String> params = new TreeMap<String, String>();
+        reader.stepIn();
+        while (reader.next() != null)
+        {
+            params.put(reader.getFieldName(), reader.stringValue());
+        }
+        reader.stepOut();
+        return params.toString();
+    }
+
+    private static Results readResults(String path)
+        throws IOException
+    {
+        InputStream in = new FileInputStream(new File(path));
+        try
+        {
+            return readResults(in);
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    public static void main(String[] args)
+        throws IOException
+    {
+        boolean allowHostMismatch =
+            args.length > 0 && ALLOW_HOST_MISMATCH.equals(args[0]);
+        int first = allowHostMismatch ? 1 : 0;
+        int positional = args.length - first;
+        if (positional < 2 || positional > 3)
+        {
+            System.err.println("usage: BaselineCheck [" + ALLOW_HOST_MISMATCH
+                               + "] <baseline.json> <results.json> [tolerance]");
+            System.exit(EXIT_USAGE);
+        }
+
+        double tolerance = positional == 3
+            ? Double.parseDouble(args[first + 2])
+            : DEFAULT_TOLERANCE;
+        Results baseline = readResults(args[first]);
+        Results results = readResults(args[first + 1]);
+        Map<String, Score> current = results.scores;
+
+        int cores = results.cores != -1
+            ? results.cores
+            : Runtime.getRuntime().availableProcessors();
+        if (baseline.cores != -1 && baseline.cores != cores)
+        {
+            String mismatch = "Baseline was recorded on " + baseline.cores
+                + " core(s), these results on " + cores;
+            if (!allowHostMismatch)
+            {
+                System.out.println(mismatch + "; their scores can't be compared."
+                                   + " Record a baseline on this kind of host, or"
+                                   + " pass " + ALLOW_HOST_MISMATCH
+                                   + " to compare them anyway.");
+                System.exit(EXIT_HOST_MISMATCH);
+            }
+            System.out.println("WARNING: " + mismatch + "; comparing anyway");
+        }
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet())
+        {
+            if (baseline.isExcluded(entry.getKey()))
+            {
+                System.out.println("EXCLUDED   " + entry.getKey());
+                continue;
+            }
+            Score expected = baseline.scores.get(entry.getKey());
+            if (expected == null)
+            {
+                System.out.println("NEW        " + entry.getKey());
+                continue;
+            }
+            double slowdown = expected.slowdown(entry.getValue());
+            String verdict = slowdown > tolerance ? "REGRESSED " : "ok        ";
+            if (slowdown > tolerance) regressions++;
+            System.out.println(String.format("%s%s %+.1f%%",
+                                             verdict,
+                                             entry.getKey(),
+                                             slowdown * 100));
+        }
+
+        int missing = 0;
+        for (String key : baseline.scores.keySet())
+        {
+            if (!current.containsKey(key) && !baseline.isExcluded(key))
+            {
+                System.out.println("MISSING    " + key);
+                missing++;
+            }
+        }
+        if (missing != 0)
+        {
+            System.out.println(missing + " baseline benchmark(s) missing from"
+                               + " the results; if they were renamed or"
+                               + " removed, update the baseline");
+        }
+
+        if (regressions != 0)
+        {
+            System.out.println(regressions + " benchmark(s) regressed by more than "
+                               + (tolerance * 100) + "%");
+            System.exit(EXIT_REGRESSED);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonMutableCatalog;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.system.ConcurrentCatalog;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.SimpleCatalog;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Shared symbol table lookups, as made by readers resolving imports, from
+ * many threads at once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class CatalogBenchmark
+{
+    private static final int NAMES = 100;
+    private static final int VERSIONS = 5;
+
+    @State(Scope.Benchmark)
+    public static class CatalogState
+    {
+        @Param({"SIMPLE", "CONCURRENT"})
+        public String catalog;
+
+        IonMutableCatalog tables;
+
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            tables = "SIMPLE".equals(catalog)
+                ? new SimpleCatalog()
+                : new ConcurrentCatalog();
+            IonSystem system = IonSystemBuilder.standard().build();
+            for (int n = 0; n < NAMES; n++)
+            {
+                for (int v = 1; v <= VERSIONS; v++)
+                {
+                    String text = "$ion_shared_symbol_table::{name:\"table" + n
+                        + "\", version:" + v + ", symbols:[\"s" + v + "\"]}";
+                    tables.putTable(system.newSharedSymbolTable(system.newReader(text)));
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Lookups
+    {
+        String[] names = new String[NAMES];
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            for (int n = 0; n < NAMES; n++)
+            {
+                names[n] = "table" + n;
+            }
+            next = (int) (Thread.currentThread().getId() % NAMES);
+        }
+    }
+
+    @Benchmark
+    public SymbolTable getExactVersion(CatalogState state, Lookups lookups)
+    {
+        int n = lookups.next = (lookups.next + 1) % NAMES;
+        return state.tables.getTable(lookups.names[n], 1 + n % VERSIONS);
+    }
+
+    @Benchmark
+    public SymbolTable getMissingVersion(CatalogState state, Lookups lookups)
+    {
+        int n = lookups.next = (lookups.next + 1) % NAMES;
+        return state.tables.getTable(lookups.names[n], VERSIONS + 1);
+    }
+}
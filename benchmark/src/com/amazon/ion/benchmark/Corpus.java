@@ -0,0 +1,288 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Synthetic, deterministic data sets that approximate the shapes of the
+ * production workloads we care about.  Every corpus is generated from a fixed
+ * seed so that results are comparable across runs and machines without
+ * checking large data files into the repository.
+ */
+public enum Corpus
+{
+    /**
+     * Service log records: flat structs of short strings, symbols,
+     * timestamps and small integers.
+     */
+    LOG_RECORDS(20000)
+    {
+        @Override
+        void writeValue(IonWriter writer, Random random, int index)
+            throws IOException
+        {
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("requestId");
+            writer.writeString(Long.toHexString(random.nextLong()));
+            writer.setFieldName("operation");
+            writer.writeSymbol(OPERATIONS[random.nextInt(OPERATIONS.length)]);
+            writer.setFieldName("startTime");
+            writer.writeTimestamp(Timestamp.forMillis(START_MILLIS + index * 137L, 0));
+            writer.setFieldName("latencyMillis");
+            writer.writeInt(random.nextInt(5000));
+            writer.setFieldName("status");
+            writer.writeInt(random.nextInt(10) == 0 ? 500 : 200);
+            writer.setFieldName("marketplace");
+            writer.writeSymbol(MARKETPLACES[random.nextInt(MARKETPLACES.length)]);
+            writer.setFieldName("message");
+            writer.writeString(sentence(random, 4 + random.nextInt(12)));
+            writer.setFieldName("tags");
+            writer.stepIn(IonType.LIST);
+            int tagCount = random.nextInt(4);
+            for (int i = 0; i < tagCount; i++)
+            {
+                writer.writeSymbol(WORDS[random.nextInt(WORDS.length)]);
+            }
+            writer.stepOut();
+            writer.stepOut();
+        }
+    },
+
+    /**
+     * Telemetry and pricing data: long lists of ints, floats and decimals.
+     */
+    NUMERIC_ARRAYS(400)
+    {
+        @Override
+        void writeValue(IonWriter writer, Random random, int index)
+            throws IOException
+        {
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("series");
+            writer.writeInt(index);
+            writer.setFieldName("counters");
+            writer.stepIn(IonType.LIST);
+            for (int i = 0; i < 256; i++)
+            {
+                writer.writeInt(random.nextInt(1 << 20));
+            }
+            writer.stepOut();
+            writer.setFieldName("samples");
+            writer.stepIn(IonType.LIST);
+            for (int i = 0; i < 256; i++)
+            {
+                writer.writeFloat(random.nextGaussian() * 1000);
+            }
+            writer.stepOut();
+            writer.setFieldName("prices");
+            writer.stepIn(IonType.LIST);
+            for (int i = 0; i < 128; i++)
+            {
+                writer.writeDecimal(BigDecimal.valueOf(random.nextInt(100000), 2));
+            }
+            writer.stepOut();
+            writer.setFieldName("big");
+            writer.writeInt(BigInteger.valueOf(random.nextLong()).shiftLeft(8));
+            writer.stepOut();
+        }
+    },
+
+    /**
+     * Deeply nested documents mixing structs, lists and s-expressions.
+     */
+    NESTED(2000)
+    {
+        @Override
+        void writeValue(IonWriter writer, Random random, int index)
+            throws IOException
+        {
+            writeNested(writer, random, 12);
+        }
+
+        private void writeNested(IonWriter writer, Random random, int depth)
+            throws IOException
+        {
+            if (depth == 0)
+            {
+                writer.writeString(WORDS[random.nextInt(WORDS.length)]);
+                return;
+            }
+            switch (depth % 3)
+            {
+                case 0:
+                    writer.stepIn(IonType.STRUCT);
+                    writer.setFieldName("id");
+                    writer.writeInt(random.nextInt());
+                    writer.setFieldName("child");
+                    writeNested(writer, random, depth - 1);
+                    writer.setFieldName("flag");
+                    writer.writeBool(random.nextBoolean());
+                    writer.stepOut();
+                    break;
+                case 1:
+                    writer.stepIn(IonType.LIST);
+                    writeNested(writer, random, depth - 1);
+                    writer.writeNull(IonType.STRING);
+                    writer.stepOut();
+                    break;
+                default:
+                    writer.addTypeAnnotation("node");
+                    writer.stepIn(IonType.SEXP);
+                    writer.writeSymbol("op");
+                    writeNested(writer, random, depth - 1);
+                    writer.stepOut();
+                    break;
+            }
+        }
+    },
+
+    /**
+     * Wide records with hundreds of fields, most of which a typical consumer
+     * never looks at.
+     */
+    WIDE_STRUCTS(200)
+    {
+        @Override
+        void writeValue(IonWriter writer, Random random, int index)
+            throws IOException
+        {
+            writer.stepIn(IonType.STRUCT);
+            for (int i = 0; i < 1000; i++)
+            {
+                writer.setFieldName(FIELD_NAMES[i]);
+                switch (i % 4)
+                {
+                    case 0:
+                        writer.writeInt(random.nextInt());
+                        break;
+                    case 1:
+                        writer.writeString(WORDS[random.nextInt(WORDS.length)]);
+                        break;
+                    case 2:
+                        writer.writeDecimal(BigDecimal.valueOf(random.nextInt(1000000), 3));
+                        break;
+                    default:
+                        writer.writeBool(random.nextBoolean());
+                        break;
+                }
+            }
+            writer.stepOut();
+        }
+    };
+
+    private static final long SEED = 0x10AB1E5EEDL;
+
+    private static final long START_MILLIS = 1262304000000L; // 2010-01-01
+
+    private static final String[] OPERATIONS = {
+        "GetItem", "PutItem", "Query", "Scan", "BatchGetItem", "DeleteItem",
+    };
+
+    private static final String[] MARKETPLACES = {
+        "US", "CA", "MX", "UK", "DE", "FR", "IT", "ES", "JP", "IN", "BR", "AU",
+    };
+
+    private static final String[] WORDS = {
+        "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf",
+        "hotel", "india", "juliett", "kilo", "lima", "mike", "november",
+        "oscar", "papa", "quebec", "romeo", "sierra", "tango", "uniform",
+        "victor", "whiskey", "xray", "yankee", "zulu", "café",
+        "naïve", "日本",
+    };
+
+    private static final String[] FIELD_NAMES = new String[1000];
+    static
+    {
+        for (int i = 0; i < FIELD_NAMES.length; i++)
+        {
+            FIELD_NAMES[i] = "field_" + i;
+        }
+    }
+
+    private final int myValueCount;
+
+    private Corpus(int valueCount)
+    {
+        myValueCount = valueCount;
+    }
+
+    abstract void writeValue(IonWriter writer, Random random, int index)
+        throws IOException;
+
+    private static String sentence(Random random, int words)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++)
+        {
+            if (i > 0)
+            {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes every value of this corpus to the given writer.  The sequence of
+     * values is identical for every call.
+     */
+    public void writeTo(IonWriter writer)
+        throws IOException
+    {
+        Random random = new Random(SEED + ordinal());
+        for (int i = 0; i < myValueCount; i++)
+        {
+            writeValue(writer, random, i);
+        }
+    }
+
+    /**
+     * @return this corpus encoded as Ion binary.
+     */
+    public byte[] toBinary()
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        writeTo(writer);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * @return this corpus encoded as UTF-8 Ion text.
+     */
+    public byte[] toText()
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonTextWriterBuilder.standard().build(out);
+        writeTo(writer);
+        writer.close();
+        return out.toByteArray();
+    }
+}
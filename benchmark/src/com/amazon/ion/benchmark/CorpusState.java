@@ -0,0 +1,58 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Shared per-trial state: one {@link Corpus} in both encodings, plus a
+ * loaded DOM of it.
+ */
+@State(Scope.Benchmark)
+public class CorpusState
+{
+    @Param({"LOG_RECORDS", "NUMERIC_ARRAYS", "NESTED", "WIDE_STRUCTS"})
+    public Corpus corpus;
+
+    public IonSystem system;
+    public IonReaderBuilder readerBuilder;
+    public byte[] binary;
+    public ByteBuffer directBinary;
+    public byte[] text;
+    public IonDatagram datagram;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        system = IonSystemBuilder.standard().build();
+        readerBuilder = IonReaderBuilder.standard().immutable();
+        binary = corpus.toBinary();
+        directBinary = ByteBuffer.allocateDirect(binary.length);
+        directBinary.put(binary).flip();
+        text = corpus.toText();
+        datagram = system.getLoader().load(binary);
+    }
+}
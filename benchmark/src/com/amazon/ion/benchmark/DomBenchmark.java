@@ -0,0 +1,178 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import com.amazon.ion.util.Equivalence;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Costs of the lite DOM: loading, serializing, and comparing with
+ * {@link Equivalence}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DomBenchmark
+{
+    /** A second, independently loaded copy of the corpus. */
+    @State(Scope.Benchmark)
+    public static class Copy
+    {
+        public IonDatagram datagram;
+
+        @Setup(Level.Trial)
+        public void setup(CorpusState state)
+        {
+            datagram = state.system.getLoader().load(state.text);
+        }
+    }
+
+    /** A system that loads the children of binary containers on demand. */
+    @State(Scope.Benchmark)
+    public static class Lazy
+    {
+        public IonSystem system;
+
+        @Setup(Level.Trial)
+        public void setup()
+        {
+            system = IonSystemBuilder.standard()
+                                     .withLazyLoadingEnabled(true)
+                                     .build();
+        }
+    }
+
+    /**
+     * A single large value nested many levels deep, so that the lengths of
+     * the outer containers don't fit the binary writer's preallocation. It
+     * doesn't depend on the corpus.
+     */
+    @State(Scope.Benchmark)
+    public static class DeepValue
+    {
+        public IonValue value;
+
+        @Setup(Level.Trial)
+        public void setup()
+        {
+            value = build(IonSystemBuilder.standard().build(), 9);
+        }
+
+        private static IonValue build(IonSystem system, int depth)
+        {
+            if (depth == 0)
+            {
+                return system.newString("leaf");
+            }
+            IonStruct struct = system.newEmptyStruct();
+            for (int i = 0; i < 4; i++)
+            {
+                IonList list = system.newEmptyList();
+                list.add(system.newInt(depth));
+                list.add(build(system, depth - 1));
+                struct.add("f" + i, list);
+            }
+            return struct;
+        }
+    }
+
+    @Benchmark
+    public IonDatagram loadBinary(CorpusState state)
+    {
+        return state.system.getLoader().load(state.binary);
+    }
+
+    @Benchmark
+    public IonDatagram loadBinaryLazy(CorpusState state, Lazy lazy)
+    {
+        return lazy.system.getLoader().load(state.binary);
+    }
+
+    @Benchmark
+    public IonDatagram loadText(CorpusState state)
+    {
+        return state.system.getLoader().load(state.text);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary(CorpusState state)
+    {
+        return state.datagram.getBytes();
+    }
+
+    @Benchmark
+    public int serializeBinaryWriter(CorpusState state)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(state.binary.length);
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        state.datagram.writeTo(writer);
+        writer.close();
+        return out.size();
+    }
+
+    @Benchmark
+    public int serializeDeepValueBinaryWriter(DeepValue deep)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        deep.value.writeTo(writer);
+        writer.close();
+        return out.size();
+    }
+
+    @Benchmark
+    public int serializeText(CorpusState state)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(state.text.length);
+        IonWriter writer = IonTextWriterBuilder.standard().build(out);
+        state.datagram.writeTo(writer);
+        writer.close();
+        return out.size();
+    }
+
+    @Benchmark
+    public boolean equivalence(CorpusState state, Copy copy)
+    {
+        return Equivalence.ionEquals(state.datagram, copy.datagram);
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.impl._Private_IonTextAppender;
+import com.amazon.ion.impl._Private_IonTextWriterBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Floats and decimals formatted for Ion text.
+ * <p>
+ * The {@code appender} arms compare like with like: {@link
+ * _Private_IonTextAppender}'s current {@code printFloat} and {@code
+ * printDecimal} against a copy of the code they replaced, which formatted
+ * with {@link Double#toString(double)} and the unscaled value's {@link
+ * BigInteger#toString()}, appending through the same appender. The {@code
+ * textWrite} arms add the writer's overhead, and the {@code jdk} arms show
+ * the bare JDK conversions.
+ * <p>
+ * The current {@code printDecimal} reads decimals of up to 18 digits
+ * through {@link BigDecimal#scaleByPowerOfTen(int)} and {@link
+ * BigDecimal#longValue()}, which keep the JDK's compact long, so under
+ * {@code -prof gc} only the wider decimals still show a {@link BigInteger}
+ * and its digit {@link String} per value. The legacy arm's {@link
+ * BigDecimal#unscaledValue()} allocates a {@link BigInteger} for each
+ * decimal outside [-16, 16].
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NumberFormatBenchmark
+{
+    private static final int COUNT = 10000;
+
+    private static final IonTextWriterBuilder TEXT =
+        IonTextWriterBuilder.standard().immutable();
+
+    private static final _Private_IonTextWriterBuilder OPTIONS =
+        _Private_IonTextWriterBuilder.standard();
+
+    @State(Scope.Benchmark)
+    public static class Numbers
+    {
+        /**
+         * {@code SAMPLES} are metrics-like doubles, with 16 or 17 digits;
+         * {@code PRICES} have two decimal places; {@code BITS} covers the
+         * whole range of doubles.
+         */
+        @Param({"SAMPLES", "PRICES", "BITS"})
+        public String kind;
+
+        double[] doubles = new double[COUNT];
+        BigDecimal[] decimals = new BigDecimal[COUNT];
+        StringBuilder out = new StringBuilder(COUNT * 32);
+
+        @Setup
+        public void setUp()
+        {
+            Random random = new Random(42);
+            for (int i = 0; i < COUNT; i++)
+            {
+                double d;
+                if ("SAMPLES".equals(kind))
+                {
+                    d = random.nextGaussian() * 1000;
+                }
+                else if ("PRICES".equals(kind))
+                {
+                    d = random.nextInt(100000) / 100d;
+                }
+                else
+                {
+                    do
+                    {
+                        d = Double.longBitsToDouble(random.nextLong());
+                    }
+                    while (Double.isNaN(d) || Double.isInfinite(d));
+                }
+                doubles[i] = d;
+                decimals[i] = BigDecimal.valueOf(d);
+            }
+        }
+    }
+
+    @Benchmark
+    public int jdkDoubleToString(Numbers numbers)
+    {
+        StringBuilder out = numbers.out;
+        out.setLength(0);
+        for (double d : numbers.doubles)
+        {
+            out.append(Double.toString(d)).append(' ');
+        }
+        return out.length();
+    }
+
+    @Benchmark
+    public int textWriteFloats(Numbers numbers)
+        throws IOException
+    {
+        StringBuilder out = numbers.out;
+        out.setLength(0);
+        IonWriter writer = TEXT.build(out);
+        for (double d : numbers.doubles)
+        {
+            writer.writeFloat(d);
+        }
+        writer.close();
+        return out.length();
+    }
+
+    @Benchmark
+    public int jdkUnscaledValueToString(Numbers numbers)
+    {
+        StringBuilder out = numbers.out;
+        out.setLength(0);
+        for (BigDecimal d : numbers.decimals)
+        {
+            out.append(d.unscaledValue().toString()).append(' ');
+        }
+        return out.length();
+    }
+
+    @Benchmark
+    public int textWriteDecimals(Numbers numbers)
+        throws IOException
+    {
+        StringBuilder out = numbers.out;
+        out.setLength(0);
+        IonWriter writer = TEXT.build(out);
+        for (BigDecimal d : numbers.decimals)
+        {
+            writer.writeDecimal(d);
+        }
+        writer.close();
+        return out.length();
+    }
+
+    @Benchmark
+    public int appenderPrintFloats(Numbers numbers)
+        throws IOException
+    {
+        StringBuilder out = numbers.out;
+        out.setLength(0);
+        _Private_IonTextAppender appender = _Private_IonTextAppender.forAppendable(out);
+        for (double d : numbers.doubles)
+        {
+            appender.printFloat(d);
+            appender.appendAscii(' ');
+        }
+        appender.flush();
+        return out.length();
+    }
+
+    @Benchmark
+    public int appenderPrintFloatsLegacy(Numbers numbers)
+        throws IOException
+    {
+        StringBuilder out = numbers.out;
+        out.setLength(0);
+        _Private_IonTextAppender appender = _Private_IonTextAppender.forAppendable(out);
+        for (double d : numbers.doubles)
+        {
+            legacyPrintFloat(appender, d);
+            appender.appendAscii(' ');
+        }
+        appender.flush();
+        return out.length();
+    }
+
+    @Benchmark
+    public int appenderPrintDecimals(Numbers numbers)
+        throws IOException
+    {
+        StringBuilder out = numbers.out;
+        out.setLength(0);
+        _Private_IonTextAppender appender = _Private_IonTextAppender.forAppendable(out);
+        for (BigDecimal d : numbers.decimals)
+        {
+            appender.printDecimal(OPTIONS, d);
+            appender.appendAscii(' ');
+        }
+        appender.flush();
+        return out.length();
+    }
+
+    @Benchmark
+    public int appenderPrintDecimalsLegacy(Numbers numbers)
+        throws IOException
+    {
+        StringBuilder out = numbers.out;
+        out.setLength(0);
+        _Private_IonTextAppender appender = _Private_IonTextAppender.forAppendable(out);
+        for (BigDecimal d : numbers.decimals)
+        {
+            legacyPrintDecimal(appender, d);
+            appender.appendAscii(' ');
+        }
+        appender.flush();
+        return out.length();
+    }
+
+    /** The appender's {@code printFloat} for finite, non-zero values, before DoubleFormatter. */
+    private static void legacyPrintFloat(_Private_IonTextAppender appender,
+                                         double value)
+        throws IOException
+    {
+        // Double.toString() forces a digit after the decimal point.
+        // Remove it when it's not meaningful.
+        String str = Double.toString(value);
+        if (str.endsWith(".0"))
+        {
+            appender.appendAscii(str, 0, str.length() - 2);
+            appender.appendAscii("e0");
+        }
+        else
+        {
+            appender.appendAscii(str);
+            if (str.indexOf('E') == -1)
+            {
+                appender.appendAscii("e0");
+            }
+        }
+    }
+
+    /**
+     * The appender's {@code printDecimal} before it wrote digits itself,
+     * for values that aren't Ion's negative zero and with the default options.
+     */
+    private static void legacyPrintDecimal(_Private_IonTextAppender appender,
+                                           BigDecimal value)
+        throws IOException
+    {
+        BigInteger unscaled = value.unscaledValue();
+        if (value.signum() < 0)
+        {
+            appender.appendAscii('-');
+            unscaled = unscaled.negate();
+        }
+
+        final String unscaledText = unscaled.toString();
+        final int significantDigits = unscaledText.length();
+
+        final int scale = value.scale();
+        final int exponent = -scale;
+
+        if (exponent == 0)
+        {
+            appender.appendAscii(unscaledText);
+            appender.appendAscii('.');
+        }
+        else if (exponent < 0)
+        {
+            final int adjustedExponent = significantDigits - 1 - scale;
+            if (adjustedExponent >= 0)
+            {
+                int wholeDigits = significantDigits - scale;
+                appender.appendAscii(unscaledText, 0, wholeDigits);
+                appender.appendAscii('.');
+                appender.appendAscii(unscaledText, wholeDigits, significantDigits);
+            }
+            else if (adjustedExponent >= -6)
+            {
+                appender.appendAscii("0.");
+                appender.appendAscii("00000", 0, scale - significantDigits);
+                appender.appendAscii(unscaledText);
+            }
+            else
+            {
+                appender.appendAscii(unscaledText);
+                appender.appendAscii("d-");
+                appender.appendAscii(Integer.toString(scale));
+            }
+        }
+        else
+        {
+            appender.appendAscii(unscaledText);
+            appender.appendAscii('d');
+            appender.appendAscii(Integer.toString(exponent));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.util.IonPathExtractor;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Extraction of two fields from each log record, by {@link IonPathExtractor}
+ * and by the equivalent hand-written reader loop, over the LOG_RECORDS
+ * corpus (the only one with those fields).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathExtractionBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class LogRecordsState
+    {
+        IonReaderBuilder readerBuilder;
+        byte[] binary;
+
+        @Setup
+        public void setup()
+            throws IOException
+        {
+            readerBuilder = IonReaderBuilder.standard().immutable();
+            binary = Corpus.LOG_RECORDS.toBinary();
+        }
+    }
+
+    @Benchmark
+    public void binaryPathExtractor(LogRecordsState state, final Blackhole sink)
+        throws IOException
+    {
+        IonPathExtractor extractor = IonPathExtractor.builder()
+            .withSearchPath("operation", new IonPathExtractor.Callback()
+            {
+                public void onMatch(IonReader reader)
+                {
+                    sink.consume(reader.stringValue());
+                }
+            })
+            .withSearchPath("latencyMillis", new IonPathExtractor.Callback()
+            {
+                public void onMatch(IonReader reader)
+                {
+                    sink.consume(reader.longValue());
+                }
+            })
+            .build();
+        IonReader reader = state.readerBuilder.build(state.binary);
+        extractor.match(reader);
+        reader.close();
+    }
+
+    @Benchmark
+    public void binaryHandWritten(LogRecordsState state, Blackhole sink)
+        throws IOException
+    {
+        IonReader reader = state.readerBuilder.build(state.binary);
+        while (reader.next() != null)
+        {
+            if (reader.getType() != IonType.STRUCT) continue;
+            reader.stepIn();
+            while (reader.next() != null)
+            {
+                String name = reader.getFieldName();
+                if ("operation".equals(name))
+                {
+                    sink.consume(reader.stringValue());
+                }
+                else if ("latencyMillis".equals(name))
+                {
+                    sink.consume(reader.longValue());
+                }
+            }
+            reader.stepOut();
+        }
+        reader.close();
+    }
+}
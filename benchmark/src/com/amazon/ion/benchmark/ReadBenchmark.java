@@ -0,0 +1,98 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Streaming read throughput of the binary and text readers, both for full
+ * traversals and for top-level skip scans.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBenchmark
+{
+    @Benchmark
+    public void binaryFullyReadBytes(CorpusState state, Blackhole sink)
+        throws IOException
+    {
+        IonReader reader = state.readerBuilder.build(state.binary);
+        Traversal.fullyRead(reader, sink);
+        reader.close();
+    }
+
+    @Benchmark
+    public void binaryFullyReadStream(CorpusState state, Blackhole sink)
+        throws IOException
+    {
+        IonReader reader =
+            state.readerBuilder.build(new ByteArrayInputStream(state.binary));
+        Traversal.fullyRead(reader, sink);
+        reader.close();
+    }
+
+    @Benchmark
+    public void binaryFullyReadDirectBuffer(CorpusState state, Blackhole sink)
+        throws IOException
+    {
+        IonReader reader = state.readerBuilder.build(state.directBinary);
+        Traversal.fullyRead(reader, sink);
+        reader.close();
+    }
+
+    @Benchmark
+    public int binarySkipScan(CorpusState state)
+        throws IOException
+    {
+        IonReader reader = state.readerBuilder.build(state.binary);
+        int count = Traversal.skipScan(reader);
+        reader.close();
+        return count;
+    }
+
+    @Benchmark
+    public void textFullyReadBytes(CorpusState state, Blackhole sink)
+        throws IOException
+    {
+        IonReader reader = state.readerBuilder.build(state.text);
+        Traversal.fullyRead(reader, sink);
+        reader.close();
+    }
+
+    @Benchmark
+    public int textSkipScan(CorpusState state)
+        throws IOException
+    {
+        IonReader reader = state.readerBuilder.build(state.text);
+        int count = Traversal.skipScan(reader);
+        reader.close();
+        return count;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.util.IonSegments;
+import com.amazon.ion.util.IonSegments.Segment;
+import com.amazon.ion.util.IonSegments.SegmentProcessor;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Full traversals of the binary corpus read sequentially and as segments
+ * spread across all processors, plus the cost of the splitting pass itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SegmentedReadBenchmark
+{
+    private static final int TARGET_SEGMENT_SIZE = 256 * 1024;
+
+    @State(Scope.Benchmark)
+    public static class SegmentState
+    {
+        public ExecutorService executor;
+        public List<Segment> segments;
+
+        @Setup
+        public void setup(CorpusState corpus)
+        {
+            executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            segments = IonSegments.split(corpus.readerBuilder, corpus.binary, 0,
+                                         corpus.binary.length, TARGET_SEGMENT_SIZE);
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void binaryFullyReadSequential(CorpusState state, Blackhole sink)
+        throws IOException
+    {
+        IonReader reader = state.readerBuilder.build(state.binary);
+        Traversal.fullyRead(reader, sink);
+        reader.close();
+    }
+
+    @Benchmark
+    public void binaryFullyReadSegmented(SegmentState state, final Blackhole sink)
+    {
+        // Blackhole isn't meant to be shared, but racing on it only weakens
+        // what it guards against; the traversal work is the same.
+        IonSegments.process(state.segments, state.executor, new SegmentProcessor<Object>()
+        {
+            public Object process(Segment segment, IonReader reader)
+            {
+                Traversal.fullyRead(reader, sink);
+                return null;
+            }
+        });
+    }
+
+    @Benchmark
+    public List<Segment> binarySplit(CorpusState state)
+    {
+        return IonSegments.split(state.readerBuilder, state.binary, 0,
+                                 state.binary.length, TARGET_SEGMENT_SIZE);
+    }
+}
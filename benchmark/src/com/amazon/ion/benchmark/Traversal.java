@@ -0,0 +1,106 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Reader traversals shared by the read benchmarks.
+ */
+final class Traversal
+{
+    private Traversal() {}
+
+    /**
+     * Visits every value in the current sequence, recursively, materializing
+     * each scalar through the accessor an application would typically use.
+     */
+    static void fullyRead(IonReader reader, Blackhole sink)
+    {
+        IonType type;
+        while ((type = reader.next()) != null)
+        {
+            if (reader.isInStruct())
+            {
+                sink.consume(reader.getFieldName());
+            }
+            sink.consume(reader.getTypeAnnotations());
+            if (reader.isNullValue())
+            {
+                continue;
+            }
+            switch (type)
+            {
+                case BOOL:
+                    sink.consume(reader.booleanValue());
+                    break;
+                case INT:
+                    switch (reader.getIntegerSize())
+                    {
+                        case BIG_INTEGER:
+                            sink.consume(reader.bigIntegerValue());
+                            break;
+                        default:
+                            sink.consume(reader.longValue());
+                            break;
+                    }
+                    break;
+                case FLOAT:
+                    sink.consume(reader.doubleValue());
+                    break;
+                case DECIMAL:
+                    sink.consume(reader.decimalValue());
+                    break;
+                case TIMESTAMP:
+                    sink.consume(reader.timestampValue());
+                    break;
+                case SYMBOL:
+                case STRING:
+                    sink.consume(reader.stringValue());
+                    break;
+                case CLOB:
+                case BLOB:
+                    sink.consume(reader.newBytes());
+                    break;
+                case LIST:
+                case SEXP:
+                case STRUCT:
+                    reader.stepIn();
+                    fullyRead(reader, sink);
+                    reader.stepOut();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Visits only the top-level values, leaving the reader to skip over
+     * container contents.
+     */
+    static int skipScan(IonReader reader)
+    {
+        int count = 0;
+        while (reader.next() != null)
+        {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.benchmark;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Streaming write throughput of the managed binary writer and the text
+ * writer, fed either by the application (the corpus generator) or by a
+ * reader over existing data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBenchmark
+{
+    private static final IonBinaryWriterBuilder BINARY =
+        IonBinaryWriterBuilder.standard().immutable();
+
+    private static final IonBinaryWriterBuilder BINARY_THREAD_LOCAL_POOL =
+        IonBinaryWriterBuilder.standard()
+                              .withThreadLocalBlockPool(64L * 1024 * 1024, 60 * 1000)
+                              .immutable();
+
+    private static final IonBinaryWriterBuilder BINARY_DIRECT_POOL =
+        IonBinaryWriterBuilder.standard()
+                              .withDirectBlockPool(32L * 1024 * 1024)
+                              .immutable();
+
+    private static final IonTextWriterBuilder TEXT =
+        IonTextWriterBuilder.standard().immutable();
+
+    @Benchmark
+    public int binaryWrite(CorpusState state)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(state.binary.length);
+        IonWriter writer = BINARY.build(out);
+        state.corpus.writeTo(writer);
+        writer.close();
+        return out.size();
+    }
+
+    /**
+     * A scratch file written from the start by each invocation. Writers are
+     * given a view of its channel that stays open when they close it.
+     */
+    @State(Scope.Thread)
+    public static class FileChannelState
+    {
+        File file;
+        RandomAccessFile raf;
+        FileChannel channel;
+        GatheringByteChannel view;
+
+        @Setup
+        public void setup() throws IOException
+        {
+            file = File.createTempFile("WriteBenchmark", ".10n");
+            raf = new RandomAccessFile(file, "rw");
+            channel = raf.getChannel();
+            view = new GatheringByteChannel()
+            {
+                public long write(ByteBuffer[] srcs, int offset, int length)
+                    throws IOException
+                {
+                    return channel.write(srcs, offset, length);
+                }
+
+                public long write(ByteBuffer[] srcs) throws IOException
+                {
+                    return channel.write(srcs);
+                }
+
+                public int write(ByteBuffer src) throws IOException
+                {
+                    return channel.write(src);
+                }
+
+                public boolean isOpen()
+                {
+                    return channel.isOpen();
+                }
+
+                public void close() {}
+            };
+        }
+
+        GatheringByteChannel rewind() throws IOException
+        {
+            channel.position(0);
+            return view;
+        }
+
+        @TearDown
+        public void tearDown() throws IOException
+        {
+            raf.close();
+            file.delete();
+        }
+    }
+
+    /** Writes to a file channel, handing the writer's blocks to it. */
+    @Benchmark
+    public long binaryWriteToChannel(CorpusState state, FileChannelState file)
+        throws IOException
+    {
+        IonWriter writer = BINARY.build(file.rewind());
+        state.corpus.writeTo(writer);
+        writer.close();
+        return file.channel.position();
+    }
+
+    /** Writes to a file channel, handing it off-heap blocks. */
+    @Benchmark
+    public long binaryWriteToChannelDirect(CorpusState state,
+                                           FileChannelState file)
+        throws IOException
+    {
+        IonWriter writer = BINARY_DIRECT_POOL.build(file.rewind());
+        state.corpus.writeTo(writer);
+        writer.close();
+        return file.channel.position();
+    }
+
+    /** Writes to the same file channel through a stream, for comparison. */
+    @Benchmark
+    public long binaryWriteToChannelStream(CorpusState state,
+                                           FileChannelState file)
+        throws IOException
+    {
+        IonWriter writer = BINARY.build(Channels.newOutputStream(file.rewind()));
+        state.corpus.writeTo(writer);
+        writer.close();
+        return file.channel.position();
+    }
+
+    @Benchmark
+    public int binaryWriteFromReader(CorpusState state)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(state.binary.length);
+        IonWriter writer = BINARY.build(out);
+        IonReader reader = state.readerBuilder.build(state.binary);
+        writer.writeValues(reader);
+        writer.close();
+        reader.close();
+        return out.size();
+    }
+
+    private static int writeSmallValue(IonBinaryWriterBuilder builder)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        IonWriter writer = builder.build(out);
+        writer.writeString("small");
+        writer.close();
+        return out.size();
+    }
+
+    /**
+     * Many threads each building a writer per small value, which is
+     * dominated by taking blocks from and returning them to the pool.
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int binaryWriteSmallConcurrently()
+        throws IOException
+    {
+        return writeSmallValue(BINARY);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int binaryWriteSmallConcurrentlyThreadLocalPool()
+        throws IOException
+    {
+        return writeSmallValue(BINARY_THREAD_LOCAL_POOL);
+    }
+
+    /**
+     * As {@link #binaryWriteSmallConcurrently()}, but with a fixed eight
+     * threads, so the pools are contended even where {@link Threads#MAX}
+     * would be one (on a single-core host the threads are time-sliced, so
+     * the contention is real but the parallelism isn't).
+     */
+    @Benchmark
+    @Threads(8)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int binaryWriteSmall8Threads()
+        throws IOException
+    {
+        return writeSmallValue(BINARY);
+    }
+
+    @Benchmark
+    @Threads(8)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int binaryWriteSmall8ThreadsThreadLocalPool()
+        throws IOException
+    {
+        return writeSmallValue(BINARY_THREAD_LOCAL_POOL);
+    }
+
+    @Benchmark
+    public int textWrite(CorpusState state)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(state.text.length);
+        IonWriter writer = TEXT.build(out);
+        state.corpus.writeTo(writer);
+        writer.close();
+        return out.size();
+    }
+
+    @Benchmark
+    public int textWriteFromReader(CorpusState state)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(state.text.length);
+        IonWriter writer = TEXT.build(out);
+        IonReader reader = state.readerBuilder.build(state.binary);
+        writer.writeValues(reader);
+        writer.close();
+        reader.close();
+        return out.size();
+    }
+}
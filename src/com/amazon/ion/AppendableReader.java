@@ -0,0 +1,92 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link IonReader} facet for readers whose input is handed to them by
+ * the caller as it arrives, rather than pulled from a source.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * Appended bytes are buffered until they complete a top-level value. Until
+ * then, {@link IonReader#next() next()} returns null at the top level and
+ * {@link #isAwaitingData()} returns true; once more bytes have been
+ * appended, {@code next()} may be called again and reading resumes where it
+ * left off. Values within a container are only read once the whole
+ * top-level value has been buffered, so they're never incomplete. Once the
+ * source of the bytes has ended, call {@link #finishInput()}, after which a
+ * top-level null from {@code next()} means the end of the input. Closing
+ * the reader throws {@link UnexpectedEofException} if a top-level value is
+ * incomplete.
+ * <p>
+ * Only Ion binary data, starting with the binary version marker, can be
+ * appended.
+ *
+ * @see com.amazon.ion.system.IonReaderBuilder#buildIncremental()
+ */
+public interface AppendableReader
+{
+    /**
+     * Appends bytes to the reader's input. The bytes are copied, so the
+     * array may be reused once this method returns.
+     *
+     * @param bytes the array holding the bytes.
+     * @param offset the position in {@code bytes} of the first byte.
+     * @param length the number of bytes to append.
+     *
+     * @throws IonException if the input isn't Ion binary data.
+     * @throws IllegalStateException if {@link #finishInput()} has been called.
+     */
+    public void appendBytes(byte[] bytes, int offset, int length);
+
+
+    /**
+     * Appends the remaining bytes of a buffer to the reader's input, leaving
+     * the buffer's position at its limit. The bytes are copied, so the
+     * buffer may be reused once this method returns.
+     *
+     * @param bytes the buffer holding the bytes.
+     *
+     * @throws IonException if the input isn't Ion binary data.
+     * @throws IllegalStateException if {@link #finishInput()} has been called.
+     */
+    public void appendBytes(ByteBuffer bytes);
+
+
+    /**
+     * Declares that no more bytes will be appended. Afterward,
+     * {@link IonReader#next() next()} returns null at the top level only at
+     * the end of the input, and throws {@link UnexpectedEofException} if the
+     * input ended part-way through a top-level value.
+     */
+    public void finishInput();
+
+
+    /**
+     * Indicates whether the reader's last call to
+     * {@link IonReader#next() next()} returned null because the next
+     * top-level value hasn't completely arrived, rather than at the end of a
+     * container or of the input. This is always false once
+     * {@link #finishInput()} has been called.
+     *
+     * @return true if more bytes must be appended before the next top-level
+     * value can be read.
+     */
+    public boolean isAwaitingData();
+}
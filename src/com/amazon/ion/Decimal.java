@@ -258,6 +258,15 @@ public class Decimal
         return new Decimal(val, mc);
     }
 
+    /**
+     * Returns a decimal value equal to {@code unscaledVal * 10^-scale}.
+     * This is never a negative zero.
+     */
+    public static Decimal valueOf(long unscaledVal, int scale)
+    {
+        return new Decimal(BigInteger.valueOf(unscaledVal), scale);
+    }
+
     public static Decimal valueOf(double val)
     {
         if (Double.compare(val, -0d) == 0)
@@ -299,6 +308,21 @@ public class Decimal
         return ibd;
     }
 
+    /**
+     * Returns a decimal parsed from a range of characters, as per
+     * {@link #valueOf(String)}, without creating a String.
+     */
+    public static Decimal valueOf(char[] in, int offset, int len)
+    {
+        boolean negative = (len > 0 && in[offset] == '-');
+        Decimal ibd = new Decimal(in, offset, len);
+        if (negative && ibd.signum() == 0)
+        {
+            ibd = new NegativeZero(ibd.scale());
+        }
+        return ibd;
+    }
+
     public static Decimal valueOf(String val, MathContext mc)
     {
         boolean negative = val.startsWith("-");
@@ -370,7 +394,6 @@ public class Decimal
     }
 
 
-    // TODO create static valueOf to check for -0
     private Decimal(char[] in, int offset, int len)
     {
         super(in, offset, len);
@@ -92,6 +92,16 @@ import java.util.Iterator;
  * It allows the user to reposition the reader to a {@link Span} over the
  * same reader instance or another reader with the same source.
  *
+ * <h3>The {@link PrimitiveArrayReader} Facet</h3>
+ * This facet is available on readers of Ion binary data.
+ * It reads runs of ints, floats, or bools into primitive arrays, decoding
+ * the values within a container without a {@link #next()} call per value.
+ *
+ * <h3>The {@link AppendableReader} Facet</h3>
+ * This facet is available on readers created by
+ * {@link com.amazon.ion.system.IonReaderBuilder#buildIncremental()}.
+ * It hands the reader Ion binary data as it arrives.
+ *
  * <h2>Span Facets</h2>
  * Readers that support the {@link SpanProvider} facet vend {@link Span}s that
  * are also faceted.
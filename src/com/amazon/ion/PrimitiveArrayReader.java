@@ -0,0 +1,93 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+/**
+ * An {@link IonReader} facet that reads runs of consecutive scalar values
+ * into primitive arrays, decoding them in bulk rather than through a call to
+ * {@link IonReader#next() next()} and a value method for each one.
+ * <p>
+ * <b>WARNING:</b> This interface should not be implemented or extended by
+ * code outside of this library.
+ * <p>
+ * Each method reads forward from the reader's current position, consuming
+ * values as {@code next()} would, until it has read {@code length} values
+ * or it reaches a value that it can't store. If all {@code length} values
+ * were read, the reader is left on the last of them. Otherwise each value's
+ * type is checked before the reader steps onto it, so the value that ended
+ * the run is left unread: the next call to {@link IonReader#next() next()}
+ * returns it (or null at the end of the container or stream), and the
+ * caller can handle it through the {@link IonReader} API.
+ * <p>
+ * Values are stored without their annotations or field names, so rather
+ * than losing them, the methods throw {@link IonException} on reaching an
+ * annotated value of the array's type, which is left unread, and
+ * {@link IllegalStateException} if the reader is in a struct.
+ * <p>
+ * The usual way to read a list of numbers is to step into it and call one
+ * of these methods until it returns less than the requested length.
+ *
+ * @see com.amazon.ion.util.IonStreamUtils#readLongs
+ */
+public interface PrimitiveArrayReader
+{
+    /**
+     * Reads consecutive non-null int values that fit in a {@code long},
+     * as if by {@link IonReader#longValue()}.
+     *
+     * @param dst the array that receives the values.
+     * @param offset the position in {@code dst} of the first value.
+     * @param length the maximum number of values to read.
+     *
+     * @return the number of values read, between zero and {@code length}.
+     *
+     * @throws IllegalArgumentException if {@code offset} and {@code length}
+     * don't describe a range within {@code dst}.
+     */
+    public int readLongs(long[] dst, int offset, int length);
+
+
+    /**
+     * Reads consecutive non-null float values, as if by
+     * {@link IonReader#doubleValue()}.
+     *
+     * @param dst the array that receives the values.
+     * @param offset the position in {@code dst} of the first value.
+     * @param length the maximum number of values to read.
+     *
+     * @return the number of values read, between zero and {@code length}.
+     *
+     * @throws IllegalArgumentException if {@code offset} and {@code length}
+     * don't describe a range within {@code dst}.
+     */
+    public int readDoubles(double[] dst, int offset, int length);
+
+
+    /**
+     * Reads consecutive non-null bool values, as if by
+     * {@link IonReader#booleanValue()}.
+     *
+     * @param dst the array that receives the values.
+     * @param offset the position in {@code dst} of the first value.
+     * @param length the maximum number of values to read.
+     *
+     * @return the number of values read, between zero and {@code length}.
+     *
+     * @throws IllegalArgumentException if {@code offset} and {@code length}
+     * don't describe a range within {@code dst}.
+     */
+    public int readBooleans(boolean[] dst, int offset, int length);
+}
@@ -186,12 +186,161 @@ public final class Timestamp
     private byte        _second;
     private BigDecimal  _fraction;  // fractional seconds, must be within range [0, 1)
 
+    /**
+     * Fractional seconds of up to {@link #MAX_COMPACT_FRACTION_DIGITS}
+     * digits are held here instead, as a count of
+     * 10<sup>-_fractionScale</sup> seconds, whenever _fractionScale is
+     * non-zero. In that case {@link #_fraction} is only a cache of the same
+     * value, created by {@link #fraction()} when first needed.
+     */
+    private int         _fractionDigits;
+    private byte        _fractionScale;
+
     /**
      * Minutes offset from UTC; zero means UTC proper,
      * <code>null</code> means that the offset is unknown.
      */
     private Integer     _offset;
 
+    private static final int MAX_COMPACT_FRACTION_DIGITS = 9;
+
+    private static final int[] POWERS_OF_TEN = {
+        1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000,
+        1000000000
+    };
+
+    private static final int MAX_OFFSET_MINUTES = 23 * 60 + 59;
+
+    /**
+     * Every valid local offset, boxed once so that parsing doesn't allocate
+     * them.
+     */
+    private static final Integer[] OFFSETS =
+        new Integer[2 * MAX_OFFSET_MINUTES + 1];
+    static
+    {
+        for (int i = 0; i < OFFSETS.length; i++)
+        {
+            OFFSETS[i] = Integer.valueOf(i - MAX_OFFSET_MINUTES);
+        }
+    }
+
+    private static Integer offsetOf(int minutes)
+    {
+        if (minutes < -MAX_OFFSET_MINUTES || minutes > MAX_OFFSET_MINUTES)
+        {
+            return Integer.valueOf(minutes);
+        }
+        return OFFSETS[minutes + MAX_OFFSET_MINUTES];
+    }
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * From this year on, {@link Date} uses the Gregorian calendar, and field
+     * values can be converted to and from points in time by arithmetic.
+     */
+    private static final int FIRST_GREGORIAN_YEAR = 1583;
+
+    private static final long FIRST_GREGORIAN_MILLIS =
+        epoch_day(FIRST_GREGORIAN_YEAR, 1, 1) * MILLIS_PER_DAY;
+
+    /**
+     * Returns the number of days from 1970-01-01 to a date in the proleptic
+     * Gregorian calendar.
+     *
+     * @see "Howard Hinnant, chrono-Compatible Low-Level Date Algorithms"
+     */
+    private static long epoch_day(int year, int month, int day)
+    {
+        int y = (month <= 2) ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * ((month + 9) % 12) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100
+            + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Returns the fractional seconds, creating the BigDecimal from the
+     * compact form on first use.
+     */
+    private BigDecimal fraction()
+    {
+        BigDecimal fraction = _fraction;
+        if (fraction == null && _fractionScale != 0)
+        {
+            fraction = BigDecimal.valueOf(_fractionDigits, _fractionScale);
+            _fraction = fraction;
+        }
+        return fraction;
+    }
+
+    private boolean hasFraction()
+    {
+        return _fraction != null || _fractionScale != 0;
+    }
+
+    /**
+     * Hashes the fractional seconds by their digits and scale, so that equal
+     * fractions hash alike whether or not they're in compact form, without
+     * creating a BigDecimal for the compact form.
+     */
+    private int fractionHashCode()
+    {
+        if (_fractionScale != 0)
+        {
+            return 31 * _fractionDigits + _fractionScale;
+        }
+        BigDecimal fraction = _fraction;
+        if (fraction == null)
+        {
+            return 0;
+        }
+        int scale = fraction.scale();
+        if (scale > 0 && scale <= MAX_COMPACT_FRACTION_DIGITS)
+        {
+            // The fraction is less than one, so its digits fit in an int.
+            return 31 * fraction.unscaledValue().intValue() + scale;
+        }
+        return fraction.hashCode();
+    }
+
+    /**
+     * Sets compact fractional seconds of {@code digits * 10^-scale}.
+     * Must only be called during construction due to timestamp immutability.
+     */
+    private void set_fraction(int digits, int scale)
+    {
+        assert scale > 0 && scale <= MAX_COMPACT_FRACTION_DIGITS;
+        assert digits >= 0 && digits < POWERS_OF_TEN[scale];
+        _fraction = null;
+        _fractionDigits = digits;
+        _fractionScale = (byte) scale;
+    }
+
+    /**
+     * Sets the fractional seconds, replacing any compact form.
+     * Must only be called during construction due to timestamp immutability.
+     */
+    private void set_fraction(BigDecimal fraction)
+    {
+        _fraction = fraction;
+        _fractionScale = 0;
+    }
+
+    /**
+     * Gives this new Timestamp the fractional seconds of another.
+     * Must only be called during construction due to timestamp immutability.
+     */
+    private void copy_fraction(Timestamp source)
+    {
+        _fraction = source._fraction;
+        _fractionDigits = source._fractionDigits;
+        _fractionScale = source._fractionScale;
+    }
+
                                                       //   jan, feb, mar, apr, may, jun, jul, aug, sep, oct, nov, dec
                                                       // the first 0 is to make these arrays 1 based (since month values are 1-12)
     private static final int[] LEAP_DAYS_IN_MONTH   = { 0,  31,  29,  31,  30,  31,  30,  31,  31,  30,  31,  30,  31 };
@@ -313,6 +462,11 @@ public final class Timestamp
             throw new IllegalArgumentException("year is less than 1");
         }
 
+        if (millis >= FIRST_GREGORIAN_MILLIS && millis < MAXIMUM_TIMESTAMP_IN_MILLIS) {
+            set_fields_from_gregorian_millis(millis);
+            return;
+        }
+
         Date date = new Date(millis);
 
         // The Date getters return values in the Date's time zone (i.e. the system time zone).
@@ -346,6 +500,39 @@ public final class Timestamp
         this._second  = checkAndCastSecond(_second);
     }
 
+    /**
+     * Sets the UTC fields for a point in time within the Gregorian calendar,
+     * without the time zone handling that {@link Date} requires.
+     *
+     * @see #epoch_day(int, int, int)
+     */
+    private void set_fields_from_gregorian_millis(long millis)
+    {
+        long days = millis / MILLIS_PER_DAY;
+        int millisOfDay = (int) (millis - days * MILLIS_PER_DAY);
+        if (millisOfDay < 0) {
+            days--;
+            millisOfDay += MILLIS_PER_DAY;
+        }
+        int secondOfDay = millisOfDay / 1000;
+        _hour   = (byte) (secondOfDay / 3600);
+        _minute = (byte) (secondOfDay / 60 % 60);
+        _second = (byte) (secondOfDay % 60);
+
+        // The inverse of epoch_day(); eras are 400 year cycles from 0000-03-01.
+        long z = days + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524
+                         - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthFromMarch = (5 * dayOfYear + 2) / 153;
+        int month = monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9;
+        _day   = (byte) (dayOfYear - (153 * monthFromMarch + 2) / 5 + 1);
+        _month = (byte) month;
+        _year  = (short) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+    }
+
     /**
      * Copies data from a {@link Calendar} into this timestamp.
      * Must only be called during construction due to timestamp immutabliity.
@@ -368,9 +555,7 @@ public final class Timestamp
             case SECOND:
                 this._second = checkAndCastSecond(cal.get(Calendar.SECOND));
                 if (calendarHasMilliseconds) {
-                    BigDecimal millis = BigDecimal.valueOf(cal.get(Calendar.MILLISECOND));
-                    this._fraction = millis.movePointLeft(3); // convert to fraction
-                    checkFraction(precision, this._fraction);
+                    set_fraction(cal.get(Calendar.MILLISECOND), 3);
                 }
             case MINUTE:
             {
@@ -646,6 +831,39 @@ public final class Timestamp
                              offset, APPLY_OFFSET_NO);
     }
 
+    /**
+     * Like {@link #createFromUtcFields(Precision, int, int, int, int, int, int, BigDecimal, Integer)},
+     * with fractional seconds of
+     * {@code fractionCoefficient * 10^-fractionScale}, which are held in
+     * compact form, without a BigDecimal, whenever they fit.
+     *
+     * @see _Private_TimestampTrampoline
+     */
+    static Timestamp
+    createFromUtcFields(Precision p, int zyear, int zmonth, int zday,
+                        int zhour, int zminute, int zsecond,
+                        long fractionCoefficient, int fractionScale,
+                        Integer offset)
+    {
+        if (p.includes(Precision.SECOND)
+            && fractionScale > 0
+            && fractionScale <= MAX_COMPACT_FRACTION_DIGITS
+            && fractionCoefficient >= 0
+            && fractionCoefficient < POWERS_OF_TEN[fractionScale])
+        {
+            Timestamp ts = new Timestamp(p, zyear, zmonth, zday,
+                                         zhour, zminute, zsecond, null,
+                                         offset, APPLY_OFFSET_NO);
+            ts.set_fraction((int) fractionCoefficient, fractionScale);
+            return ts;
+        }
+        BigDecimal frac =
+            BigDecimal.valueOf(fractionCoefficient, fractionScale);
+        return new Timestamp(p, zyear, zmonth, zday,
+                             zhour, zminute, zsecond, frac,
+                             offset, APPLY_OFFSET_NO);
+    }
+
     /**
      * Creates a new Timestamp from a {@link Calendar}, preserving the
      * {@link Calendar}'s precision and local offset from UTC.
@@ -700,7 +918,7 @@ public final class Timestamp
                       Integer offset)
     {
         set_fields_from_calendar(cal, precision, false);
-        _fraction = fraction;
+        set_fraction(fraction);
         if (offset != null)
         {
             _offset = offset;
@@ -863,10 +1081,12 @@ public final class Timestamp
         this.set_fields_from_millis(millis);
 
         // fractional seconds portion
-        BigDecimal secs = BigDecimal.valueOf(millis).movePointLeft(3);
-        BigDecimal secsDown = secs.setScale(0, RoundingMode.FLOOR);
-        this._fraction = secs.subtract(secsDown);
-        this._precision = checkFraction(Precision.SECOND, _fraction);
+        int fractionMillis = (int) (millis % 1000);
+        if (fractionMillis < 0) {
+            fractionMillis += 1000;
+        }
+        set_fraction(fractionMillis, 3);
+        this._precision = Precision.SECOND;
 
         this._offset = localOffset;
     }
@@ -949,6 +1169,8 @@ public final class Timestamp
         int minute = 0;
         int seconds = 0;
         BigDecimal fraction = null;
+        int fractionDigits = 0;
+        int fractionScale = 0;
         Precision precision;
 
         // fake label to turn goto's into a break so Java is happy :) enjoy
@@ -1030,7 +1252,16 @@ public final class Timestamp
                 throw fail(in,
                            "must have at least one digit after decimal point");
             }
-            fraction = new BigDecimal(in.subSequence(19, pos).toString());
+            fractionScale = pos - (END_OF_SECONDS + 1);
+            if (fractionScale <= MAX_COMPACT_FRACTION_DIGITS) {
+                for (int i = END_OF_SECONDS + 1; i < pos; i++) {
+                    fractionDigits = fractionDigits * 10 + Character.digit(in.charAt(i), 10);
+                }
+            }
+            else {
+                fractionScale = 0;
+                fraction = new BigDecimal(in.subSequence(19, pos).toString());
+            }
         } while (false);
 
         Integer offset;
@@ -1071,7 +1302,7 @@ public final class Timestamp
                 offset = null;
             }
             else {
-                offset = temp;
+                offset = offsetOf(temp);
             }
         }
         else {
@@ -1093,6 +1324,9 @@ public final class Timestamp
         Timestamp ts =
             new Timestamp(precision, year, month, day,
                           hour, minute, seconds, fraction, offset, APPLY_OFFSET_YES);
+        if (fractionScale != 0) {
+            ts.set_fraction(fractionDigits, fractionScale);
+        }
         return ts;
     }
 
@@ -1170,16 +1404,18 @@ public final class Timestamp
         // The Copy-Constructor we're using here already expects the time field
         // values to be in UTC, and that is already what we have for this
         // Timestamp -- no adjustment necessary to make it local time.
-        return new Timestamp(_precision,
-                             _year,
-                             _month,
-                             _day,
-                             _hour,
-                             _minute,
-                             _second,
-                             _fraction,
-                             _offset,
-                             APPLY_OFFSET_NO);
+        Timestamp copy = new Timestamp(_precision,
+                                       _year,
+                                       _month,
+                                       _day,
+                                       _hour,
+                                       _minute,
+                                       _second,
+                                       NO_FRACTIONAL_SECONDS,
+                                       _offset,
+                                       APPLY_OFFSET_NO);
+        copy.copy_fraction(this);
+        return copy;
     }
 
     /**
@@ -1208,9 +1444,10 @@ public final class Timestamp
                                             _hour,
                                             _minute,
                                             _second,
-                                            _fraction,
+                                            NO_FRACTIONAL_SECONDS,
                                             _offset,
                                             APPLY_OFFSET_NO);
+        localtime.copy_fraction(this);
         // explicitly apply the local offset to the time field values
         localtime.apply_offset(-offset);
 
@@ -1442,8 +1679,7 @@ public final class Timestamp
         long millis = sqlTimestamp.getTime();
         Timestamp ts = new Timestamp(millis, UTC_OFFSET);
         int nanos = sqlTimestamp.getNanos();
-        BigDecimal frac = BigDecimal.valueOf(nanos).movePointLeft(9);
-        ts._fraction = frac;
+        ts.set_fraction(nanos, 9);
         return ts;
     }
 
@@ -1542,7 +1778,7 @@ public final class Timestamp
                 cal.clear(Calendar.SECOND);
                 cal.clear(Calendar.MILLISECOND);
             case SECOND:
-                if (_fraction == null) {
+                if (!hasFraction()) {
                     cal.clear(Calendar.MILLISECOND);
                 }
         }
@@ -1566,9 +1802,11 @@ public final class Timestamp
     @SuppressWarnings("deprecation")
     public long getMillis()
     {
-        //                                        month is 0 based for Date
-        long millis = Date.UTC(this._year - 1900, this._month - 1, this._day, this._hour, this._minute, this._second);
-        if (this._fraction != null) {
+        long millis = utc_millis_of_second();
+        if (_fractionScale != 0) {
+            millis += fraction_in_units(3);
+        }
+        else if (this._fraction != null) {
             BigDecimal fracAsDecimal = this._fraction.movePointRight(3);
             int frac = isIntegralZero(fracAsDecimal) ? 0 : fracAsDecimal.intValue();
             millis += frac;
@@ -1577,6 +1815,35 @@ public final class Timestamp
 
     }
 
+    /**
+     * Returns the Timestamp's point in time in milliseconds from the epoch,
+     * ignoring any fractional seconds.
+     */
+    @SuppressWarnings("deprecation")
+    private long utc_millis_of_second()
+    {
+        if (_year >= FIRST_GREGORIAN_YEAR) {
+            int secondOfDay = (_hour * 60 + _minute) * 60 + _second;
+            return epoch_day(_year, _month, _day) * MILLIS_PER_DAY
+                + secondOfDay * 1000L;
+        }
+        //                     month is 0 based for Date
+        return Date.UTC(this._year - 1900, this._month - 1, this._day, this._hour, this._minute, this._second);
+    }
+
+    /**
+     * Returns the compact fractional seconds in units of 10<sup>-digits</sup>
+     * seconds, truncating any further digits.
+     */
+    private long fraction_in_units(int digits)
+    {
+        int scale = _fractionScale;
+        if (scale <= digits) {
+            return (long) _fractionDigits * POWERS_OF_TEN[digits - scale];
+        }
+        return _fractionDigits / POWERS_OF_TEN[scale - digits];
+    }
+
     /**
      * Returns a BigDecimal representing the Timestamp's point in time that is
      * the number of milliseconds (<em>including</em> any fractional milliseconds)
@@ -1599,10 +1866,10 @@ public final class Timestamp
         case MINUTE:
         case SECOND:
         case FRACTION:
-            long millis = Date.UTC(this._year - 1900, this._month - 1, this._day, this._hour, this._minute, this._second);
+            long millis = utc_millis_of_second();
             BigDecimal dec = BigDecimal.valueOf(millis);
-            if (_fraction != null) {
-                dec = dec.add(this._fraction.movePointRight(3));
+            if (hasFraction()) {
+                dec = dec.add(fraction().movePointRight(3));
             }
             return dec;
         }
@@ -1775,9 +2042,9 @@ public final class Timestamp
     public BigDecimal getDecimalSecond()
     {
         BigDecimal sec = BigDecimal.valueOf(_second);
-        if (_fraction != null)
+        if (hasFraction())
         {
-            sec = sec.add(_fraction);
+            sec = sec.add(fraction());
         }
         return sec;
     }
@@ -1802,7 +2069,7 @@ public final class Timestamp
     @Deprecated
     public BigDecimal getFractionalSecond()
     {
-        return this._fraction;
+        return fraction();
     }
 
 
@@ -1931,7 +2198,7 @@ public final class Timestamp
     @Deprecated
     public BigDecimal getZFractionalSecond()
     {
-        return this._fraction;
+        return fraction();
     }
 
 
@@ -2136,7 +2403,11 @@ public final class Timestamp
         if (adjusted._precision == Precision.SECOND) {
             out.append(":");
             print_digits(out, adjusted._second, 2);
-            if (adjusted._fraction != null) {
+            if (adjusted._fractionScale != 0) {
+                out.append('.');
+                print_digits(out, adjusted._fractionDigits, adjusted._fractionScale);
+            }
+            else if (adjusted._fraction != null) {
                 print_fractional_digits(out, adjusted._fraction);
             }
         }
@@ -2169,19 +2440,10 @@ public final class Timestamp
     private static void print_digits(Appendable out, int value, int length)
         throws IOException
     {
-        char temp[] = new char[length];
+        // Appends the low-order length digits, most significant first.
         while (length > 0) {
             length--;
-            int next = value / 10;
-            temp[length] =  (char)('0' + (value - next*10));
-            value = next;
-        }
-        while (length > 0) {
-            length--;
-            temp[length] =  '0';
-        }
-        for (char c : temp) {
-            out.append(c);
+            out.append((char)('0' + (value / POWERS_OF_TEN[length]) % 10));
         }
     }
     private static void print_fractional_digits(Appendable out, BigDecimal value)
@@ -2222,12 +2484,14 @@ public final class Timestamp
         ts.clearUnusedPrecision();
         if (ts._precision.includes(Precision.SECOND)) {
             // Maintain the same amount of fractional precision.
-            if (_fraction == null) {
-                ts._fraction = null;
+            BigDecimal fraction = fraction();
+            if (fraction == null) {
+                ts.set_fraction(null);
             } else {
                 // Truncate the result only if it exceeds the fractional precision of the original.
-                if (ts._fraction.scale() > _fraction.scale()) {
-                    ts._fraction = ts._fraction.setScale(_fraction.scale(), RoundingMode.FLOOR);
+                BigDecimal tsFraction = ts.fraction();
+                if (tsFraction.scale() > fraction.scale()) {
+                    ts.set_fraction(tsFraction.setScale(fraction.scale(), RoundingMode.FLOOR));
                 }
             }
         }
@@ -2249,7 +2513,7 @@ public final class Timestamp
      */
     public final Timestamp addMillis(long amount)
     {
-        if (amount == 0 && _precision.includes(Precision.SECOND) && _fraction != null && _fraction.scale() >= 3) {
+        if (amount == 0 && _precision.includes(Precision.SECOND) && hasFraction() && fraction().scale() >= 3) {
             // Zero milliseconds are to be added, and the precision does not need to be increased.
             return this;
         }
@@ -2284,11 +2548,12 @@ public final class Timestamp
         // milliseconds precision is being added and the fraction does not yet
         // have milliseconds precision.
         int newScale = millisecondsPrecision ? 3 : 0;
-        if (_fraction != null) {
-            newScale = Math.max(newScale, _fraction.scale());
+        if (hasFraction()) {
+            newScale = Math.max(newScale, fraction().scale());
         }
-        if (ts._fraction != null) {
-            ts._fraction = newScale == 0 ? null : ts._fraction.setScale(newScale, RoundingMode.FLOOR);
+        BigDecimal tsFraction = ts.fraction();
+        if (tsFraction != null) {
+            ts.set_fraction(newScale == 0 ? null : tsFraction.setScale(newScale, RoundingMode.FLOOR));
         }
         if (_offset != null && _offset != 0)
         {
@@ -2311,7 +2576,7 @@ public final class Timestamp
                 _minute = 0;
             case MINUTE:
                 _second = 0;
-                _fraction = null;
+                set_fraction(null);
             case SECOND:
         }
     }
@@ -2480,7 +2745,7 @@ public final class Timestamp
     private Timestamp addMonthForPrecision(int amount, Precision precision) {
         Calendar cal = calendarValue();
         cal.add(Calendar.MONTH, amount);
-        return new Timestamp(cal, precision, _fraction, _offset);
+        return new Timestamp(cal, precision, fraction(), _offset);
     }
 
     /**
@@ -2525,7 +2790,7 @@ public final class Timestamp
 
         Calendar cal = calendarValue();
         cal.add(Calendar.YEAR, amount);
-        return new Timestamp(cal, _precision, _fraction, _offset);
+        return new Timestamp(cal, _precision, fraction(), _offset);
     }
 
 
@@ -2546,9 +2811,7 @@ public final class Timestamp
         final int prime = 8191;
         int result = HASH_SIGNATURE;
 
-        result = prime * result + (_fraction != null
-            ? _fraction.hashCode()
-            : 0);
+        result = prime * result + fractionHashCode();
 
         result ^= (result << 19) ^ (result >> 13);
 
@@ -2627,19 +2890,24 @@ public final class Timestamp
      */
     public int compareTo(Timestamp t)
     {
-        // Test at millisecond precision first.
-        long this_millis = this.getMillis();
-        long arg_millis = t.getMillis();
+        // Test at second precision first.
+        long this_millis = this.utc_millis_of_second();
+        long arg_millis = t.utc_millis_of_second();
         if (this_millis != arg_millis) {
             return (this_millis < arg_millis) ? -1 : 1;
         }
 
-        // Values are equivalent at millisecond precision, so compare fraction
+        // Values are equivalent at second precision, so compare fraction
+        if (this._fractionScale != 0 && t._fractionScale != 0) {
+            long this_nanos = this.fraction_in_units(MAX_COMPACT_FRACTION_DIGITS);
+            long arg_nanos = t.fraction_in_units(MAX_COMPACT_FRACTION_DIGITS);
+            return (this_nanos < arg_nanos) ? -1 : (this_nanos == arg_nanos ? 0 : 1);
+        }
 
         BigDecimal this_fraction =
-            ((this._fraction == null) ? BigDecimal.ZERO : this._fraction);
+            (this.hasFraction() ? this.fraction() : BigDecimal.ZERO);
         BigDecimal arg_fraction =
-            (( t._fraction == null) ? BigDecimal.ZERO :  t._fraction);
+            (t.hasFraction() ? t.fraction() : BigDecimal.ZERO);
         return this_fraction.compareTo(arg_fraction);
     }
 
@@ -2735,16 +3003,19 @@ public final class Timestamp
         }
 
         // we only look at the fraction if we know that it's actually there
-        if ((this._fraction != null && t._fraction == null)
-                || (this._fraction == null && t._fraction != null)) {
+        if (this.hasFraction() != t.hasFraction()) {
             // one of the fractions are null
             return false;
         }
-        if (this._fraction == null && t._fraction == null) {
+        if (!this.hasFraction()) {
             // both are null
             return true;
         }
-        return this._fraction.equals(t._fraction);
+        if (this._fractionScale != 0 && t._fractionScale != 0) {
+            return this._fractionDigits == t._fractionDigits
+                && this._fractionScale == t._fractionScale;
+        }
+        return this.fraction().equals(t.fraction());
     }
 
     private static short checkAndCastYear(int year)
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion;
+
+import com.amazon.ion.Timestamp.Precision;
+
+/**
+ * NOT FOR APPLICATION USE!
+ * <p>
+ * Isolates private {@link Timestamp} APIs that are needed from other packages
+ * in this library.
+ * The leading _ reduces the chance of somebody finding this via autocomplete.
+ */
+public final class _Private_TimestampTrampoline
+{
+    /**
+     * Creates a Timestamp from UTC fields and fractional seconds of
+     * {@code fractionCoefficient * 10^-fractionScale}, which are held without
+     * a BigDecimal whenever they fit.
+     *
+     * @throws IllegalArgumentException if a field is out of range.
+     */
+    public static Timestamp createFromUtcFields(Precision p, int zyear,
+                                                int zmonth, int zday,
+                                                int zhour, int zminute,
+                                                int zsecond,
+                                                long fractionCoefficient,
+                                                int fractionScale,
+                                                Integer offset)
+    {
+        return Timestamp.createFromUtcFields(p, zyear, zmonth, zday,
+                                             zhour, zminute, zsecond,
+                                             fractionCoefficient,
+                                             fractionScale, offset);
+    }
+}
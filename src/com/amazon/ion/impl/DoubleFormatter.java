@@ -0,0 +1,381 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.impl.DoubleParser.multiplyHigh;
+
+import java.math.BigInteger;
+
+/**
+ * Formats doubles as Ion text without going through
+ * {@link Double#toString(double)}, for the text writers.
+ * <p>
+ * The digits are the shortest that round-trip, found with Giulietti's
+ * Schubfach algorithm, which is also what {@link Double#toString(double)}
+ * uses from JDK 19. The layout is the one {@link Double#toString(double)}
+ * produces, minus a meaningless {@code .0}, and with an {@code e0} exponent
+ * added to plain notation so that the value reads back as a float:
+ * {@code 1e0}, {@code 123.45e0}, {@code 0.001e0}, {@code 1.0E10},
+ * {@code 4.9E-324}.
+ *
+ * @see "Raffaello Giulietti, The Schubfach way to render doubles, 2020"
+ */
+final class DoubleFormatter
+{
+    private DoubleFormatter() { }
+
+    /** Enough room for any double, e.g. {@code -2.2250738585072014E-308}. */
+    static final int MAX_CHARS = 32;
+
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << (P - 1);
+    private static final int BQ_MASK = 0x7FF;
+    private static final long T_MASK = C_MIN - 1;
+
+    /** Subnormal significands below this get an extra digit of precision. */
+    private static final long C_TINY = 3;
+
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+
+    private static final long MASK_63 = 0x7FFFFFFFFFFFFFFFL;
+
+    /** Approximately 2^64 / 10, for dividing by ten with a multiply. */
+    private static final long ONE_TENTH = 115292150460684698L << 4;
+
+    /**
+     * Writes the text of a finite, non-zero double into {@code out}, which
+     * must have room for {@link #MAX_CHARS} characters.
+     *
+     * @return the number of characters written.
+     */
+    static int format(double value, char[] out)
+    {
+        long bits = Double.doubleToRawLongBits(value);
+        int pos = 0;
+        if (bits < 0)
+        {
+            out[pos++] = '-';
+        }
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        assert bq != BQ_MASK && (bq != 0 || t != 0);
+
+        if (bq != 0)
+        {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            if (0 < mq && mq < P && ((c >> mq) << mq) == c)
+            {
+                // An integer below 2^53, whose digits are exact.
+                return toChars(c >> mq, 0, out, pos);
+            }
+            return toDecimal(-mq, c, 0, out, pos);
+        }
+        if (t < C_TINY)
+        {
+            return toDecimal(Q_MIN, 10 * t, -1, out, pos);
+        }
+        return toDecimal(Q_MIN, t, 0, out, pos);
+    }
+
+    /**
+     * Finds the shortest decimal that rounds to {@code c * 2^q}, and writes
+     * it out.
+     */
+    private static int toDecimal(int q, long c, int dk, char[] out, int pos)
+    {
+        int odd = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN)
+        {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        }
+        else
+        {
+            // The gap below a power of two is half the gap above it.
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 2;
+
+        int index = 2 * (k - K_MIN);
+        long[] g = PowersOfTen.TABLE;
+        long g1 = g[index];
+        long g0 = g[index + 1];
+
+        long vb = roundToOdd(g1, g0, cb << h);
+        long vbl = roundToOdd(g1, g0, cbl << h);
+        long vbr = roundToOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100)
+        {
+            // Prefer one digit fewer when it's in the rounding interval.
+            long sp10 = 10 * multiplyHigh(s, ONE_TENTH);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + odd <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + odd <= vbr;
+            if (upin != wpin)
+            {
+                return toChars(upin ? sp10 : tp10, k, out, pos);
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + odd <= s << 2;
+        boolean win = (t << 2) + odd <= vbr;
+        if (uin != win)
+        {
+            return toChars(uin ? s : t, k + dk, out, pos);
+        }
+        // Both are in the interval; take the closer, or the even one.
+        long cmp = vb - ((s + t) << 1);
+        return toChars(cmp < 0 || (cmp == 0 && (s & 1) == 0) ? s : t,
+                       k + dk, out, pos);
+    }
+
+    /**
+     * Computes {@code g * cp / 2^127}, rounded to odd, where
+     * {@code g = g1 * 2^63 + g0}.
+     */
+    private static long roundToOdd(long g1, long g0, long cp)
+    {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (((z & MASK_63) + MASK_63) >>> 63);
+    }
+
+    /**
+     * Writes {@code f * 10^e}, as laid out by {@link Double#toString(double)}
+     * and adjusted for Ion.
+     */
+    private static int toChars(long f, int e, char[] out, int pos)
+    {
+        // Write the digits at the end of the buffer, then move them into
+        // place. There are at most 17, so splitting them at 10^8 lets the
+        // rest be done with int rather than long division.
+        int end = out.length;
+        int start;
+        int high = (int) (f / 100000000L);
+        int low = (int) (f - 100000000L * high);
+        if (high == 0)
+        {
+            while (low % 10 == 0)
+            {
+                low /= 10;
+                e++;
+            }
+            start = intChars(low, out, end);
+        }
+        else if (low == 0)
+        {
+            e += 8;
+            while (high % 10 == 0)
+            {
+                high /= 10;
+                e++;
+            }
+            start = intChars(high, out, end);
+        }
+        else
+        {
+            int lowDigits = 8;
+            while (low % 10 == 0)
+            {
+                low /= 10;
+                lowDigits--;
+                e++;
+            }
+            int mid = end - lowDigits;
+            for (int i = end; i > mid; )
+            {
+                out[--i] = (char) ('0' + low % 10);
+                low /= 10;
+            }
+            start = intChars(high, out, mid);
+        }
+        int digits = end - start;
+
+        // The value is d.ddd * 10^exponent.
+        int exponent = e + digits - 1;
+        if (exponent >= 0 && exponent < 7)
+        {
+            int whole = exponent + 1;
+            if (digits <= whole)
+            {
+                pos = copy(out, start, digits, pos);
+                pos = fill(out, '0', whole - digits, pos);
+            }
+            else
+            {
+                pos = copy(out, start, whole, pos);
+                out[pos++] = '.';
+                pos = copy(out, start + whole, digits - whole, pos);
+            }
+            out[pos++] = 'e';
+            out[pos++] = '0';
+        }
+        else if (exponent < 0 && exponent >= -3)
+        {
+            out[pos++] = '0';
+            out[pos++] = '.';
+            pos = fill(out, '0', -exponent - 1, pos);
+            pos = copy(out, start, digits, pos);
+            out[pos++] = 'e';
+            out[pos++] = '0';
+        }
+        else
+        {
+            out[pos++] = out[start];
+            out[pos++] = '.';
+            if (digits == 1)
+            {
+                out[pos++] = '0';
+            }
+            else
+            {
+                pos = copy(out, start + 1, digits - 1, pos);
+            }
+            out[pos++] = 'E';
+            if (exponent < 0)
+            {
+                out[pos++] = '-';
+                exponent = -exponent;
+            }
+            if (exponent >= 100)
+            {
+                out[pos++] = (char) ('0' + exponent / 100);
+                exponent %= 100;
+                out[pos++] = (char) ('0' + exponent / 10);
+            }
+            else if (exponent >= 10)
+            {
+                out[pos++] = (char) ('0' + exponent / 10);
+            }
+            out[pos++] = (char) ('0' + exponent % 10);
+        }
+        return pos;
+    }
+
+    /**
+     * Writes the digits of a positive int so that they end just before
+     * {@code end}.
+     *
+     * @return the index of the first digit.
+     */
+    private static int intChars(int value, char[] out, int end)
+    {
+        do
+        {
+            out[--end] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        while (value != 0);
+        return end;
+    }
+
+    /**
+     * Moves digits forward within the buffer. There are too few for
+     * {@link System#arraycopy} to pay off, and the destination never
+     * overlaps the source's unread part.
+     */
+    private static int copy(char[] out, int from, int len, int pos)
+    {
+        for (int i = 0; i < len; i++)
+        {
+            out[pos++] = out[from + i];
+        }
+        return pos;
+    }
+
+    private static int fill(char[] out, char c, int len, int pos)
+    {
+        for (int i = 0; i < len; i++)
+        {
+            out[pos++] = c;
+        }
+        return pos;
+    }
+
+    /** floor(log10(2^e)), for |e| up to 5456721. */
+    static int floorLog10Pow2(int e)
+    {
+        return (int) ((e * 661971961083L) >> 41);
+    }
+
+    /** floor(log10(3/4 * 2^e)), for |e| up to 5456721. */
+    static int floorLog10ThreeQuartersPow2(int e)
+    {
+        return (int) ((e * 661971961083L - 274743187321L) >> 41);
+    }
+
+    /** floor(log2(10^e)), for |e| up to 1838394. */
+    static int floorLog2Pow10(int e)
+    {
+        return (int) ((e * 913124641741L) >> 38);
+    }
+
+    /**
+     * 126-bit approximations of 10^-k, for k from {@link #K_MIN} to
+     * {@link #K_MAX}, as pairs of the high and low 63 bits. With
+     * {@code 10^-k = b * 2^r} and {@code 2^125 <= b < 2^126}, each holds
+     * {@code floor(b) + 1}. Built on first use.
+     */
+    private static final class PowersOfTen
+    {
+        static final long[] TABLE = build();
+
+        private static long[] build()
+        {
+            long[] table = new long[2 * (K_MAX - K_MIN + 1)];
+            for (int k = K_MIN; k <= K_MAX; k++)
+            {
+                int r = floorLog2Pow10(-k) - 125;
+                BigInteger numerator = BigInteger.ONE;
+                BigInteger denominator = BigInteger.ONE;
+                if (k < 0)
+                {
+                    numerator = BigInteger.TEN.pow(-k);
+                }
+                else
+                {
+                    denominator = BigInteger.TEN.pow(k);
+                }
+                if (r < 0)
+                {
+                    numerator = numerator.shiftLeft(-r);
+                }
+                else
+                {
+                    denominator = denominator.shiftLeft(r);
+                }
+                BigInteger g = numerator.divide(denominator).add(BigInteger.ONE);
+                int index = 2 * (k - K_MIN);
+                table[index] = g.shiftRight(63).longValue();
+                table[index + 1] = g.longValue() & MASK_63;
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import java.math.BigInteger;
+
+/**
+ * Converts decimal significands and exponents to the nearest double without
+ * going through {@link Double#parseDouble(String)}, for the readers.
+ * <p>
+ * Values whose significand and power of ten are both exactly representable
+ * as doubles take Clinger's fast path: a single correctly-rounded
+ * multiplication or division. Others take the Eisel-Lemire algorithm, which
+ * multiplies the significand by a 128-bit approximation of the power of ten
+ * and succeeds whenever the approximation can't affect the rounding. That
+ * covers nearly every value, including the 17-digit output of
+ * {@link Double#toString(double)}. The rest, and subnormal results, are
+ * left to the caller.
+ *
+ * @see "Daniel Lemire, Number Parsing at a Gigabyte per Second,
+ * Software: Practice and Experience 51(8), 2021"
+ */
+final class DoubleParser
+{
+    private DoubleParser() { }
+
+    /** Powers of ten that are exactly representable as doubles. */
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,
+        1e8,  1e9,  1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+        1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** Integers up to this magnitude are exactly representable as doubles. */
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+    /** Powers of ten that are exactly representable as floats. */
+    private static final float[] EXACT_FLOAT_POWERS_OF_TEN = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    /** Integers up to this magnitude are exactly representable as floats. */
+    private static final long MAX_EXACT_FLOAT_INTEGER = 1L << 24;
+
+    private static final int SMALLEST_POWER_OF_TEN = -342;
+    private static final int LARGEST_POWER_OF_TEN = 308;
+
+    private static final int MANTISSA_BITS = 52;
+    private static final int MINIMUM_EXPONENT = -1023;
+    private static final int INFINITE_POWER = 0x7FF;
+
+    /**
+     * Returns the double nearest to {@code significand * 10^exponent}, or
+     * NaN if it can't be computed here.
+     *
+     * @param significand must not be negative.
+     */
+    static double toDouble(long significand, int exponent)
+    {
+        if (significand == 0)
+        {
+            return 0d;
+        }
+        if (significand <= MAX_EXACT_DOUBLE_INTEGER
+            && exponent >= -22 && exponent <= 22)
+        {
+            if (exponent < 0)
+            {
+                return significand / EXACT_POWERS_OF_TEN[-exponent];
+            }
+            return significand * EXACT_POWERS_OF_TEN[exponent];
+        }
+        if (exponent < SMALLEST_POWER_OF_TEN || exponent > LARGEST_POWER_OF_TEN)
+        {
+            return Double.NaN;
+        }
+        return eiselLemire(significand, exponent);
+    }
+
+    /**
+     * Returns the float nearest to {@code significand * 10^exponent}, or
+     * NaN if it can't be computed here. Only Clinger's fast path is taken:
+     * rounding the nearest double to a float could round twice.
+     *
+     * @param significand must not be negative.
+     */
+    static float toFloat(long significand, int exponent)
+    {
+        if (significand == 0)
+        {
+            return 0f;
+        }
+        if (significand <= MAX_EXACT_FLOAT_INTEGER
+            && exponent >= -10 && exponent <= 10)
+        {
+            if (exponent < 0)
+            {
+                return significand / EXACT_FLOAT_POWERS_OF_TEN[-exponent];
+            }
+            return significand * EXACT_FLOAT_POWERS_OF_TEN[exponent];
+        }
+        return Float.NaN;
+    }
+
+    private static double eiselLemire(long w, int q)
+    {
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+
+        // Multiply by the truncated 128-bit power of five, using the low
+        // half only when the high half leaves the result in doubt.
+        int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+        long[] powers = PowersOfFive.TABLE;
+        long hi = multiplyHigh(w, powers[index]);
+        long lo = w * powers[index];
+        long precisionMask = 0xFFFFFFFFFFFFFFFFL >>> (MANTISSA_BITS + 3);
+        if ((hi & precisionMask) == precisionMask)
+        {
+            long secondHi = multiplyHigh(w, powers[index + 1]);
+            lo += secondHi;
+            if (unsignedLess(lo, secondHi))
+            {
+                hi++;
+            }
+        }
+        if (lo == 0xFFFFFFFFFFFFFFFFL && (q < -27 || q > 55))
+        {
+            // The product may be off by one; we can't tell how to round.
+            return Double.NaN;
+        }
+
+        int upperBit = (int) (hi >>> 63);
+        long mantissa = hi >>> (upperBit + 64 - MANTISSA_BITS - 3);
+        int power2 = (((152170 + 65536) * q) >> 16) + 63
+            + upperBit - lz - MINIMUM_EXPONENT;
+        if (power2 <= 0)
+        {
+            // Subnormal.
+            return Double.NaN;
+        }
+
+        // A tie between two doubles, which must round to even, is only
+        // possible for these exponents.
+        if ((lo == 0 || lo == 1) && q >= -4 && q <= 23 && (mantissa & 3) == 1
+            && (mantissa << (upperBit + 64 - MANTISSA_BITS - 3)) == hi)
+        {
+            mantissa &= ~1L;
+        }
+
+        mantissa += (mantissa & 1);
+        mantissa >>>= 1;
+        if (mantissa >= (2L << MANTISSA_BITS))
+        {
+            mantissa = 1L << MANTISSA_BITS;
+            power2++;
+        }
+        mantissa &= ~(1L << MANTISSA_BITS);
+        if (power2 >= INFINITE_POWER)
+        {
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(mantissa | ((long) power2 << MANTISSA_BITS));
+    }
+
+    private static boolean unsignedLess(long a, long b)
+    {
+        return (a + Long.MIN_VALUE) < (b + Long.MIN_VALUE);
+    }
+
+    /** The high 64 bits of the unsigned 128-bit product of x and y. */
+    static long multiplyHigh(long x, long y)
+    {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+        long p00 = x0 * y0;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long p11 = x1 * y1;
+        long middle = p10 + (p00 >>> 32) + (p01 & 0xFFFFFFFFL);
+        return p11 + (middle >>> 32) + (p01 >>> 32);
+    }
+
+    /**
+     * The 128-bit approximations of 5^q, normalized so their top bit is set,
+     * for q from {@link #SMALLEST_POWER_OF_TEN} to
+     * {@link #LARGEST_POWER_OF_TEN}, as pairs of high and low halves. Built
+     * on first use.
+     */
+    private static final class PowersOfFive
+    {
+        static final long[] TABLE = build();
+
+        private static long[] build()
+        {
+            BigInteger five = BigInteger.valueOf(5);
+            BigInteger limit = BigInteger.ONE.shiftLeft(128);
+            long[] table =
+                new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+            for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++)
+            {
+                BigInteger c;
+                if (q < 0)
+                {
+                    // Rounded up reciprocal.
+                    BigInteger power5 = five.pow(-q);
+                    int z = power5.bitLength();
+                    int b = (q >= -27) ? z + 127 : 2 * z + 128;
+                    c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+                }
+                else
+                {
+                    // Truncated.
+                    c = five.pow(q);
+                    if (c.bitLength() < 128)
+                    {
+                        c = c.shiftLeft(128 - c.bitLength());
+                    }
+                }
+                if (c.compareTo(limit) >= 0)
+                {
+                    c = c.shiftRight(c.bitLength() - 128);
+                }
+                int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+                table[index] = c.shiftRight(64).longValue();
+                table[index + 1] = c.longValue();
+            }
+            return table;
+        }
+    }
+}
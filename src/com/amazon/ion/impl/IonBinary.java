@@ -1545,7 +1545,7 @@ done:       for (;;) {
 
         /**
          * Near clone of {@link SimpleByteBuffer.SimpleByteReader#readDecimal(int)}
-         * and {@link IonReaderBinaryRawX#readDecimal(int)}
+         * and {@link IonReaderBinaryRawX#loadDecimal(int)}
          * so keep them in sync!
          */
         public Decimal readDecimalValue(int len) throws IOException
@@ -0,0 +1,687 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static com.amazon.ion.impl._Private_IonConstants.BINARY_VERSION_MARKER_1_0;
+import static com.amazon.ion.impl._Private_IonConstants.BINARY_VERSION_MARKER_SIZE;
+
+import com.amazon.ion.AppendableReader;
+import com.amazon.ion.Decimal;
+import com.amazon.ion.IntegerSize;
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.UnexpectedEofException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.Iterator;
+
+/**
+ * A binary reader that tolerates top-level values that have only partially
+ * arrived from its input stream.
+ * <p>
+ * Bytes are pulled from the stream into a local buffer, and the buffer is
+ * framed into complete top-level values by decoding only their type
+ * descriptors and lengths. The underlying {@link IonReaderBinaryUserX} only
+ * ever sees complete values, so it never hits an unexpected EOF; when it
+ * runs out, {@link #next()} returns null and may be called again once the
+ * stream has more data. Framed values are parsed exactly once. Only the
+ * bytes the stream reports as {@link InputStream#available() available} are
+ * read, so reading never blocks.
+ * <p>
+ * If the stream doesn't start with the binary version marker, the data is
+ * handed to an ordinary (non-incremental) reader instead.
+ * <p>
+ * Without a stream, the reader's input is pushed to it through the
+ * {@link AppendableReader} facet, and must be binary.
+ */
+final class IonReaderBinaryIncrementalX
+    implements IonReader, _Private_ReaderWriter
+{
+    private static final int INITIAL_BUFFER_SIZE = UnifiedInputStreamX.DEFAULT_PAGE_SIZE;
+
+    private final IonCatalog _catalog;
+    private final _Private_LocalSymbolTableFactory _lstFactory;
+    /** Null when input is appended through the {@link AppendableReader} facet. */
+    private final InputStream _in;
+
+    /** Holds unconsumed input; only {@code [0, _limit)} is valid. */
+    private byte[] _buffer;
+    private int    _limit;
+
+    /** End of the complete top-level values in {@link #_buffer}. */
+    private int    _framed;
+
+    /**
+     * Total size of the incomplete top-level value at {@link #_framed}, or -1
+     * if its header hasn't arrived yet.
+     */
+    private int    _needed = -1;
+
+    /** Non-null when input is appended rather than read from a stream. */
+    private final Appender _appender;
+
+    /** Set once the appender has been told no more input is coming. */
+    private boolean _inputFinished;
+
+    /**
+     * Whether the last top-level {@link #next()} returned null because the
+     * next value hadn't completely arrived.
+     */
+    private boolean _awaitingData;
+
+    /** Non-null once the stream has been detected as binary. */
+    private IonReaderBinaryUserX _binary;
+
+    /** The reader doing the actual work, once the encoding is known. */
+    private IonReader _reader;
+
+    IonReaderBinaryIncrementalX(IonCatalog catalog,
+                                _Private_LocalSymbolTableFactory lstFactory,
+                                InputStream in)
+    {
+        _catalog = catalog;
+        _lstFactory = lstFactory;
+        _in = in;
+        _appender = in == null ? new Appender() : null;
+        _buffer = new byte[INITIAL_BUFFER_SIZE];
+    }
+
+    /**
+     * Decides which reader to use, once enough of the stream has arrived.
+     *
+     * @return false if more data is needed to decide.
+     */
+    private boolean select_reader() throws IOException
+    {
+        for (;;)
+        {
+            int available = Math.min(_limit, BINARY_VERSION_MARKER_SIZE);
+            for (int i = 0; i < available; i++)
+            {
+                if (_buffer[i] != BINARY_VERSION_MARKER_1_0[i])
+                {
+                    // Not binary Ion; incremental reading doesn't apply.
+                    select_fallback_reader();
+                    return true;
+                }
+            }
+            if (available == BINARY_VERSION_MARKER_SIZE)
+            {
+                break;
+            }
+            if (!read_more())
+            {
+                return false;
+            }
+        }
+
+        UnifiedInputStreamX uis = UnifiedInputStreamX.makeStream(_buffer, 0, 0);
+        _binary = new IonReaderBinaryUserX(_catalog, _lstFactory, uis, 0);
+        _reader = _binary;
+        return true;
+    }
+
+    private void select_fallback_reader()
+    {
+        if (_in == null)
+        {
+            throw new IonException("Only Ion binary data can be appended");
+        }
+        InputStream prefix = new ByteArrayInputStream(_buffer, 0, _limit);
+        InputStream in = new SequenceInputStream(prefix, _in);
+        _reader = _Private_IonReaderFactory.makeReader(_catalog, in, _lstFactory);
+        _buffer = null;
+    }
+
+    /**
+     * Reads whatever the stream has available into the buffer, growing it
+     * if it's full. Never asks for more than is available, so this doesn't
+     * block.
+     *
+     * @return false if the stream had nothing available.
+     */
+    private boolean read_more() throws IOException
+    {
+        if (_in == null)
+        {
+            return false;
+        }
+        int available = _in.available();
+        if (available <= 0)
+        {
+            return false;
+        }
+        if (_limit == _buffer.length || _needed > _buffer.length)
+        {
+            grow(_needed);
+        }
+        int read = _in.read(_buffer, _limit,
+                            Math.min(available, _buffer.length - _limit));
+        if (read <= 0)
+        {
+            return false;
+        }
+        _limit += read;
+        return true;
+    }
+
+    /**
+     * Replaces the buffer with one at least twice as large and at least
+     * {@code minSize} bytes. Values already handed to the binary reader
+     * stay valid, since it keeps the old buffer until its next refill.
+     */
+    private void grow(int minSize)
+    {
+        int size = Math.max(_buffer.length * 2, minSize);
+        byte[] bigger = new byte[size];
+        System.arraycopy(_buffer, 0, bigger, 0, _limit);
+        _buffer = bigger;
+    }
+
+    /**
+     * Makes room for {@code length} more bytes after {@link #_limit}.
+     */
+    private void reserve(int length)
+    {
+        if (length > _buffer.length - _limit)
+        {
+            long size = (long) _limit + length;
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IonException("Buffered input exceeds 2GB");
+            }
+            grow((int) size);
+        }
+    }
+
+    /** Receives the caller's input when there's no stream. */
+    private final class Appender
+        implements AppendableReader
+    {
+        public void appendBytes(byte[] bytes, int offset, int length)
+        {
+            if (offset < 0 || length < 0 || length > bytes.length - offset)
+            {
+                throw new IndexOutOfBoundsException();
+            }
+            finishedCheck();
+            reserve(length);
+            System.arraycopy(bytes, offset, _buffer, _limit, length);
+            _limit += length;
+            appended();
+        }
+
+        public void appendBytes(ByteBuffer bytes)
+        {
+            finishedCheck();
+            int length = bytes.remaining();
+            reserve(length);
+            bytes.get(_buffer, _limit, length);
+            _limit += length;
+            appended();
+        }
+
+        public void finishInput()
+        {
+            _inputFinished = true;
+        }
+
+        public boolean isAwaitingData()
+        {
+            return _awaitingData;
+        }
+
+        private void finishedCheck()
+        {
+            if (_inputFinished)
+            {
+                throw new IllegalStateException("Input has been finished");
+            }
+        }
+
+        /** Rejects non-binary data as soon as it can be detected. */
+        private void appended()
+        {
+            if (_reader == null)
+            {
+                try
+                {
+                    select_reader();
+                }
+                catch (IOException e)
+                {
+                    throw new IonException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Extends {@link #_framed} over all complete top-level values in the
+     * buffer.
+     */
+    private void frame()
+    {
+        for (;;)
+        {
+            int size = value_size(_framed);
+            if (size < 0 || _framed + size > _limit)
+            {
+                _needed = size < 0 ? -1 : size;
+                return;
+            }
+            _framed += size;
+        }
+    }
+
+    /**
+     * Decodes the total size of the top-level value starting at
+     * {@code offset}, including its header.
+     *
+     * @return -1 if the header is incomplete.
+     */
+    private int value_size(int offset)
+    {
+        if (offset >= _limit)
+        {
+            return -1;
+        }
+
+        int td = _buffer[offset] & 0xff;
+        if (td == (BINARY_VERSION_MARKER_1_0[0] & 0xff))
+        {
+            return BINARY_VERSION_MARKER_SIZE;
+        }
+
+        int tid = _Private_IonConstants.getTypeCode(td);
+        int ln = _Private_IonConstants.getLowNibble(td);
+        if (ln == _Private_IonConstants.lnIsNull
+            || tid == _Private_IonConstants.tidBoolean)
+        {
+            return 1;
+        }
+        if (ln != _Private_IonConstants.lnIsVarLen
+            && !(tid == _Private_IonConstants.tidStruct
+                 && ln == _Private_IonConstants.lnIsOrderedStruct))
+        {
+            return 1 + ln;
+        }
+
+        // The length follows as a VarUInt.
+        long len = 0;
+        int pos = offset + 1;
+        for (;;)
+        {
+            if (pos >= _limit)
+            {
+                return -1;
+            }
+            int b = _buffer[pos++] & 0xff;
+            len = (len << 7) | (b & 0x7f);
+            if (len > Integer.MAX_VALUE)
+            {
+                throw new IonException("Top-level value length overflow at offset "
+                                       + offset);
+            }
+            if ((b & 0x80) != 0)
+            {
+                break;
+            }
+        }
+        long size = (pos - offset) + len;
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IonException("Top-level value length overflow at offset "
+                                   + offset);
+        }
+        return (int) size;
+    }
+
+    /**
+     * Hands the next batch of complete top-level values to the binary reader,
+     * reading from the stream if necessary. Only called once the binary
+     * reader has consumed everything framed so far.
+     *
+     * @return false if no complete value is available yet.
+     */
+    private boolean refill() throws IOException
+    {
+        // Everything before _framed has been consumed; discard it.
+        if (_framed > 0)
+        {
+            int pending = _limit - _framed;
+            System.arraycopy(_buffer, _framed, _buffer, 0, pending);
+            _limit = pending;
+            _framed = 0;
+        }
+
+        for (;;)
+        {
+            frame();
+            if (_framed > 0)
+            {
+                _binary.resume(_buffer, 0, _framed);
+                return true;
+            }
+            if (!read_more())
+            {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Called when there's no complete top-level value left to read. Records
+     * whether that's because more input is expected, or fails if the input
+     * has finished part-way through a value.
+     */
+    private void input_exhausted()
+    {
+        if (!_inputFinished)
+        {
+            _awaitingData = true;
+        }
+        else if (_limit > _framed)
+        {
+            throw new UnexpectedEofException();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    public boolean hasNext()
+    {
+        _awaitingData = false;
+        try
+        {
+            if (_reader == null && !select_reader())
+            {
+                input_exhausted();
+                return false;
+            }
+            if (_binary == null || _binary.getDepth() > 0)
+            {
+                return _reader.hasNext();
+            }
+            while (!_binary.hasNext())
+            {
+                if (!refill())
+                {
+                    input_exhausted();
+                    return false;
+                }
+            }
+            return true;
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+    }
+
+    /**
+     * Positions this reader on the next value.
+     *
+     * @return the type of the next value, or null at the end of the current
+     * container or, at the top level, when no complete value has arrived yet.
+     * In the latter case, this method may be called again once the stream
+     * has more data available; with appended input,
+     * {@link AppendableReader#isAwaitingData()} tells this case apart from
+     * the end of the input.
+     *
+     * @throws UnexpectedEofException if appended input has been finished
+     * part-way through a top-level value.
+     */
+    public IonType next()
+    {
+        _awaitingData = false;
+        try
+        {
+            if (_reader == null && !select_reader())
+            {
+                input_exhausted();
+                return null;
+            }
+            if (_binary == null || _binary.getDepth() > 0)
+            {
+                return _reader.next();
+            }
+            IonType t;
+            while ((t = _binary.next()) == null)
+            {
+                if (!refill())
+                {
+                    input_exhausted();
+                    break;
+                }
+            }
+            return t;
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+    }
+
+    public void stepIn()
+    {
+        _reader.stepIn();
+    }
+
+    public void stepOut()
+    {
+        _reader.stepOut();
+    }
+
+    public int getDepth()
+    {
+        return _reader == null ? 0 : _reader.getDepth();
+    }
+
+    public SymbolTable getSymbolTable()
+    {
+        if (_reader == null)
+        {
+            return SharedSymbolTable.getSystemSymbolTable(1);
+        }
+        return _reader.getSymbolTable();
+    }
+
+    public IonType getType()
+    {
+        return _reader == null ? null : _reader.getType();
+    }
+
+    public IntegerSize getIntegerSize()
+    {
+        return _reader.getIntegerSize();
+    }
+
+    public String[] getTypeAnnotations()
+    {
+        return _reader.getTypeAnnotations();
+    }
+
+    public SymbolToken[] getTypeAnnotationSymbols()
+    {
+        return _reader.getTypeAnnotationSymbols();
+    }
+
+    public Iterator<String> iterateTypeAnnotations()
+    {
+        return _reader.iterateTypeAnnotations();
+    }
+
+    @SuppressWarnings("deprecation")
+    public int getFieldId()
+    {
+        return _reader.getFieldId();
+    }
+
+    public String getFieldName()
+    {
+        return _reader.getFieldName();
+    }
+
+    public SymbolToken getFieldNameSymbol()
+    {
+        return _reader.getFieldNameSymbol();
+    }
+
+    public boolean isNullValue()
+    {
+        return _reader.isNullValue();
+    }
+
+    public boolean isInStruct()
+    {
+        return _reader != null && _reader.isInStruct();
+    }
+
+    public boolean booleanValue()
+    {
+        return _reader.booleanValue();
+    }
+
+    public int intValue()
+    {
+        return _reader.intValue();
+    }
+
+    public long longValue()
+    {
+        return _reader.longValue();
+    }
+
+    public BigInteger bigIntegerValue()
+    {
+        return _reader.bigIntegerValue();
+    }
+
+    public double doubleValue()
+    {
+        return _reader.doubleValue();
+    }
+
+    public BigDecimal bigDecimalValue()
+    {
+        return _reader.bigDecimalValue();
+    }
+
+    public Decimal decimalValue()
+    {
+        return _reader.decimalValue();
+    }
+
+    public Date dateValue()
+    {
+        return _reader.dateValue();
+    }
+
+    public Timestamp timestampValue()
+    {
+        return _reader.timestampValue();
+    }
+
+    public String stringValue()
+    {
+        return _reader.stringValue();
+    }
+
+    public SymbolToken symbolValue()
+    {
+        return _reader.symbolValue();
+    }
+
+    public int byteSize()
+    {
+        return _reader.byteSize();
+    }
+
+    public byte[] newBytes()
+    {
+        return _reader.newBytes();
+    }
+
+    public int getBytes(byte[] buffer, int offset, int len)
+    {
+        return _reader.getBytes(buffer, offset, len);
+    }
+
+    public SymbolTable pop_passed_symbol_table()
+    {
+        if (_reader instanceof _Private_ReaderWriter)
+        {
+            return ((_Private_ReaderWriter) _reader).pop_passed_symbol_table();
+        }
+        return null;
+    }
+
+    public <T> T asFacet(Class<T> facetType)
+    {
+        if (facetType == AppendableReader.class)
+        {
+            return facetType.cast(_appender);
+        }
+        if (_reader == null)
+        {
+            return null;
+        }
+        // Offsets within our buffer are meaningless to the user, since it's
+        // compacted as values are consumed. Only offer the byte transfer
+        // facet, which is used while positioned on a value.
+        if (_binary != null && facetType != _Private_ByteTransferReader.class)
+        {
+            return null;
+        }
+        return _reader.asFacet(facetType);
+    }
+
+    /**
+     * Closes the input stream, if there is one.
+     *
+     * @throws UnexpectedEofException if the stream ended part-way through a
+     * top-level value.
+     */
+    public void close()
+        throws IOException
+    {
+        if (_binary == null && _reader != null)
+        {
+            // The fallback reader owns the stream.
+            _reader.close();
+        }
+        else if (_in != null)
+        {
+            _in.close();
+        }
+        if (_binary == null ? (_reader == null && _limit > 0)
+                            : _limit > _framed)
+        {
+            throw new UnexpectedEofException();
+        }
+    }
+}
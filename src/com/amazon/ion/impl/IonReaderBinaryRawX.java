@@ -24,6 +24,7 @@ import com.amazon.ion.IonType;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.Timestamp;
 import com.amazon.ion.Timestamp.Precision;
+import com.amazon.ion._Private_TimestampTrampoline;
 import com.amazon.ion.impl.UnifiedSavePointManagerX.SavePoint;
 import com.amazon.ion.impl._Private_ScalarConversions.AS_TYPE;
 import com.amazon.ion.impl._Private_ScalarConversions.ValueVariant;
@@ -31,12 +32,6 @@ import com.amazon.ion.impl._Private_ScalarConversions.ValueVariant;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.math.MathContext;
-import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
-import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CoderResult;
 
 
 /**
@@ -105,17 +100,14 @@ abstract class IonReaderBinaryRawX
     long[]              _container_stack; // triples of: position, type, local_end
 
 
-    // `StandardCharsets.UTF_8` wasn't introduced until Java 7, so we have to use Charset#forName(String) instead.
-    private static final Charset UTF8 = Charset.forName("UTF-8");
-    private CharsetDecoder utf8CharsetDecoder = UTF8.newDecoder();
+    // Reusable scratch space for strings that aren't contiguous in the input's current buffer, and for the chars
+    // decoded from strings that aren't all ASCII. Longer strings get one-off arrays.
+    private final byte[] utf8Bytes = new byte[UTF8_BUFFER_SIZE_IN_BYTES];
+    private final char[] utf8Chars = new char[UTF8_BUFFER_SIZE_IN_BYTES];
 
-    // Calling read() to pull in the next byte of a string requires an EOF check to be performed for each byte.
-    // This reusable buffer allows us to call read(utf8InputBuffer) instead, letting us can pay the cost of an EOF check
-    // once per buffer rather than once per byte.
-    private ByteBuffer utf8InputBuffer = ByteBuffer.allocate(UTF8_BUFFER_SIZE_IN_BYTES);
-
-    // A reusable scratch space to hold the decoded bytes as they're read from the utf8InputBuffer.
-    private CharBuffer utf8DecodingBuffer = CharBuffer.allocate(UTF8_BUFFER_SIZE_IN_BYTES);
+    // the coefficient and scale of the last timestamp fraction read into a long
+    private long _fraction_coefficient;
+    private int  _fraction_scale;
 
     protected IonReaderBinaryRawX() {
     }
@@ -247,6 +239,122 @@ abstract class IonReaderBinaryRawX
         assert( _value_type != null || _eof == true);
         return _value_type;
     }
+
+    //
+    //  bulk scalar routines, these decode runs of values for
+    //  PrimitiveArrayReader without going through the per value
+    //  state checks in next() and the ValueVariant conversions.
+    //  The caller must be inside a container since top-level
+    //  values may be system values that the user reader must see.
+    //
+    //  Each value's type is checked before it is consumed.  When
+    //  the run ends early the value that ended it is left unread,
+    //  as if by hasNext(), so the next call to next() returns it.
+    //  Annotated values are refused rather than silently losing
+    //  their annotations, and are also left unread.
+    //
+
+    /**
+     * Loads the next value without consuming it.
+     * @return true if it is a non-null value of the given type.
+     */
+    private final boolean peek_run_value(IonType type) throws IOException
+    {
+        if (_has_next_needed) {
+            has_next_helper_raw();
+        }
+        if (_eof || _value_type != type || _value_is_null) {
+            return false;
+        }
+        if (_annotations.isDefined() || _annotation_count > 0) {
+            throw new IonException("annotated values can't be read into an array");
+        }
+        return true;
+    }
+    protected final int readLongRun(long[] dst, int off, int len)
+    {
+        int count = 0;
+        try {
+            while (count < len && peek_run_value(IonType.INT)) {
+                boolean is_negative = (_value_tid == _Private_IonConstants.tidNegInt);
+                if (_value_len > 8 || (is_negative && _value_len == 0)) {
+                    // too large, or a malformed negative zero, either way
+                    // leave it for the scalar loader to deal with
+                    break;
+                }
+                long v = readULong(_value_len);
+                _state = State.S_AFTER_VALUE;
+                if (is_negative) {
+                    if (v == 0) {
+                        throwErrorAt("negative zero is illegal in the binary format");
+                    }
+                    if (v < 0 && v != Long.MIN_VALUE) {
+                        // too large after all, it's loaded but still
+                        // left for next() to return
+                        _v.setValue(IonBinary.unsignedLongToBigInteger(-1, v));
+                        _v.setAuthoritativeType(AS_TYPE.bigInteger_value);
+                        break;
+                    }
+                    v = -v;
+                }
+                else if (v < 0) {
+                    _v.setValue(IonBinary.unsignedLongToBigInteger(1, v));
+                    _v.setAuthoritativeType(AS_TYPE.bigInteger_value);
+                    break;
+                }
+                _has_next_needed = true;
+                if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) {
+                    _v.setValue(v);
+                    _v.setAuthoritativeType(AS_TYPE.long_value);
+                }
+                else {
+                    _v.setValue((int)v);
+                    _v.setAuthoritativeType(AS_TYPE.int_value);
+                }
+                dst[off + count++] = v;
+            }
+        }
+        catch (IOException e) {
+            error(e);
+        }
+        return count;
+    }
+    protected final int readDoubleRun(double[] dst, int off, int len)
+    {
+        int count = 0;
+        try {
+            while (count < len && peek_run_value(IonType.FLOAT)) {
+                double d = readFloat(_value_len);
+                _state = State.S_AFTER_VALUE;
+                _has_next_needed = true;
+                _v.setValue(d);
+                _v.setAuthoritativeType(AS_TYPE.double_value);
+                dst[off + count++] = d;
+            }
+        }
+        catch (IOException e) {
+            error(e);
+        }
+        return count;
+    }
+    protected final int readBooleanRun(boolean[] dst, int off, int len)
+    {
+        int count = 0;
+        try {
+            while (count < len && peek_run_value(IonType.BOOL)) {
+                // read_type_id already stepped over the value
+                _has_next_needed = true;
+                _v.setValue(_value_is_true);
+                _v.setAuthoritativeType(AS_TYPE.boolean_value);
+                dst[off + count++] = _value_is_true;
+            }
+        }
+        catch (IOException e) {
+            error(e);
+        }
+        return count;
+    }
+
     //from IonConstants
     //public static final byte[] BINARY_VERSION_MARKER_1_0 =
     //    { (byte) 0xE0,
@@ -1075,55 +1183,83 @@ abstract class IonReaderBinaryRawX
             : Double.longBitsToDouble(dBits);
     }
 
-    protected final Decimal readDecimal(int len) throws IOException
+    /**
+     * Reads a decimal into {@link #_v}. Coefficients of up to eight bytes,
+     * which covers nearly every decimal in practice, are kept as a long, and
+     * the {@link Decimal} is only built if it's asked for.
+     */
+    protected final void loadDecimal(int len) throws IOException
     {
-        MathContext mathContext = MathContext.UNLIMITED;
-        Decimal bd;
         // we only write out the '0' value as the nibble 0
         if (len == 0) {
-            bd = Decimal.valueOf(0, mathContext);
+            _v.setDecimalValue(0, 0);
+            return;
         }
-        else {
-            // otherwise we to it the hard way ....
-            int save_limit = NO_LIMIT;
-            if (_local_remaining != NO_LIMIT) {
-                save_limit = _local_remaining - len;
+        int save_limit = NO_LIMIT;
+        if (_local_remaining != NO_LIMIT) {
+            save_limit = _local_remaining - len;
+        }
+        _local_remaining = len;
+        // Ion stores exponent, BigDecimal uses the negation "scale"
+        int scale = -readVarInt();
+        int coefficient_len = _local_remaining;
+        if (coefficient_len <= 8) {
+            long bits = readULong(coefficient_len);
+            long signBit = (coefficient_len == 0) ? 0 : 1L << (8 * coefficient_len - 1);
+            long magnitude = bits & ~signBit;
+            if ((bits & signBit) == 0) {
+                _v.setDecimalValue(magnitude, scale);
             }
-            _local_remaining = len;
-            int  exponent = readVarInt();
-            BigInteger value;
-            int signum;
-            if (_local_remaining > 0)
-            {
-                byte[] bits = new byte[_local_remaining];
-                readAll(bits, 0, _local_remaining);
-                signum = 1;
-                if (bits[0] < 0)
-                {
-                    // value is negative, clear the sign
-                    bits[0] &= 0x7F;
-                    signum = -1;
-                }
-                value = new BigInteger(signum, bits);
+            else if (magnitude == 0) {
+                _v.setValue(Decimal.negativeZero(scale));
             }
             else {
-                signum = 0;
-                value = BigInteger.ZERO;
+                _v.setDecimalValue(-magnitude, scale);
             }
-            // Ion stores exponent, BigDecimal uses the negation "scale"
-            int scale = -exponent;
-            if (value.signum() == 0 && signum == -1)
-            {
-                assert value.equals(BigInteger.ZERO);
-                bd = Decimal.negativeZero(scale, mathContext);
+        }
+        else {
+            BigInteger bits = readBigInteger(coefficient_len, false);
+            int signBit = 8 * coefficient_len - 1;
+            BigInteger magnitude = bits.clearBit(signBit);
+            if (!bits.testBit(signBit)) {
+                _v.setValue(Decimal.valueOf(magnitude, scale));
             }
-            else
-            {
-                bd = Decimal.valueOf(value, scale, mathContext);
+            else if (magnitude.signum() == 0) {
+                _v.setValue(Decimal.negativeZero(scale));
+            }
+            else {
+                _v.setValue(Decimal.valueOf(magnitude.negate(), scale));
             }
-            _local_remaining = save_limit;
         }
-        return bd;
+        _local_remaining = save_limit;
+    }
+
+    /**
+     * Reads the fractional seconds that end a timestamp. Like
+     * {@link #loadDecimal(int)}, this decodes coefficients of up to eight
+     * bytes (which is every practical fraction) straight into a long: it
+     * then returns null, leaving the coefficient and scale in
+     * {@link #_fraction_coefficient} and {@link #_fraction_scale}.
+     */
+    private final BigDecimal readTimestampFraction() throws IOException
+    {
+        // Ion stores exponent, BigDecimal uses the negation "scale"
+        int scale = -readVarInt();
+        int len = _local_remaining;
+        if (len <= 8) {
+            long bits = readULong(len);
+            long signBit = (len == 0) ? 0 : 1L << (8 * len - 1);
+            long magnitude = bits & ~signBit;
+            _fraction_coefficient = ((bits & signBit) == 0) ? magnitude : -magnitude;
+            _fraction_scale = scale;
+            return null;
+        }
+        BigInteger bits = readBigInteger(len, false);
+        int signBit = 8 * len - 1;
+        if (bits.testBit(signBit)) {
+            return new BigDecimal(bits.clearBit(signBit).negate(), scale);
+        }
+        return new BigDecimal(bits, scale);
     }
 
     /**
@@ -1138,6 +1274,7 @@ abstract class IonReaderBinaryRawX
 
         int         year = 0, month = 0, day = 0, hour = 0, minute = 0, second = 0;
         BigDecimal  frac = null;
+        boolean     has_compact_fraction = false;
         int         save_limit = NO_LIMIT;
         if (_local_remaining != NO_LIMIT) {
             save_limit = _local_remaining - len;
@@ -1174,8 +1311,17 @@ abstract class IonReaderBinaryRawX
                         p = Precision.SECOND;
                         if (_local_remaining > 0) {
                             // now we read in our actual "milliseconds since the epoch"
-                            frac = readDecimal(_local_remaining);
-                            if (frac.compareTo(BigDecimal.ZERO) < 0 || frac.compareTo(BigDecimal.ONE) >= 0) {
+                            frac = readTimestampFraction();
+                            if (frac == null) {
+                                has_compact_fraction = true;
+                                if (_fraction_coefficient < 0) {
+                                    throwErrorAt(
+                                            "The fractional seconds value in a timestamp must be greater than or "
+                                                  + "equal to zero and less than one."
+                                    );
+                                }
+                            }
+                            else if (frac.compareTo(BigDecimal.ZERO) < 0 || frac.compareTo(BigDecimal.ONE) >= 0) {
                                 throwErrorAt(
                                         "The fractional seconds value in a timestamp must be greater than or "
                                               + "equal to zero and less than one."
@@ -1190,6 +1336,11 @@ abstract class IonReaderBinaryRawX
         _local_remaining  = save_limit;
         // now we let timestamp put it all together
         try {
+            if (has_compact_fraction) {
+                return _Private_TimestampTrampoline.createFromUtcFields(
+                    p, year, month, day, hour, minute, second,
+                    _fraction_coefficient, _fraction_scale, offset);
+            }
             Timestamp val =
                 Timestamp.createFromUtcFields(p, year, month, day, hour,
                                               minute, second, frac, offset);
@@ -1204,102 +1355,114 @@ abstract class IonReaderBinaryRawX
 
     protected final String readString(int numberOfBytes) throws IOException
     {
-        // If the string we're reading is small enough to fit in our reusable buffer, we can avoid the overhead
-        // of looping and bounds checking.
-        if (numberOfBytes <= utf8InputBuffer.capacity()) {
-            return readStringWithReusableBuffer(numberOfBytes);
+        UnifiedInputStreamX input = _input;
+        if (input._bytes != null
+            && input._limit - input._pos >= numberOfBytes
+            && (_local_remaining == NO_LIMIT || _local_remaining >= numberOfBytes))
+        {
+            // The whole string is in the current buffer, so decode it in place.
+            int start = input._pos;
+            input._pos += numberOfBytes;
+            if (_local_remaining != NO_LIMIT) {
+                _local_remaining -= numberOfBytes;
+            }
+            return decodeUtf8(input._bytes, start, numberOfBytes);
         }
 
-        // Otherwise, allocate a one-off decoding buffer that's large enough to hold the string
-        // and prepare to decode the string in chunks.
-        CharBuffer decodingBuffer = CharBuffer.allocate(numberOfBytes);
-        utf8CharsetDecoder.reset();
-
+        byte[] bytes = (numberOfBytes <= utf8Bytes.length) ? utf8Bytes : new byte[numberOfBytes];
         int save_limit = NO_LIMIT;
         if (_local_remaining != NO_LIMIT) {
             save_limit = _local_remaining - numberOfBytes;
         }
         _local_remaining = numberOfBytes;
+        readAll(bytes, 0, numberOfBytes);
+        _local_remaining = save_limit;
+        return decodeUtf8(bytes, 0, numberOfBytes);
+    }
 
-        // The following loop will:
-        // * Fill the input buffer with utf8 bytes
-        // * Write decoded chars to the decoding buffer
-        // * Move any remaining partial character bytes to the front of the buffer
-        // * Repeat until the requested number of bytes have been decoded.
-        // * Create a new String object from the contents of the decoding buffer.
-        int totalBytesRead = 0;
-        int carryoverBytes = 0;
-        while (totalBytesRead < numberOfBytes) {
-
-            int bytesRemaining = numberOfBytes - totalBytesRead;
-            // When decoding, it's possible to have 'carryover' bytes left in the buffer which represent
-            // a partial unicode character. We need to leave these in the buffer so that we can complete the
-            // partial character in the next call to read().
-            int capacityRemaining = utf8InputBuffer.array().length - carryoverBytes;
-            int bytesToRead = Math.min(bytesRemaining, capacityRemaining);
-
-            int bytesRead = read(utf8InputBuffer.array(), carryoverBytes, bytesToRead);
-            if (bytesRead <= 0) {
-                // UnifiedInputStreamX doesn't adhere to InputStream's API. See the comments on
-                // UnifiedInputStreamX#read() for more information.
-                throwUnexpectedEOFException();
+    /**
+     * Decodes UTF-8, validating it as strictly as a {@link java.nio.charset.CharsetDecoder} would.
+     * <p>
+     * Most strings are entirely ASCII, so the bytes are first scanned eight at a time for any with the high bit set.
+     * If there are none, the String is made directly from the bytes (which, where the JVM has compact strings,
+     * is just a copy). Otherwise only the remainder, from the first non-ASCII byte, goes through the full decoder.
+     */
+    @SuppressWarnings("deprecation")
+    private String decodeUtf8(byte[] bytes, int offset, int length)
+    {
+        int end = offset + length;
+        int i = offset;
+        for (int wordEnd = end - 7; i < wordEnd; i += 8) {
+            if ((bytes[i] | bytes[i + 1] | bytes[i + 2] | bytes[i + 3]
+                | bytes[i + 4] | bytes[i + 5] | bytes[i + 6] | bytes[i + 7]) < 0) {
+                break;
             }
+        }
+        while (i < end && bytes[i] >= 0) {
+            i++;
+        }
+        if (i == end) {
+            // String(byte[] ascii, int hibyte, int offset, int count) does no decoding.
+            return new String(bytes, 0, offset, length);
+        }
 
-            totalBytesRead += bytesRead;
-
-            utf8InputBuffer.position(0);
-            utf8InputBuffer.limit(carryoverBytes + bytesRead);
-
-            CoderResult coderResult = utf8CharsetDecoder.decode(
-                    utf8InputBuffer,
-                    decodingBuffer,
-                    totalBytesRead >= numberOfBytes
-            );
-            if (coderResult.isError()) {
-                throw new IonException("Illegal value encountered while validating UTF-8 data in input stream. " + coderResult.toString());
+        // A string never has more chars than UTF-8 bytes.
+        char[] chars = (length <= utf8Chars.length) ? utf8Chars : new char[length];
+        int count = 0;
+        for (int j = offset; j < i; j++) {
+            chars[count++] = (char) bytes[j];
+        }
+        while (i < end) {
+            int b1 = bytes[i];
+            if (b1 >= 0) {
+                chars[count++] = (char) b1;
+                i++;
+                continue;
             }
-
-            // Shift leftover partial character bytes (if any) to the beginning of the buffer
-            carryoverBytes = utf8InputBuffer.remaining();
-            if (carryoverBytes > 0) {
-                System.arraycopy(
-                        utf8InputBuffer.array(),
-                        utf8InputBuffer.position(),
-                        utf8InputBuffer.array(),
-                        0,
-                        carryoverBytes
-                );
+            int len = IonUTF8.getUTF8LengthFromFirstByte(b1);
+            if (len < 2 || i + len > end) {
+                throw newUtf8Exception(len < 2 ? "invalid first byte" : "truncated sequence");
+            }
+            for (int k = 1; k < len; k++) {
+                if (!IonUTF8.isContinueByteUTF8(bytes[i + k] & 0xff)) {
+                    throw newUtf8Exception("invalid continuation byte");
+                }
+            }
+            switch (len) {
+                case 2: {
+                    char c = IonUTF8.twoByteScalar(b1, bytes[i + 1]);
+                    if (c < 0x80) {
+                        throw newUtf8Exception("overlong sequence");
+                    }
+                    chars[count++] = c;
+                    break;
+                }
+                case 3: {
+                    int scalar = IonUTF8.threeByteScalar(b1, bytes[i + 1], bytes[i + 2]);
+                    if (scalar < 0x800 || IonUTF8.isSurrogate(scalar)) {
+                        throw newUtf8Exception("invalid scalar value");
+                    }
+                    chars[count++] = (char) scalar;
+                    break;
+                }
+                default: {
+                    int scalar = IonUTF8.fourByteScalar(b1, bytes[i + 1], bytes[i + 2], bytes[i + 3]);
+                    if (scalar < 0x10000 || !IonUTF8.isFourByteScalar(scalar)) {
+                        throw newUtf8Exception("invalid scalar value");
+                    }
+                    chars[count++] = IonUTF8.highSurrogate(scalar);
+                    chars[count++] = IonUTF8.lowSurrogate(scalar);
+                    break;
+                }
             }
+            i += len;
         }
-
-        _local_remaining = save_limit;
-
-        decodingBuffer.flip();
-        return decodingBuffer.toString();
+        return new String(chars, 0, count);
     }
 
-    private String readStringWithReusableBuffer(int numberOfBytes) throws IOException {
-        int save_limit = NO_LIMIT;
-        if (_local_remaining != NO_LIMIT) {
-            save_limit = _local_remaining - numberOfBytes;
-        }
-        _local_remaining = numberOfBytes;
-        readAll(utf8InputBuffer.array(), 0, numberOfBytes);
-        _local_remaining = save_limit;
-
-        utf8InputBuffer.position(0);
-        utf8InputBuffer.limit(numberOfBytes);
-
-        utf8DecodingBuffer.position(0);
-        utf8DecodingBuffer.limit(utf8DecodingBuffer.capacity());
-
-        utf8CharsetDecoder.reset();
-        CoderResult coderResult = utf8CharsetDecoder.decode(utf8InputBuffer, utf8DecodingBuffer, true);
-        if (coderResult.isError()) {
-            throw new IonException("Illegal value encountered while validating UTF-8 data in input stream. " + coderResult.toString());
-        }
-        utf8DecodingBuffer.flip();
-        return utf8DecodingBuffer.toString();
+    private static IonException newUtf8Exception(String problem)
+    {
+        return new IonException("Illegal value encountered while validating UTF-8 data in input stream: " + problem);
     }
 
     private final void throwUnexpectedEOFException() throws IOException {
@@ -239,8 +239,7 @@ class IonReaderBinarySystemX
             _v.setAuthoritativeType(AS_TYPE.double_value);
             break;
         case DECIMAL:
-            Decimal dec = readDecimal(_value_len);
-            _v.setValue(dec);
+            loadDecimal(_value_len);
             _v.setAuthoritativeType(AS_TYPE.decimal_value);
             break;
         case TIMESTAMP:
@@ -23,6 +23,7 @@ import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE_SID;
 import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonType;
 import com.amazon.ion.OffsetSpan;
+import com.amazon.ion.PrimitiveArrayReader;
 import com.amazon.ion.RawValueSpanProvider;
 import com.amazon.ion.SeekableReader;
 import com.amazon.ion.Span;
@@ -138,6 +139,57 @@ final class IonReaderBinaryUserX
         return pos;
     }
 
+    /**
+     * Creates a seekable span that starts where the given span starts and
+     * extends over any following top-level data up to the given finish
+     * offset. Seeking to it reads those values with the symbol table that was
+     * in effect at the start of the given span.
+     *
+     * @param start must be a seekable span from a binary reader.
+     */
+    static Span newSegmentSpan(Span start, long finishOffset)
+    {
+        if (! (start instanceof IonReaderBinarySpan)
+            || ! ((IonReaderBinarySpan) start).isSeekable())
+        {
+            throw new IllegalArgumentException("Span isn't from a binary reader");
+        }
+        IonReaderBinarySpan from = (IonReaderBinarySpan) start;
+        if (finishOffset < from._offset)
+        {
+            throw new IllegalArgumentException("Finish offset precedes the span");
+        }
+        IonReaderBinarySpan pos =
+            newSpan(from._offset, finishOffset, from._symbol_table);
+        pos._state = from._state;
+        return pos;
+    }
+
+    /**
+     * Creates a seekable span over the top-level data between the given
+     * offsets, which must be value boundaries. Seeking to it reads that data
+     * with the given symbol table.
+     */
+    static IonReaderBinarySpan newSpan(long startOffset, long finishOffset,
+                                       SymbolTable symbols)
+    {
+        if (startOffset < 0 || finishOffset < startOffset)
+        {
+            throw new IllegalArgumentException("Invalid span: ["
+                                               + startOffset + ", "
+                                               + finishOffset + ")");
+        }
+        if (symbols == null)
+        {
+            throw new NullPointerException("symbols");
+        }
+        IonReaderBinarySpan pos = new IonReaderBinarySpan(true);
+        pos._offset = startOffset;
+        pos._limit = finishOffset;
+        pos._symbol_table = symbols;
+        return pos;
+    }
+
     public byte[] getCurrentBuffer()
     {
         return _input._bytes;
@@ -201,6 +253,21 @@ final class IonReaderBinaryUserX
     }
 
 
+    /**
+     * Continues reading at the top level over a new range of bytes, keeping
+     * the current symbol table. Unlike {@link #seek}, this is intended for
+     * data that logically follows what this reader has already consumed.
+     * <p>
+     * Only valid on a reader over a byte array that has reached the end of
+     * its input.
+     */
+    final void resume(byte[] bytes, int offset, int length)
+    {
+        ((FromByteArray) _input).reset(bytes, offset, length);
+        re_init_raw();
+    }
+
+
     @Override
     public IonType next()
     {
@@ -342,6 +409,10 @@ final class IonReaderBinaryUserX
         {
             return facetType.cast(new SpanProviderFacet());
         }
+        if (facetType == PrimitiveArrayReader.class)
+        {
+            return facetType.cast(new PrimitiveArrayReaderFacet());
+        }
 
         // TODO amzn/ion-java/issues/17 support seeking over InputStream
         if (_input instanceof FromByteArray)
@@ -443,4 +514,77 @@ final class IonReaderBinaryUserX
             sink.writeBytes(_input._bytes, inOffset, inLen);
         }
     }
+
+
+    /**
+     * Within a container the runs are decoded directly by the raw reader.
+     * At top-level every value must pass through {@link #hasNext()} so that
+     * system values are recognized, after which the raw reader decodes it.
+     */
+    private class PrimitiveArrayReaderFacet implements PrimitiveArrayReader
+    {
+        public int readLongs(long[] dst, int offset, int length)
+        {
+            checkRun(dst.length, offset, length);
+            if (getDepth() > 0)
+            {
+                return readLongRun(dst, offset, length);
+            }
+            int count = 0;
+            while (count < length
+                   && hasNext()
+                   && readLongRun(dst, offset + count, 1) == 1)
+            {
+                count++;
+            }
+            return count;
+        }
+
+        public int readDoubles(double[] dst, int offset, int length)
+        {
+            checkRun(dst.length, offset, length);
+            if (getDepth() > 0)
+            {
+                return readDoubleRun(dst, offset, length);
+            }
+            int count = 0;
+            while (count < length
+                   && hasNext()
+                   && readDoubleRun(dst, offset + count, 1) == 1)
+            {
+                count++;
+            }
+            return count;
+        }
+
+        public int readBooleans(boolean[] dst, int offset, int length)
+        {
+            checkRun(dst.length, offset, length);
+            if (getDepth() > 0)
+            {
+                return readBooleanRun(dst, offset, length);
+            }
+            int count = 0;
+            while (count < length
+                   && hasNext()
+                   && readBooleanRun(dst, offset + count, 1) == 1)
+            {
+                count++;
+            }
+            return count;
+        }
+
+        private void checkRun(int arrayLength, int offset, int length)
+        {
+            if (offset < 0 || length < 0 || offset > arrayLength - length)
+            {
+                throw new IllegalArgumentException();
+            }
+            if (isInStruct())
+            {
+                throw new IllegalStateException(
+                    "field values can't be read into an array");
+            }
+        }
+    }
 }
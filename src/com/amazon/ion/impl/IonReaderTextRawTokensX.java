@@ -30,6 +30,7 @@ import com.amazon.ion.impl.IonTokenConstsX.CharacterSequence;
 import com.amazon.ion.impl.UnifiedSavePointManagerX.SavePoint;
 import com.amazon.ion.util.IonTextUtils;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Tokenizer for the Ion text parser in IonTextIterator. This
@@ -193,6 +194,136 @@ final class IonReaderTextRawTokensX
         return c;
     }
 
+    /**
+     * Consumes the run of symbol identifier characters at the read position
+     * that lies within the current page, appending them to {@code sb} unless
+     * it's null. This is equivalent to, but much cheaper than, calling
+     * {@link #read_char()} for each character, since identifier characters
+     * are never line terminators. The caller continues with
+     * {@link #read_char()}, which reads the terminating character or moves
+     * to the next page.
+     */
+    private final void scan_symbol_identifier_chars(StringBuilder sb)
+    {
+        int pos = _stream._pos;
+        int limit = _stream._limit;
+        int start = pos;
+        if (_stream._byte_buffer != null) {
+            ByteBuffer bytes = _stream._byte_buffer;
+            while (pos < limit
+                   && IonTokenConstsX.isValidSymbolCharacter(bytes.get(pos) & 0xff)) {
+                pos++;
+            }
+            if (sb != null) {
+                append_ascii(sb, bytes, start, pos);
+            }
+        }
+        else if (_stream._is_byte_data) {
+            byte[] bytes = _stream._bytes;
+            while (pos < limit
+                   && IonTokenConstsX.isValidSymbolCharacter(bytes[pos] & 0xff)) {
+                pos++;
+            }
+            if (sb != null) {
+                append_ascii(sb, bytes, start, pos);
+            }
+        }
+        else {
+            char[] chars = _stream._chars;
+            while (pos < limit
+                   && IonTokenConstsX.isValidSymbolCharacter(chars[pos])) {
+                pos++;
+            }
+            if (sb != null && pos > start) {
+                sb.append(chars, start, pos - start);
+            }
+        }
+        _stream._pos = pos;
+    }
+
+    /**
+     * Consumes the run of printable ASCII characters, other than quotes and
+     * backslashes, at the read position that lies within the current page,
+     * appending them to {@code sb} unless it's null. These characters need
+     * neither unescaping, UTF-8 decoding nor line counting, so this is
+     * equivalent to calling {@link #read_string_char} for each one.
+     */
+    private final void scan_plain_string_chars(StringBuilder sb)
+    {
+        int pos = _stream._pos;
+        int limit = _stream._limit;
+        int start = pos;
+        if (_stream._byte_buffer != null) {
+            ByteBuffer bytes = _stream._byte_buffer;
+            while (pos < limit) {
+                // Bytes over 0x7F are negative.
+                int c = bytes.get(pos);
+                if (c < 0x20 || c == '"' || c == '\\') break;
+                pos++;
+            }
+            if (sb != null) {
+                append_ascii(sb, bytes, start, pos);
+            }
+        }
+        else if (_stream._is_byte_data) {
+            byte[] bytes = _stream._bytes;
+            while (pos < limit) {
+                // Bytes over 0x7F are negative.
+                int c = bytes[pos];
+                if (c < 0x20 || c == '"' || c == '\\') break;
+                pos++;
+            }
+            if (sb != null) {
+                append_ascii(sb, bytes, start, pos);
+            }
+        }
+        else {
+            char[] chars = _stream._chars;
+            while (pos < limit) {
+                int c = chars[pos];
+                if (c < 0x20 || c > 0x7F || c == '"' || c == '\\') break;
+                pos++;
+            }
+            if (sb != null && pos > start) {
+                sb.append(chars, start, pos - start);
+            }
+        }
+        _stream._pos = pos;
+    }
+
+    /** Scratch space for {@link #append_ascii}. */
+    private char[] _ascii_chars;
+
+    private final void append_ascii(StringBuilder sb, byte[] bytes,
+                                    int start, int end)
+    {
+        int len = end - start;
+        if (len == 0) return;
+        if (_ascii_chars == null || _ascii_chars.length < len) {
+            _ascii_chars = new char[Math.max(len, 64)];
+        }
+        char[] chars = _ascii_chars;
+        for (int ii = 0; ii < len; ii++) {
+            chars[ii] = (char) bytes[start + ii];
+        }
+        sb.append(chars, 0, len);
+    }
+
+    private final void append_ascii(StringBuilder sb, ByteBuffer bytes,
+                                    int start, int end)
+    {
+        int len = end - start;
+        if (len == 0) return;
+        if (_ascii_chars == null || _ascii_chars.length < len) {
+            _ascii_chars = new char[Math.max(len, 64)];
+        }
+        char[] chars = _ascii_chars;
+        for (int ii = 0; ii < len; ii++) {
+            chars[ii] = (char) bytes.get(start + ii);
+        }
+        sb.append(chars, 0, len);
+    }
+
     private final void unread_char(int c)
     {
         if (c < 0) {
@@ -1839,6 +1970,7 @@ final class IonReaderTextRawTokensX
 
     private final int skip_over_symbol_identifier(SavePoint sp) throws IOException
     {
+        scan_symbol_identifier_chars(null);
         int c = read_char();
 
         while(IonTokenConstsX.isValidSymbolCharacter(c)) {
@@ -1853,6 +1985,7 @@ final class IonReaderTextRawTokensX
 
     protected void load_symbol_identifier(StringBuilder sb) throws IOException
     {
+        scan_symbol_identifier_chars(sb);
         int c = read_char();
         while(IonTokenConstsX.isValidSymbolCharacter(c)) {
             sb.append((char)c);
@@ -1998,6 +2131,7 @@ final class IonReaderTextRawTokensX
     {
         int c;
         for (;;) {
+            scan_plain_string_chars(null);
             c = read_string_char(ProhibitedCharacters.NONE);
             switch (c) {
             case -1:
@@ -2023,6 +2157,9 @@ final class IonReaderTextRawTokensX
         boolean expectLowSurrogate = false;
 
         for (;;) {
+            if (!expectLowSurrogate) {
+                scan_plain_string_chars(sb);
+            }
             c = read_string_char(ProhibitedCharacters.SHORT_CHAR);
             switch (c) {
             case CharacterSequence.CHAR_SEQ_ESCAPED_NEWLINE_SEQUENCE_1:
@@ -249,6 +249,11 @@ class IonReaderTextSystemX
         }
 
 
+        if (load_number_fast(cs, token_type)) {
+            clear_current_value_buffer();
+            return;
+        }
+
         int          len = cs.length();
         String       s  = cs.toString();
 
@@ -428,6 +433,175 @@ class IonReaderTextSystemX
             parse_error("scalar token "+IonTokenConstsX.getTokenName(_scanner.getToken())+"isn't a recognized type");
         }
     }
+    /**
+     * Loads the common forms of decimal ints, floats and decimals straight
+     * from the token's characters, without the String, BigInteger or
+     * BigDecimal parsing of {@link #load_scalar_value()}.
+     *
+     * @return false, having loaded nothing, if the value needs the general
+     *  path.
+     */
+    private final boolean load_number_fast(StringBuilder cs, int token_type)
+    {
+        if (token_type == IonTokenConstsX.TOKEN_UNKNOWN_NUMERIC) {
+            switch (_value_type) {
+            case INT:
+                token_type = IonTokenConstsX.TOKEN_INT;
+                break;
+            case FLOAT:
+                token_type = IonTokenConstsX.TOKEN_FLOAT;
+                break;
+            case DECIMAL:
+                token_type = IonTokenConstsX.TOKEN_DECIMAL;
+                break;
+            default:
+                return false;
+            }
+        }
+
+        switch (token_type) {
+        case IonTokenConstsX.TOKEN_INT:
+            return load_int_fast(cs);
+        case IonTokenConstsX.TOKEN_FLOAT:
+            return load_float_fast(cs);
+        case IonTokenConstsX.TOKEN_DECIMAL:
+            return load_decimal_fast(cs);
+        default:
+            return false;
+        }
+    }
+
+    /** The most decimal digits that always fit in a long. */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final boolean load_int_fast(StringBuilder cs)
+    {
+        int len = cs.length();
+        int pos = (len > 0 && cs.charAt(0) == '-') ? 1 : 0;
+        if (pos == len || len - pos > MAX_LONG_DIGITS) {
+            return false;
+        }
+        long value = 0;
+        for (; pos < len; pos++) {
+            int c = cs.charAt(pos);
+            if (!IonTokenConstsX.isDigit(c)) {
+                return false;
+            }
+            value = value * 10 + (c - '0');
+        }
+        if (cs.charAt(0) == '-') {
+            value = -value;
+        }
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            _v.setValue((int) value);
+        }
+        else {
+            _v.setValue(value);
+        }
+        return true;
+    }
+
+    /**
+     * Converts floats with up to 18 significant digits, which covers the
+     * output of {@link Double#toString(double)}, by way of
+     * {@link DoubleParser}.
+     */
+    private final boolean load_float_fast(StringBuilder cs)
+    {
+        int len = cs.length();
+        int pos = 0;
+        boolean negative = false;
+        if (pos < len && cs.charAt(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenPoint = false;
+        boolean seenDigit = false;
+        for (; pos < len; pos++) {
+            int c = cs.charAt(pos);
+            if (IonTokenConstsX.isDigit(c)) {
+                seenDigit = true;
+                if (significand != 0 || c != '0') {
+                    if (++digits > MAX_LONG_DIGITS) {
+                        return false;
+                    }
+                    significand = significand * 10 + (c - '0');
+                }
+                if (seenPoint) {
+                    exponent--;
+                }
+            }
+            else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            }
+            else {
+                break;
+            }
+        }
+        if (!seenDigit) {
+            return false;
+        }
+
+        if (pos < len) {
+            int c = cs.charAt(pos++);
+            if (c != 'e' && c != 'E') {
+                return false;
+            }
+            boolean negativeExponent = false;
+            if (pos < len && (cs.charAt(pos) == '-' || cs.charAt(pos) == '+')) {
+                negativeExponent = cs.charAt(pos) == '-';
+                pos++;
+            }
+            // Longer exponents are out of range, and could overflow.
+            if (pos == len || len - pos > 4) {
+                return false;
+            }
+            int e = 0;
+            for (; pos < len; pos++) {
+                c = cs.charAt(pos);
+                if (!IonTokenConstsX.isDigit(c)) {
+                    return false;
+                }
+                e = e * 10 + (c - '0');
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        double value = DoubleParser.toDouble(significand, exponent);
+        if (Double.isNaN(value)) {
+            return false;
+        }
+        _v.setValue(negative ? -value : value);
+        return true;
+    }
+
+    /** Scratch space for {@link #load_decimal_fast}. */
+    private char[] _number_chars;
+
+    /**
+     * Parses decimals from a reused character array rather than a String.
+     * Values with up to 18 digits are held compactly, without a BigInteger.
+     */
+    private final boolean load_decimal_fast(StringBuilder cs)
+    {
+        int len = cs.length();
+        if (_number_chars == null || _number_chars.length < len) {
+            _number_chars = new char[Math.max(len, 32)];
+        }
+        cs.getChars(0, len, _number_chars, 0);
+        try {
+            _v.setValue(Decimal.valueOf(_number_chars, 0, len));
+        }
+        catch (NumberFormatException e) {
+            parse_error(e);
+        }
+        return true;
+    }
+
     private final void cast_cached_value(int new_type)
     {
         // this should only be called when it actually has to do some work
@@ -371,7 +371,14 @@ class IonReaderTextUserX
         //       But this is a time-to-market solution here.  The change can be
         //       made as support for streams is added.
         UnifiedInputStreamX iis;
-        if (current_stream._is_byte_data) {
+        if (current_stream.getByteBuffer() != null) {
+            iis = UnifiedInputStreamX.makeStream(
+                                            current_stream.getByteBuffer()
+                                          , array_offset
+                                          , array_length
+                                      );
+        }
+        else if (current_stream._is_byte_data) {
             byte[] bytes = current_stream.getByteArray();
             assert(bytes != null);
             iis = UnifiedInputStreamX.makeStream(
@@ -28,6 +28,7 @@ import com.amazon.ion.UnknownSymbolException;
 import com.amazon.ion.system.IonWriterBuilder.InitialIvmHandling;
 import com.amazon.ion.system.IonWriterBuilder.IvmMinimizing;
 import java.io.IOException;
+import java.math.BigDecimal;
 
 
 
@@ -274,6 +275,18 @@ abstract class IonWriterSystem
     }
 
 
+    /**
+     * Writes the decimal {@code unscaledValue * 10^-scale}. Subclasses that
+     * can print it without a {@link BigDecimal} should override.
+     *
+     * @see _Private_DecimalWriter
+     */
+    void writeDecimal(long unscaledValue, int scale) throws IOException
+    {
+        writeDecimal(BigDecimal.valueOf(unscaledValue, scale));
+    }
+
+
     /** Writes a symbol without checking for system ID. */
     abstract void writeSymbolAsIs(int symbolId) throws IOException;
 
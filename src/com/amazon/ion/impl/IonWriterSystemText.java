@@ -625,6 +625,15 @@ class IonWriterSystemText
         closeValue();
     }
 
+    @Override
+    void writeDecimal(long unscaledValue, int scale)
+        throws IOException
+    {
+        startValue();
+        _output.printDecimal(_options, unscaledValue, scale, false);
+        closeValue();
+    }
+
     public void writeTimestamp(Timestamp value) throws IOException
     {
         if (value == null) {
@@ -637,18 +646,18 @@ class IonWriterSystemText
         if (_options._timestamp_as_millis)
         {
             long millis = value.getMillis();
-            _output.appendAscii(Long.toString(millis));
+            _output.printInt(millis);
         }
         else if (_options._timestamp_as_string)
         {
             // Timestamp is ASCII-safe so this is easy
             _output.appendAscii('"');
-            _output.appendAscii(value.toString());
+            _output.printTimestamp(value);
             _output.appendAscii('"');
         }
         else
         {
-            _output.appendAscii(value.toString());
+            _output.printTimestamp(value);
         }
 
         closeValue();
@@ -183,6 +183,15 @@ class IonWriterSystemTextMarkup extends IonWriterSystemText {
         myTypeBeingWritten = null;
     }
 
+    @Override
+    void writeDecimal(long unscaledValue, int scale)
+        throws IOException
+    {
+        myTypeBeingWritten = IonType.DECIMAL;
+        super.writeDecimal(unscaledValue, scale);
+        myTypeBeingWritten = null;
+    }
+
     @Override
     public void writeFloat(double value)
         throws IOException
@@ -55,7 +55,7 @@ import java.math.BigInteger;
  */
 class IonWriterUser
     extends _Private_IonWriterBase
-    implements _Private_IonWriter
+    implements _Private_IonWriter, _Private_DecimalWriter
 {
     /** Factory for constructing the DOM of local symtabs. Not null. */
     private final ValueFactory _symtab_value_factory;
@@ -426,6 +426,11 @@ class IonWriterUser
         _current_writer.writeDecimal(value);
     }
 
+    public void writeDecimal(long unscaledValue, int scale) throws IOException
+    {
+        _current_writer.writeDecimal(unscaledValue, scale);
+    }
+
     public void writeFloat(double value) throws IOException
     {
         _current_writer.writeFloat(value);
@@ -442,7 +442,7 @@ done:       for (;;) {
         }
 
         /**
-         * Near clone of {@link IonReaderBinaryRawX#readDecimal(int)}
+         * Near clone of {@link IonReaderBinaryRawX#loadDecimal(int)}
          * and {@link IonBinary.Reader#readDecimalValue(IonDecimalImpl, int)}
          * so keep them in sync!
          */
@@ -18,6 +18,8 @@ package com.amazon.ion.impl;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * this base class and it's two children (below) manage
@@ -35,11 +37,15 @@ abstract class UnifiedDataPageX
 
     protected byte[]    _bytes;
     protected char[]    _characters;
+    protected ByteBuffer _byte_buffer; // read in place by Direct pages
 
 
     public static final UnifiedDataPageX makePage(byte[] bytes, int offset, int length) {
         return new Bytes(bytes, offset, length);
     }
+    public static final UnifiedDataPageX makePage(ByteBuffer bytes, int offset, int length) {
+        return new Direct(bytes, offset, length);
+    }
     public static final UnifiedDataPageX makePage(char[] chars, int offset, int length) {
         return new Chars(chars, offset, length);
     }
@@ -62,6 +68,7 @@ abstract class UnifiedDataPageX
     public final    PageType getPageType() { return _page_type; }
     public final    char[]   getCharBuffer() { return _characters; }
     public final    byte[]   getByteBuffer() { return _bytes; }
+    public final    ByteBuffer getDirectBuffer() { return _byte_buffer; }
 
     private final boolean isBytes() {
         return (_page_type == PageType.BYTES);
@@ -97,6 +104,29 @@ abstract class UnifiedDataPageX
         return read;
     }
 
+    /**
+     * Maps the region of the file that starts at the file position onto this
+     * page, along with the start_offset bytes before it, so that unreading
+     * into them finds the bytes that were read there.
+     */
+    int load(FileChannel channel, int region_size, int start_offset, long file_position) throws IOException
+    {
+        if (_page_type != PageType.BYTES || _bytes != null) {
+            throw new UnsupportedOperationException("only direct pages can map a file");
+        }
+        int read = (int) Math.min(channel.size() - file_position, region_size);
+        if (read > 0) {
+            _byte_buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                       file_position - start_offset,
+                                       start_offset + read);
+            _base_offset = start_offset;
+            _unread_count = 0;
+            _page_limit = start_offset + read;
+            setFilePosition(file_position, start_offset);
+        }
+        return read;
+    }
+
     public int getBufferLimit()    { return _page_limit; }
     public int getOriginalStartingOffset() { return _base_offset; }
 
@@ -205,6 +235,52 @@ abstract class UnifiedDataPageX
         }
     }
 
+    /**
+     * A byte page that's read in place from a {@link ByteBuffer}, such as a
+     * direct or memory-mapped buffer, rather than from an array.
+     */
+    public static final class Direct extends UnifiedDataPageX
+    {
+        public Direct() {
+            _page_type   = PageType.BYTES;
+        }
+        public Direct(ByteBuffer bytes, int offset, int len) {
+            _page_type   = PageType.BYTES;
+            _byte_buffer = bytes;
+            _base_offset = offset;
+            _page_limit  = offset + len;
+        }
+
+        @Override
+        public int getValue(int offset) {
+            return (_byte_buffer.get(offset) & 0xff);
+        }
+
+        @Override
+        public void putValue(int offset, int b) {
+            // Only the byte that was read is ever put back, and the buffer
+            // (which may be read-only) still holds it.
+        }
+
+        @Override
+        public final int readFrom(int pageOffset, byte[] bytes, int offset, int length) {
+            int bytes_read = length;
+            if (pageOffset >= _page_limit) return -1;
+
+            if (bytes_read > _page_limit - pageOffset) {
+                bytes_read = _page_limit - pageOffset;
+            }
+            _byte_buffer.position(pageOffset);
+            _byte_buffer.get(bytes, offset, bytes_read);
+
+            return bytes_read;
+        }
+        @Override
+        public final int readFrom(int pageOffset, char[] chars, int offset, int length) {
+            throw new UnsupportedOperationException("byte pages can't read characters");
+        }
+    }
+
     // FIXME: remove "public" when UnifiedOutputBufferX is
     //        integrated back into ion.impl
     public static final class Chars extends UnifiedDataPageX
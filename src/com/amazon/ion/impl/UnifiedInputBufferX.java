@@ -15,6 +15,7 @@
 
 package com.amazon.ion.impl;
 
+import java.nio.ByteBuffer;
 
 abstract class UnifiedInputBufferX
 {
@@ -30,6 +31,18 @@ abstract class UnifiedInputBufferX
         UnifiedInputBufferX buf = new UnifiedInputBufferX.Bytes(bytes, offset, length);
         return buf;
     }
+    public static UnifiedInputBufferX makePageBuffer(ByteBuffer bytes, int offset, int length) {
+        UnifiedInputBufferX buf = new UnifiedInputBufferX.Direct(bytes, offset, length);
+        return buf;
+    }
+    /**
+     * Makes a buffer of empty direct pages, each of which maps a region of a
+     * file when it's loaded.
+     */
+    public static UnifiedInputBufferX makeMappedPageBuffer(int regionSize) {
+        UnifiedInputBufferX buf = new UnifiedInputBufferX.Direct(regionSize);
+        return buf;
+    }
     public static UnifiedInputBufferX makePageBuffer(char[] chars, int offset, int length) {
         UnifiedInputBufferX buf = new UnifiedInputBufferX.Chars(chars, offset, length);
         return buf;
@@ -281,6 +294,29 @@ abstract class UnifiedInputBufferX
         public final int maxValue() { return 0xff; }
 
     }
+    static class Direct extends UnifiedInputBufferX {
+        protected Direct(int regionSize) {
+            super(regionSize);
+        }
+        /** Retains a reference to the buffer! */
+        protected Direct(ByteBuffer bytes, int offset, int length) {
+            super(length);
+            _buffers[0] = new UnifiedDataPageX.Direct(bytes, offset, length);
+            _buffer_current = 0;
+            _buffer_count = 1;
+        }
+        @Override
+        public final BufferType getType() { return BufferType.BYTES; }
+
+        @Override
+        protected final UnifiedDataPageX make_page(int page_size) {
+            UnifiedDataPageX p = new UnifiedDataPageX.Direct();
+            return p;
+        }
+
+        @Override
+        public final int maxValue() { return 0xff; }
+    }
     static class Chars extends UnifiedInputBufferX {
         protected Chars(int initialPageSize) {
             super(initialPageSize);
@@ -21,6 +21,8 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
  * This is a local stream abstraction, and implementation, that
@@ -84,8 +86,12 @@ abstract class UnifiedInputStreamX
     // source or a character source
     Reader                  _reader;
     InputStream             _stream;
+    FileChannel             _channel;
+    int                     _region_size;   // of each page mapped from _channel
+    // the current page's data; bytes are in either _bytes or _byte_buffer
     byte[]                  _bytes;
     char[]                  _chars;
+    ByteBuffer              _byte_buffer;
 
 
     UnifiedSavePointManagerX _save_points;
@@ -117,9 +123,16 @@ abstract class UnifiedInputStreamX
     public static UnifiedInputStreamX makeStream(InputStream stream) throws IOException {
         return new FromByteStream(stream);
     }
+    public static UnifiedInputStreamX makeStream(ByteBuffer buffer, int offset, int length) {
+        return new FromByteBuffer(buffer, offset, length);
+    }
+    public static UnifiedInputStreamX makeStream(FileChannel channel, int regionSize) throws IOException {
+        return new FromMappedFile(channel, regionSize);
+    }
     public final InputStream getInputStream() { return _stream; }
     public final Reader      getReader()      { return _reader; }
     public final byte[]      getByteArray()   { return _bytes; }
+    public final ByteBuffer  getByteBuffer()  { return _byte_buffer; }
     public final char[]      getCharArray()   { return _chars; }
 
     private final void init() {
@@ -192,6 +205,7 @@ abstract class UnifiedInputStreamX
         _eof = false;
         if (is_byte_data()) {
             _bytes = curr.getByteBuffer();
+            _byte_buffer = curr.getDirectBuffer();
         }
         else {
             _chars = curr.getCharBuffer();
@@ -231,7 +245,11 @@ abstract class UnifiedInputStreamX
                 // the actual beginning of the input - which is an error.
                 curr.inc_unread_count();
                 if (is_byte_data()) {
-                    _bytes[_pos] = (byte)c;
+                    // a direct page overlaps its predecessor, so it
+                    // already holds the byte
+                    if (_bytes != null) {
+                        _bytes[_pos] = (byte)c;
+                    }
                 }
                 else {
                     _chars[_pos] = (char)c;
@@ -255,7 +273,7 @@ abstract class UnifiedInputStreamX
     private final void verify_matched_unread(int c) {
         if (_debug) {
             if (is_byte_data()) {
-                assert(_bytes[_pos] == (byte)c);
+                assert(byte_at(_pos) == (byte)c);
             }
             else {
                 assert(_chars[_pos] == (char)c);
@@ -283,7 +301,7 @@ abstract class UnifiedInputStreamX
         // thing.
         if (_pos > curr.getStartingOffset()) {
             if (is_byte_data()) {
-                c = _bytes[_pos-1] & 0xff;
+                c = byte_at(_pos-1) & 0xff;
             }
             else {
                 c = _chars[_pos-1];
@@ -295,12 +313,19 @@ abstract class UnifiedInputStreamX
         return did_unread;
     }
 
+    private final byte byte_at(int pos) {
+        return (_bytes != null) ? _bytes[pos] : _byte_buffer.get(pos);
+    }
+
     public final int read() throws IOException {
         if (_pos >= _limit) return read_helper();
-        // both bytes and chars might be null if this is empty input
-        // otherwise we should have 1, and only 1, of these buffers set
-        assert((_bytes == null) ^ (_chars == null));
-        return (_is_byte_data) ? (_bytes[_pos++] & 0xff) : _chars[_pos++];
+        // bytes, byte buffer and chars might all be null if this is empty
+        // input otherwise we should have 1, and only 1, of these buffers set
+        assert((_bytes != null ? 1 : 0) + (_byte_buffer != null ? 1 : 0) + (_chars != null ? 1 : 0) == 1);
+        if (_is_byte_data) {
+            return (_bytes != null) ? (_bytes[_pos++] & 0xff) : (_byte_buffer.get(_pos++) & 0xff);
+        }
+        return _chars[_pos++];
     }
 
     protected final int read_helper() throws IOException
@@ -312,7 +337,7 @@ abstract class UnifiedInputStreamX
             return EOF;
         }
 
-        int c = (is_byte_data()) ? (_bytes[_pos++] & 0xff) : _chars[_pos++];
+        int c = (is_byte_data()) ? (byte_at(_pos++) & 0xff) : _chars[_pos++];
         return c;
     }
 
@@ -373,7 +398,13 @@ abstract class UnifiedInputStreamX
             if (ready > remaining) {
                 ready = remaining;
             }
-            System.arraycopy(_bytes, _pos, dst, offset, ready);
+            if (_bytes != null) {
+                System.arraycopy(_bytes, _pos, dst, offset, ready);
+            }
+            else {
+                _byte_buffer.position(_pos);
+                _byte_buffer.get(dst, offset, ready);
+            }
             _pos += ready;
             offset += ready;
             remaining -= ready;
@@ -521,7 +552,10 @@ abstract class UnifiedInputStreamX
     {
         int read = 0;
         if (can_fill_new_page()) {
-            if (is_byte_data()) {
+            if (_channel != null) {
+                read = curr.load(_channel, _region_size, start_pos, file_position);
+            }
+            else if (is_byte_data()) {
                 read = curr.load(_stream, start_pos, file_position);
             }
             else {
@@ -592,6 +626,68 @@ static class FromByteArray extends UnifiedInputStreamX
             make_page_current(curr, 0, offset, offset+length);
             super.init();
         }
+
+        /**
+         * Replaces the data of this stream with the given range, as if it had
+         * been constructed over it. Must not be called while a save point is
+         * active.
+         */
+        final void reset(byte[] bytes, int offset, int length)
+        {
+            UnifiedDataPageX curr = UnifiedDataPageX.makePage(bytes, offset, length);
+            _buffer.setPage(0, curr, false);
+            make_page_current(curr, 0, offset, offset+length);
+        }
+    }
+
+    /**
+     * Reads a buffer that has no accessible backing array (direct,
+     * memory-mapped, or read-only buffers) in place, as a single page indexed
+     * with absolute gets. Buffers with an array should use
+     * {@link FromByteArray}.
+     */
+    private static class FromByteBuffer extends UnifiedInputStreamX
+    {
+        FromByteBuffer(ByteBuffer buffer, int offset, int length)
+        {
+            _is_byte_data = true;
+            _is_stream = false;
+            _buffer = UnifiedInputBufferX.makePageBuffer(buffer, offset, length);
+            UnifiedDataPageX curr = _buffer.getCurrentPage();
+            make_page_current(curr, 0, offset, offset+length);
+            super.init();
+        }
+    }
+
+    /**
+     * Reads a file in place as a chain of memory-mapped regions, one per
+     * page, for files too large to be mapped by a single buffer. Each region
+     * also maps the {@link #UNREAD_LIMIT} bytes before it, so unreading
+     * across a page boundary never writes to a mapping.
+     */
+    private static class FromMappedFile extends UnifiedInputStreamX
+    {
+        FromMappedFile(FileChannel channel, int regionSize) throws IOException
+        {
+            if (regionSize < UNREAD_LIMIT) {
+                throw new IllegalArgumentException("region size must be at least " + UNREAD_LIMIT);
+            }
+            _is_byte_data = true;
+            _is_stream = true;
+            _channel = channel;
+            _region_size = regionSize;
+            _buffer = UnifiedInputBufferX.makeMappedPageBuffer(regionSize);
+            super.init();
+            _limit = refill();
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            super.close();
+            _channel.close();
+        }
     }
 
     private static class FromByteStream extends UnifiedInputStreamX
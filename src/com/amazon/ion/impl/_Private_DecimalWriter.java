@@ -0,0 +1,35 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonWriter;
+import java.io.IOException;
+
+/**
+ * NOT FOR APPLICATION USE!
+ * <p>
+ * An IonWriter that can write a decimal held as a long and a scale, without
+ * the caller building a {@link java.math.BigDecimal}.
+ */
+public interface _Private_DecimalWriter
+    extends IonWriter
+{
+    /**
+     * Writes the decimal {@code unscaledValue * 10^-scale}, which can't be
+     * negative zero.
+     */
+    public void writeDecimal(long unscaledValue, int scale) throws IOException;
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import java.io.IOException;
+
+/**
+ * NOT FOR APPLICATION USE!
+ * <p>
+ * An IonWriter that can write a whole DOM value in one piece.
+ */
+public interface _Private_DomValueWriter
+    extends IonWriter
+{
+    /**
+     * Writes a value in one piece, if this writer can do so more efficiently
+     * than by the value writing itself through this writer's API.
+     *
+     * @return true if the value has been written, false if the caller is to
+     * write it.
+     */
+    public boolean writeWholeValue(IonValue value) throws IOException;
+}
@@ -32,6 +32,7 @@ import com.amazon.ion.system.IonBinaryWriterBuilder;
 import com.amazon.ion.system.IonSystemBuilder;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * NOT FOR APPLICATION USE!
@@ -41,12 +42,19 @@ public class _Private_IonBinaryWriterBuilder
     extends IonBinaryWriterBuilder
 {
     // amzn/ion-java/issues/59 expose configuration points properly and figure out deprecation path for the old writer.
-    private final _Private_IonManagedBinaryWriterBuilder myBinaryWriterBuilder;
+    /** Replaced, rather than changed, when the pools are declared. */
+    private _Private_IonManagedBinaryWriterBuilder myBinaryWriterBuilder;
     private ValueFactory mySymtabValueFactory;
 
     /** System or local */
     private SymbolTable  myInitialSymbolTable;
 
+    /** -1 when the default pool is used. */
+    private long myThreadLocalPoolMaxRetainedBytes = -1;
+    private long myThreadLocalPoolMaxIdleMillis = -1;
+    /** -1 when writers built for channels use the same pool. */
+    private long myDirectPoolMaxRetainedBytes = -1;
+
 
     private _Private_IonBinaryWriterBuilder()
     {
@@ -65,6 +73,11 @@ public class _Private_IonBinaryWriterBuilder
 
         this.mySymtabValueFactory = that.mySymtabValueFactory;
         this.myInitialSymbolTable = that.myInitialSymbolTable;
+        this.myThreadLocalPoolMaxRetainedBytes =
+            that.myThreadLocalPoolMaxRetainedBytes;
+        this.myThreadLocalPoolMaxIdleMillis =
+            that.myThreadLocalPoolMaxIdleMillis;
+        this.myDirectPoolMaxRetainedBytes = that.myDirectPoolMaxRetainedBytes;
         this.myBinaryWriterBuilder = that.myBinaryWriterBuilder.copy();
     }
 
@@ -252,6 +265,69 @@ public class _Private_IonBinaryWriterBuilder
         return b;
     }
 
+    @Override
+    public long getThreadLocalBlockPoolMaxRetainedBytes()
+    {
+        return myThreadLocalPoolMaxRetainedBytes;
+    }
+
+    @Override
+    public long getThreadLocalBlockPoolMaxIdleMillis()
+    {
+        return myThreadLocalPoolMaxIdleMillis;
+    }
+
+    @Override
+    public void setThreadLocalBlockPool(long maxRetainedBytes,
+                                        long maxIdleMillis)
+    {
+        mutationCheck();
+        myBinaryWriterBuilder =
+            myBinaryWriterBuilder.withThreadLocalBlockPool(maxRetainedBytes,
+                                                           maxIdleMillis);
+        myThreadLocalPoolMaxRetainedBytes = maxRetainedBytes;
+        myThreadLocalPoolMaxIdleMillis = maxIdleMillis;
+    }
+
+    @Override
+    public _Private_IonBinaryWriterBuilder
+    withThreadLocalBlockPool(long maxRetainedBytes, long maxIdleMillis)
+    {
+        _Private_IonBinaryWriterBuilder b = mutable();
+        b.setThreadLocalBlockPool(maxRetainedBytes, maxIdleMillis);
+        return b;
+    }
+
+    @Override
+    public long getDirectBlockPoolMaxRetainedBytes()
+    {
+        return myDirectPoolMaxRetainedBytes;
+    }
+
+    @Override
+    public void setDirectBlockPool(long maxRetainedBytes)
+    {
+        mutationCheck();
+        myBinaryWriterBuilder =
+            myBinaryWriterBuilder.withDirectBlockPool(maxRetainedBytes);
+        myDirectPoolMaxRetainedBytes = maxRetainedBytes;
+    }
+
+    @Override
+    public _Private_IonBinaryWriterBuilder
+    withDirectBlockPool(long maxRetainedBytes)
+    {
+        _Private_IonBinaryWriterBuilder b = mutable();
+        b.setDirectBlockPool(maxRetainedBytes);
+        return b;
+    }
+
+    @Override
+    public void closeBlockPools()
+    {
+        myBinaryWriterBuilder.closeBlockPools();
+    }
+
     @Override
     public void setImports(final SymbolTable... imports)
     {
@@ -273,6 +349,13 @@ public class _Private_IonBinaryWriterBuilder
         myBinaryWriterBuilder.withStreamCopyOptimization(optimized);
     }
 
+    @Override
+    public void setCanonicalEncoding(final boolean canonical)
+    {
+        super.setCanonicalEncoding(canonical);
+        myBinaryWriterBuilder.withCanonicalEncoding(canonical);
+    }
+
     //=========================================================================
 
 
@@ -372,6 +455,21 @@ public class _Private_IonBinaryWriterBuilder
     }
 
 
+    @Override
+    public final IonWriter build(WritableByteChannel channel)
+    {
+        _Private_IonBinaryWriterBuilder b = fillDefaults();
+        try
+        {
+            return b.myBinaryWriterBuilder.newWriter(channel);
+        }
+        catch (final IOException e)
+        {
+            throw new IonException("I/O Error", e);
+        }
+    }
+
+
     @Deprecated
     public final IonBinaryWriter buildLegacy()
     {
@@ -27,9 +27,14 @@ import com.amazon.ion.IonTextReader;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.util.IonStreamUtils;
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -196,6 +201,125 @@ public final class _Private_IonReaderFactory
         }
     }
 
+    /**
+     * Creates a reader over the remaining content of the buffer, without
+     * changing its position. The buffer is read in place: through its array
+     * when it has an accessible one, and otherwise (direct, mapped, or
+     * read-only) with absolute gets.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             ByteBuffer buffer)
+    {
+        if (buffer.hasArray())
+        {
+            return makeReader(catalog,
+                              buffer.array(),
+                              buffer.arrayOffset() + buffer.position(),
+                              buffer.remaining());
+        }
+        try
+        {
+            ByteBuffer source = buffer.slice();
+            UnifiedInputStreamX uis;
+            if (isGzip(source))
+            {
+                InputStream in = new GZIPInputStream(new ByteBufferInputStream(source));
+                uis = UnifiedInputStreamX.makeStream(in);
+            }
+            else
+            {
+                uis = UnifiedInputStreamX.makeStream(source, 0, source.remaining());
+            }
+            return makeReader(catalog, uis, 0, LocalSymbolTable.DEFAULT_LST_FACTORY);
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+    }
+
+    /** The size of the regions a file too large for one mapping is read in. */
+    private static final int MAPPED_REGION_SIZE = 1 << 30;
+
+    /**
+     * Creates a reader over a file, memory-mapping it whole when it's small
+     * enough to be addressed by a single {@link ByteBuffer}, and otherwise as
+     * a chain of regions that are mapped as the reader reaches them.
+     */
+    public static final IonReader makeReader(IonCatalog catalog,
+                                             File file)
+    {
+        return makeReader(catalog, file, MAPPED_REGION_SIZE);
+    }
+
+    /*package*/ static final IonReader makeReader(IonCatalog catalog,
+                                                  File file,
+                                                  int regionSize)
+    {
+        try
+        {
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            boolean handedOff = false;
+            try
+            {
+                FileChannel channel = raf.getChannel();
+                long size = channel.size();
+                if (size <= regionSize)
+                {
+                    // The mapping remains valid after the channel is closed.
+                    ByteBuffer mapped =
+                        channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    return makeReader(catalog, mapped);
+                }
+                if (isGzip(channel.map(FileChannel.MapMode.READ_ONLY, 0, 2)))
+                {
+                    return makeReader(catalog, new FileInputStream(file));
+                }
+                // The stream closes the channel when the reader is closed.
+                UnifiedInputStreamX uis =
+                    UnifiedInputStreamX.makeStream(channel, regionSize);
+                handedOff = true;
+                return makeReader(catalog, uis, 0, LocalSymbolTable.DEFAULT_LST_FACTORY);
+            }
+            finally
+            {
+                if (! handedOff)
+                {
+                    raf.close();
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+    }
+
+    /**
+     * Creates a reader over binary Ion that tolerates top-level values that
+     * have only partially arrived; see {@link IonReaderBinaryIncrementalX}.
+     * Other input is handed to an ordinary reader.
+     */
+    public static final IonReader makeIncrementalReader(IonCatalog catalog,
+                                                        InputStream is)
+    {
+        is.getClass(); // Force NPE
+        return new IonReaderBinaryIncrementalX(catalog,
+                                               LocalSymbolTable.DEFAULT_LST_FACTORY,
+                                               is);
+    }
+
+    /**
+     * Creates a reader over binary Ion that's appended to it through the
+     * {@link com.amazon.ion.AppendableReader} facet.
+     */
+    public static final IonReader makeIncrementalReader(IonCatalog catalog)
+    {
+        return new IonReaderBinaryIncrementalX(catalog,
+                                               LocalSymbolTable.DEFAULT_LST_FACTORY,
+                                               null);
+    }
+
     public static IonReader makeSystemReader(InputStream is)
     {
         try {
@@ -324,6 +448,52 @@ public final class _Private_IonReaderFactory
         return uis;
     }
 
+    private static boolean isGzip(ByteBuffer buffer)
+    {
+        byte[] header = new byte[Math.min(buffer.remaining(), 2)];
+        for (int i = 0; i < header.length; i++)
+        {
+            header[i] = buffer.get(buffer.position() + i);
+        }
+        return IonStreamUtils.isGzip(header, 0, header.length);
+    }
+
+    /**
+     * Streams a buffer's remaining content, for use by decompressors.
+     */
+    private static final class ByteBufferInputStream
+        extends InputStream
+    {
+        private final ByteBuffer _buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer)
+        {
+            _buffer = buffer;
+        }
+
+        @Override
+        public int read()
+        {
+            return _buffer.hasRemaining() ? (_buffer.get() & 0xff) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len)
+        {
+            if (len == 0) return 0;
+            if (!_buffer.hasRemaining()) return -1;
+            int n = Math.min(len, _buffer.remaining());
+            _buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available()
+        {
+            return _buffer.remaining();
+        }
+    }
+
     private static final boolean has_binary_cookie(UnifiedInputStreamX uis)
         throws IOException
     {
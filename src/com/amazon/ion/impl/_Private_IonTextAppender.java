@@ -21,6 +21,7 @@ import static com.amazon.ion.impl._Private_IonConstants.isLowSurrogate;
 import static com.amazon.ion.impl._Private_IonConstants.makeUnicodeScalar;
 
 import com.amazon.ion.Decimal;
+import com.amazon.ion.Timestamp;
 import com.amazon.ion.impl.Base64Encoder.TextStream;
 import com.amazon.ion.system.IonTextWriterBuilder;
 import com.amazon.ion.util._Private_FastAppendable;
@@ -716,6 +717,45 @@ public final class _Private_IonTextAppender
     }
 
 
+    /**
+     * ONLY FOR USE BY {@link #printDecimal} and {@link #printFloat(double)},
+     * which format into the array and append through the wrapper.
+     */
+    private final char[] _numberChars = new char[DoubleFormatter.MAX_CHARS];
+    private final CharBuffer _numberText = CharBuffer.wrap(_numberChars);
+
+    /**
+     * Writes the digits of the magnitude of a long at the end of
+     * {@link #_numberChars}.
+     *
+     * @return the index of the first digit.
+     */
+    private int printDigits(long value)
+    {
+        int j = _numberChars.length;
+        if (value == 0) {
+            _numberChars[--j] = '0';
+        } else if (value < 0) {
+            while (value != 0) {
+                _numberChars[--j] = (char)(0x30 - value % 10);
+                value /= 10;
+            }
+        } else {
+            while (value != 0) {
+                _numberChars[--j] = (char)(0x30 + value % 10);
+                value /= 10;
+            }
+        }
+        return j;
+    }
+
+
+    /**
+     * The most digits an unscaled value can have and still be certain to
+     * fit in a long.
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+
     public void printDecimal(_Private_IonTextWriterBuilder _options,
                              BigDecimal                    value)
         throws IOException
@@ -726,38 +766,76 @@ public final class _Private_IonTextAppender
             return;
         }
 
-        BigInteger unscaled = value.unscaledValue();
+        boolean negativeZero = value instanceof Decimal
+            && ((Decimal)value).isNegativeZero();
+        int scale = value.scale();
 
-        int signum = value.signum();
-        if (signum < 0)
+        if (value.precision() <= MAX_LONG_DIGITS)
+        {
+            // unscaledValue() would inflate the JDK's compact long into a
+            // BigInteger. Scaling to a whole number keeps it compact, and
+            // longValue() returns it directly.
+            long unscaled = value.scaleByPowerOfTen(scale).longValue();
+            printDecimal(_options, unscaled, scale, negativeZero);
+            return;
+        }
+
+        BigInteger unscaled = value.unscaledValue();
+        if (value.signum() < 0)
         {
             appendAscii('-');
             unscaled = unscaled.negate();
         }
-        else if (value instanceof Decimal
-             && ((Decimal)value).isNegativeZero())
+        String unscaledText = unscaled.toString();
+        printDecimalDigits(_options, unscaledText, 0, unscaledText.length(), scale);
+    }
+
+    /**
+     * Prints the decimal {@code unscaled * 10^-scale}, without creating a
+     * {@link BigDecimal}.
+     *
+     * @param negativeZero whether a zero {@code unscaled} is negative zero,
+     *  which Ion distinguishes but a long can't.
+     */
+    public void printDecimal(_Private_IonTextWriterBuilder _options,
+                             long                          unscaled,
+                             int                           scale,
+                             boolean                       negativeZero)
+        throws IOException
+    {
+        if (unscaled < 0 || (unscaled == 0 && negativeZero))
         {
-            // for the various forms of negative zero we have to
-            // write the sign ourselves, since neither BigInteger
-            // nor BigDecimal recognize negative zero, but Ion does.
             appendAscii('-');
         }
+        // The digits are written into our buffer without creating a String.
+        int unscaledStart = printDigits(unscaled);
+        printDecimalDigits(_options, _numberText, unscaledStart,
+                           _numberChars.length, scale);
+    }
 
-        final String unscaledText = unscaled.toString();
-        final int significantDigits = unscaledText.length();
-
-        final int scale = value.scale();
+    /**
+     * Prints the digits of an unscaled value, whose sign has already been
+     * printed, placing the decimal point or exponent for the given scale.
+     */
+    private void printDecimalDigits(_Private_IonTextWriterBuilder _options,
+                                    CharSequence                  unscaledText,
+                                    int                           unscaledStart,
+                                    int                           unscaledEnd,
+                                    int                           scale)
+        throws IOException
+    {
+        final int significantDigits = unscaledEnd - unscaledStart;
         final int exponent = -scale;
 
         if (_options._decimal_as_float)
         {
-            appendAscii(unscaledText);
+            appendAscii(unscaledText, unscaledStart, unscaledEnd);
             appendAscii('e');
-            appendAscii(Integer.toString(exponent));
+            printInt(exponent);
         }
         else if (exponent == 0)
         {
-            appendAscii(unscaledText);
+            appendAscii(unscaledText, unscaledStart, unscaledEnd);
             appendAscii('.');
         }
         else if (exponent < 0)
@@ -768,32 +846,31 @@ public final class _Private_IonTextAppender
             final int adjustedExponent = significantDigits - 1 - scale;
             if (adjustedExponent >= 0)
             {
-                int wholeDigits = significantDigits - scale;
-                appendAscii(unscaledText, 0, wholeDigits);
+                int wholeEnd = unscaledStart + significantDigits - scale;
+                appendAscii(unscaledText, unscaledStart, wholeEnd);
                 appendAscii('.');
-                appendAscii(unscaledText, wholeDigits,
-                                    significantDigits);
+                appendAscii(unscaledText, wholeEnd, unscaledEnd);
             }
             else if (adjustedExponent >= -6)
             {
                 appendAscii("0.");
                 appendAscii("00000", 0, scale - significantDigits);
-                appendAscii(unscaledText);
+                appendAscii(unscaledText, unscaledStart, unscaledEnd);
             }
             else
             {
-                appendAscii(unscaledText);
+                appendAscii(unscaledText, unscaledStart, unscaledEnd);
                 appendAscii("d-");
-                appendAscii(Integer.toString(scale));
+                printInt(scale);
             }
         }
         else // (exponent > 0)
         {
             // We cannot move the decimal point to the right, adding
             // rightmost zeros, because that would alter the precision.
-            appendAscii(unscaledText);
+            appendAscii(unscaledText, unscaledStart, unscaledEnd);
             appendAscii('d');
-            appendAscii(Integer.toString(exponent));
+            printInt(exponent);
         }
     }
 
@@ -827,22 +904,8 @@ public final class _Private_IonTextAppender
         }
         else
         {
-            // Double.toString() forces a digit after the decimal point.
-            // Remove it when it's not meaningful.
-            String str = Double.toString(value);
-            if (str.endsWith(".0"))
-            {
-                appendAscii(str, 0, str.length() - 2);
-                appendAscii("e0");
-            }
-            else
-            {
-                appendAscii(str);
-                if (str.indexOf('E') == -1)
-                {
-                    appendAscii("e0");
-                }
-            }
+            int len = DoubleFormatter.format(value, _numberChars);
+            appendAscii(_numberText, 0, len);
         }
     }
 
@@ -860,6 +923,25 @@ public final class _Private_IonTextAppender
     }
 
 
+    //=========================================================================
+    // Timestamps
+
+
+    public void printTimestamp(Timestamp value)
+        throws IOException
+    {
+        if (value == null)
+        {
+            appendAscii("null.timestamp");
+        }
+        else
+        {
+            // Timestamp is ASCII-safe, so it can print straight to our sink.
+            value.print(myAppendable);
+        }
+    }
+
+
     //=========================================================================
     // LOBs
 
@@ -15,7 +15,6 @@
 
 package com.amazon.ion.impl;
 
-import com.amazon.ion.IonWriter;
 import java.io.IOException;
 
 /**
@@ -24,14 +23,7 @@ import java.io.IOException;
  * An IonWriter that has optimized list-writing.
  */
 public interface _Private_ListWriter
-    extends IonWriter
+    extends _Private_PrimitiveListWriter
 {
-    public void writeBoolList(boolean[] values)throws IOException;
-    public void writeFloatList(float[] values) throws IOException;
-    public void writeFloatList(double[] values) throws IOException;
-    public void writeIntList(byte[] values) throws IOException;
-    public void writeIntList(short[] values) throws IOException;
-    public void writeIntList(int[] values) throws IOException;
-    public void writeIntList(long[] values) throws IOException;
     public void writeStringList(String[] values) throws IOException;
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.impl.UnifiedInputStreamX.FromByteArray;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * NOT FOR APPLICATION USE!
+ * <p>
+ * A {@link _Private_LocalSymbolTableFactory} that remembers the local symbol
+ * tables it builds from binary data, keyed by the encoded bytes of the
+ * symbol table struct, so that readers seeing the same struct again (e.g.
+ * at the start of each of many small messages written by the same
+ * producer) reuse the table instead of decoding it again.
+ * <p>
+ * Only tables read by binary readers over byte arrays are cached, and only
+ * those declared in a system context, since the meaning of an appending
+ * symbol table depends on the table before it. Tables with imports that
+ * aren't in the catalog aren't cached, since the catalog may be updated,
+ * and tables with shared imports are only reused with the same catalog.
+ * Text, and binary data read from a stream, always decode their tables.
+ * Cached tables are made read-only and may be used by several readers at
+ * once. Once the cache is full, the table least recently used is evicted.
+ * <p>
+ * Instances of this class are safe for use by multiple threads. Lookups
+ * don't lock, so readers on many threads can share a cache; recency is
+ * tracked loosely, so eviction is only approximately least-recently-used
+ * when threads race.
+ */
+public final class _Private_LocalSymbolTableCache
+    implements _Private_LocalSymbolTableFactory
+{
+    private final _Private_LocalSymbolTableFactory myFactory =
+        LocalSymbolTable.DEFAULT_LST_FACTORY;
+
+    private final int myMaxSize;
+
+    private final ConcurrentMap<Key, CachedTable> myEntries;
+
+    /**
+     * @param maxSize the maximum number of tables to cache; must be positive.
+     */
+    public _Private_LocalSymbolTableCache(final int maxSize)
+    {
+        if (maxSize < 1)
+        {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        myMaxSize = maxSize;
+        myEntries = new ConcurrentHashMap<Key, CachedTable>();
+    }
+
+    /**
+     * Returns the maximum number of tables this cache holds.
+     */
+    public int getMaxSize()
+    {
+        return myMaxSize;
+    }
+
+    /**
+     * Returns the number of tables currently cached.
+     */
+    public int size()
+    {
+        return myEntries.size();
+    }
+
+    public SymbolTable newLocalSymtab(IonCatalog catalog,
+                                      IonReader reader,
+                                      boolean alreadyInStruct)
+    {
+        if (alreadyInStruct || ! (reader instanceof IonReaderBinaryUserX))
+        {
+            return myFactory.newLocalSymtab(catalog, reader, alreadyInStruct);
+        }
+        IonReaderBinaryUserX binary = (IonReaderBinaryUserX) reader;
+        if (! (binary._input instanceof FromByteArray)
+            || ! binary.getSymbolTable().isSystemTable())
+        {
+            return myFactory.newLocalSymtab(catalog, reader, false);
+        }
+
+        // The position covers the annotation wrapper, so the key includes
+        // the $ion_symbol_table annotation as well as the struct.
+        byte[] bytes = binary._input._bytes;
+        int offset = (int) binary._position_start;
+        int length = (int) binary._position_len;
+        if (offset < 0 || length > bytes.length - offset)
+        {
+            // Truncated; let the reader report it.
+            return myFactory.newLocalSymtab(catalog, reader, false);
+        }
+
+        Key probe = new Key(bytes, offset, length);
+        CachedTable cached = myEntries.get(probe);
+        if (cached != null
+            && (cached.myCatalog == null || cached.myCatalog == catalog))
+        {
+            cached.myLastUse = System.nanoTime();
+            // The reader skips over the struct we haven't stepped into.
+            return cached.mySymtab;
+        }
+
+        SymbolTable symtab = myFactory.newLocalSymtab(catalog, reader, false);
+        if (hasSubstituteImports(symtab))
+        {
+            return symtab;
+        }
+        symtab.makeReadOnly();
+
+        // Tables without shared imports don't depend on the catalog, so
+        // they can be shared by readers with different catalogs.
+        IonCatalog dependency =
+            (symtab.getImportedTables().length == 0 ? null : catalog);
+
+        byte[] copy = new byte[length];
+        System.arraycopy(bytes, offset, copy, 0, length);
+        Key key = new Key(copy, 0, length);
+        myEntries.put(key, new CachedTable(dependency, symtab));
+        if (myEntries.size() > myMaxSize)
+        {
+            evict();
+        }
+        return symtab;
+    }
+
+    /**
+     * Removes the least recently used tables until the cache is back
+     * within its bound. Only tables being added pay for the scan.
+     */
+    private void evict()
+    {
+        while (myEntries.size() > myMaxSize)
+        {
+            Map.Entry<Key, CachedTable> eldest = null;
+            for (Map.Entry<Key, CachedTable> entry : myEntries.entrySet())
+            {
+                if (eldest == null
+                    || entry.getValue().myLastUse
+                       - eldest.getValue().myLastUse < 0)
+                {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null)
+            {
+                return;
+            }
+            myEntries.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    public SymbolTable newLocalSymtab(SymbolTable defaultSystemSymtab,
+                                      SymbolTable... imports)
+    {
+        return myFactory.newLocalSymtab(defaultSystemSymtab, imports);
+    }
+
+    private static boolean hasSubstituteImports(SymbolTable symtab)
+    {
+        for (SymbolTable imported : symtab.getImportedTables())
+        {
+            if (imported.isSubstitute())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A range of bytes, compared by content. Probes refer to the reader's
+     * buffer; stored keys own a copy.
+     */
+    private static final class Key
+    {
+        private final byte[] myBytes;
+        private final int myOffset;
+        private final int myLength;
+        private final int myHash;
+
+        Key(byte[] bytes, int offset, int length)
+        {
+            myBytes = bytes;
+            myOffset = offset;
+            myLength = length;
+
+            int hash = length;
+            int end = offset + length;
+            for (int i = offset; i < end; i++)
+            {
+                hash = 31 * hash + bytes[i];
+            }
+            myHash = hash;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return myHash;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other) return true;
+            if (! (other instanceof Key)) return false;
+
+            Key that = (Key) other;
+            if (myHash != that.myHash || myLength != that.myLength)
+            {
+                return false;
+            }
+            for (int i = 0; i < myLength; i++)
+            {
+                if (myBytes[myOffset + i] != that.myBytes[that.myOffset + i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class CachedTable
+    {
+        /** The catalog the imports were resolved against, if any. */
+        final IonCatalog myCatalog;
+        final SymbolTable mySymtab;
+        /**
+         * When the table was last used, per {@link System#nanoTime()}.
+         * Not volatile, so that hits on many threads don't contend; a
+         * stale value only makes eviction less exact.
+         */
+        long myLastUse;
+
+        CachedTable(IonCatalog catalog, SymbolTable symtab)
+        {
+            myCatalog = catalog;
+            mySymtab = symtab;
+            myLastUse = System.nanoTime();
+        }
+    }
+}
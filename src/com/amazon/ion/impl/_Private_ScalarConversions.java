@@ -370,6 +370,44 @@ public class _Private_ScalarConversions
         }
     }
 
+    /**
+     * Returns {@code unscaledValue * 10^-scale} as the nearest double, as
+     * {@link BigDecimal#doubleValue()} would, but without building the
+     * {@link BigDecimal} in the common cases.
+     */
+    public static double decimalToDouble(long unscaledValue, int scale)
+    {
+        if (unscaledValue != Long.MIN_VALUE && scale != Integer.MIN_VALUE)
+        {
+            double magnitude =
+                DoubleParser.toDouble(Math.abs(unscaledValue), -scale);
+            if (!Double.isNaN(magnitude))
+            {
+                return unscaledValue < 0 ? -magnitude : magnitude;
+            }
+        }
+        return BigDecimal.valueOf(unscaledValue, scale).doubleValue();
+    }
+
+    /**
+     * Returns {@code unscaledValue * 10^-scale} as the nearest float, as
+     * {@link BigDecimal#floatValue()} would, but without building the
+     * {@link BigDecimal} in the common cases.
+     */
+    public static float decimalToFloat(long unscaledValue, int scale)
+    {
+        if (unscaledValue != Long.MIN_VALUE && scale != Integer.MIN_VALUE)
+        {
+            float magnitude =
+                DoubleParser.toFloat(Math.abs(unscaledValue), -scale);
+            if (!Float.isNaN(magnitude))
+            {
+                return unscaledValue < 0 ? -magnitude : magnitude;
+            }
+        }
+        return BigDecimal.valueOf(unscaledValue, scale).floatValue();
+    }
+
     public static final class ValueVariant
     {
         private static final BigInteger min_int_value = BigInteger.valueOf(Integer.MIN_VALUE);
@@ -380,6 +418,13 @@ public class _Private_ScalarConversions
         private static final BigDecimal max_int_decimal_value = BigDecimal.valueOf(Integer.MAX_VALUE);
         private static final BigDecimal min_long_decimal_value = BigDecimal.valueOf(Long.MIN_VALUE);
         private static final BigDecimal max_long_decimal_value = BigDecimal.valueOf(Long.MAX_VALUE);
+        private static final long[] LONG_POWERS_OF_TEN = new long[19];
+        static {
+            LONG_POWERS_OF_TEN[0] = 1;
+            for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+                LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+            }
+        }
 
         // member variables for the variant
         int         _authoritative_type_idx;             // the original type - this not the bit mask
@@ -392,7 +437,9 @@ public class _Private_ScalarConversions
         double      _double_value;
         String      _string_value;
         BigInteger  _bigInteger_value;
-        Decimal     _decimal_value;
+        Decimal     _decimal_value;              // null when the decimal is compact
+        long        _decimal_unscaled_value;
+        int         _decimal_scale;
         Date        _date_value;
         Timestamp   _timestamp_value;
 
@@ -463,6 +510,16 @@ public class _Private_ScalarConversions
             _decimal_value = value;
             set_value_type(AS_TYPE.decimal_value);
         }
+        /**
+         * Sets a decimal equal to {@code unscaledValue * 10^-scale}, leaving
+         * the {@link Decimal} to be built if and when it's asked for.
+         */
+        public final void setDecimalValue(long unscaledValue, int scale) {
+            _decimal_value = null;
+            _decimal_unscaled_value = unscaledValue;
+            _decimal_scale = scale;
+            set_value_type(AS_TYPE.decimal_value);
+        }
         public final void setValue(Date value) {
             _date_value = value;
             set_value_type(AS_TYPE.date_value);
@@ -555,11 +612,14 @@ public class _Private_ScalarConversions
         }
         public final BigDecimal getBigDecimal() {
             if (!hasValueOfType(AS_TYPE.decimal_value)) throw new ValueNotSetException("BigDecimal value not set");
+            if (_decimal_value == null) {
+                return BigDecimal.valueOf(_decimal_unscaled_value, _decimal_scale);
+            }
             return Decimal.bigDecimalValue(_decimal_value);
         }
         public final Decimal getDecimal() {
             if (!hasValueOfType(AS_TYPE.decimal_value)) throw new ValueNotSetException("BigDecimal value not set");
-            return _decimal_value;
+            return decimal_value();
         }
         public final Date getDate() {
             if (!hasValueOfType(AS_TYPE.date_value)) throw new ValueNotSetException("Date value not set");
@@ -654,6 +714,42 @@ public class _Private_ScalarConversions
             }
         }
 
+        private final Decimal decimal_value() {
+            if (_decimal_value == null) {
+                _decimal_value = Decimal.valueOf(_decimal_unscaled_value, _decimal_scale);
+            }
+            return _decimal_value;
+        }
+        /**
+         * Truncates a compact decimal to a long, as
+         * {@link BigDecimal#longValue()} does.
+         */
+        private final long compact_decimal_to_long() {
+            long value = _decimal_unscaled_value;
+            int scale = _decimal_scale;
+            if (scale > 0) {
+                return scale < LONG_POWERS_OF_TEN.length ? value / LONG_POWERS_OF_TEN[scale] : 0;
+            }
+            if (value != 0) {
+                for (; scale < 0; scale++) {
+                    if (value > Long.MAX_VALUE / 10 || value < Long.MIN_VALUE / 10) {
+                        throw new CantConvertException("BigDecimal value is too large to fit in a long");
+                    }
+                    value *= 10;
+                }
+            }
+            return value;
+        }
+        /** Whether a compact decimal has a non-zero fractional part. */
+        private final boolean compact_decimal_has_fraction() {
+            int scale = _decimal_scale;
+            if (scale <= 0) {
+                return false;
+            }
+            return scale >= LONG_POWERS_OF_TEN.length
+                || _decimal_unscaled_value % LONG_POWERS_OF_TEN[scale] != 0;
+        }
+
         private final void set_value_type(int type_idx) {
             _types_set = AS_TYPE.idx_to_bit_mask(type_idx);
             _authoritative_type_idx = type_idx;
@@ -730,7 +826,7 @@ public class _Private_ScalarConversions
             add_value_type(AS_TYPE.string_value);
         }
         private final void fn_from_decimal_to_string() {
-            _string_value = _decimal_value.toString();
+            _string_value = decimal_value().toString();
             add_value_type(AS_TYPE.string_value);
         }
         private final void fn_from_double_to_string() {
@@ -764,6 +860,18 @@ public class _Private_ScalarConversions
             add_value_type(AS_TYPE.int_value);
         }
         private final void fn_from_decimal_to_int() {
+            if (_decimal_value == null) {
+                long value = compact_decimal_to_long();
+                if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE
+                    || ((value == Integer.MIN_VALUE || value == Integer.MAX_VALUE)
+                        && compact_decimal_has_fraction())
+                ) {
+                    throw new CantConvertException("BigDecimal value is too large to fit in an int");
+                }
+                _int_value = (int)value;
+                add_value_type(AS_TYPE.int_value);
+                return;
+            }
             if (min_int_decimal_value.compareTo(_decimal_value) > 0
              || max_int_decimal_value.compareTo(_decimal_value) < 0
              ) {
@@ -795,6 +903,12 @@ public class _Private_ScalarConversions
             add_value_type(AS_TYPE.long_value);
         }
         private final void fn_from_decimal_to_long() {
+            if (_decimal_value == null) {
+                // A fraction can't push a long coefficient out of range.
+                _long_value = compact_decimal_to_long();
+                add_value_type(AS_TYPE.long_value);
+                return;
+            }
             if (min_long_decimal_value.compareTo(_decimal_value) > 0
              || max_long_decimal_value.compareTo(_decimal_value) < 0
             ) {
@@ -821,7 +935,7 @@ public class _Private_ScalarConversions
             add_value_type(AS_TYPE.bigInteger_value);
         }
         private final void fn_from_decimal_to_biginteger() {
-            _bigInteger_value = _decimal_value.toBigInteger();
+            _bigInteger_value = decimal_value().toBigInteger();
             add_value_type(AS_TYPE.bigInteger_value);
         }
         private final void fn_from_double_to_biginteger() {
@@ -860,7 +974,12 @@ public class _Private_ScalarConversions
             add_value_type(AS_TYPE.double_value);
         }
         private final void fn_from_decimal_to_double() {
-            _double_value = _decimal_value.doubleValue();
+            if (_decimal_value == null) {
+                _double_value = decimalToDouble(_decimal_unscaled_value, _decimal_scale);
+            }
+            else {
+                _double_value = _decimal_value.doubleValue();
+            }
             add_value_type(AS_TYPE.double_value);
         }
         private final void fn_from_timestamp_to_date() {
@@ -29,6 +29,7 @@ import static com.amazon.ion.SystemSymbols.VERSION;
 import static com.amazon.ion.SystemSymbols.VERSION_SID;
 import static com.amazon.ion.util.IonStreamUtils.isIonBinary;
 
+import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonException;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonStruct;
@@ -36,6 +37,7 @@ import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.SubstituteSymbolTableException;
+import com.amazon.ion.Span;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.UnknownSymbolException;
@@ -133,6 +135,51 @@ public final class _Private_Utils
         return (ListIterator<T>) EMPTY_ITERATOR;
     }
 
+    /**
+     * Creates a span over the top-level data from the start of a span taken
+     * from a binary reader up to the given finish offset, which a
+     * {@link com.amazon.ion.SeekableReader} over the same data can hoist in
+     * order to read those values with the right symbol table.
+     *
+     * @param start a seekable span of a top-level value, from a binary reader.
+     * @param finishOffset the offset, in the span's terms, at which to stop.
+     */
+    public static Span newBinarySegmentSpan(Span start, long finishOffset)
+    {
+        return IonReaderBinaryUserX.newSegmentSpan(start, finishOffset);
+    }
+
+    /**
+     * Creates a span over the top-level data between two offsets, which a
+     * {@link com.amazon.ion.SeekableReader} over binary data can hoist in
+     * order to read that data with the given symbol table.
+     *
+     * @param startOffset the offset of the start of a top-level value.
+     * @param finishOffset the offset at which to stop, after a top-level
+     *  value.
+     * @param symbols the symbol table in effect at the start offset.
+     */
+    public static Span newBinarySpan(long startOffset, long finishOffset,
+                                     SymbolTable symbols)
+    {
+        return IonReaderBinaryUserX.newSpan(startOffset, finishOffset, symbols);
+    }
+
+    /**
+     * Trampoline to the default {@link _Private_LocalSymbolTableFactory},
+     * reading a local symbol table from its struct representation.
+     *
+     * @param reader positioned on the struct.
+     */
+    public static SymbolTable readLocalSymbolTable(IonCatalog catalog,
+                                                   IonReader reader)
+    {
+        return LocalSymbolTable.DEFAULT_LST_FACTORY.newLocalSymtab(catalog,
+                                                                   reader,
+                                                                   true);
+    }
+
+
     public static boolean safeEquals(Object a, Object b)
     {
         // Written for the common case where they are not the same instance
@@ -158,6 +205,22 @@ public final class _Private_Utils
         return result;
     }
 
+    public static int[] copyOf(int[] original, int newLength)
+    {
+        int[] result = new int[newLength];
+        System.arraycopy(original, 0, result, 0,
+                         Math.min(newLength, original.length));
+        return result;
+    }
+
+    public static long[] copyOf(long[] original, int newLength)
+    {
+        long[] result = new long[newLength];
+        System.arraycopy(original, 0, result, 0,
+                         Math.min(newLength, original.length));
+        return result;
+    }
+
     public static <T> void addAll(Collection<T> dest, Iterator<T> src)
     {
         if (src != null)
@@ -16,24 +16,49 @@
 package com.amazon.ion.impl.bin;
 
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 
 /**
  * An abstraction for a block of managed memory.  A {@link Block} is acquired by a caller via
  * {@link BlockAllocator#allocateBlock()} and released by {@link #close()}.
  * <p>
+ * A block is backed either by a heap array, {@link #data}, or by off-heap memory, {@link #direct}.  Code that writes
+ * straight into {@link #data} must check that it isn't null; the accessors here work for either kind of block.
+ * <p>
  * This class and its implementations are <b>not</b> thread-safe.
  */
 /*package*/ abstract class Block implements Closeable
 {
-    /** The data backing this block. */
+    // Copies into off-heap blocks shorter than this are done an octet at a time, as a bulk copy costs more to set up.
+    private static final int SMALL_COPY_LENGTH = 32;
+
+    /** The data backing this block, or {@code null} if the block is backed by {@link #direct}. */
     public final byte[] data;
+    /** The direct buffer backing this block, or {@code null} if the block is backed by {@link #data}. */
+    public final ByteBuffer direct;
     /** The first index for which data has not been written to or read from. */
     public int limit;
 
+    private final int capacity;
+    /** A view of {@link #direct} for copying out of it without allocating; created on first use. */
+    private ByteBuffer copyView;
+
     /*package*/ Block(final byte[] data)
     {
         this.data = data;
+        this.direct = null;
+        this.capacity = data.length;
+        this.limit = 0;
+    }
+
+    /*package*/ Block(final ByteBuffer direct)
+    {
+        this.data = null;
+        this.direct = direct;
+        this.capacity = direct.capacity();
         this.limit = 0;
     }
 
@@ -43,16 +68,126 @@ import java.io.Closeable;
         limit = 0;
     }
 
-    /** Returns the unused amount of bytes from the limit to the capacity of the data array. */
+    /** Returns the unused amount of bytes from the limit to the capacity of the block. */
     public final int remaining()
     {
-        return data.length - limit;
+        return capacity - limit;
     }
 
-    /** Returns the underlying data array's capacity. */
+    /** Returns the block's capacity. */
     public final int capacity()
     {
-        return data.length;
+        return capacity;
+    }
+
+    /** Returns the octet at the given index. */
+    public final byte get(final int index)
+    {
+        if (data != null)
+        {
+            return data[index];
+        }
+        return direct.get(index);
+    }
+
+    /** Stores an octet at the given index. */
+    public final void put(final int index, final byte octet)
+    {
+        if (data != null)
+        {
+            data[index] = octet;
+        }
+        else
+        {
+            direct.put(index, octet);
+        }
+    }
+
+    /** Copies bytes into the block starting at the given index. */
+    public final void put(final int index, final byte[] bytes, final int off, final int len)
+    {
+        if (data != null)
+        {
+            System.arraycopy(bytes, off, data, index, len);
+        }
+        else if (len < SMALL_COPY_LENGTH)
+        {
+            for (int i = 0; i < len; i++)
+            {
+                direct.put(index + i, bytes[off + i]);
+            }
+        }
+        else
+        {
+            direct.position(index);
+            direct.put(bytes, off, len);
+        }
+    }
+
+    /** Copies a segment of the block into another block starting at the given index. */
+    public final void copyTo(final int off, final Block dst, final int index, final int len)
+    {
+        if (data != null)
+        {
+            dst.put(index, data, off, len);
+        }
+        else if (dst.data != null)
+        {
+            direct.position(off);
+            direct.get(dst.data, index, len);
+        }
+        else if (len < SMALL_COPY_LENGTH)
+        {
+            for (int i = 0; i < len; i++)
+            {
+                dst.direct.put(index + i, direct.get(off + i));
+            }
+        }
+        else
+        {
+            if (copyView == null)
+            {
+                copyView = direct.duplicate();
+            }
+            copyView.clear();
+            copyView.limit(off + len);
+            copyView.position(off);
+            dst.direct.position(index);
+            dst.direct.put(copyView);
+        }
+    }
+
+    /** Writes a segment of the block to a stream; an off-heap segment is copied through a heap array. */
+    public final void writeTo(final OutputStream out, int off, int len) throws IOException
+    {
+        if (data != null)
+        {
+            out.write(data, off, len);
+            return;
+        }
+        final byte[] chunk = new byte[Math.min(len, 8192)];
+        while (len > 0)
+        {
+            final int amount = Math.min(len, chunk.length);
+            direct.position(off);
+            direct.get(chunk, 0, amount);
+            out.write(chunk, 0, amount);
+            off += amount;
+            len -= amount;
+        }
+    }
+
+    /** Returns a buffer over a segment of the block, to be handed to a channel. */
+    public final ByteBuffer slice(final int off, final int len)
+    {
+        if (data != null)
+        {
+            return ByteBuffer.wrap(data, off, len);
+        }
+        final ByteBuffer slice = direct.duplicate();
+        slice.limit(off + len);
+        slice.position(off);
+        return slice;
     }
 
     /**
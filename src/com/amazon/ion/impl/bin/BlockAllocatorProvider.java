@@ -33,4 +33,10 @@ package com.amazon.ion.impl.bin;
      * to be released or reused properly.
      */
     public abstract BlockAllocator vendAllocator(int blockSize);
+
+    /**
+     * Releases the free blocks retained for reuse and stops retaining any more, for providers that pool blocks.
+     * Allocators already vended keep working, but the blocks they vend are left to the garbage collector once closed.
+     */
+    public void close() {}
 }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * An {@link OutputStream} over a blocking {@link WritableByteChannel}.
+ * <p>
+ * {@link IonRawBinaryWriter} recognizes the stream and hands its blocks to {@link #channel()} with gathering writes.
+ * When the writer is given off-heap blocks by {@link DirectBlockAllocatorProvider}, the encoded data reaches the
+ * channel without being copied onto the heap or into a temporary direct buffer.
+ * Bytes written through the {@link OutputStream} methods are passed to the channel as they are.
+ * <p>
+ * A {@link SelectableChannel} in non-blocking mode is rejected, as writes would have to wait for it.  Closing this
+ * stream closes the channel.
+ * <p>
+ * This class is <b>not</b> thread-safe.
+ */
+/*package*/ final class ByteChannelOutputStream extends OutputStream
+{
+    /**
+     * Adapts a channel that can't do gathering writes by writing the buffers in turn, which it does in full, so it
+     * rejects a channel that has been put in non-blocking mode since.
+     */
+    private static final class GatheringAdapter implements GatheringByteChannel
+    {
+        private final WritableByteChannel channel;
+
+        GatheringAdapter(final WritableByteChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        public long write(final ByteBuffer[] srcs, final int offset, final int length) throws IOException
+        {
+            long written = 0;
+            for (int i = offset; i < offset + length; i++)
+            {
+                while (srcs[i].hasRemaining())
+                {
+                    final int amount = channel.write(srcs[i]);
+                    if (amount == 0 && !isBlocking(channel))
+                    {
+                        throw new IOException("Channel is in non-blocking mode");
+                    }
+                    written += amount;
+                }
+            }
+            return written;
+        }
+
+        public long write(final ByteBuffer[] srcs) throws IOException
+        {
+            return write(srcs, 0, srcs.length);
+        }
+
+        public int write(final ByteBuffer src) throws IOException
+        {
+            return channel.write(src);
+        }
+
+        public boolean isOpen()
+        {
+            return channel.isOpen();
+        }
+
+        public void close() throws IOException
+        {
+            channel.close();
+        }
+    }
+
+    /** The channel as given, which is what may be switched to non-blocking mode. */
+    private final WritableByteChannel target;
+    private final GatheringByteChannel channel;
+    private boolean closed;
+
+    /**
+     * @throws IllegalArgumentException if the channel is a {@link SelectableChannel} in non-blocking mode.
+     */
+    public ByteChannelOutputStream(final WritableByteChannel channel)
+    {
+        if (channel == null)
+        {
+            throw new NullPointerException();
+        }
+        if (!isBlocking(channel))
+        {
+            throw new IllegalArgumentException("Channel must be in blocking mode");
+        }
+        this.target = channel;
+        if (channel instanceof GatheringByteChannel)
+        {
+            this.channel = (GatheringByteChannel) channel;
+        }
+        else
+        {
+            this.channel = new GatheringAdapter(channel);
+        }
+    }
+
+    /** Returns the channel, which data may be written to directly. */
+    public GatheringByteChannel channel() throws IOException
+    {
+        checkNotClosed();
+        return channel;
+    }
+
+    /** Returns false if the channel is a {@link SelectableChannel} in non-blocking mode. */
+    /*package*/ static boolean isBlocking(final Channel channel)
+    {
+        return !(channel instanceof SelectableChannel) || ((SelectableChannel) channel).isBlocking();
+    }
+
+    private boolean isBlocking()
+    {
+        return isBlocking(target);
+    }
+
+    private void checkNotClosed() throws IOException
+    {
+        if (closed)
+        {
+            throw new IOException("Stream is closed");
+        }
+    }
+
+    @Override
+    public void write(final int b) throws IOException
+    {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException
+    {
+        checkNotClosed();
+        final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+        while (buffer.hasRemaining())
+        {
+            if (channel.write(buffer) == 0 && !isBlocking())
+            {
+                throw new IOException("Channel is in non-blocking mode");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+        channel.close();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pooling implementation of {@link BlockAllocatorProvider} that vends blocks backed by direct (off-heap) buffers,
+ * which a channel can write from without copying them.
+ * <p>
+ * Direct buffers are costly to allocate and are only freed by the garbage collector, so free blocks are pooled, but
+ * at most {@code maxRetainedBytes} of them across all block sizes; blocks closed beyond that are dropped.
+ * <p>
+ * This implementation is thread-safe.
+ */
+/*package*/ final class DirectBlockAllocatorProvider extends BlockAllocatorProvider
+{
+    /**
+     * A {@link BlockAllocator} for a particular size that has a single thread-safe free list.
+     * <p>
+     * This implementation is thread-safe.
+     */
+    private final class DirectBlockAllocator extends BlockAllocator
+    {
+        private final int blockSize;
+        private final ConcurrentLinkedQueue<Block> freeBlocks;
+
+        public DirectBlockAllocator(final int blockSize)
+        {
+            this.blockSize = blockSize;
+            this.freeBlocks = new ConcurrentLinkedQueue<Block>();
+        }
+
+        @Override
+        public Block allocateBlock()
+        {
+            Block block = freeBlocks.poll();
+            if (block != null)
+            {
+                retainedBytes.addAndGet(-blockSize);
+                return block;
+            }
+            return new Block(ByteBuffer.allocateDirect(blockSize))
+            {
+                @Override
+                public void close()
+                {
+                    reset();
+                    if (retainedBytes.addAndGet(blockSize) <= maxRetainedBytes)
+                    {
+                        freeBlocks.add(this);
+                        if (closed)
+                        {
+                            drain();
+                        }
+                    }
+                    else
+                    {
+                        retainedBytes.addAndGet(-blockSize);
+                    }
+                }
+            };
+        }
+
+        /** Drops every free block. */
+        void drain()
+        {
+            while (freeBlocks.poll() != null)
+            {
+                retainedBytes.addAndGet(-blockSize);
+            }
+        }
+
+        @Override
+        public int getBlockSize()
+        {
+            return blockSize;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private final long maxRetainedBytes;
+    private volatile boolean closed;
+    private final AtomicLong retainedBytes;
+    private final ConcurrentMap<Integer, DirectBlockAllocator> allocators;
+
+    public DirectBlockAllocatorProvider(final long maxRetainedBytes)
+    {
+        if (maxRetainedBytes < 0)
+        {
+            throw new IllegalArgumentException("Invalid retained byte bound: " + maxRetainedBytes);
+        }
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.retainedBytes = new AtomicLong();
+        this.allocators = new ConcurrentHashMap<Integer, DirectBlockAllocator>();
+    }
+
+    @Override
+    public void close()
+    {
+        closed = true;
+        for (final DirectBlockAllocator allocator : allocators.values())
+        {
+            allocator.drain();
+        }
+    }
+
+    /** Returns the bytes of free blocks currently retained. */
+    /*package*/ long retainedBytes()
+    {
+        return retainedBytes.get();
+    }
+
+    @Override
+    public BlockAllocator vendAllocator(final int blockSize)
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+
+        DirectBlockAllocator allocator = allocators.get(blockSize);
+        if (allocator == null)
+        {
+            allocator = new DirectBlockAllocator(blockSize);
+            final DirectBlockAllocator existingAllocator = allocators.putIfAbsent(blockSize, allocator);
+            if (existingAllocator != null)
+            {
+                allocator = existingAllocator;
+            }
+        }
+        return allocator;
+    }
+}
@@ -0,0 +1,678 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static com.amazon.ion.IonType.LIST;
+import static com.amazon.ion.IonType.STRUCT;
+import static com.amazon.ion.SystemSymbols.ION_1_0;
+import static com.amazon.ion.SystemSymbols.ION_1_0_MAX_ID;
+import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE;
+import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE_SID;
+import static com.amazon.ion.SystemSymbols.SYMBOLS_SID;
+import static com.amazon.ion.impl.bin.Symbols.systemSymbolTable;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonType;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.UnknownSymbolException;
+import com.amazon.ion.impl._Private_Utils;
+import com.amazon.ion.impl.bin.IonRawBinaryWriter.PreallocationMode;
+import com.amazon.ion.impl.bin.IonRawBinaryWriter.StreamCloseMode;
+import com.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Writes the canonical binary encoding, in which equivalent data always
+ * encodes to the same bytes.
+ * <p>
+ * Each top-level value is held until it's complete, then written with its
+ * own local symbol table, listing the symbols it uses in sorted order, so
+ * its bytes don't depend on the values before it. Struct fields are sorted
+ * by symbol ID and then by their encoded bytes, lengths and integers are
+ * minimal, floats are always 64 bits with a single NaN, and there is no
+ * padding.
+ */
+@SuppressWarnings("deprecation")
+/*package*/ final class IonCanonicalBinaryWriter extends AbstractIonWriter
+{
+    /** A value held until the top-level value containing it is complete. */
+    private static final class Node
+    {
+        final IonType   type;
+        /** Null if not in a struct, or for symbol zero. */
+        final String    fieldName;
+        /** Null elements are symbol zero. */
+        final String[]  annotations;
+        /**
+         * Null for null values, a list of children for containers, and
+         * {@link IonCanonicalBinaryWriter#SYMBOL_ZERO} for symbol zero.
+         */
+        final Object    content;
+
+        Node(final IonType type, final String fieldName, final String[] annotations, final Object content)
+        {
+            this.type = type;
+            this.fieldName = fieldName;
+            this.annotations = annotations;
+            this.content = content;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Node> children()
+        {
+            return (List<Node>) content;
+        }
+    }
+
+    /** An encoded struct field. */
+    private static final class Field
+    {
+        final int    sid;
+        final byte[] value;
+
+        Field(final int sid, final byte[] value)
+        {
+            this.sid = sid;
+            this.value = value;
+        }
+    }
+
+    private static final Comparator<Field> FIELD_ORDER = new Comparator<Field>()
+    {
+        public int compare(final Field f1, final Field f2)
+        {
+            if (f1.sid != f2.sid)
+            {
+                return f1.sid < f2.sid ? -1 : 1;
+            }
+            final int length = Math.min(f1.value.length, f2.value.length);
+            for (int i = 0; i < length; i++)
+            {
+                final int b1 = f1.value[i] & 0xFF;
+                final int b2 = f2.value[i] & 0xFF;
+                if (b1 != b2)
+                {
+                    return b1 - b2;
+                }
+            }
+            return f1.value.length - f2.value.length;
+        }
+    };
+
+    private static final Object SYMBOL_ZERO = Integer.valueOf(0);
+    private static final String[] NO_ANNOTATIONS = new String[0];
+    private static final int[] NO_SIDS = new int[0];
+
+    private final IonCatalog            catalog;
+    private final IonRawBinaryWriter    output;
+    private final ByteArrayOutputStream scratchBytes;
+    private final IonRawBinaryWriter    scratch;
+
+    private final List<Node>            containers;
+    private String                      fieldName;
+    private boolean                     isFieldNameSet;
+    private final List<String>          annotations;
+    private final Map<String, Integer>  localSids;
+
+    private boolean                     closed;
+
+    /*package*/ IonCanonicalBinaryWriter(final _Private_IonManagedBinaryWriterBuilder builder,
+                                         final OutputStream out)
+                                         throws IOException
+    {
+        super(WriteValueOptimization.NONE);
+
+        this.catalog = builder.catalog;
+        this.output = new IonRawBinaryWriter(
+            builder.provider,
+            builder.userBlockSize,
+            out,
+            WriteValueOptimization.NONE,
+            StreamCloseMode.CLOSE,
+            StreamFlushMode.FLUSH,
+            PreallocationMode.PREALLOCATE_0,
+            false
+        );
+        this.scratchBytes = new ByteArrayOutputStream();
+        this.scratch = new IonRawBinaryWriter(
+            builder.provider,
+            builder.symbolsBlockSize,
+            scratchBytes,
+            WriteValueOptimization.NONE,
+            StreamCloseMode.NO_CLOSE,
+            StreamFlushMode.NO_FLUSH,
+            PreallocationMode.PREALLOCATE_0,
+            false
+        );
+
+        this.containers = new ArrayList<Node>();
+        this.annotations = new ArrayList<String>();
+        this.localSids = new HashMap<String, Integer>();
+
+        output.writeIonVersionMarker();
+    }
+
+    // Symbols
+
+    /** Returns the text of a symbol, or null for symbol zero. */
+    private static String text(final SymbolToken token)
+    {
+        final String text = token.getText();
+        if (text == null && token.getSid() != 0)
+        {
+            throw new UnknownSymbolException(token.getSid());
+        }
+        return text;
+    }
+
+    private void collectSymbols(final Node node, final TreeSet<String> symbols)
+    {
+        addSymbol(node.fieldName, symbols);
+        for (final String annotation : node.annotations)
+        {
+            addSymbol(annotation, symbols);
+        }
+        if (node.type == IonType.SYMBOL && node.content instanceof String)
+        {
+            addSymbol((String) node.content, symbols);
+        }
+        else if (IonType.isContainer(node.type) && node.content != null)
+        {
+            for (final Node child : node.children())
+            {
+                collectSymbols(child, symbols);
+            }
+        }
+    }
+
+    private static void addSymbol(final String text, final TreeSet<String> symbols)
+    {
+        if (text != null && systemSymbolTable().findSymbol(text) < 0)
+        {
+            symbols.add(text);
+        }
+    }
+
+    private int sid(final String text)
+    {
+        if (text == null)
+        {
+            return 0;
+        }
+        final Integer sid = localSids.get(text);
+        if (sid != null)
+        {
+            return sid;
+        }
+        return systemSymbolTable().findSymbol(text);
+    }
+
+    private int[] sids(final String[] texts)
+    {
+        if (texts.length == 0)
+        {
+            return NO_SIDS;
+        }
+        final int[] sids = new int[texts.length];
+        for (int i = 0; i < texts.length; i++)
+        {
+            sids[i] = sid(texts[i]);
+        }
+        return sids;
+    }
+
+    // Encoding
+
+    private void writeTopLevel(final Node node) throws IOException
+    {
+        if (node.type == STRUCT && node.annotations.length > 0 && ION_SYMBOL_TABLE.equals(node.annotations[0]))
+        {
+            // symbol tables are this writer's business, not data
+            return;
+        }
+
+        final TreeSet<String> symbols = new TreeSet<String>();
+        collectSymbols(node, symbols);
+        localSids.clear();
+        int sid = ION_1_0_MAX_ID;
+        for (final String symbol : symbols)
+        {
+            localSids.put(symbol, ++sid);
+        }
+
+        final byte[] value = encode(node);
+
+        if (!symbols.isEmpty())
+        {
+            output.setTypeAnnotationSymbols(ION_SYMBOL_TABLE_SID);
+            output.stepIn(STRUCT);
+            output.setFieldNameSymbol(SYMBOLS_SID);
+            output.stepIn(LIST);
+            for (final String symbol : symbols)
+            {
+                output.writeString(symbol);
+            }
+            output.stepOut();
+            output.stepOut();
+        }
+        output.writeBytes(value, 0, value.length);
+    }
+
+    /** Encodes a value and its annotations, but not its field name. */
+    private byte[] encode(final Node node) throws IOException
+    {
+        if (IonType.isContainer(node.type) && node.content != null)
+        {
+            // encode the children first, as they use the scratch writer too
+            final List<Node> children = node.children();
+            final Field[] fields = new Field[children.size()];
+            for (int i = 0; i < fields.length; i++)
+            {
+                final Node child = children.get(i);
+                fields[i] = new Field(sid(child.fieldName), encode(child));
+            }
+            if (node.type == STRUCT)
+            {
+                Arrays.sort(fields, FIELD_ORDER);
+            }
+
+            scratch.setTypeAnnotationSymbols(sids(node.annotations));
+            scratch.stepIn(node.type);
+            for (final Field field : fields)
+            {
+                if (node.type == STRUCT)
+                {
+                    scratch.setFieldNameSymbol(field.sid);
+                }
+                scratch.writeBytes(field.value, 0, field.value.length);
+            }
+            scratch.stepOut();
+        }
+        else
+        {
+            scratch.setTypeAnnotationSymbols(sids(node.annotations));
+            encodeScalar(node);
+        }
+
+        scratch.finish();
+        final byte[] bytes = scratchBytes.toByteArray();
+        scratchBytes.reset();
+        return bytes;
+    }
+
+    private void encodeScalar(final Node node) throws IOException
+    {
+        final Object content = node.content;
+        if (content == null)
+        {
+            scratch.writeNull(node.type);
+            return;
+        }
+        switch (node.type)
+        {
+            case BOOL:
+                scratch.writeBool((Boolean) content);
+                break;
+            case INT:
+                if (content instanceof Long)
+                {
+                    scratch.writeInt((Long) content);
+                }
+                else
+                {
+                    scratch.writeInt((BigInteger) content);
+                }
+                break;
+            case FLOAT:
+                scratch.writeFloat((Double) content);
+                break;
+            case DECIMAL:
+                scratch.writeDecimal((BigDecimal) content);
+                break;
+            case TIMESTAMP:
+                scratch.writeTimestamp((Timestamp) content);
+                break;
+            case SYMBOL:
+                scratch.writeSymbolToken(content == SYMBOL_ZERO ? 0 : sid((String) content));
+                break;
+            case STRING:
+                scratch.writeString((String) content);
+                break;
+            case CLOB:
+                scratch.writeClob((byte[]) content);
+                break;
+            case BLOB:
+                scratch.writeBlob((byte[]) content);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected type: " + node.type);
+        }
+    }
+
+    // Buffering
+
+    private Node newNode(final IonType type, final Object content)
+    {
+        String name = null;
+        if (isInStruct())
+        {
+            if (!isFieldNameSet)
+            {
+                throw new IllegalStateException("IonWriter.setFieldName() must be called before writing a value into a struct.");
+            }
+            name = fieldName;
+        }
+        final String[] texts = annotations.isEmpty()
+            ? NO_ANNOTATIONS
+            : annotations.toArray(new String[annotations.size()]);
+
+        fieldName = null;
+        isFieldNameSet = false;
+        annotations.clear();
+        return new Node(type, name, texts, content);
+    }
+
+    private void addValue(final IonType type, final Object content) throws IOException
+    {
+        final Node node = newNode(type, content);
+        if (containers.isEmpty())
+        {
+            writeTopLevel(node);
+        }
+        else
+        {
+            containers.get(containers.size() - 1).children().add(node);
+        }
+    }
+
+    // Writer Methods
+
+    @Override
+    public <T> T asFacet(final Class<T> facetType)
+    {
+        return null;
+    }
+
+    public SymbolTable getSymbolTable()
+    {
+        return systemSymbolTable();
+    }
+
+    public IonCatalog getCatalog()
+    {
+        return catalog;
+    }
+
+    public boolean isFieldNameSet()
+    {
+        return isFieldNameSet;
+    }
+
+    public int getDepth()
+    {
+        return containers.size();
+    }
+
+    public boolean isInStruct()
+    {
+        return !containers.isEmpty() && containers.get(containers.size() - 1).type == STRUCT;
+    }
+
+    public void writeIonVersionMarker() throws IOException
+    {
+        // every top-level value stands alone, so there's no context to reset
+    }
+
+    public void setFieldName(final String name)
+    {
+        if (name == null)
+        {
+            throw new NullPointerException("Null field name is not allowed.");
+        }
+        fieldName = name;
+        isFieldNameSet = true;
+    }
+
+    public void setFieldNameSymbol(final SymbolToken name)
+    {
+        fieldName = text(name);
+        isFieldNameSet = true;
+    }
+
+    public void setTypeAnnotations(final String... annotations)
+    {
+        this.annotations.clear();
+        if (annotations != null)
+        {
+            for (final String annotation : annotations)
+            {
+                addTypeAnnotation(annotation);
+            }
+        }
+    }
+
+    public void setTypeAnnotationSymbols(final SymbolToken... annotations)
+    {
+        this.annotations.clear();
+        if (annotations != null)
+        {
+            for (final SymbolToken annotation : annotations)
+            {
+                this.annotations.add(text(annotation));
+            }
+        }
+    }
+
+    public void addTypeAnnotation(final String annotation)
+    {
+        if (annotation == null)
+        {
+            throw new NullPointerException("Null annotation is not allowed.");
+        }
+        annotations.add(annotation);
+    }
+
+    public void stepIn(final IonType containerType) throws IOException
+    {
+        if (!IonType.isContainer(containerType) || containerType == IonType.DATAGRAM)
+        {
+            throw new IonException("Cannot step into " + containerType);
+        }
+        final Node node = newNode(containerType, new ArrayList<Node>());
+        if (!containers.isEmpty())
+        {
+            containers.get(containers.size() - 1).children().add(node);
+        }
+        containers.add(node);
+    }
+
+    public void stepOut() throws IOException
+    {
+        if (isFieldNameSet || !annotations.isEmpty())
+        {
+            throw new IonException("Cannot step out with field name or annotations set");
+        }
+        if (containers.isEmpty())
+        {
+            throw new IonException("Cannot step out when not in container");
+        }
+        final Node node = containers.remove(containers.size() - 1);
+        if (containers.isEmpty())
+        {
+            writeTopLevel(node);
+        }
+    }
+
+    public void writeNull() throws IOException
+    {
+        writeNull(IonType.NULL);
+    }
+
+    public void writeNull(final IonType type) throws IOException
+    {
+        addValue(type == null ? IonType.NULL : type, null);
+    }
+
+    public void writeBool(final boolean value) throws IOException
+    {
+        addValue(IonType.BOOL, value);
+    }
+
+    public void writeInt(final long value) throws IOException
+    {
+        addValue(IonType.INT, value);
+    }
+
+    public void writeInt(final BigInteger value) throws IOException
+    {
+        addValue(IonType.INT, value);
+    }
+
+    public void writeFloat(double value) throws IOException
+    {
+        if (Double.isNaN(value))
+        {
+            value = Double.NaN;
+        }
+        addValue(IonType.FLOAT, value);
+    }
+
+    public void writeDecimal(final BigDecimal value) throws IOException
+    {
+        addValue(IonType.DECIMAL, value);
+    }
+
+    public void writeTimestamp(final Timestamp value) throws IOException
+    {
+        addValue(IonType.TIMESTAMP, value);
+    }
+
+    public void writeSymbol(final String content) throws IOException
+    {
+        if (content != null && containers.isEmpty() && annotations.isEmpty() && ION_1_0.equals(content))
+        {
+            // an IVM; every top-level value stands alone, so there's no context to reset
+            return;
+        }
+        addValue(IonType.SYMBOL, content);
+    }
+
+    public void writeSymbolToken(final SymbolToken content) throws IOException
+    {
+        if (content == null)
+        {
+            writeNull(IonType.SYMBOL);
+            return;
+        }
+        final String text = text(content);
+        if (text == null)
+        {
+            addValue(IonType.SYMBOL, SYMBOL_ZERO);
+            return;
+        }
+        writeSymbol(text);
+    }
+
+    public void writeString(final String value) throws IOException
+    {
+        addValue(IonType.STRING, value);
+    }
+
+    public void writeString(final byte[] data, final int offset, final int length) throws IOException
+    {
+        writeString(data == null ? null : _Private_Utils.utf8(copy(data, offset, length)));
+    }
+
+    public void writeClob(final byte[] data) throws IOException
+    {
+        writeClob(data, 0, data == null ? 0 : data.length);
+    }
+
+    public void writeClob(final byte[] data, final int offset, final int length) throws IOException
+    {
+        addValue(IonType.CLOB, data == null ? null : copy(data, offset, length));
+    }
+
+    public void writeBlob(final byte[] data) throws IOException
+    {
+        writeBlob(data, 0, data == null ? 0 : data.length);
+    }
+
+    public void writeBlob(final byte[] data, final int offset, final int length) throws IOException
+    {
+        addValue(IonType.BLOB, data == null ? null : copy(data, offset, length));
+    }
+
+    private static byte[] copy(final byte[] data, final int offset, final int length)
+    {
+        final byte[] copy = new byte[length];
+        System.arraycopy(data, offset, copy, 0, length);
+        return copy;
+    }
+
+    public void writeBytes(final byte[] data, final int offset, final int length) throws IOException
+    {
+        throw new UnsupportedOperationException("Cannot write raw bytes canonically");
+    }
+
+    // Stream Terminators
+
+    public void flush() throws IOException
+    {
+        output.finish();
+    }
+
+    public void finish() throws IOException
+    {
+        if (!containers.isEmpty())
+        {
+            throw new IllegalStateException("IonWriter.finish() can only be called at top-level.");
+        }
+        output.finish();
+    }
+
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+        try
+        {
+            // any incomplete top-level value is dropped
+            output.close();
+        }
+        finally
+        {
+            scratch.close();
+        }
+    }
+}
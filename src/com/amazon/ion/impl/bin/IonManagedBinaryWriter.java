@@ -19,6 +19,7 @@ import static com.amazon.ion.IonType.LIST;
 import static com.amazon.ion.IonType.STRUCT;
 import static com.amazon.ion.SystemSymbols.IMPORTS_SID;
 import static com.amazon.ion.SystemSymbols.ION_1_0_MAX_ID;
+import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE;
 import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE_SID;
 import static com.amazon.ion.SystemSymbols.MAX_ID_SID;
 import static com.amazon.ion.SystemSymbols.NAME_SID;
@@ -31,14 +32,19 @@ import static com.amazon.ion.impl.bin.Symbols.systemSymbols;
 import static java.util.Collections.unmodifiableList;
 
 import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonContainer;
 import com.amazon.ion.IonException;
 import com.amazon.ion.IonType;
+import com.amazon.ion.IonValue;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
 import com.amazon.ion.UnknownSymbolException;
+import com.amazon.ion.impl._Private_DomValueWriter;
+import com.amazon.ion.impl._Private_PrimitiveListWriter;
 import com.amazon.ion.impl.bin.IonRawBinaryWriter.StreamCloseMode;
 import com.amazon.ion.impl.bin.IonRawBinaryWriter.StreamFlushMode;
+import com.amazon.ion.impl.lite._Private_LiteDomTrampoline;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigDecimal;
@@ -54,7 +60,8 @@ import java.util.Map;
 
 /** Wraps {@link IonRawBinaryWriter} with symbol table management. */
 @SuppressWarnings("deprecation")
-/*package*/ final class IonManagedBinaryWriter extends AbstractIonWriter implements _Private_IonManagedWriter
+/*package*/ final class IonManagedBinaryWriter extends AbstractIonWriter
+    implements _Private_IonManagedWriter, _Private_PrimitiveListWriter, _Private_DomValueWriter
 {
     private interface SymbolResolver
     {
@@ -548,6 +555,8 @@ import java.util.Map;
 
     private static final SymbolTable[] EMPTY_SYMBOL_TABLE_ARRAY = new SymbolTable[0];
 
+    private static final int REVERSE_ENCODER_INITIAL_SIZE = 512;
+
     /** View over the internal local symbol table state as a symbol table. */
     private class LocalSymbolTableView extends AbstractSymbolTable
     {
@@ -640,6 +649,19 @@ import java.util.Map;
         }
     }
 
+    /**
+     * The view handed to the DOM encoder by {@link #writeWholeValue(IonValue)}, which interns every symbol through the
+     * writer as writing it would, so that using an imported symbol starts the local symbol table.
+     */
+    private final class WriterInterningView extends LocalSymbolTableView
+    {
+        @Override
+        public SymbolToken intern(final String text)
+        {
+            return IonManagedBinaryWriter.this.intern(text);
+        }
+    }
+
     private final IonCatalog                    catalog;
     private final ImportedSymbolContext         bootstrapImports;
 
@@ -647,9 +669,11 @@ import java.util.Map;
     private final Map<String, SymbolToken>      locals;
     private boolean                             localsLocked;
     private SymbolTable                         localSymbolTableView;
+    private final SymbolTable                   writerInterningView;
 
     private final IonRawBinaryWriter            symbols;
     private final IonRawBinaryWriter            user;
+    private final boolean                       isFloatBinary32Enabled;
 
     private UserState                           userState;
     private SymbolState                         symbolState;
@@ -690,12 +714,14 @@ import java.util.Map;
             builder.isFloatBinary32Enabled
         );
 
+        this.isFloatBinary32Enabled = builder.isFloatBinary32Enabled;
         this.catalog = builder.catalog;
         this.bootstrapImports = builder.imports;
 
         this.locals = new LinkedHashMap<String, SymbolToken>();
         this.localsLocked = false;
         this.localSymbolTableView = new LocalSymbolTableView();
+        this.writerInterningView = new WriterInterningView();
         this.symbolState = SymbolState.SYSTEM_SYMBOLS;
         this.closed = false;
 
@@ -1094,6 +1120,154 @@ import java.util.Map;
         user.writeString(data, offset, length);
     }
 
+    // Bulk List Methods
+    //
+    // Lists of user values go straight to the raw writer's bulk encoders; only the lists of a symbol table that the
+    // user is writing themselves have to go through the user state machine value by value.
+
+    /** Returns false while the user is writing a symbol table, whose values the user state machine must see. */
+    private boolean isBulkListAllowed()
+    {
+        return userState == UserState.NORMAL;
+    }
+
+    public void writeBoolList(final boolean[] values) throws IOException
+    {
+        if (!isBulkListAllowed())
+        {
+            stepIn(LIST);
+            for (final boolean value : values)
+            {
+                writeBool(value);
+            }
+            stepOut();
+            return;
+        }
+        user.writeBoolList(values);
+    }
+
+    public void writeIntList(final byte[] values) throws IOException
+    {
+        if (!isBulkListAllowed())
+        {
+            stepIn(LIST);
+            for (final byte value : values)
+            {
+                writeInt(value);
+            }
+            stepOut();
+            return;
+        }
+        user.writeIntList(values);
+    }
+
+    public void writeIntList(final short[] values) throws IOException
+    {
+        if (!isBulkListAllowed())
+        {
+            stepIn(LIST);
+            for (final short value : values)
+            {
+                writeInt(value);
+            }
+            stepOut();
+            return;
+        }
+        user.writeIntList(values);
+    }
+
+    public void writeIntList(final int[] values) throws IOException
+    {
+        if (!isBulkListAllowed())
+        {
+            stepIn(LIST);
+            for (final int value : values)
+            {
+                writeInt(value);
+            }
+            stepOut();
+            return;
+        }
+        user.writeIntList(values);
+    }
+
+    public void writeIntList(final long[] values) throws IOException
+    {
+        if (!isBulkListAllowed())
+        {
+            stepIn(LIST);
+            for (final long value : values)
+            {
+                writeInt(value);
+            }
+            stepOut();
+            return;
+        }
+        user.writeIntList(values);
+    }
+
+    public void writeFloatList(final float[] values) throws IOException
+    {
+        if (!isBulkListAllowed())
+        {
+            stepIn(LIST);
+            for (final float value : values)
+            {
+                writeFloat(value);
+            }
+            stepOut();
+            return;
+        }
+        user.writeFloatList(values);
+    }
+
+    public void writeFloatList(final double[] values) throws IOException
+    {
+        if (!isBulkListAllowed())
+        {
+            stepIn(LIST);
+            for (final double value : values)
+            {
+                writeFloat(value);
+            }
+            stepOut();
+            return;
+        }
+        user.writeFloatList(values);
+    }
+
+    /**
+     * Writes non-null containers from the DOM by encoding them back-to-front, so every nested container gets its
+     * exact length up front rather than a preallocated length (and, past the preallocation, a patch at finish).
+     */
+    public boolean writeWholeValue(final IonValue value) throws IOException
+    {
+        if (!(value instanceof IonContainer)
+            || value.isNullValue()
+            // leave the user's own symbol tables to the user state machine
+            || userState != UserState.NORMAL
+            || (getDepth() == 0 && value.hasTypeAnnotation(ION_SYMBOL_TABLE)))
+        {
+            return false;
+        }
+
+        if (user.isInStruct() && !user.isFieldNameSet())
+        {
+            final SymbolToken name = value.getFieldNameSymbol();
+            if (name == null)
+            {
+                throw new IllegalStateException("Field name not set");
+            }
+            setFieldNameSymbol(name);
+        }
+        // the value's own annotations are part of its encoding
+        user.setTypeAnnotationSymbols((SymbolToken[]) null);
+
+        return _Private_LiteDomTrampoline.reverseEncode(
+            REVERSE_ENCODER_INITIAL_SIZE, value, writerInterningView, isFloatBinary32Enabled, user
+        );
+    }
+
     public void writeBytes(byte[] data, int off, int len) throws IOException
     {
         // this is a raw transfer--we basically have to dump the symbol table since we don't have much context
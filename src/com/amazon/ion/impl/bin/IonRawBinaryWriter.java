@@ -52,6 +52,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
@@ -116,6 +117,7 @@ import java.util.NoSuchElementException;
 
     private static final byte CLOB_TYPE         = (byte) 0x90;
     private static final byte BLOB_TYPE         = (byte) 0xA0;
+    private static final byte LIST_TYPE         = (byte) 0xB0;
 
     private static final byte DECIMAL_POS_ZERO               = (byte) 0x50;
     private static final byte DECIMAL_NEGATIVE_ZERO_MANTISSA = (byte) 0x80;
@@ -564,6 +566,9 @@ import java.util.NoSuchElementException;
 
     private static final int SID_UNASSIGNED = -1;
 
+    // Runs of data between patches shorter than this are copied rather than handed to a channel on their own.
+    private static final int MIN_SLICE_LENGTH = 1024;
+
     private final BlockAllocator                allocator;
     private final OutputStream                  out;
     private final StreamCloseMode               streamCloseMode;
@@ -1028,96 +1033,109 @@ import java.util.NoSuchElementException;
     /**
      * Writes a type descriptor followed by unsigned integer value.
      * Does not check for sign.
-     * Note that this does not do {@link #prepareValue()} or {@link #finishValue()}.
+     * Note that this does not do {@link #prepareValue()}, {@link #finishValue()} or {@link #updateLength(long)}.
+     *
+     * @return the number of bytes written.
      */
-    private void writeTypedUInt(final int type, final long value)
+    private int writeTypedUInt(final int type, final long value)
     {
         if (value <= 0xFFL)
         {
-            updateLength(2);
             buffer.writeUInt8(type | 0x01);
             buffer.writeUInt8(value);
+            return 2;
         }
         else if (value <= 0xFFFFL)
         {
-            updateLength(3);
             buffer.writeUInt8(type | 0x02);
             buffer.writeUInt16(value);
+            return 3;
         }
         else if (value <= 0xFFFFFFL)
         {
-            updateLength(4);
             buffer.writeUInt8(type | 0x03);
             buffer.writeUInt24(value);
+            return 4;
         }
         else if (value <= 0xFFFFFFFFL)
         {
-            updateLength(5);
             buffer.writeUInt8(type | 0x04);
             buffer.writeUInt32(value);
+            return 5;
         }
         else if (value <= 0xFFFFFFFFFFL)
         {
-            updateLength(6);
             buffer.writeUInt8(type | 0x05);
             buffer.writeUInt40(value);
+            return 6;
         }
         else if (value <= 0xFFFFFFFFFFFFL)
         {
-            updateLength(7);
             buffer.writeUInt8(type | 0x06);
             buffer.writeUInt48(value);
+            return 7;
         }
         else if (value <= 0xFFFFFFFFFFFFFFL)
         {
-            updateLength(8);
             buffer.writeUInt8(type | 0x07);
             buffer.writeUInt56(value);
+            return 8;
         }
         else
         {
-            updateLength(9);
             buffer.writeUInt8(type | 0x08);
             buffer.writeUInt64(value);
+            return 9;
         }
     }
 
     public void writeInt(long value) throws IOException
     {
         prepareValue();
+        updateLength(writeIntValue(value));
+        finishValue();
+    }
+
+    /**
+     * Writes the type descriptor and magnitude of an int.
+     * Note that this does not do {@link #prepareValue()}, {@link #finishValue()} or {@link #updateLength(long)}.
+     *
+     * @return the number of bytes written, which is always {@link #intValueLength(long)}.
+     */
+    private int writeIntValue(final long value)
+    {
         if (value == 0)
         {
-            updateLength(1);
             buffer.writeByte(INT_ZERO);
+            return 1;
         }
-        else
+        if (value < 0)
         {
-            int type = POS_INT_TYPE;
-            if (value < 0)
-            {
-                type = NEG_INT_TYPE;
-                if (value == Long.MIN_VALUE)
-                {
-                    // XXX special case for min_value which will not play nice with signed arithmetic and fit into the positive space
-                    // XXX we keep 2's complement of Long.MIN_VALUE because it encodes to unsigned 2 ** 63 (0x8000000000000000L)
-                    // XXX WriteBuffer.writeUInt64() never looks at sign
-                    updateLength(9);
-                    buffer.writeUInt8(NEG_INT_TYPE | 0x8);
-                    buffer.writeUInt64(value);
-                }
-                else
-                {
-                    // get the magnitude, sign is already encoded
-                    value = -value;
-                    writeTypedUInt(type, value);
-                }
-            }
-            else
+            if (value == Long.MIN_VALUE)
             {
-                writeTypedUInt(type, value);
+                // XXX special case for min_value which will not play nice with signed arithmetic and fit into the positive space
+                // XXX we keep 2's complement of Long.MIN_VALUE because it encodes to unsigned 2 ** 63 (0x8000000000000000L)
+                // XXX WriteBuffer.writeUInt64() never looks at sign
+                buffer.writeUInt8(NEG_INT_TYPE | 0x8);
+                buffer.writeUInt64(value);
+                return 9;
             }
+            // get the magnitude, sign is already encoded
+            return writeTypedUInt(NEG_INT_TYPE, -value);
         }
-        finishValue();
+        return writeTypedUInt(POS_INT_TYPE, value);
+    }
+
+    /** The encoded length of an int, as {@link #writeIntValue(long)} writes it. */
+    private static int intValueLength(final long value)
+    {
+        if (value == 0)
+        {
+            return 1;
+        }
+        // Long.MIN_VALUE is its own magnitude as an unsigned value
+        final long magnitude = value < 0 ? -value : value;
+        return 1 + ((64 - Long.numberOfLeadingZeros(magnitude) + 7) >>> 3);
     }
 
     /** Write a raw byte array as some type. Note that this does not do {@link #prepareValue()}. */
@@ -1162,9 +1180,11 @@ import java.util.NoSuchElementException;
             value = value.negate();
         }
 
-        // generate big-endian representation of the positive value
+        // generate big-endian representation of the positive value, less the
+        // leading zero byte that BigInteger adds to make room for a sign bit
         final byte[] magnitude = value.toByteArray();
-        writeTypedBytes(type, magnitude, 0, magnitude.length);
+        final int offset = magnitude[0] == 0 ? 1 : 0;
+        writeTypedBytes(type, magnitude, offset, magnitude.length - offset);
 
         finishValue();
     }
@@ -1172,18 +1192,33 @@ import java.util.NoSuchElementException;
     public void writeFloat(final double value) throws IOException
     {
         prepareValue();
+        updateLength(writeFloatValue(value));
+        finishValue();
+    }
 
+    /**
+     * Writes the type descriptor and bits of a float.
+     * Note that this does not do {@link #prepareValue()}, {@link #finishValue()} or {@link #updateLength(long)}.
+     *
+     * @return the number of bytes written, which is always {@link #floatValueLength(double)}.
+     */
+    private int writeFloatValue(final double value)
+    {
         if (isFloatBinary32Enabled && value == ((double) ((float) value))) {
-            updateLength(5);
             buffer.writeUInt8(FLOAT_TYPE | 4);
             buffer.writeUInt32(floatToRawIntBits((float) value));
+            return 5;
         } else {
-            updateLength(9);
             buffer.writeUInt8(FLOAT_TYPE | 8);
             buffer.writeUInt64(doubleToRawLongBits(value));
+            return 9;
         }
+    }
 
-        finishValue();
+    /** The encoded length of a float, as {@link #writeFloatValue(double)} writes it. */
+    private int floatValueLength(final double value)
+    {
+        return isFloatBinary32Enabled && value == ((double) ((float) value)) ? 5 : 9;
     }
 
     /** Encodes a decimal, updating the current container length context (which is probably a Decimal/Timestamp). */
@@ -1430,7 +1465,7 @@ import java.util.NoSuchElementException;
         }
         checkSid(sid);
         prepareValue();
-        writeTypedUInt(SYMBOL_TYPE, sid);
+        updateLength(writeTypedUInt(SYMBOL_TYPE, sid));
         finishValue();
     }
 
@@ -1599,6 +1634,128 @@ import java.util.NoSuchElementException;
         finishValue();
     }
 
+    // Bulk List Methods
+    //
+    // These size the elements up front so the list gets its exact length and the elements go straight into the
+    // buffer, with none of the per value field name, annotation, and container length bookkeeping.
+
+    /** Writes the type descriptor and length of a list of the given content length, after any field name and annotations. */
+    private void writeListHeader(final long contentLength)
+    {
+        prepareValue();
+        if (contentLength < 14)
+        {
+            buffer.writeUInt8(LIST_TYPE | contentLength);
+            updateLength(1 + contentLength);
+        }
+        else
+        {
+            buffer.writeUInt8(LIST_TYPE | 0xE);
+            final int sizeLength = buffer.writeVarUInt(contentLength);
+            updateLength(1 + sizeLength + contentLength);
+        }
+    }
+
+    /*package*/ void writeBoolList(final boolean[] values) throws IOException
+    {
+        writeListHeader(values.length);
+        for (final boolean value : values)
+        {
+            buffer.writeByte(value ? BOOL_TRUE : BOOL_FALSE);
+        }
+        finishValue();
+    }
+
+    /*package*/ void writeIntList(final byte[] values) throws IOException
+    {
+        long length = 0;
+        for (final byte value : values)
+        {
+            length += intValueLength(value);
+        }
+        writeListHeader(length);
+        for (final byte value : values)
+        {
+            writeIntValue(value);
+        }
+        finishValue();
+    }
+
+    /*package*/ void writeIntList(final short[] values) throws IOException
+    {
+        long length = 0;
+        for (final short value : values)
+        {
+            length += intValueLength(value);
+        }
+        writeListHeader(length);
+        for (final short value : values)
+        {
+            writeIntValue(value);
+        }
+        finishValue();
+    }
+
+    /*package*/ void writeIntList(final int[] values) throws IOException
+    {
+        long length = 0;
+        for (final int value : values)
+        {
+            length += intValueLength(value);
+        }
+        writeListHeader(length);
+        for (final int value : values)
+        {
+            writeIntValue(value);
+        }
+        finishValue();
+    }
+
+    /*package*/ void writeIntList(final long[] values) throws IOException
+    {
+        long length = 0;
+        for (final long value : values)
+        {
+            length += intValueLength(value);
+        }
+        writeListHeader(length);
+        for (final long value : values)
+        {
+            writeIntValue(value);
+        }
+        finishValue();
+    }
+
+    /*package*/ void writeFloatList(final float[] values) throws IOException
+    {
+        long length = 0;
+        for (final float value : values)
+        {
+            length += floatValueLength(value);
+        }
+        writeListHeader(length);
+        for (final float value : values)
+        {
+            writeFloatValue(value);
+        }
+        finishValue();
+    }
+
+    /*package*/ void writeFloatList(final double[] values) throws IOException
+    {
+        long length = 0;
+        for (final double value : values)
+        {
+            length += floatValueLength(value);
+        }
+        writeListHeader(length);
+        for (final double value : values)
+        {
+            writeFloatValue(value);
+        }
+        finishValue();
+    }
+
     // Stream Manipulation/Terminators
 
     /*package*/ long position()
@@ -1630,7 +1787,11 @@ import java.util.NoSuchElementException;
             throw new IllegalStateException("Cannot finish within container: " + containers);
         }
 
-        if (patchPoints.isEmpty())
+        if (out instanceof ByteChannelOutputStream)
+        {
+            writeTo(((ByteChannelOutputStream) out).channel());
+        }
+        else if (patchPoints.isEmpty())
         {
             // nothing to patch--write 'em out!
             buffer.writeTo(out);
@@ -1665,6 +1826,51 @@ import java.util.NoSuchElementException;
         hasWrittenValuesSinceFinished = false;
     }
 
+    /**
+     * Hands the buffer's blocks, interleaved with the patches, to a channel in one gathering write.
+     * <p>
+     * The patches and the short runs of data between them are copied together into a scratch buffer, as handing each
+     * to the channel as a buffer of its own costs more than the copy.
+     */
+    private void writeTo(final GatheringByteChannel channel) throws IOException
+    {
+        if (patchPoints.isEmpty())
+        {
+            buffer.writeTo(channel);
+            return;
+        }
+        final WriteBuffer scratch = new WriteBuffer(allocator);
+        try
+        {
+            final List<ByteBuffer> slices = new ArrayList<ByteBuffer>();
+            long scratchPosition = 0;
+            long bufferPosition = 0;
+            for (final PatchPoint patch : patchPoints)
+            {
+                final long bufferLength = patch.oldPosition - bufferPosition;
+                if (bufferLength < MIN_SLICE_LENGTH)
+                {
+                    scratch.writeBytes(buffer, bufferPosition, bufferLength);
+                }
+                else
+                {
+                    scratch.addSlices(slices, scratchPosition, scratch.position() - scratchPosition);
+                    scratchPosition = scratch.position();
+                    buffer.addSlices(slices, bufferPosition, bufferLength);
+                }
+                scratch.writeBytes(patchBuffer, patch.patchPosition, patch.patchLength);
+                bufferPosition = patch.oldPosition + patch.oldLength;
+            }
+            scratch.addSlices(slices, scratchPosition, scratch.position() - scratchPosition);
+            buffer.addSlices(slices, bufferPosition, buffer.position() - bufferPosition);
+            WriteBuffer.writeFully(channel, slices);
+        }
+        finally
+        {
+            scratch.close();
+        }
+    }
+
     public void close() throws IOException
     {
         if (closed)
@@ -0,0 +1,503 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pooling implementation of {@link BlockAllocatorProvider} intended for many concurrent writers.
+ * <p>
+ * Each thread keeps a few free blocks of each size to itself, so a writer that is repeatedly built and closed on the
+ * same thread rarely touches shared state. Beyond that, free blocks go to a shared pool split into lock stripes
+ * (selected by thread) to spread contention across cores. A thread that finds its own stripe empty takes a block from
+ * any other stripe before allocating a new one.
+ * <p>
+ * The pool is bounded: the free blocks it retains across all sizes, in the per-thread caches and the shared stripes
+ * alike, never exceed a maximum number of bytes (blocks released beyond that are left to the garbage collector). The
+ * caches of threads that have died are spilled into the shared stripes, where other threads can reuse their blocks,
+ * when the pool is full or runs dry, and whenever idle blocks are swept. Blocks that sit unused for longer than the
+ * maximum idle time are dropped as the pool continues to be used. A maximum of zero bytes disables pooling altogether.
+ * <p>
+ * Until then, a thread's cache lives as long as both the thread and the pool, so a pool that's done with should be
+ * {@linkplain #close() closed}, which empties every cache and stripe at once and disables pooling from then on.
+ * <p>
+ * This implementation is thread-safe.
+ */
+/*package*/ final class ThreadLocalPooledBlockAllocatorProvider extends BlockAllocatorProvider
+{
+    /** The default bound on free bytes retained by the pool. */
+    static final long DEFAULT_MAX_RETAINED_BYTES = 64L * 1024 * 1024;
+
+    /** The default time after which unused blocks are released. */
+    static final long DEFAULT_MAX_IDLE_MILLIS = 60 * 1000;
+
+    /** The number of free blocks of each size that a thread keeps for itself. */
+    static final int THREAD_CACHE_BLOCKS = 4;
+
+    /** A block that returns itself to its pool. */
+    private static final class PooledBlock extends Block
+    {
+        private final SizedPool pool;
+        /** When the block was last returned, per {@link System#nanoTime()}. */
+        private long releasedAt;
+
+        PooledBlock(final SizedPool pool)
+        {
+            super(new byte[pool.blockSize]);
+            this.pool = pool;
+        }
+
+        @Override
+        public void close()
+        {
+            reset();
+            pool.release(this);
+        }
+    }
+
+    /**
+     * A list of free blocks ordered from least to most recently released, held in a ring buffer that grows as needed.
+     * Blocks are reused from the tail (while they're likely still in cache) and evicted from the head.
+     * <p>
+     * This class is <b>not</b> thread-safe; each list is guarded by its own monitor.
+     */
+    private static class FreeList
+    {
+        private PooledBlock[] blocks = new PooledBlock[THREAD_CACHE_BLOCKS];
+        private int head;
+        private int size;
+
+        final int size()
+        {
+            return size;
+        }
+
+        final void addLast(final PooledBlock block)
+        {
+            grow();
+            blocks[(head + size) & (blocks.length - 1)] = block;
+            size++;
+        }
+
+        final void addFirst(final PooledBlock block)
+        {
+            grow();
+            head = (head - 1) & (blocks.length - 1);
+            blocks[head] = block;
+            size++;
+        }
+
+        final PooledBlock peekFirst()
+        {
+            return size == 0 ? null : blocks[head];
+        }
+
+        final PooledBlock pollFirst()
+        {
+            if (size == 0)
+            {
+                return null;
+            }
+            final PooledBlock block = blocks[head];
+            blocks[head] = null;
+            head = (head + 1) & (blocks.length - 1);
+            size--;
+            return block;
+        }
+
+        final PooledBlock pollLast()
+        {
+            if (size == 0)
+            {
+                return null;
+            }
+            size--;
+            final int tail = (head + size) & (blocks.length - 1);
+            final PooledBlock block = blocks[tail];
+            blocks[tail] = null;
+            return block;
+        }
+
+        private void grow()
+        {
+            if (size < blocks.length)
+            {
+                return;
+            }
+            final PooledBlock[] grown = new PooledBlock[blocks.length * 2];
+            for (int i = 0; i < size; i++)
+            {
+                grown[i] = blocks[(head + i) & (blocks.length - 1)];
+            }
+            blocks = grown;
+            head = 0;
+        }
+    }
+
+    /** A thread's own free blocks of one size, which other threads only touch once the thread has died. */
+    private static final class ThreadCache extends FreeList
+    {
+        private final WeakReference<Thread> owner = new WeakReference<Thread>(Thread.currentThread());
+
+        boolean isOrphaned()
+        {
+            final Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+    }
+
+    /** A {@link BlockAllocator} for a particular size, shared by all threads. */
+    private final class SizedPool extends BlockAllocator
+    {
+        private final int blockSize;
+        /** Each stripe is guarded by its own monitor. */
+        private final List<FreeList> stripes;
+        private final ThreadLocal<ThreadCache> threadCache;
+        /** Every thread's cache, so that those of dead threads can be spilled into the stripes. */
+        private final ConcurrentLinkedQueue<ThreadCache> caches;
+        /** Whether a cache has been added since the caches were last checked for dead threads. */
+        private final AtomicBoolean cachesAdded;
+        /** When the pool is next swept for idle blocks, per {@link System#nanoTime()}. */
+        private final AtomicLong nextSweep;
+
+        SizedPool(final int blockSize)
+        {
+            this.blockSize = blockSize;
+            this.stripes = new ArrayList<FreeList>(stripeCount);
+            for (int i = 0; i < stripeCount; i++)
+            {
+                stripes.add(new FreeList());
+            }
+            this.caches = new ConcurrentLinkedQueue<ThreadCache>();
+            this.cachesAdded = new AtomicBoolean();
+            this.threadCache = new ThreadLocal<ThreadCache>()
+            {
+                @Override
+                protected ThreadCache initialValue()
+                {
+                    final ThreadCache cache = new ThreadCache();
+                    caches.add(cache);
+                    cachesAdded.set(true);
+                    return cache;
+                }
+            };
+            this.nextSweep = new AtomicLong(System.nanoTime() + maxIdleNanos);
+        }
+
+        /** Returns the index of the current thread's stripe. */
+        private int stripeIndex()
+        {
+            return (int) Thread.currentThread().getId() & (stripeCount - 1);
+        }
+
+        @Override
+        public Block allocateBlock()
+        {
+            final ThreadCache cache = threadCache.get();
+            PooledBlock block;
+            synchronized (cache)
+            {
+                block = cache.pollLast();
+            }
+            if (block == null)
+            {
+                block = pollStripes();
+                if (block == null && cachesAdded.compareAndSet(true, false) && spillOrphanedCaches() > 0)
+                {
+                    block = pollStripes();
+                }
+                if (block == null)
+                {
+                    return new PooledBlock(this);
+                }
+            }
+            retainedBytes.addAndGet(-blockSize);
+            return block;
+        }
+
+        /** Takes a block from this thread's stripe, or failing that from any other, or returns null. */
+        private PooledBlock pollStripes()
+        {
+            final int first = stripeIndex();
+            for (int i = 0; i < stripeCount; i++)
+            {
+                final FreeList stripe = stripes.get((first + i) & (stripeCount - 1));
+                synchronized (stripe)
+                {
+                    final PooledBlock block = stripe.pollLast();
+                    if (block != null)
+                    {
+                        return block;
+                    }
+                }
+            }
+            return null;
+        }
+
+        void release(final PooledBlock block)
+        {
+            if (maxRetainedBytes == 0 || closed)
+            {
+                return;
+            }
+
+            final long now = System.nanoTime();
+            block.releasedAt = now;
+
+            final ThreadCache cache = threadCache.get();
+            final boolean cached;
+            synchronized (cache)
+            {
+                evictIdle(cache, now);
+                cached = cache.size() < THREAD_CACHE_BLOCKS && reserve();
+                if (cached)
+                {
+                    cache.addLast(block);
+                }
+            }
+            if (!cached)
+            {
+                // The cache is full, so the block goes to the shared stripes. If the pool is also full, blocks held
+                // by dead threads' caches are spilled into the stripes so they can be reused, and this one is let go.
+                if (reserve())
+                {
+                    final FreeList stripe = stripes.get(stripeIndex());
+                    synchronized (stripe)
+                    {
+                        stripe.addLast(block);
+                    }
+                }
+                else if (cachesAdded.compareAndSet(true, false))
+                {
+                    spillOrphanedCaches();
+                }
+            }
+
+            final long sweepAt = nextSweep.get();
+            if (now - sweepAt >= 0 && nextSweep.compareAndSet(sweepAt, now + maxIdleNanos / 2))
+            {
+                spillOrphanedCaches();
+                for (final ThreadCache other : caches)
+                {
+                    synchronized (other)
+                    {
+                        evictIdle(other, now);
+                    }
+                }
+                for (final FreeList stripe : stripes)
+                {
+                    synchronized (stripe)
+                    {
+                        evictIdle(stripe, now);
+                    }
+                }
+            }
+
+            if (closed)
+            {
+                // Closed while the block was being released, so it may have been kept after the pool was drained.
+                synchronized (cache)
+                {
+                    drain(cache);
+                }
+                drain();
+            }
+        }
+
+        /** Counts another block towards the bound, returning false (and counting nothing) if it would be exceeded. */
+        private boolean reserve()
+        {
+            if (retainedBytes.addAndGet(blockSize) <= maxRetainedBytes)
+            {
+                return true;
+            }
+            retainedBytes.addAndGet(-blockSize);
+            return false;
+        }
+
+        /**
+         * Moves the blocks of every cache whose thread has died to the head of this thread's stripe, and forgets the
+         * caches. The blocks remain counted towards the bound.
+         *
+         * @return the number of blocks moved.
+         */
+        private int spillOrphanedCaches()
+        {
+            int spilled = 0;
+            final FreeList stripe = stripes.get(stripeIndex());
+            final Iterator<ThreadCache> i = caches.iterator();
+            while (i.hasNext())
+            {
+                final ThreadCache cache = i.next();
+                if (!cache.isOrphaned())
+                {
+                    continue;
+                }
+                i.remove();
+                synchronized (cache)
+                {
+                    PooledBlock block;
+                    while ((block = cache.pollLast()) != null)
+                    {
+                        synchronized (stripe)
+                        {
+                            stripe.addFirst(block);
+                        }
+                        spilled++;
+                    }
+                }
+            }
+            return spilled;
+        }
+
+        /** Drops the blocks of every cache and stripe, and forgets the caches. */
+        void drain()
+        {
+            final Iterator<ThreadCache> i = caches.iterator();
+            while (i.hasNext())
+            {
+                final ThreadCache cache = i.next();
+                i.remove();
+                synchronized (cache)
+                {
+                    drain(cache);
+                }
+            }
+            for (final FreeList stripe : stripes)
+            {
+                synchronized (stripe)
+                {
+                    drain(stripe);
+                }
+            }
+        }
+
+        private void drain(final FreeList blocks)
+        {
+            while (blocks.pollFirst() != null)
+            {
+                retainedBytes.addAndGet(-blockSize);
+            }
+        }
+
+        /** Drops the blocks at the head of the list that have been idle for too long. */
+        private void evictIdle(final FreeList blocks, final long now)
+        {
+            PooledBlock oldest;
+            while ((oldest = blocks.peekFirst()) != null && now - oldest.releasedAt > maxIdleNanos)
+            {
+                blocks.pollFirst();
+                retainedBytes.addAndGet(-blockSize);
+            }
+        }
+
+        @Override
+        public int getBlockSize()
+        {
+            return blockSize;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private final long maxRetainedBytes;
+    private final long maxIdleNanos;
+    private final int stripeCount;
+    /** The free bytes currently retained, in the per-thread caches and the shared stripes. */
+    private final AtomicLong retainedBytes;
+    private final ConcurrentMap<Integer, SizedPool> pools;
+    private volatile boolean closed;
+
+    /**
+     * @param maxRetainedBytes the maximum number of free bytes the pool retains; zero disables pooling.
+     * @param maxIdleMillis the time after which unused blocks are released; must be positive.
+     */
+    public ThreadLocalPooledBlockAllocatorProvider(final long maxRetainedBytes, final long maxIdleMillis)
+    {
+        this(maxRetainedBytes, maxIdleMillis, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripes the number of lock stripes in the shared pool; rounded up to a power of two.
+     */
+    ThreadLocalPooledBlockAllocatorProvider(final long maxRetainedBytes, final long maxIdleMillis, final int stripes)
+    {
+        if (maxRetainedBytes < 0)
+        {
+            throw new IllegalArgumentException("Invalid maximum retained bytes: " + maxRetainedBytes);
+        }
+        if (maxIdleMillis <= 0)
+        {
+            throw new IllegalArgumentException("Invalid maximum idle time: " + maxIdleMillis);
+        }
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.maxIdleNanos = TimeUnit.MILLISECONDS.toNanos(maxIdleMillis);
+        this.stripeCount = Integer.highestOneBit(stripes * 2 - 1);
+        this.retainedBytes = new AtomicLong();
+        this.pools = new ConcurrentHashMap<Integer, SizedPool>();
+    }
+
+    /** Returns the number of free bytes currently retained, in the per-thread caches and the shared stripes. */
+    long getRetainedBytes()
+    {
+        return retainedBytes.get();
+    }
+
+    /**
+     * Releases the free blocks held by every thread's cache and the shared stripes, and disables pooling: blocks
+     * closed afterwards are left to the garbage collector. Writers that are still open keep working.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        for (final SizedPool pool : pools.values())
+        {
+            pool.drain();
+        }
+    }
+
+    @Override
+    public BlockAllocator vendAllocator(final int blockSize)
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+
+        SizedPool pool = pools.get(blockSize);
+        if (pool == null)
+        {
+            pool = new SizedPool(blockSize);
+            final SizedPool existingPool = pools.putIfAbsent(blockSize, pool);
+            if (existingPool != null)
+            {
+                pool = existingPool;
+            }
+        }
+        return pool;
+    }
+}
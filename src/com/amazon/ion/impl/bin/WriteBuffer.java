@@ -18,11 +18,18 @@ package com.amazon.ion.impl.bin;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * A facade over {@link Block} management and low-level Ion encoding concerns for the {@link IonRawBinaryWriter}.
+ * <p>
+ * The integer encoders' fast paths store straight into the arrays of heap blocks, or through the absolute puts of
+ * off-heap blocks.  The UTF-8 fast paths encode straight into the array of a heap block, or into a scratch array that
+ * is then bulk-copied into an off-heap block.  Off-heap blocks can be handed to a channel as they are by
+ * {@link #writeTo(GatheringByteChannel)}.
  */
 /*package*/ final class WriteBuffer implements Closeable
 {
@@ -30,6 +37,8 @@ import java.util.List;
     private final List<Block> blocks;
     private Block current;
     private int index;
+    /** Where the UTF-8 fast paths encode characters bound for an off-heap block; allocated on first use. */
+    private byte[] scratch;
 
     public WriteBuffer(final BlockAllocator allocator)
     {
@@ -112,7 +121,7 @@ import java.util.List;
         final int index = index(position);
         final int offset = offset(position);
         final Block block = blocks.get(index);
-        return block.data[offset] & OCTET_MASK;
+        return block.get(offset) & OCTET_MASK;
     }
 
     /** Writes a single octet to the buffer, expanding if necessary. */
@@ -128,7 +137,7 @@ import java.util.List;
             current = blocks.get(index);
         }
         final Block block = current;
-        block.data[block.limit] = octet;
+        block.put(block.limit, octet);
         block.limit++;
     }
 
@@ -139,7 +148,7 @@ import java.util.List;
         {
             final Block block = current;
             final int amount = Math.min(len, block.remaining());
-            System.arraycopy(bytes, off, block.data, block.limit, amount);
+            block.put(block.limit, bytes, off, amount);
             block.limit += amount;
             off += amount;
             len -= amount;
@@ -166,7 +175,7 @@ import java.util.List;
         }
 
         final Block block = current;
-        System.arraycopy(bytes, off, block.data, block.limit, len);
+        block.put(block.limit, bytes, off, len);
         block.limit += len;
     }
 
@@ -261,6 +270,38 @@ import java.util.List;
         return octets;
     }
 
+    /**
+     * Returns the array a UTF-8 fast path encodes into: the current block's own, or for an off-heap block a scratch
+     * array of at least the given length, to be copied into the block by {@link #endUTF8Fast}.
+     */
+    private byte[] beginUTF8Fast(final int length)
+    {
+        final byte[] data = current.data;
+        if (data != null)
+        {
+            return data;
+        }
+        if (scratch == null || scratch.length < length)
+        {
+            scratch = new byte[Math.max(length, allocator.getBlockSize())];
+        }
+        return scratch;
+    }
+
+    /** Ends a UTF-8 fast path that encoded into {@code data} up to {@code limit}. */
+    private void endUTF8Fast(final Block block, final byte[] data, final int limit)
+    {
+        if (data == block.data)
+        {
+            block.limit = limit;
+        }
+        else
+        {
+            block.put(block.limit, data, 0, limit);
+            block.limit += limit;
+        }
+    }
+
     private int writeUTF8UpTo3Byte(final CharSequence chars, int off, int len)
     {
         // fast path if we fit in the block assuming optimistically for all three-byte
@@ -270,7 +311,8 @@ import java.util.List;
         }
 
         final Block block = current;
-        int limit = block.limit;
+        final byte[] data = beginUTF8Fast(len * 3);
+        int limit = data == block.data ? block.limit : 0;
         int octets = 0;
         while (len > 0)
         {
@@ -287,26 +329,26 @@ import java.util.List;
 
             if (ch < UTF8_2_OCTET_MIN_VALUE)
             {
-                block.data[limit++] = (byte) ch;
+                data[limit++] = (byte) ch;
                 octets++;
             }
             else if (ch < UTF8_3_OCTET_MIN_VALUE)
             {
-                block.data[limit++] = (byte) (UTF8_2_OCTET_PREFIX_MASK | (ch >> UTF8_2_OCTET_SHIFT)                    );
-                block.data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | (ch                        & UTF8_FOLLOW_MASK));
+                data[limit++] = (byte) (UTF8_2_OCTET_PREFIX_MASK | (ch >> UTF8_2_OCTET_SHIFT)                    );
+                data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | (ch                        & UTF8_FOLLOW_MASK));
                 octets += 2;
             }
             else
             {
-                block.data[limit++] = (byte) (UTF8_3_OCTET_PREFIX_MASK | ( ch >> UTF8_3_OCTET_SHIFT)                    );
-                block.data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | ((ch >> UTF8_2_OCTET_SHIFT) & UTF8_FOLLOW_MASK));
-                block.data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | ( ch                        & UTF8_FOLLOW_MASK));
+                data[limit++] = (byte) (UTF8_3_OCTET_PREFIX_MASK | ( ch >> UTF8_3_OCTET_SHIFT)                    );
+                data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | ((ch >> UTF8_2_OCTET_SHIFT) & UTF8_FOLLOW_MASK));
+                data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | ( ch                        & UTF8_FOLLOW_MASK));
                 octets += 3;
             }
             off++;
             len--;
         }
-        block.limit = limit;
+        endUTF8Fast(block, data, limit);
 
         if (len > 0)
         {
@@ -325,7 +367,8 @@ import java.util.List;
         }
 
         final Block block = current;
-        int limit = block.limit;
+        final byte[] data = beginUTF8Fast(len * 2);
+        int limit = data == block.data ? block.limit : 0;
         char ch = '\0';
         int octets = 0;
         while (len > 0)
@@ -339,19 +382,19 @@ import java.util.List;
 
             if (ch < UTF8_2_OCTET_MIN_VALUE)
             {
-                block.data[limit++] = (byte) ch;
+                data[limit++] = (byte) ch;
                 octets++;
             }
             else
             {
-                block.data[limit++] = (byte) (UTF8_2_OCTET_PREFIX_MASK | (ch >> UTF8_2_OCTET_SHIFT)                    );
-                block.data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | (ch                        & UTF8_FOLLOW_MASK));
+                data[limit++] = (byte) (UTF8_2_OCTET_PREFIX_MASK | (ch >> UTF8_2_OCTET_SHIFT)                    );
+                data[limit++] = (byte) (UTF8_FOLLOW_PREFIX_MASK  | (ch                        & UTF8_FOLLOW_MASK));
                 octets += 2;
             }
             off++;
             len--;
         }
-        block.limit = limit;
+        endUTF8Fast(block, data, limit);
 
         if (len > 0)
         {
@@ -380,7 +423,8 @@ import java.util.List;
             return writeUTF8Slow(chars, off, len);
         }
         final Block block = current;
-        int limit = block.limit;
+        final byte[] data = beginUTF8Fast(len);
+        int limit = data == block.data ? block.limit : 0;
         char ch = '\0';
         int octets = 0;
         while (len > 0)
@@ -392,12 +436,12 @@ import java.util.List;
                 break;
             }
 
-            block.data[limit++] = (byte) ch;
+            data[limit++] = (byte) ch;
             octets++;
             off++;
             len--;
         }
-        block.limit = limit;
+        endUTF8Fast(block, data, limit);
 
         if (len > 0)
         {
@@ -443,6 +487,75 @@ import java.util.List;
         writeByte((byte) value);
     }
 
+    /**
+     * Stores the low 1 to 8 octets of a value, most significant first, into the current block, which must have room
+     * for them.
+     */
+    private void writeUIntDirect(final long value, final int length)
+    {
+        final Block block = current;
+        final byte[] data = block.data;
+        if (data == null)
+        {
+            writeUIntOffHeap(block, value, length);
+            return;
+        }
+        final int limit = block.limit + length;
+        // each case falls through to store the next, less significant octet
+        switch (length)
+        {
+            case 8: data[limit - 8] = (byte) (value >> UINT_8_OCTET_SHIFT);
+            case 7: data[limit - 7] = (byte) (value >> UINT_7_OCTET_SHIFT);
+            case 6: data[limit - 6] = (byte) (value >> UINT_6_OCTET_SHIFT);
+            case 5: data[limit - 5] = (byte) (value >> UINT_5_OCTET_SHIFT);
+            case 4: data[limit - 4] = (byte) (value >> UINT_4_OCTET_SHIFT);
+            case 3: data[limit - 3] = (byte) (value >> UINT_3_OCTET_SHIFT);
+            case 2: data[limit - 2] = (byte) (value >> UINT_2_OCTET_SHIFT);
+            default: data[limit - 1] = (byte) (value                      );
+        }
+        block.limit = limit;
+    }
+
+    /** Stores the low 1 to 8 octets of a value, most significant first, into an off-heap block with room for them. */
+    private static void writeUIntOffHeap(final Block block, final long value, final int length)
+    {
+        final ByteBuffer direct = block.direct;
+        final int limit = block.limit;
+        switch (length)
+        {
+            case 1:
+                direct.put(limit, (byte) value);
+                break;
+            case 2:
+                direct.putShort(limit, (short) value);
+                break;
+            case 3:
+                direct.putShort(limit,     (short) (value >> UINT_2_OCTET_SHIFT));
+                direct.put     (limit + 2, (byte)  (value                      ));
+                break;
+            case 4:
+                direct.putInt(limit, (int) value);
+                break;
+            case 5:
+                direct.putInt  (limit,     (int)   (value >> UINT_2_OCTET_SHIFT));
+                direct.put     (limit + 4, (byte)  (value                      ));
+                break;
+            case 6:
+                direct.putInt  (limit,     (int)   (value >> UINT_3_OCTET_SHIFT));
+                direct.putShort(limit + 4, (short) (value                      ));
+                break;
+            case 7:
+                direct.putInt  (limit,     (int)   (value >> UINT_4_OCTET_SHIFT));
+                direct.putShort(limit + 4, (short) (value >> UINT_2_OCTET_SHIFT));
+                direct.put     (limit + 6, (byte)  (value                      ));
+                break;
+            default:
+                direct.putLong(limit, value);
+                break;
+        }
+        block.limit = limit + length;
+    }
+
     private void writeUInt16Slow(long value)
     {
         writeByte((byte) (value >> UINT_2_OCTET_SHIFT));
@@ -456,13 +569,7 @@ import java.util.List;
             writeUInt16Slow(value);
             return;
         }
-
-        final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) (value                      );
-        block.limit = limit;
+        writeUIntDirect(value, 2);
     }
 
     private void writeUInt24Slow(long value)
@@ -479,14 +586,7 @@ import java.util.List;
             writeUInt24Slow(value);
             return;
         }
-
-        final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) (value                      );
-        block.limit = limit;
+        writeUIntDirect(value, 3);
     }
 
     private void writeUInt32Slow(long value)
@@ -504,15 +604,7 @@ import java.util.List;
             writeUInt32Slow(value);
             return;
         }
-
-        final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_4_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) (value                      );
-        block.limit = limit;
+        writeUIntDirect(value, 4);
     }
 
     private void writeUInt40Slow(long value)
@@ -531,16 +623,7 @@ import java.util.List;
             writeUInt40Slow(value);
             return;
         }
-
-        final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_5_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_4_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) (value                      );
-        block.limit = limit;
+        writeUIntDirect(value, 5);
     }
 
     private void writeUInt48Slow(long value)
@@ -560,17 +643,7 @@ import java.util.List;
             writeUInt48Slow(value);
             return;
         }
-
-        final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_6_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_5_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_4_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) ( value                     );
-        block.limit = limit;
+        writeUIntDirect(value, 6);
     }
 
     private void writeUInt56Slow(long value)
@@ -591,18 +664,7 @@ import java.util.List;
             writeUInt56Slow(value);
             return;
         }
-
-        final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_7_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_6_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_5_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_4_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) (value                      );
-        block.limit = limit;
+        writeUIntDirect(value, 7);
     }
 
     private void writeUInt64Slow(long value)
@@ -624,21 +686,7 @@ import java.util.List;
             writeUInt64Slow(value);
             return;
         }
-
-        final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte) (value >> UINT_8_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_7_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_6_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_5_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_4_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_3_OCTET_SHIFT);
-        data[limit++] = (byte) (value >> UINT_2_OCTET_SHIFT);
-        data[limit++] = (byte) ( value                      );
-        block.limit = limit;
-
-
+        writeUIntDirect(value, 8);
     }
 
     // signed fixed integer writes - does not check bounds (especially important for IntX.MIN_VALUE).
@@ -808,58 +856,42 @@ import java.util.List;
         return size;
     }
 
-    private int writeVarUIntDirect2(final long value)
-    {
-        final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
-
-        block.limit = limit;
-        return 2;
-    }
-
-    private int writeVarUIntDirect3(final long value)
-    {
-        final Block block = current;
-        final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte)  ((value >> VAR_UINT_3_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
-
-        block.limit = limit;
-        return 3;
-    }
-
-    private int writeVarUIntDirect4(final long value)
+    /** Stores a VarUInt of the given length into an off-heap block with room for it; returns the length. */
+    private static int writeVarUIntOffHeap(final Block block, final long value, final int length)
     {
-        final Block block = current;
-        final byte[] data = block.data;
+        final ByteBuffer direct = block.direct;
         int limit = block.limit;
-        data[limit++] = (byte)  ((value >> VAR_UINT_4_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_3_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
-
+        for (long shift = (length - 1) * VAR_INT_BITS_PER_OCTET; shift > 0; shift -= VAR_INT_BITS_PER_OCTET)
+        {
+            direct.put(limit++, (byte) ((value >> shift) & VAR_INT_MASK));
+        }
+        direct.put(limit++, (byte) ((value & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
         block.limit = limit;
-        return 4;
+        return length;
     }
 
-    private int writeVarUIntDirect5(final long value)
+    /** Stores a VarUInt of the given length, from 2 to 5 octets, into the current block, which must have room for it. */
+    private int writeVarUIntDirect(final long value, final int length)
     {
         final Block block = current;
         final byte[] data = block.data;
-        int limit = block.limit;
-        data[limit++] = (byte)  ((value >> VAR_UINT_5_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_4_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_3_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte)  ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        data[limit++] = (byte) (((value)                           & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        if (data == null)
+        {
+            return writeVarUIntOffHeap(block, value, length);
+        }
+        final int limit = block.limit + length;
+        // each case falls through to store the next, less significant octet
+        switch (length)
+        {
+            case 5: data[limit - 5] = (byte) ((value >> VAR_UINT_5_OCTET_SHIFT) & VAR_INT_MASK);
+            case 4: data[limit - 4] = (byte) ((value >> VAR_UINT_4_OCTET_SHIFT) & VAR_INT_MASK);
+            case 3: data[limit - 3] = (byte) ((value >> VAR_UINT_3_OCTET_SHIFT) & VAR_INT_MASK);
+            default: data[limit - 2] = (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
+        }
+        data[limit - 1] = (byte) ((value & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
 
         block.limit = limit;
-        return 5;
+        return length;
     }
 
     public int writeVarUInt(final long value)
@@ -875,7 +907,7 @@ import java.util.List;
             {
                 return writeVarUIntSlow(value);
             }
-            return writeVarUIntDirect2(value);
+            return writeVarUIntDirect(value, 2);
         }
         if (value < VAR_UINT_4_OCTET_MIN_VALUE)
         {
@@ -883,7 +915,7 @@ import java.util.List;
             {
                 return writeVarUIntSlow(value);
             }
-            return writeVarUIntDirect3(value);
+            return writeVarUIntDirect(value, 3);
         }
         if (value < VAR_UINT_5_OCTET_MIN_VALUE)
         {
@@ -891,7 +923,7 @@ import java.util.List;
             {
                 return writeVarUIntSlow(value);
             }
-            return writeVarUIntDirect4(value);
+            return writeVarUIntDirect(value, 4);
         }
         if (value < VAR_UINT_6_OCTET_MIN_VALUE)
         {
@@ -899,7 +931,7 @@ import java.util.List;
             {
                 return writeVarUIntSlow(value);
             }
-            return writeVarUIntDirect5(value);
+            return writeVarUIntDirect(value, 5);
 
         }
         // TODO determine if it is worth doing the fast path beyond 2**35 - 1
@@ -1007,19 +1039,19 @@ import java.util.List;
         final int remaining = remaining();
         if (magnitude < VAR_INT_3_OCTET_MIN_VALUE && remaining >= 2)
         {
-            return writeVarUIntDirect2(magnitude | (signBit << VAR_SINT_2_OCTET_SHIFT));
+            return writeVarUIntDirect(magnitude | (signBit << VAR_SINT_2_OCTET_SHIFT), 2);
         }
         else if (magnitude < VAR_INT_4_OCTET_MIN_VALUE && remaining >= 3)
         {
-            return writeVarUIntDirect3(magnitude | (signBit << VAR_SINT_3_OCTET_SHIFT));
+            return writeVarUIntDirect(magnitude | (signBit << VAR_SINT_3_OCTET_SHIFT), 3);
         }
         else if (magnitude < VAR_INT_5_OCTET_MIN_VALUE && remaining >= 4)
         {
-            return writeVarUIntDirect4(magnitude | (signBit << VAR_SINT_4_OCTET_SHIFT));
+            return writeVarUIntDirect(magnitude | (signBit << VAR_SINT_4_OCTET_SHIFT), 4);
         }
         else if (magnitude < VAR_INT_6_OCTET_MIN_VALUE && remaining >= 5)
         {
-            return writeVarUIntDirect5(magnitude | (signBit << VAR_SINT_5_OCTET_SHIFT));
+            return writeVarUIntDirect(magnitude | (signBit << VAR_SINT_5_OCTET_SHIFT), 5);
         }
         // TODO determine if it is worth doing the fast path beyond 2**34 - 1
 
@@ -1038,9 +1070,9 @@ import java.util.List;
     {
         // XXX we're stradling a block
         final Block block1 = blocks.get(index);
-        block1.data[offset] = (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
+        block1.put(offset, (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK));
         final Block block2 = blocks.get(index + 1);
-        block2.data[0]      = (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        block2.put(0,      (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
     }
 
     public void writeVarUIntDirect2At(long position, long value)
@@ -1055,8 +1087,8 @@ import java.util.List;
         }
 
         final Block block = blocks.get(index);
-        block.data[offset    ] = (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK);
-        block.data[offset + 1] = (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK);
+        block.put(offset,     (byte) ((value >> VAR_UINT_2_OCTET_SHIFT) & VAR_INT_MASK));
+        block.put(offset + 1, (byte) ((value                            & VAR_INT_MASK) | VAR_INT_FINAL_OCTET_SIGNAL_MASK));
     }
 
     public void writeUInt8At(final long position, final long value)
@@ -1066,7 +1098,7 @@ import java.util.List;
 
         // XXX we'll never overrun a block unless we're given a position past our block array
         final Block block = blocks.get(index);
-        block.data[offset] = (byte) value;
+        block.put(offset, (byte) value);
     }
 
     /** Write the entire buffer to output stream. */
@@ -1075,7 +1107,7 @@ import java.util.List;
         for (int i = 0; i <= index; i++)
         {
             Block block = blocks.get(i);
-            out.write(block.data, 0, block.limit);
+            block.writeTo(out, 0, block.limit);
         }
     }
 
@@ -1087,11 +1119,80 @@ import java.util.List;
             final int index = index(position);
             final int offset = offset(position);
             final Block block = blocks.get(index);
-            final int amount = (int) Math.min(block.data.length - offset, length);
-            out.write(block.data, offset, amount);
+            final int amount = (int) Math.min(block.capacity() - offset, length);
+            block.writeTo(out, offset, amount);
 
             position += amount;
             length -= amount;
         }
     }
+
+    /** Copies a specific segment of data from another buffer to the end of this one, expanding if necessary. */
+    public void writeBytes(final WriteBuffer src, long position, long length)
+    {
+        while (length > 0)
+        {
+            final Block srcBlock = src.blocks.get(src.index(position));
+            final int srcOffset = src.offset(position);
+            final Block block = current;
+            final int amount = (int) Math.min(Math.min(srcBlock.capacity() - srcOffset, block.remaining()), length);
+            srcBlock.copyTo(srcOffset, block, block.limit, amount);
+            block.limit += amount;
+            position += amount;
+            length -= amount;
+            if (block.remaining() == 0)
+            {
+                if (index == blocks.size() - 1)
+                {
+                    allocateNewBlock();
+                }
+                index++;
+                current = blocks.get(index);
+            }
+        }
+    }
+
+    /** Adds buffers over a specific segment of data from the buffer to a list, to be written to a channel. */
+    public void addSlices(final List<ByteBuffer> slices, long position, long length)
+    {
+        while (length > 0)
+        {
+            final int index = index(position);
+            final int offset = offset(position);
+            final Block block = blocks.get(index);
+            final int amount = (int) Math.min(block.capacity() - offset, length);
+            slices.add(block.slice(offset, amount));
+
+            position += amount;
+            length -= amount;
+        }
+    }
+
+    /** Write the entire buffer to a blocking channel, handing it the blocks themselves. */
+    public void writeTo(final GatheringByteChannel channel) throws IOException
+    {
+        final List<ByteBuffer> slices = new ArrayList<ByteBuffer>(index + 1);
+        addSlices(slices, 0, position());
+        writeFully(channel, slices);
+    }
+
+    /** Writes all that remains of a list of buffers to a blocking channel with gathering writes. */
+    /*package*/ static void writeFully(final GatheringByteChannel channel, final List<ByteBuffer> slices)
+        throws IOException
+    {
+        final ByteBuffer[] buffers = slices.toArray(new ByteBuffer[slices.size()]);
+        int first = 0;
+        while (first < buffers.length)
+        {
+            final long written = channel.write(buffers, first, buffers.length - first);
+            if (written == 0 && !ByteChannelOutputStream.isBlocking(channel))
+            {
+                throw new IOException("Channel is in non-blocking mode");
+            }
+            while (first < buffers.length && !buffers[first].hasRemaining())
+            {
+                first++;
+            }
+        }
+    }
 }
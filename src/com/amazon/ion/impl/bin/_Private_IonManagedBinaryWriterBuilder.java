@@ -32,6 +32,7 @@ import com.amazon.ion.impl.bin.IonRawBinaryWriter.PreallocationMode;
 import com.amazon.ion.system.SimpleCatalog;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.List;
 
@@ -62,6 +63,23 @@ public final class _Private_IonManagedBinaryWriterBuilder
             {
                 return BlockAllocatorProviders.basicProvider();
             }
+        },
+        /**
+         * Pools blocks in per-thread caches backed by a shared striped pool, with default bounds on retained bytes
+         * and idle time.
+         *
+         * @see #withThreadLocalBlockPool(long, long)
+         */
+        THREAD_LOCAL_POOLED
+        {
+            @Override
+            BlockAllocatorProvider createAllocatorProvider()
+            {
+                return new ThreadLocalPooledBlockAllocatorProvider(
+                    ThreadLocalPooledBlockAllocatorProvider.DEFAULT_MAX_RETAINED_BYTES,
+                    ThreadLocalPooledBlockAllocatorProvider.DEFAULT_MAX_IDLE_MILLIS
+                );
+            }
         };
 
         /*package*/ abstract BlockAllocatorProvider createAllocatorProvider();
@@ -69,7 +87,9 @@ public final class _Private_IonManagedBinaryWriterBuilder
 
     public static final int DEFAULT_BLOCK_SIZE = 32768;
 
-    /*package*/ final    BlockAllocatorProvider provider;
+    /*package*/ final   BlockAllocatorProvider provider;
+    /** The off-heap pool for writers built for channels, or null to use {@link #provider}. */
+    /*package*/ final   BlockAllocatorProvider directProvider;
     /*package*/ volatile int                    symbolsBlockSize;
     /*package*/ volatile int                    userBlockSize;
     /*package*/ volatile PreallocationMode      preallocationMode;
@@ -79,10 +99,12 @@ public final class _Private_IonManagedBinaryWriterBuilder
     /*package*/ volatile SymbolTable            initialSymbolTable;
     /*package*/ volatile boolean                isLocalSymbolTableAppendEnabled;
     /*package*/ volatile boolean                isFloatBinary32Enabled;
+    /*package*/ volatile boolean                isCanonicalEncoding;
 
     private _Private_IonManagedBinaryWriterBuilder(final BlockAllocatorProvider provider)
     {
         this.provider = provider;
+        this.directProvider = null;
         this.symbolsBlockSize = DEFAULT_BLOCK_SIZE;
         this.userBlockSize = DEFAULT_BLOCK_SIZE;
         this.imports = ONLY_SYSTEM_IMPORTS;
@@ -91,11 +113,15 @@ public final class _Private_IonManagedBinaryWriterBuilder
         this.optimization = WriteValueOptimization.NONE;
         this.isLocalSymbolTableAppendEnabled = false;
         this.isFloatBinary32Enabled = false;
+        this.isCanonicalEncoding = false;
     }
 
-    private _Private_IonManagedBinaryWriterBuilder(final _Private_IonManagedBinaryWriterBuilder other)
+    private _Private_IonManagedBinaryWriterBuilder(final _Private_IonManagedBinaryWriterBuilder other,
+                                                   final BlockAllocatorProvider provider,
+                                                   final BlockAllocatorProvider directProvider)
     {
-        this.provider           = other.provider;
+        this.provider           = provider;
+        this.directProvider     = directProvider;
         this.symbolsBlockSize   = other.symbolsBlockSize;
         this.userBlockSize      = other.userBlockSize;
         this.preallocationMode  = other.preallocationMode;
@@ -105,15 +131,58 @@ public final class _Private_IonManagedBinaryWriterBuilder
         this.initialSymbolTable = other.initialSymbolTable;
         this.isLocalSymbolTableAppendEnabled = other.isLocalSymbolTableAppendEnabled;
         this.isFloatBinary32Enabled = other.isFloatBinary32Enabled;
+        this.isCanonicalEncoding = other.isCanonicalEncoding;
     }
 
     public _Private_IonManagedBinaryWriterBuilder copy()
     {
-        return new _Private_IonManagedBinaryWriterBuilder(this);
+        return new _Private_IonManagedBinaryWriterBuilder(this, provider, directProvider);
     }
 
     // Parameter Setting Methods
 
+    /**
+     * Returns a copy of this builder bound to a new pool with per-thread caches backed by a shared striped pool,
+     * which retains at most {@code maxRetainedBytes} of free blocks and releases blocks left unused for
+     * {@code maxIdleMillis}. This builder keeps its own pool.
+     * <p>
+     * The new pool belongs to the returned builder and is shared by its copies; it's released by
+     * {@link #closeBlockPools()}.
+     */
+    public _Private_IonManagedBinaryWriterBuilder withThreadLocalBlockPool(final long maxRetainedBytes,
+                                                                         final long maxIdleMillis)
+    {
+        final BlockAllocatorProvider pool = new ThreadLocalPooledBlockAllocatorProvider(maxRetainedBytes, maxIdleMillis);
+        return new _Private_IonManagedBinaryWriterBuilder(this, pool, directProvider);
+    }
+
+    /**
+     * Returns a copy of this builder bound to a new pool of off-heap blocks for the writers it builds for channels,
+     * which retains at most {@code maxRetainedBytes} of free blocks. This builder keeps its own pools.
+     * <p>
+     * The new pool belongs to the returned builder and is shared by its copies; it's released by
+     * {@link #closeBlockPools()}, or else once it and the writers using it are garbage collected.
+     */
+    public _Private_IonManagedBinaryWriterBuilder withDirectBlockPool(final long maxRetainedBytes)
+    {
+        final BlockAllocatorProvider pool = new DirectBlockAllocatorProvider(maxRetainedBytes);
+        return new _Private_IonManagedBinaryWriterBuilder(this, provider, pool);
+    }
+
+    /**
+     * Releases the free blocks retained by this builder's pools, which are shared by its copies, and stops them
+     * from retaining any more. Writers already built keep working, and so do writers built afterwards, but without
+     * reusing blocks.
+     */
+    public void closeBlockPools()
+    {
+        provider.close();
+        if (directProvider != null)
+        {
+            directProvider.close();
+        }
+    }
+
     public _Private_IonManagedBinaryWriterBuilder withSymbolsBlockSize(final int blockSize)
     {
         if (blockSize < 1)
@@ -218,6 +287,17 @@ public final class _Private_IonManagedBinaryWriterBuilder
         return this;
     }
 
+    /**
+     * Declares whether writers produce the canonical encoding, in which equivalent data always encodes to the same
+     * bytes. Canonical writers manage their own symbol tables and layout, so they don't use the imports, initial
+     * symbol table, preallocation, symbol table appending, Binary32 floats, or stream copy optimization.
+     */
+    public _Private_IonManagedBinaryWriterBuilder withCanonicalEncoding(boolean canonical)
+    {
+        isCanonicalEncoding = canonical;
+        return this;
+    }
+
     public _Private_IonManagedBinaryWriterBuilder withInitialSymbolTable(SymbolTable symbolTable)
     {
         if (symbolTable != null)
@@ -257,9 +337,30 @@ public final class _Private_IonManagedBinaryWriterBuilder
 
     public IonWriter newWriter(final OutputStream out) throws IOException
     {
+        if (isCanonicalEncoding)
+        {
+            return new IonCanonicalBinaryWriter(this, out);
+        }
         return new IonManagedBinaryWriter(this, out);
     }
 
+    /**
+     * Builds a writer that emits to a blocking channel. The writer's blocks are handed to the channel with gathering
+     * writes; they come from the pool declared by {@link #withDirectBlockPool(long)}, so that they're off-heap and
+     * need no copying on the way, or else from the usual pool. The channel is closed when the writer is closed.
+     *
+     * @throws IllegalArgumentException if the channel is in non-blocking mode.
+     */
+    public IonWriter newWriter(final WritableByteChannel channel) throws IOException
+    {
+        _Private_IonManagedBinaryWriterBuilder builder = this;
+        if (directProvider != null)
+        {
+            builder = new _Private_IonManagedBinaryWriterBuilder(this, directProvider, null);
+        }
+        return builder.newWriter(new ByteChannelOutputStream(channel));
+    }
+
     public IonBinaryWriter newLegacyWriter()
     {
         try
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+/**
+ * Maps field names to child indexes for {@link IonStructLite}.
+ * <p>
+ * This is an open-addressing (linear probing) hash table of {@code String}
+ * to {@code int}, so unlike a {@code HashMap<String, Integer>} it allocates
+ * nothing per entry and copies with two array clones. It holds one index per
+ * name; the struct tracks duplicate names itself.
+ * <p>
+ * A null name (a field whose text is unknown) is permitted and stored apart
+ * from the table.
+ */
+final class FieldNameIndex
+{
+    /** Returned by {@link #get(String)} when the name isn't present. */
+    static final int NOT_FOUND = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    /** Null in empty slots. */
+    private String[] myNames;
+    private int[]    myIndexes;
+    private int      mySize;
+    private int      myNullNameIndex = NOT_FOUND;
+
+    /**
+     * @param expectedSize the number of names expected to be put.
+     */
+    FieldNameIndex(int expectedSize)
+    {
+        int capacity = MIN_CAPACITY;
+        // Keep the load factor at or below one half.
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        myNames = new String[capacity];
+        myIndexes = new int[capacity];
+    }
+
+    FieldNameIndex(FieldNameIndex that)
+    {
+        myNames = that.myNames.clone();
+        myIndexes = that.myIndexes.clone();
+        mySize = that.mySize;
+        myNullNameIndex = that.myNullNameIndex;
+    }
+
+    private static int slotFor(String name, int mask)
+    {
+        int h = name.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @return the index mapped to the name, or {@link #NOT_FOUND}.
+     */
+    int get(String name)
+    {
+        if (name == null) return myNullNameIndex;
+
+        String[] names = myNames;
+        int mask = names.length - 1;
+        for (int slot = slotFor(name, mask); ; slot = (slot + 1) & mask) {
+            String candidate = names[slot];
+            if (candidate == null) return NOT_FOUND;
+            if (candidate == name || candidate.equals(name)) {
+                return myIndexes[slot];
+            }
+        }
+    }
+
+    /**
+     * Maps the name to the index, replacing any existing mapping.
+     */
+    void put(String name, int index)
+    {
+        assert index >= 0;
+        if (name == null) {
+            myNullNameIndex = index;
+            return;
+        }
+
+        int mask = myNames.length - 1;
+        int slot = slotFor(name, mask);
+        for (;;) {
+            String candidate = myNames[slot];
+            if (candidate == null) break;
+            if (candidate == name || candidate.equals(name)) {
+                myIndexes[slot] = index;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        myNames[slot] = name;
+        myIndexes[slot] = index;
+        mySize++;
+        if (mySize * 2 > myNames.length) {
+            grow();
+        }
+    }
+
+    void remove(String name)
+    {
+        if (name == null) {
+            myNullNameIndex = NOT_FOUND;
+            return;
+        }
+
+        String[] names = myNames;
+        int mask = names.length - 1;
+        int slot = slotFor(name, mask);
+        for (;;) {
+            String candidate = names[slot];
+            if (candidate == null) return;
+            if (candidate == name || candidate.equals(name)) break;
+            slot = (slot + 1) & mask;
+        }
+
+        // Shift back any following entries that probed past this slot, so
+        // lookups never stop early at the hole.
+        int hole = slot;
+        for (int next = (hole + 1) & mask; names[next] != null; next = (next + 1) & mask) {
+            int home = slotFor(names[next], mask);
+            // Move the entry unless its home lies cyclically in (hole, next].
+            boolean homeAfterHole = (hole <= next)
+                ? (hole < home && home <= next)
+                : (hole < home || home <= next);
+            if (!homeAfterHole) {
+                names[hole] = names[next];
+                myIndexes[hole] = myIndexes[next];
+                hole = next;
+            }
+        }
+        names[hole] = null;
+        mySize--;
+    }
+
+    private void grow()
+    {
+        String[] oldNames = myNames;
+        int[] oldIndexes = myIndexes;
+        int capacity = oldNames.length * 2;
+        int mask = capacity - 1;
+        String[] names = new String[capacity];
+        int[] indexes = new int[capacity];
+        for (int i = 0; i < oldNames.length; i++) {
+            String name = oldNames[i];
+            if (name != null) {
+                int slot = slotFor(name, mask);
+                while (names[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                names[slot] = name;
+                indexes[slot] = oldIndexes[i];
+            }
+        }
+        myNames = names;
+        myIndexes = indexes;
+    }
+
+    /** The number of names mapped, including any null name. */
+    int size()
+    {
+        return mySize + (myNullNameIndex == NOT_FOUND ? 0 : 1);
+    }
+
+    /**
+     * Passes each mapping to the visitor, in no particular order.
+     * Used for diagnostics.
+     */
+    void forEach(Visitor visitor)
+    {
+        if (myNullNameIndex != NOT_FOUND) {
+            visitor.visit(null, myNullNameIndex);
+        }
+        for (int i = 0; i < myNames.length; i++) {
+            if (myNames[i] != null) {
+                visitor.visit(myNames[i], myIndexes[i]);
+            }
+        }
+    }
+
+    interface Visitor
+    {
+        void visit(String name, int index);
+    }
+}
@@ -27,7 +27,6 @@ import com.amazon.ion.ValueVisitor;
 import com.amazon.ion.impl._Private_IonConstants;
 import com.amazon.ion.impl._Private_IonContainer;
 import com.amazon.ion.impl._Private_Utils;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
@@ -41,6 +40,22 @@ abstract class IonContainerLite
     protected IonValueLite[] _children;
     protected int            structuralModificationCount;
 
+    /**
+     * Non-null while this container's children have not yet been loaded from
+     * the binary data it was read from.
+     * Cleared (last) once they have been installed; being volatile, that
+     * publishes the children safely to other threads reading a read-only
+     * value.
+     */
+    private volatile LazyBinarySource.Content _lazy_content;
+
+    /**
+     * The hash code of this container once it's read-only, and so can no
+     * longer change; zero until it's first asked for. Saves rehashing the
+     * whole subtree each time a read-only value is used as a hash key.
+     */
+    private int _read_only_hash_code;
+
     protected IonContainerLite(ContainerlessContext context, boolean isNull)
     {
         // we'll let IonValueLite handle this work as we always need to know
@@ -51,6 +66,13 @@ abstract class IonContainerLite
     IonContainerLite(IonContainerLite existing, IonContext context, boolean isStruct) {
         super(existing, context);
         boolean retainingSIDs = false;
+        LazyBinarySource.Content lazy = existing._lazy_content;
+        if (lazy != null) {
+            // The clone can load its own children from the same (immutable)
+            // binary data, so there's nothing to copy yet.
+            this._lazy_content = lazy;
+            return;
+        }
         int childCount = existing._child_count;
         this._child_count = childCount;
         // when cloning the children we establish 'this' the cloned outer container as the context
@@ -99,7 +121,13 @@ abstract class IonContainerLite
     {
         checkForLock();
 
-        if (_isNullValue())
+        if (_lazy_content != null)
+        {
+            // No need to load children only to detach them.
+            _lazy_content = null;
+            structuralModificationCount++;
+        }
+        else if (_isNullValue())
         {
             assert _children == null;
             assert _child_count == 0;
@@ -186,6 +214,7 @@ abstract class IonContainerLite
             if (_isLocked() && !readOnly) {
                 throw new IllegalStateException("you can't open an updatable iterator on a read only value");
             }
+            materialize();
             if (index < 0 || index > _child_count) {
                 throw new IndexOutOfBoundsException(Integer.toString(index));
             }
@@ -389,6 +418,27 @@ abstract class IonContainerLite
         return get_child_count();
     }
 
+    @Override
+    final int hashCode(SymbolTableProvider symbolTableProvider)
+    {
+        if (!_isLocked()) {
+            return contentHashCode(symbolTableProvider);
+        }
+        // Racy, like String.hashCode(): every thread computes the same value.
+        int hash = _read_only_hash_code;
+        if (hash == 0) {
+            hash = contentHashCode(symbolTableProvider);
+            _read_only_hash_code = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the hash code of this container's annotations and children,
+     * for {@link #hashCode(SymbolTableProvider)}.
+     */
+    abstract int contentHashCode(SymbolTableProvider symbolTableProvider);
+
     @Override
     void makeReadOnlyInternal()
     {
@@ -629,7 +679,7 @@ abstract class IonContainerLite
     }
 
     /**
-     * This is overriden in {@link IonStructLite} to add the {@link HashMap} of
+     * This is overriden in {@link IonStructLite} to add the {@link FieldNameIndex} of
      * field names when the struct becomes moderately large.
      *
      * @param size
@@ -640,10 +690,12 @@ abstract class IonContainerLite
     }
 
     public final int get_child_count() {
+        materialize();
         return _child_count;
     }
 
     public final IonValueLite get_child(int idx) {
+        materialize();
         if (idx < 0 || idx >= _child_count) {
             throw new IndexOutOfBoundsException(Integer.toString(idx));
         }
@@ -702,6 +754,73 @@ abstract class IonContainerLite
     }
 
 
+    /**
+     * Marks this (empty, non-null) container as having children that will be
+     * loaded from binary data on first access.
+     */
+    final void setLazyContent(LazyBinarySource.Content content)
+    {
+        assert _children == null && !_isNullValue();
+        _lazy_content = content;
+    }
+
+    final boolean hasLazyContent(LazyBinarySource.Content content)
+    {
+        return _lazy_content == content;
+    }
+
+    /**
+     * Loads this container's children if they are still only present in the
+     * binary data it was read from.
+     */
+    protected final void materialize()
+    {
+        LazyBinarySource.Content lazy = _lazy_content;
+        if (lazy != null) {
+            lazy.materialize(this);
+        }
+    }
+
+    /**
+     * Installs the children loaded by {@link LazyBinarySource}.
+     * Called while holding the source's lock, and must not use any method
+     * that would {@link #materialize()} this container.
+     *
+     * @param children must contain {@code count} newly created values.
+     */
+    final void install_children(IonValueLite[] children, int count)
+    {
+        boolean locked = _isLocked();
+        boolean sidPresent = false;
+        for (int ii = 0; ii < count; ii++) {
+            IonValueLite child = children[ii];
+            child.setContext(this);
+            child._elementid(ii);
+            if (locked) {
+                child.makeReadOnlyInternal();
+            }
+            sidPresent |= child._isSymbolIdPresent();
+        }
+        _children = (count == 0) ? null : children;
+        _child_count = count;
+        children_installed();
+
+        if (sidPresent && !locked) {
+            cascadeSIDPresentToContextRoot();
+        }
+        _lazy_content = null;
+    }
+
+    /**
+     * Overridden in {@link IonStructLite} to index the field names of
+     * children installed by {@link #install_children}.
+     */
+    void children_installed()
+    {
+        return;
+    }
+
+
     IonContext getContextForIndex(IonValue element, int index){
         return this;
     }
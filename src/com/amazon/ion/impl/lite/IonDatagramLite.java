@@ -319,7 +319,7 @@ final class IonDatagramLite
     }
 
     @Override
-    int hashCode(SymbolTableProvider symbolTableProvider) {
+    int contentHashCode(SymbolTableProvider symbolTableProvider) {
         String message = "IonDatagrams do not need a resolved Symbol table use #hashCode()";
         throw new UnsupportedOperationException(message);
     }
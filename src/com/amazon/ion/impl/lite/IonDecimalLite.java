@@ -21,6 +21,8 @@ import com.amazon.ion.IonType;
 import com.amazon.ion.IonWriter;
 import com.amazon.ion.NullValueException;
 import com.amazon.ion.ValueVisitor;
+import com.amazon.ion.impl._Private_DecimalWriter;
+import com.amazon.ion.impl._Private_ScalarConversions;
 import java.io.IOException;
 import java.math.BigDecimal;
 
@@ -52,7 +54,17 @@ final class IonDecimalLite
         return true;
     }
 
+    /** The most digits in an unscaled value that always fit in a long. */
+    private static final int MAX_COMPACT_PRECISION = 18;
+
+    /**
+     * Null when the value is null or compact, in which case it's
+     * {@code _unscaled_value * 10^-_scale}. Holding common decimals as a
+     * long and an int saves the BigDecimal and its BigInteger.
+     */
     private BigDecimal _decimal_value;
+    private long _unscaled_value;
+    private int _scale;
 
     /**
      * Constructs a <code>null.decimal</code> element.
@@ -67,6 +79,8 @@ final class IonDecimalLite
         super(existing, context);
         // we can shallow copy as BigDecimal is immutable
         this._decimal_value = existing._decimal_value;
+        this._unscaled_value = existing._unscaled_value;
+        this._scale = existing._scale;
     }
 
     @Override
@@ -88,8 +102,20 @@ final class IonDecimalLite
 
         // This is consistent with Decimal.equals(Object), and with Equivalence
         // strict equality checks between two IonDecimals.
-        if (!isNullValue())  {
-            Decimal dec = decimalValue();
+        if (_isNullValue())
+        {
+            // no value to hash
+        }
+        else if (_decimal_value == null)
+        {
+            // Equal values are always held the same way, so compact ones
+            // can hash their fields without building a Decimal.
+            result ^= (int) (_unscaled_value ^ (_unscaled_value >>> 32)) * 31
+                      + _scale;
+        }
+        else
+        {
+            Decimal dec = Decimal.valueOf(_decimal_value);
             result ^= dec.hashCode();
 
             if (dec.isNegativeZero())
@@ -112,6 +138,11 @@ final class IonDecimalLite
         throws NullValueException
     {
         if (_isNullValue()) throw new NullValueException();
+        if (_decimal_value == null)
+        {
+            return _Private_ScalarConversions.decimalToFloat(_unscaled_value,
+                                                             _scale);
+        }
         float f = _decimal_value.floatValue();
         return f;
     }
@@ -120,6 +151,11 @@ final class IonDecimalLite
         throws NullValueException
     {
         if (_isNullValue()) throw new NullValueException();
+        if (_decimal_value == null)
+        {
+            return _Private_ScalarConversions.decimalToDouble(_unscaled_value,
+                                                              _scale);
+        }
         double d = _decimal_value.doubleValue();
         return d;
     }
@@ -127,19 +163,38 @@ final class IonDecimalLite
     public BigDecimal bigDecimalValue()
         throws NullValueException
     {
-        return Decimal.bigDecimalValue(_decimal_value); // Works for null.
+        if (_isNullValue()) return null;
+        return Decimal.bigDecimalValue(bigDecimal());
     }
 
     public Decimal decimalValue()
         throws NullValueException
     {
-        return Decimal.valueOf(_decimal_value); // Works for null.
+        if (_isNullValue()) return null;
+        if (_decimal_value == null)
+        {
+            return Decimal.valueOf(_unscaled_value, _scale);
+        }
+        return Decimal.valueOf(_decimal_value);
+    }
+
+    /**
+     * @return the value, which may be a {@link Decimal} negative zero;
+     * built afresh when it's compact.
+     */
+    private BigDecimal bigDecimal()
+    {
+        if (_decimal_value == null)
+        {
+            return BigDecimal.valueOf(_unscaled_value, _scale);
+        }
+        return _decimal_value;
     }
 
     public void setValue(long value)
     {
-        // base setValue will check for the lock
-        setValue(Decimal.valueOf(value));
+        checkForLock();
+        setCompactValue(value, 0);
     }
 
     public void setValue(float value)
@@ -157,15 +212,42 @@ final class IonDecimalLite
     public void setValue(BigDecimal value)
     {
         checkForLock();
-        _decimal_value = value;
-        _isNullValue(value == null);
+        if (value != null
+            && value.precision() <= MAX_COMPACT_PRECISION
+            && !Decimal.isNegativeZero(value))
+        {
+            // scaleByPowerOfTen keeps the JDK's compact long, where
+            // unscaledValue() would inflate it into a BigInteger
+            int scale = value.scale();
+            setCompactValue(value.scaleByPowerOfTen(scale).longValue(), scale);
+        }
+        else
+        {
+            _decimal_value = value;
+            _isNullValue(value == null);
+        }
+    }
+
+    private void setCompactValue(long unscaledValue, int scale)
+    {
+        _decimal_value = null;
+        _unscaled_value = unscaledValue;
+        _scale = scale;
+        _isNullValue(false);
     }
 
     @Override
     final void writeBodyTo(IonWriter writer, SymbolTableProvider symbolTableProvider)
         throws IOException
     {
-        writer.writeDecimal(_decimal_value);
+        if (_decimal_value == null && !_isNullValue()
+            && writer instanceof _Private_DecimalWriter)
+        {
+            ((_Private_DecimalWriter) writer).writeDecimal(_unscaled_value,
+                                                           _scale);
+            return;
+        }
+        writer.writeDecimal(_isNullValue() ? null : bigDecimal());
     }
 
     @Override
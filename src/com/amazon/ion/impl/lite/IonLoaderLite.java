@@ -124,6 +124,17 @@ final class IonLoaderLite
 
     public IonDatagram load(byte[] ionData) throws IonException
     {
+        if (_system.isLazyLoadingEnabled()) {
+            LazyBinarySource source =
+                LazyBinarySource.open(_system, _catalog, ionData, 0, ionData.length);
+            if (source != null) {
+                // The source keeps the reader for lazy containers.
+                IonDatagramLite datagram = new IonDatagramLite(_system, _catalog);
+                source.loadInto(datagram);
+                return datagram;
+            }
+        }
+
         IonReader reader = makeReader(_catalog, ionData, 0, ionData.length, _lstFactory);
         try {
             return load(reader);
@@ -29,9 +29,7 @@ import com.amazon.ion.UnknownSymbolException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -54,14 +52,13 @@ final class IonStructLite
     private IonStructLite(IonStructLite existing, IonContext context)
     {
         super(existing, context, true);
-        // field map can be shallow cloned due to it dealing with String and Integer
-        // values - both of which are immutable constructs and so safe to retain as references
-        this._field_map = null == existing._field_map ? null : new HashMap<String, Integer>(existing._field_map);
+        // field map can be shallow cloned since its String keys are immutable
+        this._field_map = null == existing._field_map ? null : new FieldNameIndex(existing._field_map);
         this._field_map_duplicate_count = existing._field_map_duplicate_count;
         this.hasNullFieldName = existing.hasNullFieldName;
     }
 
-    private Map<String, Integer> _field_map;
+    private FieldNameIndex _field_map;
     private boolean hasNullFieldName = false;
 
     public int                      _field_map_duplicate_count;
@@ -90,28 +87,42 @@ final class IonStructLite
     {
         int size = (_children == null) ? 0 : _children.length;
 
-        _field_map = new HashMap<String, Integer>(size);
+        _field_map = new FieldNameIndex(size);
         _field_map_duplicate_count = 0;
 
-        int count = get_child_count();
+        // Uses the members directly since this is also called while
+        // installing lazily loaded children.
+        int count = _child_count;
         for (int ii=0; ii<count; ii++) {
-            IonValueLite v = get_child(ii);
+            IonValueLite v = _children[ii];
             SymbolToken fieldNameSymbol = v.getFieldNameSymbol();
             String name = fieldNameSymbol.getText();
-            if (_field_map.get(name) != null) {
+            if (_field_map.get(name) != FieldNameIndex.NOT_FOUND) {
                 _field_map_duplicate_count++;
             }
             _field_map.put(name, ii); // this causes the map to have the largest index value stored
         }
         return;
     }
+    @Override
+    void children_installed()
+    {
+        for (int ii=0; ii<_child_count; ii++) {
+            hasNullFieldName |= _children[ii].getFieldNameSymbol().getText() == null;
+        }
+        // Same threshold at which add() would have built the map.
+        if (_child_count > initialSize()) {
+            build_field_map();
+        }
+    }
+
     private void add_field(String fieldName, int newFieldIdx)
     {
-        Integer idx = _field_map.get(fieldName);
-        if (idx != null) {
+        int idx = _field_map.get(fieldName);
+        if (idx != FieldNameIndex.NOT_FOUND) {
             _field_map_duplicate_count++;
-            if (idx.intValue() > newFieldIdx) {
-                newFieldIdx = idx.intValue();
+            if (idx > newFieldIdx) {
+                newFieldIdx = idx;
             }
         }
         _field_map.put(fieldName, newFieldIdx);
@@ -122,18 +133,17 @@ final class IonStructLite
             return;
         }
 
-        Integer field_idx = _field_map.get(fieldName);
-        assert(field_idx != null);
+        assert(_field_map.get(fieldName) != FieldNameIndex.NOT_FOUND);
         _field_map.remove(fieldName);
         _field_map_duplicate_count -= (copies - 1);
     }
 
     private void remove_field_from_field_map(String fieldName, int idx)
     {
-        Integer field_idx = _field_map.get(fieldName);
-        assert(field_idx != null);
+        int field_idx = _field_map.get(fieldName);
+        assert(field_idx != FieldNameIndex.NOT_FOUND);
 
-        if (field_idx.intValue() != idx) {
+        if (field_idx != idx) {
             // if the map has a different index, this must
             // be a duplicate, and this copy isn't in the map
             assert(_field_map_duplicate_count > 0);
@@ -179,8 +189,8 @@ final class IonStructLite
         for (int ii=removed_idx; ii<get_child_count(); ii++) {
             IonValueLite value = get_child(ii);
             String  field_name = value.getFieldName();
-            Integer map_idx = _field_map.get(field_name);
-            if (map_idx.intValue() != ii) {
+            int map_idx = _field_map.get(field_name);
+            if (map_idx != ii) {
                 // if this is a field that to the right of
                 // the removed (in process of removing) value
                 // we need to patch the index value
@@ -190,7 +200,7 @@ final class IonStructLite
     }
 
     @Override
-    public void dump(PrintWriter out)
+    public void dump(final PrintWriter out)
     {
         super.dump(out);
 
@@ -199,17 +209,20 @@ final class IonStructLite
         }
 
         out.println("   dups: "+_field_map_duplicate_count);
-        Iterator<Entry<String, Integer>> it = _field_map.entrySet().iterator();
         out.print("   map: [");
-        boolean first = true;
-        while (it.hasNext()) {
-            Entry<String, Integer> e = it.next();
-            if (!first) {
-                out.print(",");
+        _field_map.forEach(new FieldNameIndex.Visitor()
+        {
+            boolean first = true;
+
+            public void visit(String name, int index)
+            {
+                if (!first) {
+                    out.print(",");
+                }
+                out.print(name+":"+index);
+                first = false;
             }
-            out.print(e.getKey()+":"+e.getValue());
-            first = false;
-        }
+        });
         out.println("]");
     }
 
@@ -219,18 +232,19 @@ final class IonStructLite
         if (_field_map == null) {
             return null;
         }
-        String error = "";
-        Iterator<Entry<String, Integer>> it = _field_map.entrySet().iterator();
-        while (it.hasNext()) {
-            Entry<String, Integer> e = it.next();
-            int idx = e.getValue().intValue();
-            IonValueLite v = (idx >= 0 && idx < get_child_count()) ? get_child(idx) : null;
-            if (v == null || idx != v._elementid() || (e.getKey().equals(v.getFieldName()) == false)) {
-                error += "map entry ["+e+"] doesn't match list value ["+v+"]\n";
+        final StringBuilder error = new StringBuilder();
+        _field_map.forEach(new FieldNameIndex.Visitor()
+        {
+            public void visit(String name, int idx)
+            {
+                IonValueLite v = (idx >= 0 && idx < get_child_count()) ? get_child(idx) : null;
+                if (v == null || idx != v._elementid() || (name.equals(v.getFieldName()) == false)) {
+                    error.append("map entry ["+name+"="+idx+"] doesn't match list value ["+v+"]\n");
+                }
             }
-        }
+        });
 
-        return (error == "") ? null : error;
+        return (error.length() == 0) ? null : error.toString();
     }
 
     private int find_last_duplicate(String fieldName, int existing_idx)
@@ -293,7 +307,7 @@ final class IonStructLite
      *          {@link Object#hashCode()} and {@link Object#equals(Object)}.
      */
     @Override
-    int hashCode(SymbolTableProvider symbolTableProvider)
+    int contentHashCode(SymbolTableProvider symbolTableProvider)
     {
         final int nameHashSalt  = 16777619; // prime to salt name of each Field
         final int valueHashSalt = 8191;     // prime to salt value of each Field
@@ -414,15 +428,13 @@ final class IonStructLite
     private int find_field_helper(String fieldName)
     {
         validateFieldName(fieldName);
+        materialize();
 
         if (isNullValue()) {
             // nothing to see here, move along
         }
         else if (_field_map != null) {
-            Integer idx = _field_map.get(fieldName);
-            if (idx != null) {
-                return idx.intValue();
-            }
+            return _field_map.get(fieldName);
         }
         else {
             int ii, size = get_child_count();
@@ -574,9 +586,9 @@ final class IonStructLite
             // we have a map and no duplicates so the index
             // (aka map) is all we need to find the only
             // value associated with fieldName, if there is one
-            Integer idx = _field_map.get(fieldName);
-            if (idx != null) {
-                lowestRemovedIndex = idx.intValue();
+            int idx = _field_map.get(fieldName);
+            if (idx != FieldNameIndex.NOT_FOUND) {
+                lowestRemovedIndex = idx;
                 remove_field_from_field_map(fieldName, lowestRemovedIndex);
                 remove_child(lowestRemovedIndex);
                 any_removed = true;
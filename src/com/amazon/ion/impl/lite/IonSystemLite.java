@@ -78,10 +78,23 @@ final class IonSystemLite
     private final _Private_IonBinaryWriterBuilder myBinaryWriterBuilder;
     /** Immutable. **/
     private final IonReaderBuilder myReaderBuilder;
+    private final boolean myLazyLoadingEnabled;
 
     public IonSystemLite(IonTextWriterBuilder twb,
                           _Private_IonBinaryWriterBuilder bwb,
                           IonReaderBuilder rb)
+    {
+        this(twb, bwb, rb, false);
+    }
+
+    /**
+     * @param lazyLoading whether containers loaded from binary byte arrays
+     *  load their children on demand; see {@link LazyBinarySource}.
+     */
+    public IonSystemLite(IonTextWriterBuilder twb,
+                          _Private_IonBinaryWriterBuilder bwb,
+                          IonReaderBuilder rb,
+                          boolean lazyLoading)
     {
         IonCatalog catalog = twb.getCatalog();
         assert catalog != null;
@@ -101,6 +114,7 @@ final class IonSystemLite
         myBinaryWriterBuilder = bwb.immutable();
 
         myReaderBuilder = rb.immutable();
+        myLazyLoadingEnabled = lazyLoading;
     }
 
     //==========================================================================
@@ -112,6 +126,11 @@ final class IonSystemLite
         return myBinaryWriterBuilder.isStreamCopyOptimized();
     }
 
+    boolean isLazyLoadingEnabled()
+    {
+        return myLazyLoadingEnabled;
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends IonValue> T clone(T value) throws IonException
     {
@@ -314,14 +333,20 @@ final class IonSystemLite
 
     public IonValueLite newValue(IonReader reader)
     {
-        IonValueLite value = load_value_helper(reader, /*isTopLevel*/ true);
+        IonValueLite value = load_value_helper(reader, /*isTopLevel*/ true, null);
         if (value == null) {
             throw new IonException("No value available");
         }
         return value;
     }
 
-    private IonValueLite load_value_helper(IonReader reader, boolean isTopLevel)
+    /**
+     * @param lazySource when not null, non-null containers are not loaded
+     *  here but marked to load their children from this source on demand.
+     */
+    IonValueLite load_value_helper(IonReader reader,
+                                   boolean isTopLevel,
+                                   LazyBinarySource lazySource)
     {
         boolean symbol_is_present = false;
 
@@ -423,9 +448,14 @@ final class IonSystemLite
             case LIST:
             case SEXP:
             case STRUCT:
+                if (lazySource != null) {
+                    ((IonContainerLite)v).setLazyContent(lazySource.currentContent());
+                    // We can't tell without looking, so be conservative.
+                    symbol_is_present = true;
+                }
                 // we have to load the children after we grabbed the
                 // fieldname and annotations off of the parent container
-                if (load_children((IonContainerLite)v, reader)) {
+                else if (load_children((IonContainerLite)v, reader)) {
                     symbol_is_present = true;
                 }
                 break;
@@ -453,7 +483,7 @@ final class IonSystemLite
             if (t == null) {
                 break;
             }
-            IonValueLite child = load_value_helper(reader, /*isTopLevel*/ false);
+            IonValueLite child = load_value_helper(reader, /*isTopLevel*/ false, null);
 
             container.add(child);
 
@@ -528,6 +558,15 @@ final class IonSystemLite
 
     @Override
     public IonValue singleValue(byte[] ionData, int offset, int len) {
+        if (myLazyLoadingEnabled) {
+            LazyBinarySource source =
+                LazyBinarySource.open(this, _catalog, ionData, offset, len);
+            if (source != null) {
+                // The source keeps the reader for lazy containers.
+                return source.loadSingleValue();
+            }
+        }
+
         IonReader reader = newReader(ionData, offset, len);
         try {
             Iterator<IonValue> it = iterate(reader);
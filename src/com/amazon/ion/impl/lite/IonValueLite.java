@@ -31,6 +31,7 @@ import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.UnknownSymbolException;
 import com.amazon.ion.ValueVisitor;
+import com.amazon.ion.impl._Private_DomValueWriter;
 import com.amazon.ion.impl._Private_IonValue;
 import com.amazon.ion.impl._Private_IonWriter;
 import com.amazon.ion.impl._Private_Utils;
@@ -959,6 +960,21 @@ abstract class IonValueLite
 
     public void writeTo(IonWriter writer)
     {
+        if (writer instanceof _Private_DomValueWriter)
+        {
+            // let the writer encode the whole value if it can do so faster
+            try
+            {
+                if (((_Private_DomValueWriter) writer).writeWholeValue(this))
+                {
+                    return;
+                }
+            }
+            catch (IOException e)
+            {
+                throw new IonException(e);
+            }
+        }
         // we use a Lazy 1-time resolution of the SymbolTable in case there is no need to
         // pull the symbol table, including situations where no symbol table would logically
         // be attached
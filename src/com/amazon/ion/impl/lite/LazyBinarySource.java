@@ -0,0 +1,171 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeReader;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.SeekableReader;
+import com.amazon.ion.Span;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.UnexpectedEofException;
+import com.amazon.ion.impl._Private_ReaderWriter;
+import com.amazon.ion.util.IonStreamUtils;
+
+/**
+ * Binary Ion data backing containers whose children are loaded on first
+ * access rather than when the containers themselves are read.
+ * <p>
+ * A lazy container holds only a {@link Span} of its encoding. When its
+ * children are first needed, the shared reader is hoisted to that span and
+ * just one level is loaded: nested containers are lazy in turn, while
+ * scalars are decoded along with their siblings.
+ * <p>
+ * Loading is serialized on this source, so read-only values remain safe for
+ * use by multiple threads. The source retains the reader (and so the data)
+ * for as long as any lazy container refers to it; the data must not be
+ * modified during that time.
+ */
+final class LazyBinarySource
+{
+    private static final IonValueLite[] NO_CHILDREN = new IonValueLite[0];
+
+    /** The children of one lazy container. */
+    static final class Content
+    {
+        private final LazyBinarySource mySource;
+        private final Span             mySpan;
+
+        private Content(LazyBinarySource source, Span span)
+        {
+            mySource = source;
+            mySpan = span;
+        }
+
+        void materialize(IonContainerLite container)
+        {
+            mySource.materialize(container, this);
+        }
+    }
+
+    private final IonSystemLite  _system;
+    private final IonReader      _reader;
+    private final SeekableReader _seeker;
+
+    private LazyBinarySource(IonSystemLite system,
+                             IonReader reader,
+                             SeekableReader seeker)
+    {
+        _system = system;
+        _reader = reader;
+        _seeker = seeker;
+    }
+
+    /**
+     * Opens a lazy source over binary Ion data, or returns null when the
+     * data isn't (uncompressed) binary Ion and must be loaded eagerly.
+     */
+    static LazyBinarySource open(IonSystemLite system,
+                                 IonCatalog catalog,
+                                 byte[] ionData, int offset, int len)
+    {
+        if (!IonStreamUtils.isIonBinary(ionData, offset, len)) return null;
+
+        IonReader reader = makeReader(catalog, ionData, offset, len,
+                                      system.getLstFactory());
+        SeekableReader seeker = reader.asFacet(SeekableReader.class);
+        if (seeker == null || !(reader instanceof _Private_ReaderWriter)) {
+            return null;
+        }
+        return new LazyBinarySource(system, reader, seeker);
+    }
+
+    /**
+     * Loads the remaining top-level values into a datagram, keeping track of
+     * the symbol tables that precede them.
+     */
+    void loadInto(IonDatagramLite datagram)
+    {
+        _Private_ReaderWriter rw = (_Private_ReaderWriter) _reader;
+        while (_reader.next() != null)
+        {
+            if (rw.pop_passed_symbol_table() != null)
+            {
+                while (rw.pop_passed_symbol_table() != null) {
+                    // Only the current one matters.
+                }
+                datagram.appendTrailingSymbolTable(_reader.getSymbolTable());
+            }
+            datagram.add(_system.load_value_helper(_reader, true, this));
+        }
+    }
+
+    /**
+     * Loads the one and only top-level value.
+     */
+    IonValueLite loadSingleValue()
+    {
+        if (_reader.next() == null) {
+            throw new UnexpectedEofException("no value found on input stream");
+        }
+
+        SymbolTable symtab = _reader.getSymbolTable();
+        IonValueLite value = _system.load_value_helper(_reader, true, this);
+        if (_reader.next() != null) {
+            throw new IonException("not a single value");
+        }
+
+        value.setSymbolTable(symtab);
+        return value;
+    }
+
+    /** The lazy content of the container the reader is positioned on. */
+    Content currentContent()
+    {
+        return new Content(this, _seeker.currentSpan());
+    }
+
+    private synchronized void materialize(IonContainerLite container,
+                                          Content content)
+    {
+        // Another thread may have got here first.
+        if (!container.hasLazyContent(content)) return;
+
+        _seeker.hoist(content.mySpan);
+        IonType type = _reader.next();
+        assert type == container.getType();
+
+        IonValueLite[] children = NO_CHILDREN;
+        int count = 0;
+        _reader.stepIn();
+        while (_reader.next() != null)
+        {
+            IonValueLite child = _system.load_value_helper(_reader, false, this);
+            if (count == children.length) {
+                IonValueLite[] temp = new IonValueLite[Math.max(8, count * 2)];
+                System.arraycopy(children, 0, temp, 0, count);
+                children = temp;
+            }
+            children[count++] = child;
+        }
+        _reader.stepOut();
+
+        container.install_children(children, count);
+    }
+}
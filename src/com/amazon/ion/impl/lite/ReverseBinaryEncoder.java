@@ -17,6 +17,7 @@ package com.amazon.ion.impl.lite;
 
 import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
 import static com.amazon.ion.SystemSymbols.IMPORTS_SID;
+import static com.amazon.ion.SystemSymbols.ION_1_0_MAX_ID;
 import static com.amazon.ion.SystemSymbols.ION_SYMBOL_TABLE_SID;
 import static com.amazon.ion.SystemSymbols.MAX_ID_SID;
 import static com.amazon.ion.SystemSymbols.NAME_SID;
@@ -64,12 +65,17 @@ import com.amazon.ion.IonValue;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.SymbolToken;
 import com.amazon.ion.Timestamp;
+import com.amazon.ion.UnknownSymbolException;
+import com.amazon.ion.impl._Private_ByteTransferSink;
+import com.amazon.ion.impl._Private_IonValue.SymbolTableProvider;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.ListIterator;
+import java.util.Map;
 
 
 /**
@@ -131,6 +137,73 @@ class ReverseBinaryEncoder
 
     private IonSystem myIonSystem;
 
+    /**
+     * When true, {@link #mySymbolTable} is the fixed target symbol table and
+     * every symbol with known text is interned into it, regardless of any
+     * SID the token carries from its original context.
+     */
+    private boolean myInternAllSymbols;
+
+    /**
+     * When true, floats that are exactly representable in 32 bits are
+     * written in 32 bits.
+     */
+    private boolean myFloatBinary32Enabled;
+
+    /**
+     * When non-null, resolves the symbols of the lite value being serialized
+     * (and its nested values, which share its symbol table) without each
+     * lookup walking up to the top-level value.
+     */
+    private SymbolTableProvider mySymbolTableProvider;
+
+    /**
+     * The max id of {@link #mySymbolTable} before the value being serialized
+     * by {@link #serialize(IonValue, SymbolTable, boolean)} was written. The
+     * symbols it doesn't define yet get the SIDs following it.
+     */
+    private int myNewSymbolBase;
+
+    /**
+     * The symbols with known text that {@link #mySymbolTable} doesn't define
+     * yet, in the order the encoder first met them (last to first), or null
+     * if there are none.
+     */
+    private ArrayList<String> myNewSymbols;
+
+    /** Indexes into {@link #myNewSymbols} by symbol text. */
+    private Map<String, Integer> myNewSymbolIndexes;
+
+    /**
+     * The distance from the end of {@link #myBuffer} to each SID placeholder
+     * written for a new symbol, in the order they were written.
+     */
+    private int[] myPlaceholderPositions;
+
+    /**
+     * The index into {@link #myNewSymbols} of each placeholder's symbol,
+     * shifted left by one; the low bit is set for UInt placeholders and clear
+     * for VarUInt placeholders.
+     */
+    private int[] myPlaceholderSymbols;
+
+    private int myPlaceholderCount;
+
+    /** The width in bytes of the VarUInt and UInt placeholders. */
+    private int myVarUIntPlaceholderWidth;
+    private int myUIntPlaceholderWidth;
+
+    /** The largest SID that fits in the placeholders at their widths. */
+    private int myPlaceholderMaxSid;
+
+    /**
+     * The text of a symbol beyond the system symbols that
+     * {@link #mySymbolTable} already defines, met while writing the value.
+     * It is interned once the value is written, which starts the writer's
+     * local symbol table if the symbol is imported, as writing forwards would.
+     */
+    private String myKnownSymbolText;
+
     ReverseBinaryEncoder(int initialSize)
     {
         myBuffer = new byte[initialSize];
@@ -238,6 +311,25 @@ class ReverseBinaryEncoder
         return length;
     }
 
+    /**
+     * Passes the current contents of the Ion binary-encoded byte array to a
+     * sink, without copying.
+     * <p>
+     * This makes an unchecked assumption that a {@code serialize} method
+     * has already been called.
+     *
+     * @return the number of bytes written into {@code sink}
+     *
+     * @throws IOException
+     */
+    int writeBytes(_Private_ByteTransferSink sink)
+        throws IOException
+    {
+        int length = myBuffer.length - myOffset;
+        sink.writeBytes(myBuffer, myOffset, length);
+        return length;
+    }
+
     /**
      * Serialize the IonDatagram into Ion binary-encoding, to the internal
      * byte array buffer of the encoder.
@@ -274,6 +366,73 @@ class ReverseBinaryEncoder
         writeLocalSymbolTable(symTab);
     }
 
+    /**
+     * Serialize a single value into Ion binary-encoding, to the internal byte
+     * array buffer of the encoder, replacing any previous contents. Neither an
+     * IVM nor a local symbol table is written.
+     * <p>
+     * Every symbol with known text is interned into {@code symTab}, which is
+     * the symbol table the encoded value will be read with. Symbols without
+     * known text keep their SIDs, which must be defined by {@code symTab}.
+     * Symbols are interned in document order, as writing the value forwards
+     * would intern them, so new symbols get the same SIDs either way.
+     *
+     * @param floatBinary32Enabled whether floats that are exactly
+     *  representable in 32 bits are written in 32 bits.
+     *
+     * @throws UnknownSymbolException if a symbol without known text has a
+     *  SID beyond {@code symTab}'s max id.
+     */
+    void serialize(IonValue value, SymbolTable symTab,
+                   boolean floatBinary32Enabled)
+        throws IonException
+    {
+        assert !(value instanceof IonDatagram);
+
+        myOffset = myBuffer.length;
+        myIonSystem = value.getSystem();
+        mySymbolTable = symTab;
+        myInternAllSymbols = true;
+        myFloatBinary32Enabled = floatBinary32Enabled;
+        if (value instanceof IonValueLite)
+        {
+            mySymbolTableProvider =
+                new IonValueLite.LazySymbolTableProvider((IonValueLite) value);
+        }
+        try
+        {
+            // The encoder meets symbols last to first, so new symbols are
+            // written as placeholders and interned in document order after.
+            myNewSymbolBase = symTab.getMaxId();
+            sizePlaceholders(myNewSymbolBase + 1);
+            writeIonValue(value);
+            if (myNewSymbols != null &&
+                myNewSymbolBase + myNewSymbols.size() > myPlaceholderMaxSid)
+            {
+                // The new SIDs outgrew the placeholders. Rewrite the value
+                // with placeholders wide enough for all of them.
+                sizePlaceholders(myNewSymbolBase + myNewSymbols.size());
+                myOffset = myBuffer.length;
+                myNewSymbols.clear();
+                myNewSymbolIndexes.clear();
+                myPlaceholderCount = 0;
+                myKnownSymbolText = null;
+                writeIonValue(value);
+            }
+            internNewSymbols();
+        }
+        finally
+        {
+            myInternAllSymbols = false;
+            myFloatBinary32Enabled = false;
+            mySymbolTableProvider = null;
+            myNewSymbols = null;
+            myNewSymbolIndexes = null;
+            myPlaceholderCount = 0;
+            myKnownSymbolText = null;
+        }
+    }
+
     /**
      * Grows the current buffer and returns the updated offset.
      *
@@ -651,15 +810,13 @@ class ReverseBinaryEncoder
 
     private void writeAnnotations(IonValue value, int endOfValueOffset)
     {
-        SymbolToken[] annotationSymTokens = value.getTypeAnnotationSymbols();
+        SymbolToken[] annotationSymTokens = typeAnnotationSymbols(value);
         if (annotationSymTokens.length > 0)
         {
             final int annotatedValueOffset = myBuffer.length - myOffset;
-            int sid;
             for (int i = annotationSymTokens.length; --i >= 0;)
             {
-                sid = findSid(annotationSymTokens[i]);
-                writeVarUInt(sid);
+                writeSid(annotationSymTokens[i], false);
             }
             writeVarUInt(myBuffer.length - myOffset - annotatedValueOffset);
             writePrefix(TYPE_ANNOTATIONS,
@@ -774,9 +931,30 @@ class ReverseBinaryEncoder
         }
         else
         {
+            double value = val.doubleValue();
+            if (myFloatBinary32Enabled && value == ((double) ((float) value)))
+            {
+                // Write a 32-bit value in IEE-754 standard.
+                int bits = Float.floatToRawIntBits((float) value);
+                int offset = myOffset;
+                if ((offset -= 4) < 0) {
+                    offset = growBuffer(offset);
+                }
+
+                myBuffer[offset]     = (byte) (bits >>> (8 * 3));
+                myBuffer[offset + 1] = (byte) (bits >>> (8 * 2));
+                myBuffer[offset + 2] = (byte) (bits >>> (8 * 1));
+                myBuffer[offset + 3] = (byte)  bits;
+
+                myOffset = offset;
+
+                writePrefix(TYPE_FLOAT, 4); // 32-bit IEE-754
+                return;
+            }
+
             // Write a 64-bit value in IEE-754 standard. This format happens to
             // match the 8-byte UInt encoding.
-            long bits = Double.doubleToRawLongBits(val.doubleValue());
+            long bits = Double.doubleToRawLongBits(value);
             int offset = myOffset;
             if ((offset -= 8) < 0) {
                 offset = growBuffer(offset);
@@ -929,9 +1107,8 @@ class ReverseBinaryEncoder
         else
         {
             final int originalOffset = myBuffer.length - myOffset;
-            SymbolToken symToken = val.symbolValue();
-            int sid = findSid(symToken);
-            writeUInt(sid);
+            SymbolToken symToken = symbolValue(val);
+            writeSid(symToken, true);
 
             writePrefix(TYPE_SYMBOL,
                         myBuffer.length - myOffset - originalOffset);
@@ -1174,12 +1351,11 @@ class ReverseBinaryEncoder
             for (int i = values.size(); --i >= 0; )
             {
                 IonValue v = values.get(i);
-                SymbolToken symToken = v.getFieldNameSymbol();
+                SymbolToken symToken = fieldNameSymbol(v);
 
                 writeIonValue(v);
 
-                int sid = findSid(symToken);
-                writeVarUInt(sid);
+                writeSid(symToken, false);
             }
 
             // TODO amzn/ion-java/issues/41 Detect if the struct fields are sorted in ascending
@@ -1206,11 +1382,218 @@ class ReverseBinaryEncoder
     // Symbol Tables
     // =========================================================================
 
+    private SymbolToken fieldNameSymbol(IonValue value)
+    {
+        if (mySymbolTableProvider != null)
+        {
+            return ((IonValueLite) value).getFieldNameSymbol(mySymbolTableProvider);
+        }
+        return value.getFieldNameSymbol();
+    }
+
+    private SymbolToken[] typeAnnotationSymbols(IonValue value)
+    {
+        if (mySymbolTableProvider != null)
+        {
+            return ((IonValueLite) value).getTypeAnnotationSymbols(mySymbolTableProvider);
+        }
+        return value.getTypeAnnotationSymbols();
+    }
+
+    private SymbolToken symbolValue(IonSymbol value)
+    {
+        if (mySymbolTableProvider != null)
+        {
+            return ((IonSymbolLite) value).symbolValue(mySymbolTableProvider);
+        }
+        return value.symbolValue();
+    }
+
+    /**
+     * Writes the SID of a symbol as a VarUInt, or as a UInt if
+     * {@code asUInt}. While serializing a single value, a symbol with known
+     * text that {@link #mySymbolTable} doesn't define yet is written as a
+     * placeholder instead, to be patched by {@link #internNewSymbols()}.
+     */
+    private void writeSid(SymbolToken symToken, boolean asUInt)
+    {
+        int sid;
+        String text = symToken.getText();
+        if (myInternAllSymbols && text != null)
+        {
+            if (myNewSymbolIndexes != null)
+            {
+                Integer index = myNewSymbolIndexes.get(text);
+                if (index != null)
+                {
+                    writePlaceholder(index, asUInt);
+                    return;
+                }
+            }
+            SymbolToken known = mySymbolTable.find(text);
+            if (known == null)
+            {
+                writePlaceholder(newSymbolIndex(text), asUInt);
+                return;
+            }
+            sid = known.getSid();
+            if (myKnownSymbolText == null && sid > ION_1_0_MAX_ID)
+            {
+                myKnownSymbolText = text;
+            }
+        }
+        else
+        {
+            sid = findSid(symToken);
+        }
+
+        if (asUInt)
+        {
+            writeUInt(sid);
+        }
+        else
+        {
+            writeVarUInt(sid);
+        }
+    }
+
+    /**
+     * Sizes the placeholders for new symbols so that every SID from
+     * {@code minSid} up to {@link #myPlaceholderMaxSid} fits in them, and is
+     * written in as few bytes as it would be without a placeholder.
+     */
+    private void sizePlaceholders(int minSid)
+    {
+        int varUIntWidth = 1;
+        while (varUIntWidth < 5 && minSid >= (1 << (7 * varUIntWidth)))
+        {
+            varUIntWidth++;
+        }
+        int uIntWidth = 1;
+        while (uIntWidth < 4 && minSid >= (1 << (8 * uIntWidth)))
+        {
+            uIntWidth++;
+        }
+        int maxSid = Integer.MAX_VALUE;
+        if (varUIntWidth < 5)
+        {
+            maxSid = (1 << (7 * varUIntWidth)) - 1;
+        }
+        if (uIntWidth < 4)
+        {
+            maxSid = Math.min(maxSid, (1 << (8 * uIntWidth)) - 1);
+        }
+        myVarUIntPlaceholderWidth = varUIntWidth;
+        myUIntPlaceholderWidth = uIntWidth;
+        myPlaceholderMaxSid = maxSid;
+    }
+
+    private int newSymbolIndex(String text)
+    {
+        if (myNewSymbols == null)
+        {
+            myNewSymbols = new ArrayList<String>();
+            myNewSymbolIndexes = new HashMap<String, Integer>();
+            myPlaceholderPositions = new int[16];
+            myPlaceholderSymbols = new int[16];
+        }
+        int index = myNewSymbols.size();
+        myNewSymbols.add(text);
+        myNewSymbolIndexes.put(text, index);
+        return index;
+    }
+
+    private void writePlaceholder(int index, boolean asUInt)
+    {
+        int offset = myOffset -
+            (asUInt ? myUIntPlaceholderWidth : myVarUIntPlaceholderWidth);
+        if (offset < 0) {
+            offset = growBuffer(offset);
+        }
+        myOffset = offset;
+
+        int count = myPlaceholderCount;
+        if (count == myPlaceholderPositions.length)
+        {
+            int[] positions = new int[count << 1];
+            System.arraycopy(myPlaceholderPositions, 0, positions, 0, count);
+            myPlaceholderPositions = positions;
+            int[] symbols = new int[count << 1];
+            System.arraycopy(myPlaceholderSymbols, 0, symbols, 0, count);
+            myPlaceholderSymbols = symbols;
+        }
+        myPlaceholderPositions[count] = myBuffer.length - offset;
+        myPlaceholderSymbols[count] = (index << 1) | (asUInt ? 1 : 0);
+        myPlaceholderCount = count + 1;
+    }
+
+    /**
+     * Interns the new symbols met while writing a single value into
+     * {@link #mySymbolTable} in document order, as writing the value forwards
+     * would, and patches their SIDs into the placeholders.
+     */
+    private void internNewSymbols()
+    {
+        if (myKnownSymbolText != null)
+        {
+            mySymbolTable.intern(myKnownSymbolText);
+        }
+        if (myNewSymbols == null)
+        {
+            return;
+        }
+
+        int[] sids = new int[myNewSymbols.size()];
+        // Placeholders were written last to first.
+        for (int i = myPlaceholderCount; --i >= 0;)
+        {
+            int symbol = myPlaceholderSymbols[i];
+            int index = symbol >>> 1;
+            int sid = sids[index];
+            if (sid == 0)
+            {
+                sid = mySymbolTable.intern(myNewSymbols.get(index)).getSid();
+                assert sid <= myPlaceholderMaxSid;
+                sids[index] = sid;
+            }
+
+            int offset = myBuffer.length - myPlaceholderPositions[i];
+            if ((symbol & 1) != 0)
+            {
+                for (int j = myUIntPlaceholderWidth; --j >= 0;)
+                {
+                    myBuffer[offset + j] = (byte) sid;
+                    sid >>>= 8;
+                }
+            }
+            else
+            {
+                int j = myVarUIntPlaceholderWidth - 1;
+                myBuffer[offset + j] = (byte) ((sid & 0x7f) | 0x80);
+                while (--j >= 0)
+                {
+                    sid >>>= 7;
+                    myBuffer[offset + j] = (byte) (sid & 0x7f);
+                }
+            }
+        }
+    }
+
     private int findSid(SymbolToken symToken)
     {
         int sid = symToken.getSid();
         String text = symToken.getText();
 
+        if (myInternAllSymbols)
+        {
+            assert text == null;
+            if (sid > mySymbolTable.getMaxId())
+            {
+                throw new UnknownSymbolException(sid);
+            }
+            return sid;
+        }
+
         if (sid != UNKNOWN_SYMBOL_ID)   // sid is assigned
         {
             assert text == null ||
@@ -15,11 +15,15 @@
 
 package com.amazon.ion.impl.lite;
 
+import com.amazon.ion.IonDatagram;
 import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
 import com.amazon.ion.SymbolTable;
+import com.amazon.ion.impl._Private_ByteTransferSink;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
 import com.amazon.ion.system.IonReaderBuilder;
 import com.amazon.ion.system.IonTextWriterBuilder;
+import java.io.IOException;
 
 /**
  * NOT FOR APPLICATION USE!
@@ -36,6 +40,14 @@ public final class _Private_LiteDomTrampoline
         return new IonSystemLite(twb, bwb, rb);
     }
 
+    public static IonSystem newLiteSystem(IonTextWriterBuilder twb,
+                                          _Private_IonBinaryWriterBuilder bwb,
+                                          IonReaderBuilder rb,
+                                          boolean lazyLoading)
+    {
+        return new IonSystemLite(twb, bwb, rb, lazyLoading);
+    }
+
     public static boolean isLiteSystem(IonSystem system)
     {
         return (system instanceof IonSystemLite);
@@ -47,4 +59,30 @@ public final class _Private_LiteDomTrampoline
         encoder.serialize(symtab);
         return encoder.toNewByteArray();
     }
+
+    /**
+     * Encodes a single value back-to-front, so that every container and
+     * annotation wrapper is written with its exact length, and passes the
+     * encoding to a sink. Symbols are interned into {@code symtab}, and
+     * floats that are exactly representable in 32 bits are written as such
+     * if {@code floatBinary32Enabled}.
+     *
+     * @return false, leaving the sink untouched, if the value isn't from the
+     *  lite DOM or is a datagram.
+     */
+    public static boolean reverseEncode(int initialSize, IonValue value,
+                                        SymbolTable symtab,
+                                        boolean floatBinary32Enabled,
+                                        _Private_ByteTransferSink sink)
+        throws IOException
+    {
+        if (!(value instanceof IonValueLite) || value instanceof IonDatagram)
+        {
+            return false;
+        }
+        ReverseBinaryEncoder encoder = new ReverseBinaryEncoder(initialSize);
+        encoder.serialize(value, symtab, floatBinary32Enabled);
+        encoder.writeBytes(sink);
+        return true;
+    }
 }
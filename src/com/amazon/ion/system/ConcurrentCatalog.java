@@ -0,0 +1,173 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonMutableCatalog;
+import com.amazon.ion.SymbolTable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+
+/**
+ * An implementation of {@link IonCatalog} for catalogs that are read far more
+ * often than they're updated, such as one shared by many concurrent readers.
+ * There is no automatic removal of entries.
+ * <p>
+ * Lookups never block: the tables are held in an immutable snapshot that
+ * each update replaces with a modified copy. Updates are serialized, and
+ * cost time proportional to the number of distinct table names, so this
+ * class isn't suited to catalogs that change frequently.
+ * <p>
+ * Version matching is the same as {@link SimpleCatalog}'s.
+ */
+public class ConcurrentCatalog
+    implements IonMutableCatalog, Iterable<SymbolTable>
+{
+    /**
+     * Maps each table name to its versions. Neither the map nor the version
+     * maps are modified once published.
+     */
+    private volatile Map<String,TreeMap<Integer,SymbolTable>> myTablesByName =
+        Collections.emptyMap();
+
+    /** Serializes updates. */
+    private final Object myWriteLock = new Object();
+
+
+    private TreeMap<Integer,SymbolTable> versions(String name)
+    {
+        if (name == null)
+        {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (name.length() == 0)
+        {
+            throw new IllegalArgumentException("name is empty");
+        }
+        return myTablesByName.get(name);
+    }
+
+    public SymbolTable getTable(String name)
+    {
+        TreeMap<Integer,SymbolTable> versions = versions(name);
+        if (versions == null) return null;
+
+        return versions.get(versions.lastKey());
+    }
+
+    public SymbolTable getTable(String name, int version)
+    {
+        TreeMap<Integer,SymbolTable> versions = versions(name);
+        if (version < 1)
+        {
+            throw new IllegalArgumentException("version is < 1");
+        }
+        if (versions == null) return null;
+
+        // The requested version, else the lowest newer version, else the
+        // highest older version.
+        SortedMap<Integer,SymbolTable> newer = versions.tailMap(version);
+        Integer best = (newer.isEmpty() ? versions.lastKey() : newer.firstKey());
+        return versions.get(best);
+    }
+
+    public void putTable(SymbolTable table)
+    {
+        if (table.isLocalTable() || table.isSystemTable() || table.isSubstitute())
+        {
+            throw new IllegalArgumentException("table cannot be local or system or substitute table");
+        }
+
+        String name = table.getName();
+        int version = table.getVersion();
+        assert version >= 0;
+
+        synchronized (myWriteLock)
+        {
+            Map<String,TreeMap<Integer,SymbolTable>> tables =
+                new HashMap<String,TreeMap<Integer,SymbolTable>>(myTablesByName);
+            TreeMap<Integer,SymbolTable> versions = tables.get(name);
+            versions = (versions == null
+                        ? new TreeMap<Integer,SymbolTable>()
+                        : new TreeMap<Integer,SymbolTable>(versions));
+            versions.put(version, table);
+            tables.put(name, versions);
+            myTablesByName = tables;
+        }
+    }
+
+
+    /**
+     * Removes a symbol table from this catalog.
+     *
+     * @return the removed table, or <code>null</code> if this catalog has
+     * no matching table.
+     */
+    public SymbolTable removeTable(String name, int version)
+    {
+        synchronized (myWriteLock)
+        {
+            TreeMap<Integer,SymbolTable> versions = myTablesByName.get(name);
+            if (versions == null || ! versions.containsKey(version))
+            {
+                return null;
+            }
+
+            Map<String,TreeMap<Integer,SymbolTable>> tables =
+                new HashMap<String,TreeMap<Integer,SymbolTable>>(myTablesByName);
+            versions = new TreeMap<Integer,SymbolTable>(versions);
+            SymbolTable removed = versions.remove(version);
+
+            // Remove empty intermediate table
+            if (versions.isEmpty())
+            {
+                tables.remove(name);
+            }
+            else
+            {
+                tables.put(name, versions);
+            }
+            myTablesByName = tables;
+            return removed;
+        }
+    }
+
+
+    /**
+     * Constructs an iterator that enumerates all of the shared symbol tables
+     * in this catalog, at the time of method invocation. The result represents
+     * a snapshot of the state of this catalog.
+     *
+     * @return a non-null, but potentially empty, iterator.
+     */
+    public Iterator<SymbolTable> iterator()
+    {
+        Map<String,TreeMap<Integer,SymbolTable>> snapshot = myTablesByName;
+        ArrayList<SymbolTable> tables =
+            new ArrayList<SymbolTable>(snapshot.size());
+        for (TreeMap<Integer,SymbolTable> versions : snapshot.values())
+        {
+            tables.addAll(versions.values());
+        }
+        return tables.iterator();
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static com.amazon.ion.impl._Private_IonConstants.BINARY_VERSION_MARKER_1_0;
+import static com.amazon.ion.impl._Private_IonConstants.BINARY_VERSION_MARKER_SIZE;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.OffsetSpan;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.impl._Private_Utils;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+
+/**
+ * An {@link IonCatalog} over shared symbol tables stored in files, which
+ * loads each table only when it's first requested and keeps recently used
+ * tables in memory up to a budget.
+ * <p>
+ * The catalog is given either a single file or a directory, in which case
+ * each regular file directly within it is used. The files hold top-level
+ * {@code $ion_shared_symbol_table} structs, in Ion text or binary, among any
+ * other values, which are ignored. When the catalog is created, the files
+ * are scanned to index the name, version and position of each table; the
+ * tables' symbols are read only when a table is requested. When more than
+ * one table has the same name and version, the last one found is used, with
+ * the files of a directory scanned in order of name.
+ * <p>
+ * Loaded tables are kept in memory until the estimated memory they use
+ * exceeds the catalog's budget, whereupon the least recently requested
+ * tables are discarded, to be read again if they're requested again. A
+ * table is always kept while it's the only one loaded, however large.
+ * <p>
+ * The files must not be modified while the catalog is in use, and must not
+ * be compressed. Version matching is the same as {@link SimpleCatalog}'s.
+ * <p>
+ * Instances of this class are safe for use by multiple threads, although
+ * lookups are serialized and those that load a table hold up others until
+ * it's read.
+ */
+public class FileCatalog
+    implements IonCatalog
+{
+    /** Rough per-object overheads used to estimate a table's footprint. */
+    private static final int TABLE_OVERHEAD = 128;
+    private static final int SYMBOL_OVERHEAD = 80;
+
+    /** Where a table is stored. */
+    private static final class Location
+    {
+        final File myFile;
+        final long myOffset;
+        final boolean myIsBinary;
+
+        Location(File file, long offset, boolean isBinary)
+        {
+            myFile = file;
+            myOffset = offset;
+            myIsBinary = isBinary;
+        }
+    }
+
+    private final IonReaderBuilder myReaderBuilder =
+        IonReaderBuilder.standard().immutable();
+
+    private final long myMemoryBudget;
+
+    private final Map<String,TreeMap<Integer,Location>> myLocationsByName =
+        new HashMap<String,TreeMap<Integer,Location>>();
+
+    /** A table that has been read, and its estimated size. */
+    private static final class Loaded
+    {
+        final SymbolTable myTable;
+        final long mySize;
+
+        Loaded(SymbolTable table, long size)
+        {
+            myTable = table;
+            mySize = size;
+        }
+    }
+
+    /** Loaded tables, least recently used first. */
+    private final LinkedHashMap<Location,Loaded> myLoadedTables =
+        new LinkedHashMap<Location,Loaded>(16, 0.75f, true);
+
+    private long myLoadedMemory;
+
+
+    /**
+     * Creates a catalog over the shared symbol tables in the given file or
+     * directory, indexing the tables but not loading them.
+     *
+     * @param fileOrDirectory a file, or a directory of files, holding Ion
+     *  text or binary data.
+     * @param memoryBudget the estimated number of bytes of memory that
+     *  loaded tables may use before the least recently used are discarded.
+     *
+     * @throws IonException if a file can't be read or contains invalid
+     *  Ion data.
+     * @throws IllegalArgumentException if the budget is negative.
+     */
+    public FileCatalog(File fileOrDirectory, long memoryBudget)
+    {
+        if (memoryBudget < 0)
+        {
+            throw new IllegalArgumentException("memoryBudget must not be negative");
+        }
+        myMemoryBudget = memoryBudget;
+
+        File[] files;
+        if (fileOrDirectory.isDirectory())
+        {
+            files = fileOrDirectory.listFiles();
+            if (files == null)
+            {
+                throw new IonException("Unable to list " + fileOrDirectory);
+            }
+            Arrays.sort(files);
+        }
+        else
+        {
+            files = new File[] { fileOrDirectory };
+        }
+
+        for (File file : files)
+        {
+            if (file.isFile())
+            {
+                try
+                {
+                    index(file);
+                }
+                catch (IOException e)
+                {
+                    throw new IonException("Unable to index " + file, e);
+                }
+            }
+        }
+    }
+
+    private void index(File file) throws IOException
+    {
+        boolean isBinary = startsWith(file, BINARY_VERSION_MARKER_1_0);
+        if (! isBinary && startsWith(file, new byte[] { 0x1F, (byte) 0x8B }))
+        {
+            throw new IonException("Compressed files aren't supported: " + file);
+        }
+
+        IonReader reader = myReaderBuilder.build(file);
+        try
+        {
+            SpanProvider spans = reader.asFacet(SpanProvider.class);
+            IonType type;
+            while ((type = reader.next()) != null)
+            {
+                if (type != IonType.STRUCT || reader.isNullValue()) continue;
+
+                String[] annotations = reader.getTypeAnnotations();
+                if (annotations.length == 0
+                    || ! "$ion_shared_symbol_table".equals(annotations[0]))
+                {
+                    continue;
+                }
+
+                long offset =
+                    spans.currentSpan().asFacet(OffsetSpan.class).getStartOffset();
+
+                // As per SharedSymbolTable, tables without a name are
+                // malformed and versions under 1 are treated as 1.
+                String name = null;
+                int version = 1;
+                reader.stepIn();
+                while ((type = reader.next()) != null)
+                {
+                    if (reader.isNullValue()) continue;
+
+                    String field = reader.getFieldName();
+                    if (type == IonType.STRING && "name".equals(field))
+                    {
+                        name = reader.stringValue();
+                    }
+                    else if (type == IonType.INT && "version".equals(field))
+                    {
+                        version = Math.max(1, reader.intValue());
+                    }
+                }
+                reader.stepOut();
+
+                if (name == null || name.length() == 0)
+                {
+                    throw new IonException("Shared symbol table in " + file
+                                           + " at offset " + offset
+                                           + " has no name");
+                }
+
+                TreeMap<Integer,Location> versions = myLocationsByName.get(name);
+                if (versions == null)
+                {
+                    versions = new TreeMap<Integer,Location>();
+                    myLocationsByName.put(name, versions);
+                }
+                versions.put(version, new Location(file, offset, isBinary));
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    private static boolean startsWith(File file, byte[] prefix)
+        throws IOException
+    {
+        byte[] start = new byte[prefix.length];
+        InputStream in = new FileInputStream(file);
+        try
+        {
+            int length = 0;
+            while (length < start.length)
+            {
+                int count = in.read(start, length, start.length - length);
+                if (count < 0) return false;
+                length += count;
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+        return Arrays.equals(start, prefix);
+    }
+
+
+    /**
+     * Returns the estimated number of bytes of memory that loaded tables may
+     * use before the least recently used are discarded.
+     */
+    public long getMemoryBudget()
+    {
+        return myMemoryBudget;
+    }
+
+    /**
+     * Returns the number of tables in this catalog, whether loaded or not.
+     */
+    public synchronized int size()
+    {
+        int size = 0;
+        for (TreeMap<Integer,Location> versions : myLocationsByName.values())
+        {
+            size += versions.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the estimated number of bytes of memory used by the tables
+     * currently loaded.
+     */
+    public synchronized long getLoadedMemory()
+    {
+        return myLoadedMemory;
+    }
+
+    private void checkName(String name)
+    {
+        if (name == null)
+        {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (name.length() == 0)
+        {
+            throw new IllegalArgumentException("name is empty");
+        }
+    }
+
+    public synchronized SymbolTable getTable(String name)
+    {
+        checkName(name);
+
+        TreeMap<Integer,Location> versions = myLocationsByName.get(name);
+        if (versions == null) return null;
+
+        return load(versions.get(versions.lastKey()));
+    }
+
+    public synchronized SymbolTable getTable(String name, int version)
+    {
+        checkName(name);
+        if (version < 1)
+        {
+            throw new IllegalArgumentException("version is < 1");
+        }
+
+        TreeMap<Integer,Location> versions = myLocationsByName.get(name);
+        if (versions == null) return null;
+
+        // The requested version, else the lowest newer version, else the
+        // highest older version.
+        SortedMap<Integer,Location> newer = versions.tailMap(version);
+        Integer best = (newer.isEmpty() ? versions.lastKey() : newer.firstKey());
+        return load(versions.get(best));
+    }
+
+    private SymbolTable load(Location location)
+    {
+        Loaded loaded = myLoadedTables.get(location);
+        if (loaded != null) return loaded.myTable;
+
+        SymbolTable table;
+        try
+        {
+            table = read(location);
+        }
+        catch (IOException e)
+        {
+            throw new IonException("Unable to read symbol table from "
+                                   + location.myFile, e);
+        }
+
+        loaded = new Loaded(table, estimateSize(table));
+        myLoadedTables.put(location, loaded);
+        myLoadedMemory += loaded.mySize;
+
+        Iterator<Loaded> eldest = myLoadedTables.values().iterator();
+        while (myLoadedMemory > myMemoryBudget && myLoadedTables.size() > 1)
+        {
+            myLoadedMemory -= eldest.next().mySize;
+            eldest.remove();
+        }
+        return table;
+    }
+
+    private SymbolTable read(Location location) throws IOException
+    {
+        InputStream in = new FileInputStream(location.myFile);
+        try
+        {
+            long remaining = location.myOffset;
+            while (remaining > 0)
+            {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0)
+                {
+                    throw new IonException(location.myFile
+                                           + " is shorter than when indexed");
+                }
+                remaining -= skipped;
+            }
+            if (location.myIsBinary)
+            {
+                // The table's field names are system symbols.
+                in = new SequenceInputStream(
+                    new ByteArrayInputStream(BINARY_VERSION_MARKER_1_0,
+                                             0,
+                                             BINARY_VERSION_MARKER_SIZE),
+                    in);
+            }
+            IonReader reader = myReaderBuilder.build(in);
+            try
+            {
+                return _Private_Utils.newSharedSymtab(reader, false);
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    private static long estimateSize(SymbolTable table)
+    {
+        long size = TABLE_OVERHEAD;
+        Iterator<String> symbols = table.iterateDeclaredSymbolNames();
+        while (symbols.hasNext())
+        {
+            String symbol = symbols.next();
+            size += SYMBOL_OVERHEAD;
+            if (symbol != null)
+            {
+                size += 2L * symbol.length();
+            }
+        }
+        return size;
+    }
+}
@@ -21,6 +21,7 @@ import com.amazon.ion.IonWriter;
 import com.amazon.ion.SubstituteSymbolTableException;
 import com.amazon.ion.SymbolTable;
 import com.amazon.ion.impl._Private_IonBinaryWriterBuilder;
+import java.nio.channels.WritableByteChannel;
 
 
 /**
@@ -40,6 +41,7 @@ public abstract class IonBinaryWriterBuilder
     extends IonWriterBuilderBase<IonBinaryWriterBuilder>
 {
     private boolean myStreamCopyOptimized;
+    private boolean myCanonicalEncoding;
 
 
     /** NOT FOR APPLICATION USE! */
@@ -54,6 +56,7 @@ public abstract class IonBinaryWriterBuilder
         super(that);
 
         this.myStreamCopyOptimized = that.myStreamCopyOptimized;
+        this.myCanonicalEncoding = that.myCanonicalEncoding;
     }
 
 
@@ -252,6 +255,155 @@ public abstract class IonBinaryWriterBuilder
     //=========================================================================
 
 
+    /**
+     * Gets the maximum number of free bytes retained by the pool declared
+     * by {@link #setThreadLocalBlockPool(long, long)}.
+     *
+     * @return the bound given to the pool, or -1 if built writers use the
+     * default pool.
+     *
+     * @see #getThreadLocalBlockPoolMaxIdleMillis()
+     */
+    public abstract long getThreadLocalBlockPoolMaxRetainedBytes();
+
+    /**
+     * Gets the time after which an unused buffer is released by the pool
+     * declared by {@link #setThreadLocalBlockPool(long, long)}.
+     *
+     * @return the idle time given to the pool, or -1 if built writers use
+     * the default pool.
+     *
+     * @see #getThreadLocalBlockPoolMaxRetainedBytes()
+     */
+    public abstract long getThreadLocalBlockPoolMaxIdleMillis();
+
+    /**
+     * Declares that built writers obtain their buffers from a new pool
+     * suited to many threads writing concurrently, in place of this
+     * builder's current pool.
+     * <p>
+     * Each thread caches a few free buffers of its own, which are freed
+     * with the thread, backed by a pool shared by all threads. The shared
+     * pool retains at most {@code maxRetainedBytes} of free buffers, and
+     * buffers that have been unused for {@code maxIdleMillis} are released,
+     * so memory is returned after a burst of writing.
+     * <p>
+     * The pool belongs to this builder and is shared by its copies. A
+     * thread's cache lasts as long as both the thread and the pool, so when
+     * the builder and its copies are done with, call
+     * {@link #closeBlockPools()} to release the buffers cached by every
+     * thread.
+     *
+     * @param maxRetainedBytes the maximum number of free bytes retained;
+     * zero disables reuse of buffers.
+     * @param maxIdleMillis the time after which an unused buffer is released;
+     * must be positive.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     * @throws IllegalArgumentException if either argument is out of range.
+     *
+     * @see #withThreadLocalBlockPool(long, long)
+     * @see #getThreadLocalBlockPoolMaxRetainedBytes()
+     */
+    public abstract void setThreadLocalBlockPool(long maxRetainedBytes,
+                                                 long maxIdleMillis);
+
+    /**
+     * Declares that built writers obtain their buffers from a new pool
+     * suited to many threads writing concurrently, returning a new mutable
+     * builder if this is immutable.
+     *
+     * @see #setThreadLocalBlockPool(long, long)
+     */
+    public abstract IonBinaryWriterBuilder
+    withThreadLocalBlockPool(long maxRetainedBytes, long maxIdleMillis);
+
+    //=========================================================================
+
+
+    /**
+     * Gets the maximum number of free bytes retained by the off-heap pool
+     * declared by {@link #setDirectBlockPool(long)}.
+     *
+     * @return the bound given to the pool, or -1 if writers built for
+     * channels use the same pool as other writers.
+     */
+    public abstract long getDirectBlockPoolMaxRetainedBytes();
+
+    /**
+     * Declares that writers built for channels by
+     * {@link #build(WritableByteChannel)} obtain their buffers from a new
+     * pool of off-heap (direct) buffers, in place of this builder's current
+     * one.
+     * <p>
+     * A channel can write from off-heap buffers as they are, where it would
+     * otherwise copy the data into a temporary direct buffer of its own.
+     * Off-heap memory is only freed by the garbage collector, so the pool
+     * retains at most {@code maxRetainedBytes} of free buffers for reuse.
+     * The pool belongs to this builder and is shared by its copies. Its
+     * buffers are freed once they are no longer reachable, which
+     * {@link #closeBlockPools()} hastens. By default, there's no off-heap
+     * pool.
+     *
+     * @param maxRetainedBytes the maximum number of free bytes retained;
+     * zero disables reuse of buffers.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     * @throws IllegalArgumentException if {@code maxRetainedBytes} is
+     * negative.
+     *
+     * @see #withDirectBlockPool(long)
+     * @see #getDirectBlockPoolMaxRetainedBytes()
+     */
+    public abstract void setDirectBlockPool(long maxRetainedBytes);
+
+    /**
+     * Declares that writers built for channels obtain their buffers from a
+     * new off-heap pool, returning a new mutable builder if this is
+     * immutable.
+     *
+     * @see #setDirectBlockPool(long)
+     */
+    public abstract IonBinaryWriterBuilder
+    withDirectBlockPool(long maxRetainedBytes);
+
+    /**
+     * Releases the free buffers retained by the pools declared by
+     * {@link #setThreadLocalBlockPool(long, long)} and
+     * {@link #setDirectBlockPool(long)}, and stops them from retaining any
+     * more. The pools are shared by copies of this builder, including
+     * immutable ones, so this affects them all.
+     * <p>
+     * Writers built beforehand keep working, as do writers built afterwards,
+     * but without reusing buffers. The default pool isn't affected.
+     */
+    public abstract void closeBlockPools();
+
+    /**
+     * Builds a new writer based on this builder's configuration
+     * properties, emitting directly to a channel.
+     * <p>
+     * The writer's buffers are handed to the channel with gathering
+     * writes, rather than copied through an {@link java.io.OutputStream}.
+     * With an off-heap pool declared by {@link #setDirectBlockPool(long)},
+     * the data isn't copied onto the heap or into a temporary direct buffer
+     * at all on its way to the channel.
+     *
+     * @param channel the channel that will receive Ion data.
+     * Must not be null, and must be in blocking mode. It is closed when the
+     * writer is closed.
+     *
+     * @return a new {@link IonWriter} instance; not {@code null}.
+     *
+     * @throws IllegalArgumentException if the channel is a
+     * {@link java.nio.channels.SelectableChannel} in non-blocking mode.
+     */
+    public abstract IonWriter build(WritableByteChannel channel);
+
+
+    //=========================================================================
+
+
     /**
      * Indicates whether built writers may attempt to optimize
      * {@link IonWriter#writeValue(IonReader)} by copying raw source data.
@@ -303,4 +455,73 @@ public abstract class IonBinaryWriterBuilder
         b.setStreamCopyOptimized(optimized);
         return b;
     }
+
+
+    //=========================================================================
+
+
+    /**
+     * Indicates whether built writers produce the canonical encoding, in
+     * which equivalent data always encodes to the same bytes.
+     * By default, this property is false.
+     *
+     * @see #setCanonicalEncoding(boolean)
+     * @see #withCanonicalEncoding(boolean)
+     */
+    public boolean isCanonicalEncoding()
+    {
+        return myCanonicalEncoding;
+    }
+
+    /**
+     * Declares whether built writers produce the canonical encoding, in
+     * which equivalent data always encodes to the same bytes, so that
+     * encoded values can be compared, hashed, and deduplicated as bytes
+     * rather than with {@link com.amazon.ion.util.Equivalence}.
+     * By default, this property is false.
+     * <p>
+     * In the canonical encoding:
+     * <ul>
+     *   <li>Each top-level value that uses symbols beyond the system symbols
+     *     is preceded by its own local symbol table, with no imports, listing
+     *     those symbols in sorted order. Its encoding therefore doesn't depend
+     *     on the values before it.
+     *   </li>
+     *   <li>Struct fields are sorted by field name, and then by their encoded
+     *     values.
+     *   </li>
+     *   <li>Integers and lengths use the fewest bytes possible, there is no
+     *     padding, floats are always 8 bytes, and all NaNs are encoded alike.
+     *   </li>
+     * </ul>
+     * Each top-level value is held in memory until it's complete.
+     * The initial symbol table, imports, local symbol table appending,
+     * Binary32 floats, and stream copy optimization are not used.
+     * Symbols with unknown text, other than symbol zero, cannot be written.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     *
+     * @see #isCanonicalEncoding()
+     * @see #withCanonicalEncoding(boolean)
+     */
+    public void setCanonicalEncoding(boolean canonical)
+    {
+        mutationCheck();
+        myCanonicalEncoding = canonical;
+    }
+
+    /**
+     * Declares whether built writers produce the canonical encoding,
+     * returning a new mutable builder if this is immutable.
+     *
+     * @see #isCanonicalEncoding()
+     * @see #setCanonicalEncoding(boolean)
+     */
+    public final
+    IonBinaryWriterBuilder withCanonicalEncoding(boolean canonical)
+    {
+        IonBinaryWriterBuilder b = mutable();
+        b.setCanonicalEncoding(canonical);
+        return b;
+    }
 }
@@ -15,6 +15,7 @@
 
 package com.amazon.ion.system;
 
+import static com.amazon.ion.impl._Private_IonReaderFactory.makeIncrementalReader;
 import static com.amazon.ion.impl._Private_IonReaderFactory.makeReader;
 
 import com.amazon.ion.IonCatalog;
@@ -24,9 +25,12 @@ import com.amazon.ion.IonStruct;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonTextReader;
 import com.amazon.ion.IonValue;
+import com.amazon.ion.impl._Private_LocalSymbolTableCache;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 
 /**
  * Build a new {@link IonReader} from the given {@link IonCatalog} and data
@@ -42,6 +46,8 @@ public class IonReaderBuilder
 {
 
     private IonCatalog catalog = null;
+    private boolean isIncrementalReadingEnabled = false;
+    private _Private_LocalSymbolTableCache lstCache = null;
 
     private IonReaderBuilder()
     {
@@ -50,6 +56,8 @@ public class IonReaderBuilder
     private IonReaderBuilder(IonReaderBuilder that)
     {
         this.catalog = that.catalog;
+        this.isIncrementalReadingEnabled = that.isIncrementalReadingEnabled;
+        this.lstCache = that.lstCache;
     }
 
     /**
@@ -151,6 +159,146 @@ public class IonReaderBuilder
         return catalog;
     }
 
+    /**
+     * Declares whether readers built over an {@link InputStream} should
+     * tolerate binary top-level values that have only partially arrived,
+     * returning a new mutable builder if this is immutable.
+     *
+     * @param isEnabled true to enable incremental reading.
+     *
+     * @return this builder instance, if mutable;
+     * otherwise a mutable copy of this builder.
+     *
+     * @see #setIncrementalReadingEnabled(boolean)
+     */
+    public IonReaderBuilder withIncrementalReadingEnabled(boolean isEnabled)
+    {
+        IonReaderBuilder b = mutable();
+        b.setIncrementalReadingEnabled(isEnabled);
+        return b;
+    }
+
+    /**
+     * Declares whether readers built over an {@link InputStream} should
+     * tolerate binary top-level values that have only partially arrived.
+     * <p>
+     * When enabled, {@link #build(InputStream)} returns a reader whose
+     * {@link IonReader#next()} returns null at the top level when the stream
+     * has no complete value available, instead of blocking or failing with
+     * an {@link com.amazon.ion.UnexpectedEofException}. Once more data
+     * arrives, {@code next()} may be called again, and reading resumes where
+     * it left off. The reader only reads as many bytes as the stream's
+     * {@link InputStream#available()} reports, so it never blocks waiting
+     * for data; a stream that can't estimate what's available can't be read
+     * incrementally. Since {@code available()} doesn't distinguish a source
+     * that has ended from one that has stalled, neither does the reader. To
+     * hand data to a reader as it arrives, and declare when it has ended,
+     * see {@link #buildIncremental()}.
+     * <p>
+     * Each top-level value is buffered in full before being parsed.
+     * Closing the reader throws {@link com.amazon.ion.UnexpectedEofException}
+     * if the stream ended part-way through a value. Incremental reading only
+     * applies to (uncompressed) Ion binary; other data is read as usual.
+     * <p>
+     * By default, incremental reading is disabled.
+     *
+     * @param isEnabled true to enable incremental reading.
+     *
+     * @see #isIncrementalReadingEnabled()
+     * @see #withIncrementalReadingEnabled(boolean)
+     *
+     * @throws UnsupportedOperationException if this builder is immutable.
+     */
+    public void setIncrementalReadingEnabled(boolean isEnabled)
+    {
+        mutationCheck();
+        this.isIncrementalReadingEnabled = isEnabled;
+    }
+
+    /**
+     * Indicates whether readers built over an {@link InputStream} tolerate
+     * binary top-level values that have only partially arrived.
+     *
+     * @see #setIncrementalReadingEnabled(boolean)
+     * @see #withIncrementalReadingEnabled(boolean)
+     */
+    public boolean isIncrementalReadingEnabled()
+    {
+        return isIncrementalReadingEnabled;
+    }
+
+    /**
+     * Declares the number of decoded local symbol tables to cache across the
+     * readers built by this builder, returning a new mutable builder if this
+     * is immutable.
+     *
+     * @param size the maximum number of tables to cache; zero disables
+     *  caching.
+     *
+     * @return this builder instance, if mutable;
+     * otherwise a mutable copy of this builder.
+     *
+     * @see #setLocalSymbolTableCacheSize(int)
+     */
+    public IonReaderBuilder withLocalSymbolTableCacheSize(int size)
+    {
+        IonReaderBuilder b = mutable();
+        b.setLocalSymbolTableCacheSize(size);
+        return b;
+    }
+
+    /**
+     * Declares the number of decoded local symbol tables to cache across the
+     * readers built by this builder.
+     * <p>
+     * Data made of many small binary streams, such as messages or log
+     * records from the same producer, often starts each stream with an
+     * identical local symbol table. With a cache, readers built over byte
+     * arrays by {@link #build(byte[])} and {@link #build(byte[], int, int)}
+     * reuse the table built when its encoding was last seen, instead of
+     * decoding it again. Tables are cached by their encoded bytes; only
+     * those following an Ion version marker (rather than appending to
+     * another local table) are cached. Text, and binary data read from an
+     * {@link java.io.InputStream}, always decode their tables. Cached tables
+     * are read-only.
+     * <p>
+     * The cache is shared by this builder, its copies and all the readers
+     * built by them, and is safe for concurrent use; lookups don't lock. Setting the size
+     * replaces it with a new, empty cache. By default, there's no cache.
+     *
+     * @param size the maximum number of tables to cache, with the least
+     *  recently used table (approximately, when threads race) evicted
+     *  first; zero disables caching.
+     *
+     * @see #getLocalSymbolTableCacheSize()
+     * @see #withLocalSymbolTableCacheSize(int)
+     *
+     * @throws IllegalArgumentException if {@code size} is negative.
+     * @throws UnsupportedOperationException if this builder is immutable.
+     */
+    public void setLocalSymbolTableCacheSize(int size)
+    {
+        mutationCheck();
+        if (size < 0)
+        {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+        this.lstCache =
+            (size == 0 ? null : new _Private_LocalSymbolTableCache(size));
+    }
+
+    /**
+     * Gets the number of decoded local symbol tables cached across the
+     * readers built by this builder, or zero if there's no cache.
+     *
+     * @see #setLocalSymbolTableCacheSize(int)
+     * @see #withLocalSymbolTableCacheSize(int)
+     */
+    public int getLocalSymbolTableCacheSize()
+    {
+        return lstCache == null ? 0 : lstCache.getMaxSize();
+    }
+
     private IonCatalog validateCatalog()
     {
         // matches behavior in IonSystemBuilder when no catalog provided
@@ -175,6 +323,10 @@ public class IonReaderBuilder
      */
     public IonReader build(byte[] ionData)
     {
+        if (lstCache != null)
+        {
+            return makeReader(validateCatalog(), ionData, lstCache);
+        }
         return makeReader(validateCatalog(), ionData);
     }
 
@@ -198,9 +350,61 @@ public class IonReaderBuilder
      */
     public IonReader build(byte[] ionData, int offset, int length)
     {
+        if (lstCache != null)
+        {
+            return makeReader(validateCatalog(), ionData, offset, length,
+                              lstCache);
+        }
         return makeReader(validateCatalog(), ionData, offset, length);
     }
 
+    /**
+     * Based on the builder's configuration properties, creates a new IonReader
+     * instance over the remaining content of the given buffer, detecting
+     * whether it's text or binary data.
+     * <p>
+     * The buffer is read in place, without copying: through its array when
+     * it has an accessible one, and otherwise (direct, memory-mapped and
+     * read-only buffers) with absolute {@code get}s.
+     * <p>
+     * This method will auto-detect and uncompress GZIPped Ion data.
+     *
+     * @param ionData the source of the Ion data, which is read from its
+     * position to its limit. The reader retains a reference to the buffer
+     * but doesn't change its position or limit, and its data must not be
+     * modified while the reader is active. Must not be null.
+     *
+     * @return a new {@link IonReader} instance; not {@code null}.
+     */
+    public IonReader build(ByteBuffer ionData)
+    {
+        return makeReader(validateCatalog(), ionData);
+    }
+
+    /**
+     * Based on the builder's configuration properties, creates a new IonReader
+     * instance over the content of the given file, detecting whether it's text
+     * or binary data.
+     * <p>
+     * Files of up to 1GB are memory-mapped whole and read as if by
+     * {@link #build(ByteBuffer)}. Larger files are mapped as a chain of 1GB
+     * regions, each mapped as the reader reaches it, so they are read in
+     * place too; GZIPped ones are streamed.
+     * <p>
+     * This method will auto-detect and uncompress GZIPped Ion data.
+     *
+     * @param ionFile the file containing Ion data. Must not be null.
+     *
+     * @return a new reader instance.
+     * Callers must call {@link IonReader#close()} when finished with it.
+     *
+     * @throws IonException if the file can't be opened or mapped.
+     */
+    public IonReader build(File ionFile)
+    {
+        return makeReader(validateCatalog(), ionFile);
+    }
+
     /**
      * Based on the builder's configuration properties, creates a new IonReader
      * instance over the given stream of Ion data, detecting whether it's text or
@@ -210,6 +414,9 @@ public class IonReaderBuilder
      * <p>
      * Because this library performs its own buffering, it's recommended that
      * users avoid adding additional buffering to the given stream.
+     * <p>
+     * See {@link #setIncrementalReadingEnabled(boolean)} for reading
+     * binary data that arrives piecemeal.
      *
      * @param ionData the source of the Ion data, which may be either Ion binary
      * data or UTF-8 Ion text. Must not be null.
@@ -223,9 +430,42 @@ public class IonReaderBuilder
      */
     public IonReader build(InputStream ionData)
     {
+        if (isIncrementalReadingEnabled)
+        {
+            return makeIncrementalReader(validateCatalog(), ionData);
+        }
         return makeReader(validateCatalog(), ionData);
     }
 
+    /**
+     * Based on the builder's configuration properties, creates a new
+     * {@link IonReader} instance with no input, to which the caller appends
+     * Ion binary data as it arrives.
+     * <p>
+     * The data is appended through the reader's
+     * {@link com.amazon.ion.AppendableReader} facet:
+     * <pre>
+     *    IonReader reader = builder.buildIncremental();
+     *    AppendableReader input = reader.asFacet(AppendableReader.class);
+     *    input.appendBytes(bytes, 0, count);
+     *    while (reader.next() != null) { ... }
+     * </pre>
+     * At the top level, {@link IonReader#next()} returns null until a whole
+     * top-level value has been appended, and may be called again after more
+     * data has been appended; the facet's
+     * {@link com.amazon.ion.AppendableReader#isAwaitingData() isAwaitingData()}
+     * tells this apart from the end of the input, which is declared by
+     * {@link com.amazon.ion.AppendableReader#finishInput() finishInput()}.
+     * This doesn't depend on {@link #isIncrementalReadingEnabled()}.
+     *
+     * @return a new reader instance.
+     * Callers must call {@link IonReader#close()} when finished with it.
+     */
+    public IonReader buildIncremental()
+    {
+        return makeIncrementalReader(validateCatalog());
+    }
+
     /**
      * Based on the builder's configuration properties, creates a new
      * {@link IonReader} instance over Ion text data.
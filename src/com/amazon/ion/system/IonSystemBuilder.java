@@ -18,6 +18,7 @@ package com.amazon.ion.system;
 import static com.amazon.ion.impl.lite._Private_LiteDomTrampoline.newLiteSystem;
 
 import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonLoader;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonWriter;
@@ -79,6 +80,13 @@ import com.amazon.ion.impl._Private_Utils;
  *     conditions are met. <b>This feature is experimental! Please test
  *     thoroughly and report any issues.</b>
  *   </li>
+ *   <li>
+ *     <b>lazyLoadingEnabled</b>: When true, containers loaded from binary
+ *     byte arrays (via {@link IonLoader#load(byte[])} and
+ *     {@link IonSystem#singleValue(byte[])}) don't load their children until
+ *     they are first accessed. This reduces the latency and memory of loading
+ *     data of which only a small part is used.
+ *   </li>
  * </ul>
  */
 public class IonSystemBuilder
@@ -101,6 +109,7 @@ public class IonSystemBuilder
 
     IonCatalog myCatalog;
     boolean myStreamCopyOptimized = false;
+    boolean myLazyLoadingEnabled = false;
 
 
     /** You no touchy. */
@@ -113,6 +122,7 @@ public class IonSystemBuilder
     {
         this.myCatalog      = that.myCatalog;
         this.myStreamCopyOptimized = that.myStreamCopyOptimized;
+        this.myLazyLoadingEnabled = that.myLazyLoadingEnabled;
     }
 
     //=========================================================================
@@ -270,6 +280,59 @@ public class IonSystemBuilder
     }
 
 
+    //=========================================================================
+
+
+    /**
+     * Indicates whether built systems load the children of containers from
+     * binary byte arrays on demand.
+     * By default, this property is false.
+     *
+     * @see #setLazyLoadingEnabled(boolean)
+     * @see #withLazyLoadingEnabled(boolean)
+     */
+    public final boolean isLazyLoadingEnabled()
+    {
+        return myLazyLoadingEnabled;
+    }
+
+    /**
+     * Declares whether built systems load the children of containers from
+     * binary byte arrays on demand.
+     * By default, this property is false.
+     * <p>
+     * When enabled, {@link IonLoader#load(byte[])} and
+     * {@link IonSystem#singleValue(byte[])} retain the given array until
+     * every container has been accessed, so the array must not be modified
+     * afterwards. Text and compressed data are always loaded eagerly.
+     *
+     * @throws UnsupportedOperationException if this is immutable.
+     *
+     * @see #isLazyLoadingEnabled()
+     * @see #withLazyLoadingEnabled(boolean)
+     */
+    public final void setLazyLoadingEnabled(boolean enabled)
+    {
+        mutationCheck();
+        myLazyLoadingEnabled = enabled;
+    }
+
+    /**
+     * Declares whether built systems load the children of containers from
+     * binary byte arrays on demand, returning a new mutable builder if this
+     * is immutable.
+     *
+     * @see #isLazyLoadingEnabled()
+     * @see #setLazyLoadingEnabled(boolean)
+     */
+    public final IonSystemBuilder withLazyLoadingEnabled(boolean enabled)
+    {
+        IonSystemBuilder b = mutable();
+        b.setLazyLoadingEnabled(enabled);
+        return b;
+    }
+
+
 
     //=========================================================================
 
@@ -299,7 +362,7 @@ public class IonSystemBuilder
         // This is what we need, more or less.
 //        bwb = bwb.fillDefaults();
         IonReaderBuilder rb = IonReaderBuilder.standard().withCatalog(catalog);
-        IonSystem sys = newLiteSystem(twb, bwb, rb);
+        IonSystem sys = newLiteSystem(twb, bwb, rb, myLazyLoadingEnabled);
 
         return sys;
     }
@@ -18,20 +18,24 @@ package com.amazon.ion.util;
 import static com.amazon.ion.impl._Private_IonConstants.UNKNOWN_SYMBOL_TEXT_PREFIX;
 
 import com.amazon.ion.Decimal;
+import com.amazon.ion.IntegerSize;
 import com.amazon.ion.IonBool;
 import com.amazon.ion.IonDecimal;
 import com.amazon.ion.IonException;
 import com.amazon.ion.IonFloat;
 import com.amazon.ion.IonInt;
 import com.amazon.ion.IonLob;
+import com.amazon.ion.IonReader;
 import com.amazon.ion.IonSequence;
 import com.amazon.ion.IonStruct;
 import com.amazon.ion.IonSymbol;
+import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonText;
 import com.amazon.ion.IonTimestamp;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonValue;
 import com.amazon.ion.SymbolToken;
+import com.amazon.ion.system.IonSystemBuilder;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
@@ -60,6 +64,9 @@ import java.util.Set;
  *    boolean equivalent = ionEquals( v1, v2 );
  *</pre>
  *
+ * The same comparisons are available over two {@link IonReader}s, streaming
+ * both inputs rather than loading them into memory.
+ *
  * <p>
  * Additional options are available by configuring an <code>Equivalence</code>
  * instance using {@link Equivalence.Builder}. For example:
@@ -431,7 +438,13 @@ public final class Equivalence {
 
         Field(final IonValue value, final Configuration configuration)
         {
-            SymbolToken tok = value.getFieldNameSymbol();
+            this(value.getFieldNameSymbol(), value, configuration);
+        }
+
+        Field(final SymbolToken tok,
+              final IonValue value,
+              final Configuration configuration)
+        {
             String name = tok.getText();
             if (name == null) {
                 // TODO amzn/ion-java/issues/23 Problematic with unknown field names.
@@ -601,6 +614,212 @@ public final class Equivalence {
         return result;
     }
 
+    /**
+     * Builds the struct values that {@link #compareStructs(IonReader,
+     * IonReader, Configuration)} must hold in memory. It's a holder class so
+     * that comparing {@link IonValue}s doesn't build a system.
+     */
+    private static final class StructLoader {
+        static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+    }
+
+
+    /**
+     * Compares the values remaining at the readers' current depths, calling
+     * {@link IonReader#next()} on both until either is exhausted.
+     */
+    private static int compareStreams(final IonReader r1,
+                                      final IonReader r2,
+                                      final Configuration configuration)
+    {
+        int result = 0;
+        while (result == 0) {
+            IonType ty1 = r1.next();
+            IonType ty2 = r2.next();
+            if (ty1 == null || ty2 == null) {
+                if (ty1 != null) result = 1;
+                if (ty2 != null) result = -1;
+                break;
+            }
+            result = ionCompareToImpl(r1, r2, configuration);
+        }
+        return result;
+    }
+
+
+    /**
+     * Struct fields are unordered, so one of the two structs must be held in
+     * memory. The fields of the other are matched against it one at a time,
+     * and only a single field value is materialized at once.
+     */
+    private static int compareStructs(final IonReader r1,
+                                      final IonReader r2,
+                                      final Configuration configuration)
+    {
+        final IonStruct s1 = (IonStruct) StructLoader.SYSTEM.newValue(r1);
+        final Map<Field, Field> s1MultiSet
+                = convertToMultiSet(s1, configuration);
+
+        int remaining = s1.size();
+        int result = 0;
+        r2.stepIn();
+        while (r2.next() != null) {
+            if (remaining == 0) {
+                // s2 has more fields than s1
+                result = -1;
+                break;
+            }
+            Field field = new Field(r2.getFieldNameSymbol(),
+                                    StructLoader.SYSTEM.newValue(r2),
+                                    configuration);
+            Field mappedValue = s1MultiSet.get(field);
+            if (mappedValue == null || mappedValue.occurrences == 0) {
+                result = -1;
+                break;
+            }
+            mappedValue.occurrences--;
+            remaining--;
+        }
+        r2.stepOut();
+
+        if (result == 0) {
+            result = remaining;
+        }
+        return result;
+    }
+
+
+    /** Compare LOB content--assuming non-null. */
+    private static int compareLobContents(final byte[] lob1, final byte[] lob2)
+    {
+        int result = lob1.length - lob2.length;
+        for (int i = 0; result == 0 && i < lob1.length; i++) {
+            result = (lob1[i] & 0xFF) - (lob2[i] & 0xFF);
+        }
+        return result;
+    }
+
+
+    /**
+     * Compares the readers' current values, as
+     * {@link #ionCompareToImpl(IonValue, IonValue, Configuration)} compares
+     * {@link IonValue}s. Containers are stepped through in lockstep, so
+     * memory is bounded by the nesting depth and the largest struct, not by
+     * the size of the data.
+     */
+    private static int ionCompareToImpl(final IonReader r1,
+                                        final IonReader r2,
+                                        final Configuration configuration)
+    {
+        // check type
+        IonType ty1 = r1.getType();
+        IonType ty2 = r2.getType();
+        int result = ty1.compareTo(ty2);
+
+        // Annotations come first: they're cheap, and they aren't available
+        // once a container has been stepped through.
+        if ((result == 0) && configuration.isStrict) {
+            result = compareAnnotations(r1.getTypeAnnotationSymbols(),
+                                        r2.getTypeAnnotationSymbols());
+        }
+
+        if (result == 0) {
+            boolean bo1 = r1.isNullValue();
+            boolean bo2 = r2.isNullValue();
+
+            if (bo1 || bo2) {
+                if (!bo1) result = 1;
+                if (!bo2) result = -1;
+            }
+            else {
+                switch (ty1)
+                {
+                case NULL:
+                    break;
+                case BOOL:
+                    if (r1.booleanValue()) {
+                        result = r2.booleanValue() ? 0 : 1;
+                    }
+                    else {
+                        result = r2.booleanValue() ? -1 : 0;
+                    }
+                    break;
+                case INT:
+                    if (r1.getIntegerSize() != IntegerSize.BIG_INTEGER
+                        && r2.getIntegerSize() != IntegerSize.BIG_INTEGER) {
+                        long long1 = r1.longValue();
+                        long long2 = r2.longValue();
+                        result = (long1 < long2 ? -1 : (long1 == long2 ? 0 : 1));
+                    }
+                    else {
+                        result = r1.bigIntegerValue().compareTo(
+                                 r2.bigIntegerValue());
+                    }
+                    break;
+                case FLOAT:
+                    double double1 = r1.doubleValue();
+                    double double2 = r2.doubleValue();
+                    if (configuration.epsilon != null
+                            && (double1 == double2 || Math.abs(double1 - double2) <= configuration.epsilon)) {
+                        result = 0;
+                    } else {
+                        result = Double.compare(double1, double2);
+                    }
+                    break;
+                case DECIMAL:
+                    assert !PUBLIC_COMPARISON_API; // TODO amzn/ion-java/issues/26
+                    result = Decimal.equals(r1.decimalValue(),
+                                            r2.decimalValue())
+                                            ? 0 : 1;
+                    break;
+                case TIMESTAMP:
+                    if (configuration.isStrict) {
+                        assert !PUBLIC_COMPARISON_API; // TODO amzn/ion-java/issues/26
+                        result = (r1.timestampValue().equals(
+                                  r2.timestampValue())
+                                  ? 0 : 1);
+                    }
+                    else {
+                        result = r1.timestampValue().compareTo(
+                                 r2.timestampValue());
+                    }
+                    break;
+                case STRING:
+                    result = r1.stringValue().compareTo(r2.stringValue());
+                    break;
+                case SYMBOL:
+                    result = compareSymbolTokens(r1.symbolValue(),
+                                                 r2.symbolValue());
+                    break;
+                case BLOB:
+                case CLOB:
+                    result = r1.byteSize() - r2.byteSize();
+                    if (result == 0) {
+                        result = compareLobContents(r1.newBytes(),
+                                                    r2.newBytes());
+                    }
+                    break;
+                case STRUCT:
+                    assert !PUBLIC_COMPARISON_API; // TODO amzn/ion-java/issues/26
+                    result = compareStructs(r1, r2, configuration);
+                    break;
+                case LIST:
+                case SEXP:
+                    r1.stepIn();
+                    r2.stepIn();
+                    result = compareStreams(r1, r2, configuration);
+                    r1.stepOut();
+                    r2.stepOut();
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected type: " + ty1);
+                }
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Checks for strict data equivalence over two Ion Values.
      *
@@ -652,4 +871,64 @@ public final class Equivalence {
         return ionEqualsImpl(v1, v2, configuration);
     }
 
+    /**
+     * Checks for strict data equivalence over the values remaining in two
+     * readers, without loading them into memory. Both readers are advanced
+     * with {@link IonReader#next()} until either is exhausted at its current
+     * depth, comparing each pair of values in turn. Memory use is bounded by
+     * the nesting depth and the largest struct, not by the size of the data.
+     * <p>
+     * When the result is {@code false}, the readers are left at the values
+     * that differ, or wherever either reader ran out.
+     *
+     * @param r1
+     *            The first reader to compare.
+     * @param r2
+     *            The second reader to compare.
+     *
+     * @return true if the two readers produce the same data.
+     */
+    public static boolean ionEquals(final IonReader r1,
+                                    final IonReader r2)
+    {
+        return compareStreams(r1, r2, STRICT_CONFIGURATION) == 0;
+    }
+
+    /**
+     * Checks for structural data equivalence over the values remaining in two
+     * readers, without considering any annotations. This streams both inputs
+     * as described by {@link #ionEquals(IonReader, IonReader)}.
+     *
+     * @param r1
+     *            The first reader to compare.
+     * @param r2
+     *            The second reader to compare.
+     *
+     * @return true if the two readers produce the same data without regard
+     *         to annotations.
+     */
+    public static boolean ionEqualsByContent(final IonReader r1,
+                                             final IonReader r2)
+    {
+        return compareStreams(r1, r2, NON_STRICT_CONFIGURATION) == 0;
+    }
+
+    /**
+     * Checks for data equivalence over the values remaining in two readers
+     * using this Equivalence's configuration. This streams both inputs as
+     * described by {@link #ionEquals(IonReader, IonReader)}.
+     *
+     * @see Builder
+     *
+     * @param r1
+     *            The first reader to compare.
+     * @param r2
+     *            The second reader to compare.
+     *
+     * @return true if the two readers produce the same data.
+     */
+    public boolean ionValueEquals(final IonReader r1, final IonReader r2) {
+        return compareStreams(r1, r2, configuration) == 0;
+    }
+
 }
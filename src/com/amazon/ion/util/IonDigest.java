@@ -0,0 +1,718 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import com.amazon.ion.Decimal;
+import com.amazon.ion.IntegerSize;
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.SymbolToken;
+import com.amazon.ion.SystemSymbols;
+import com.amazon.ion.Timestamp;
+import com.amazon.ion.impl._Private_IonWriter;
+import com.amazon.ion.impl._Private_Utils;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * Computes a 64-bit digest of Ion data, for deduplication and cache keys.
+ * <p>
+ * The digest depends only on the Ion data model: values that are
+ * {@linkplain Equivalence#ionEquals equal} have equal digests, whether they
+ * come from an {@link IonValue}, an {@link IonReader} over text or binary,
+ * or a sequence of {@link IonWriter} calls, and regardless of symbol IDs,
+ * local symbol tables, or the order of struct fields. It's computed with
+ * fixed constants and integer arithmetic only, so it's the same on every JVM
+ * and in every release; it may be stored. Symbols with unknown text are the
+ * one exception, since all that distinguishes them is their symbol ID.
+ * <p>
+ * This is an {@link IonWriter} that folds each value into the digest as it's
+ * written, using memory proportional only to the depth of nesting. For
+ * exactly one top-level value, {@link #getValue()} is that value's digest;
+ * for more, it's an order-dependent combination of their digests.
+ * <p>
+ * The digest is not cryptographic: it offers no protection against
+ * deliberately colliding inputs.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class IonDigest
+    implements _Private_IonWriter
+{
+    // These constants define the digest; changing any of them changes
+    // every digest.
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+    private static final int NULL_TAG = 0x10;
+    private static final long UNKNOWN_SYMBOL = 0x2545F4914F6CDD1DL;
+    private static final long BIG_VALUE = 0x6A09E667F3BCC909L;
+
+    /**
+     * Computes the digest of a single value, including its annotations but
+     * not its field name.
+     */
+    public static long digest(IonValue value)
+    {
+        IonDigest digest = new IonDigest();
+        value.writeTo(digest);
+        return digest.getValue();
+    }
+
+    /**
+     * Computes the digest of the reader's current value, including its
+     * annotations but not its field name, stepping through its content if
+     * it's a container. A scalar value remains the reader's current value.
+     * After a container, the reader is left at the same depth but past the
+     * container's content, which can't be read again; call
+     * {@link IonReader#next()} to move on to the following value either way.
+     *
+     * @throws IllegalStateException if the reader isn't positioned on a
+     *  value.
+     */
+    public static long digest(IonReader reader)
+    {
+        if (reader.getType() == null)
+        {
+            throw new IllegalStateException("Reader has no current value");
+        }
+        IonDigest digest = new IonDigest();
+        try
+        {
+            digest.writeValue(reader);
+        }
+        catch (IOException e)
+        {
+            throw new IonException(e);
+        }
+        return digest.getValue();
+    }
+
+
+    private long myValue;
+    private long myValueCount;
+
+    private IonType[] myContainerTypes = new IonType[8];
+    private long[]    myContents = new long[8];
+    private int[]     myCounts = new int[8];
+    private long[]    myFieldNames = new long[8];
+    private long[]    myAnnotations = new long[8];
+    private int       myDepth;
+
+    private boolean myFieldNameSet;
+    private long    myFieldName;
+    private long    myPendingAnnotations;
+    private int     myPendingAnnotationCount;
+
+    private final StringBuilder myText = new StringBuilder();
+
+    public IonDigest()
+    {
+    }
+
+    /**
+     * Returns the digest of the top-level values written since construction
+     * or the last {@link #reset()}, or zero if there are none.
+     */
+    public long getValue()
+    {
+        return myValue;
+    }
+
+    /**
+     * Clears the digest, and abandons any partly-written container.
+     */
+    public void reset()
+    {
+        myValue = 0;
+        myValueCount = 0;
+        myDepth = 0;
+        clearPending();
+    }
+
+
+    //=========================================================================
+    // The digest function
+
+    private static long mix(long hash, long k)
+    {
+        k *= C1;
+        k = Long.rotateLeft(k, 31);
+        k *= C2;
+        hash ^= k;
+        hash = Long.rotateLeft(hash, 27);
+        return hash * 5 + 0x52DCE729;
+    }
+
+    private static long finish(long hash)
+    {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /** Hashes UTF-16 code units, four at a time. */
+    private static long hashText(CharSequence text)
+    {
+        long hash = SEED;
+        int len = text.length();
+        int i = 0;
+        for (; i + 4 <= len; i += 4)
+        {
+            hash = mix(hash, text.charAt(i)
+                             | (long) text.charAt(i + 1) << 16
+                             | (long) text.charAt(i + 2) << 32
+                             | (long) text.charAt(i + 3) << 48);
+        }
+        long k = 0;
+        for (int shift = 0; i < len; i++, shift += 16)
+        {
+            k |= (long) text.charAt(i) << shift;
+        }
+        return finish(mix(hash, k) ^ len);
+    }
+
+    /** Hashes bytes, eight at a time. */
+    private static long hashBytes(byte[] bytes, int start, int len)
+    {
+        long hash = SEED;
+        int end = start + len;
+        int i = start;
+        for (; i + 8 <= end; i += 8)
+        {
+            long k = 0;
+            for (int j = 7; j >= 0; j--)
+            {
+                k = (k << 8) | (bytes[i + j] & 0xFF);
+            }
+            hash = mix(hash, k);
+        }
+        long k = 0;
+        for (int shift = 0; i < end; i++, shift += 8)
+        {
+            k |= (long) (bytes[i] & 0xFF) << shift;
+        }
+        return finish(mix(hash, k) ^ len);
+    }
+
+    private static long hashSymbol(SymbolToken symbol)
+    {
+        String text = symbol.getText();
+        if (text == null)
+        {
+            return mix(UNKNOWN_SYMBOL, symbol.getSid());
+        }
+        return hashText(text);
+    }
+
+    private static long hashInteger(BigInteger value)
+    {
+        if (value.bitLength() < Long.SIZE)
+        {
+            return value.longValue();
+        }
+        byte[] bytes = value.toByteArray();
+        return mix(BIG_VALUE, hashBytes(bytes, 0, bytes.length));
+    }
+
+    /** The type codes of the Ion binary encoding. */
+    private static int typeTag(IonType type)
+    {
+        switch (type)
+        {
+            case NULL:      return 0;
+            case BOOL:      return 1;
+            case INT:       return 2;
+            case FLOAT:     return 4;
+            case DECIMAL:   return 5;
+            case TIMESTAMP: return 6;
+            case SYMBOL:    return 7;
+            case STRING:    return 8;
+            case CLOB:      return 9;
+            case BLOB:      return 10;
+            case LIST:      return 11;
+            case SEXP:      return 12;
+            case STRUCT:    return 13;
+            default:
+                throw new IllegalArgumentException("Not a value type: " + type);
+        }
+    }
+
+    private long pendingAnnotations()
+    {
+        if (myPendingAnnotationCount == 0)
+        {
+            return 0;
+        }
+        return mix(myPendingAnnotations, myPendingAnnotationCount);
+    }
+
+    private void clearPending()
+    {
+        myFieldNameSet = false;
+        myPendingAnnotations = SEED;
+        myPendingAnnotationCount = 0;
+    }
+
+    private void checkFieldName()
+    {
+        if (isInStruct() && !myFieldNameSet)
+        {
+            throw new IllegalStateException("Field name not set");
+        }
+    }
+
+    private void writeScalar(int tag, long content)
+    {
+        checkFieldName();
+        long digest = finish(mix(mix(mix(SEED, tag), pendingAnnotations()),
+                                 content));
+        addValue(digest);
+    }
+
+    /**
+     * Folds a complete value into its container, or into the top-level
+     * digest. Struct fields are added, so that their order doesn't matter.
+     */
+    private void addValue(long digest)
+    {
+        if (myDepth == 0)
+        {
+            myValue = (myValueCount == 0 ? digest : finish(mix(myValue, digest)));
+            myValueCount++;
+        }
+        else
+        {
+            int top = myDepth - 1;
+            if (myContainerTypes[top] == IonType.STRUCT)
+            {
+                myContents[top] += finish(mix(mix(SEED, myFieldName), digest));
+            }
+            else
+            {
+                myContents[top] = mix(myContents[top], digest);
+            }
+            myCounts[top]++;
+        }
+        clearPending();
+    }
+
+
+    //=========================================================================
+    // IonWriter
+
+    public <T> T asFacet(Class<T> facetType)
+    {
+        return null;
+    }
+
+    public SymbolTable getSymbolTable()
+    {
+        return _Private_Utils.systemSymtab(1);
+    }
+
+    public IonCatalog getCatalog()
+    {
+        return null;
+    }
+
+    public void flush()
+    {
+    }
+
+    public void finish()
+    {
+    }
+
+    public void close()
+    {
+    }
+
+    public boolean isFieldNameSet()
+    {
+        return myFieldNameSet;
+    }
+
+    public int getDepth()
+    {
+        return myDepth;
+    }
+
+    public boolean isStreamCopyOptimized()
+    {
+        return false;
+    }
+
+    public void writeIonVersionMarker()
+    {
+    }
+
+    public void setFieldName(String name)
+    {
+        if (!isInStruct())
+        {
+            throw new IllegalStateException("Not in a struct");
+        }
+        myFieldName = hashText(name);
+        myFieldNameSet = true;
+    }
+
+    public void setFieldNameSymbol(SymbolToken name)
+    {
+        if (!isInStruct())
+        {
+            throw new IllegalStateException("Not in a struct");
+        }
+        myFieldName = hashSymbol(name);
+        myFieldNameSet = true;
+    }
+
+    public void setTypeAnnotations(String... annotations)
+    {
+        myPendingAnnotations = SEED;
+        myPendingAnnotationCount = 0;
+        if (annotations != null)
+        {
+            for (String annotation : annotations)
+            {
+                addTypeAnnotation(annotation);
+            }
+        }
+    }
+
+    public void setTypeAnnotationSymbols(SymbolToken... annotations)
+    {
+        myPendingAnnotations = SEED;
+        myPendingAnnotationCount = 0;
+        if (annotations != null)
+        {
+            for (SymbolToken annotation : annotations)
+            {
+                myPendingAnnotations =
+                    mix(myPendingAnnotations, hashSymbol(annotation));
+                myPendingAnnotationCount++;
+            }
+        }
+    }
+
+    public void addTypeAnnotation(String annotation)
+    {
+        myPendingAnnotations = mix(myPendingAnnotations, hashText(annotation));
+        myPendingAnnotationCount++;
+    }
+
+    public void stepIn(IonType containerType)
+    {
+        if (!IonType.isContainer(containerType)
+            || containerType == IonType.DATAGRAM)
+        {
+            throw new IllegalArgumentException("Not a container type: "
+                                               + containerType);
+        }
+        checkFieldName();
+        if (myDepth == myContainerTypes.length)
+        {
+            int length = myDepth * 2;
+            IonType[] types = new IonType[length];
+            System.arraycopy(myContainerTypes, 0, types, 0, myDepth);
+            myContainerTypes = types;
+            long[] contents = new long[length];
+            System.arraycopy(myContents, 0, contents, 0, myDepth);
+            myContents = contents;
+            int[] counts = new int[length];
+            System.arraycopy(myCounts, 0, counts, 0, myDepth);
+            myCounts = counts;
+            long[] fieldNames = new long[length];
+            System.arraycopy(myFieldNames, 0, fieldNames, 0, myDepth);
+            myFieldNames = fieldNames;
+            long[] annotations = new long[length];
+            System.arraycopy(myAnnotations, 0, annotations, 0, myDepth);
+            myAnnotations = annotations;
+        }
+        myContainerTypes[myDepth] = containerType;
+        myContents[myDepth] = (containerType == IonType.STRUCT ? 0 : SEED);
+        myCounts[myDepth] = 0;
+        myFieldNames[myDepth] = myFieldName;
+        myAnnotations[myDepth] = pendingAnnotations();
+        myDepth++;
+        clearPending();
+    }
+
+    public void stepOut()
+    {
+        if (myDepth == 0)
+        {
+            throw new IllegalStateException("Cannot step out of the top level");
+        }
+        int top = --myDepth;
+        long content = mix(myContents[top], myCounts[top]);
+        myFieldName = myFieldNames[top];
+        long digest = finish(mix(mix(mix(SEED, typeTag(myContainerTypes[top])),
+                                     myAnnotations[top]),
+                                 content));
+        addValue(digest);
+    }
+
+    public boolean isInStruct()
+    {
+        return myDepth > 0 && myContainerTypes[myDepth - 1] == IonType.STRUCT;
+    }
+
+    @Deprecated
+    public void writeValue(IonValue value)
+    {
+        if (value != null)
+        {
+            value.writeTo(this);
+        }
+    }
+
+    public void writeValue(IonReader reader)
+        throws IOException
+    {
+        IonType type = reader.getType();
+        if (type == null)
+        {
+            return;
+        }
+        if (isInStruct() && !myFieldNameSet)
+        {
+            setFieldNameSymbol(reader.getFieldNameSymbol());
+        }
+        setTypeAnnotationSymbols(reader.getTypeAnnotationSymbols());
+        if (reader.isNullValue())
+        {
+            writeNull(type);
+            return;
+        }
+        switch (type)
+        {
+            case BOOL:
+                writeBool(reader.booleanValue());
+                break;
+            case INT:
+                if (reader.getIntegerSize() == IntegerSize.BIG_INTEGER)
+                {
+                    writeInt(reader.bigIntegerValue());
+                }
+                else
+                {
+                    writeInt(reader.longValue());
+                }
+                break;
+            case FLOAT:
+                writeFloat(reader.doubleValue());
+                break;
+            case DECIMAL:
+                writeDecimal(reader.decimalValue());
+                break;
+            case TIMESTAMP:
+                writeTimestamp(reader.timestampValue());
+                break;
+            case SYMBOL:
+                writeSymbolToken(reader.symbolValue());
+                break;
+            case STRING:
+                writeString(reader.stringValue());
+                break;
+            case CLOB:
+                writeClob(reader.newBytes());
+                break;
+            case BLOB:
+                writeBlob(reader.newBytes());
+                break;
+            case LIST:
+            case SEXP:
+            case STRUCT:
+                stepIn(type);
+                reader.stepIn();
+                while (reader.next() != null)
+                {
+                    writeValue(reader);
+                }
+                reader.stepOut();
+                stepOut();
+                break;
+            default:
+                throw new IllegalStateException("Unexpected type: " + type);
+        }
+    }
+
+    public void writeValues(IonReader reader)
+        throws IOException
+    {
+        if (reader.getType() == null)
+        {
+            reader.next();
+        }
+        while (reader.getType() != null)
+        {
+            writeValue(reader);
+            reader.next();
+        }
+    }
+
+    public void writeNull()
+    {
+        writeNull(IonType.NULL);
+    }
+
+    public void writeNull(IonType type)
+    {
+        writeScalar(typeTag(type) | NULL_TAG, 0);
+    }
+
+    public void writeBool(boolean value)
+    {
+        writeScalar(typeTag(IonType.BOOL), value ? 1 : 0);
+    }
+
+    public void writeInt(long value)
+    {
+        writeScalar(typeTag(IonType.INT), value);
+    }
+
+    public void writeInt(BigInteger value)
+    {
+        if (value == null)
+        {
+            writeNull(IonType.INT);
+            return;
+        }
+        writeScalar(typeTag(IonType.INT), hashInteger(value));
+    }
+
+    public void writeFloat(double value)
+    {
+        // Consistent with Double.compare(), which Equivalence uses.
+        writeScalar(typeTag(IonType.FLOAT), Double.doubleToLongBits(value));
+    }
+
+    public void writeDecimal(BigDecimal value)
+    {
+        if (value == null)
+        {
+            writeNull(IonType.DECIMAL);
+            return;
+        }
+        long content = mix(Decimal.isNegativeZero(value) ? ~SEED : SEED,
+                           value.scale());
+        content = mix(content, hashInteger(value.unscaledValue()));
+        writeScalar(typeTag(IonType.DECIMAL), content);
+    }
+
+    public void writeTimestamp(Timestamp value)
+        throws IOException
+    {
+        if (value == null)
+        {
+            writeNull(IonType.TIMESTAMP);
+            return;
+        }
+        // The text form is exactly as precise as Timestamp.equals().
+        myText.setLength(0);
+        value.print(myText);
+        writeScalar(typeTag(IonType.TIMESTAMP), hashText(myText));
+    }
+
+    @SuppressWarnings("deprecation")
+    public void writeTimestampUTC(Date value)
+        throws IOException
+    {
+        writeTimestamp(value == null ? null : Timestamp.forDateZ(value));
+    }
+
+    public void writeSymbol(String content)
+    {
+        if (content == null)
+        {
+            writeNull(IonType.SYMBOL);
+            return;
+        }
+        if (myDepth == 0
+            && myPendingAnnotationCount == 0
+            && SystemSymbols.ION_1_0.equals(content))
+        {
+            // An Ion version marker, not data.
+            return;
+        }
+        writeScalar(typeTag(IonType.SYMBOL), hashText(content));
+    }
+
+    public void writeSymbolToken(SymbolToken content)
+    {
+        if (content == null)
+        {
+            writeNull(IonType.SYMBOL);
+            return;
+        }
+        if (content.getText() != null)
+        {
+            writeSymbol(content.getText());
+            return;
+        }
+        writeScalar(typeTag(IonType.SYMBOL), hashSymbol(content));
+    }
+
+    public void writeString(String value)
+    {
+        if (value == null)
+        {
+            writeNull(IonType.STRING);
+            return;
+        }
+        writeScalar(typeTag(IonType.STRING), hashText(value));
+    }
+
+    public void writeClob(byte[] value)
+    {
+        if (value == null)
+        {
+            writeNull(IonType.CLOB);
+            return;
+        }
+        writeClob(value, 0, value.length);
+    }
+
+    public void writeClob(byte[] value, int start, int len)
+    {
+        writeScalar(typeTag(IonType.CLOB), hashBytes(value, start, len));
+    }
+
+    public void writeBlob(byte[] value)
+    {
+        if (value == null)
+        {
+            writeNull(IonType.BLOB);
+            return;
+        }
+        writeBlob(value, 0, value.length);
+    }
+
+    public void writeBlob(byte[] value, int start, int len)
+    {
+        writeScalar(typeTag(IonType.BLOB), hashBytes(value, start, len));
+    }
+}
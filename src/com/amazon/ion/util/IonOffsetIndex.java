@@ -0,0 +1,553 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static com.amazon.ion.impl._Private_Utils.copyOf;
+import static com.amazon.ion.impl._Private_Utils.newBinarySpan;
+import static com.amazon.ion.impl._Private_Utils.readLocalSymbolTable;
+import static com.amazon.ion.impl._Private_Utils.systemSymtab;
+
+import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.OffsetSpan;
+import com.amazon.ion.SeekableReader;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of the positions of the top-level values in a buffer of Ion binary
+ * data, allowing them to be read in any order without scanning from the start.
+ * <p>
+ * The index records the offset and length of each top-level user value
+ * (a <em>record</em>), along with the symbol table needed to read it.
+ * It can be written to a compact Ion sidecar with {@link #writeTo} and loaded
+ * again with {@link #read}, so that the data need only be scanned once.
+ * <p>
+ * Given the indexed data, {@link #newReader(IonReaderBuilder, byte[], int, int, int, int)}
+ * creates a reader over any run of records by seeking directly to the first,
+ * and {@link #newRangeReader} over the records within a range of offsets.
+ * The offsets can also be used to copy the records' encoded bytes.
+ * <p>
+ * Only Ion binary data held in a byte array is supported.
+ * Instances are immutable and thread-safe.
+ */
+public final class IonOffsetIndex
+{
+    /** Annotation on the sidecar's struct. */
+    static final String INDEX_ANNOTATION = "$ion_offset_index";
+    static final String VERSION          = "version";
+    /** Each record's gap after the end of the previous one. */
+    static final String GAPS             = "gaps";
+    static final String LENGTHS          = "lengths";
+    /** Local symbol tables, or null where the system symbol table applies. */
+    static final String SYMBOL_TABLES    = "symbol_tables";
+    /** The first record read with each symbol table. */
+    static final String SYMBOL_TABLE_STARTS = "symbol_table_starts";
+
+    private static final int CURRENT_VERSION = 1;
+
+    private final long[]        myStarts;
+    private final int[]         myLengths;
+    private final int           mySize;
+    /** Ascending; the first is always zero. */
+    private final int[]         mySymbolTableStarts;
+    private final SymbolTable[] mySymbolTables;
+
+    private IonOffsetIndex(long[] starts, int[] lengths, int size,
+                           int[] symbolTableStarts,
+                           SymbolTable[] symbolTables)
+    {
+        myStarts = starts;
+        myLengths = lengths;
+        mySize = size;
+        mySymbolTableStarts = symbolTableStarts;
+        mySymbolTables = symbolTables;
+    }
+
+
+    /**
+     * Scans a buffer of Ion binary data, recording each top-level value.
+     *
+     * @param builder configures the reader used to scan the data.
+     *  Must not be null.
+     * @param data the Ion binary data. Must not be null.
+     * @param offset the position of the data in the buffer.
+     * @param length the number of bytes of data.
+     *
+     * @return the index; not null.
+     *
+     * @throws IllegalArgumentException if the data is neither empty nor Ion
+     *  binary.
+     */
+    public static IonOffsetIndex build(IonReaderBuilder builder,
+                                       byte[] data, int offset, int length)
+    {
+        long[] starts = new long[16];
+        int[] lengths = new int[16];
+        int size = 0;
+        List<Integer> symbolTableStarts = new ArrayList<Integer>();
+        List<SymbolTable> symbolTables = new ArrayList<SymbolTable>();
+
+        if (length != 0)
+        {
+            if (! IonStreamUtils.isIonBinary(data, offset, length))
+            {
+                throw new IllegalArgumentException("Data isn't Ion binary");
+            }
+
+            IonReader reader = builder.build(data, offset, length);
+            try
+            {
+                SpanProvider spans = reader.asFacet(SpanProvider.class);
+                SymbolTable current = null;
+                while (reader.next() != null)
+                {
+                    OffsetSpan span = (OffsetSpan) spans.currentSpan();
+                    SymbolTable symbols = reader.getSymbolTable();
+                    if (symbols != current)
+                    {
+                        symbolTableStarts.add(size);
+                        symbolTables.add(symbols);
+                        current = symbols;
+                    }
+                    if (size == starts.length)
+                    {
+                        starts = copyOf(starts, size * 2);
+                        lengths = copyOf(lengths, size * 2);
+                    }
+                    starts[size] = span.getStartOffset();
+                    lengths[size] = (int) (span.getFinishOffset() - span.getStartOffset());
+                    size++;
+                }
+            }
+            finally
+            {
+                try
+                {
+                    reader.close();
+                }
+                catch (IOException e)
+                {
+                    // Nothing was written, so there's nothing to lose.
+                }
+            }
+        }
+
+        return new IonOffsetIndex(starts, lengths, size,
+                                  toIntArray(symbolTableStarts),
+                                  symbolTables.toArray(new SymbolTable[symbolTables.size()]));
+    }
+
+    private static int[] toIntArray(List<Integer> list)
+    {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++)
+        {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+
+    /**
+     * Gets the number of records in the index.
+     */
+    public int size()
+    {
+        return mySize;
+    }
+
+    private void checkRecord(int record)
+    {
+        if (record < 0 || record >= mySize)
+        {
+            throw new IndexOutOfBoundsException("Record " + record
+                                                + " of " + mySize);
+        }
+    }
+
+    /**
+     * Gets the offset of the first byte of a record, including any
+     * annotations, relative to the start of the indexed data.
+     */
+    public long getStartOffset(int record)
+    {
+        checkRecord(record);
+        return myStarts[record];
+    }
+
+    /**
+     * Gets the offset of the byte following a record, relative to the start
+     * of the indexed data.
+     */
+    public long getFinishOffset(int record)
+    {
+        checkRecord(record);
+        return myStarts[record] + myLengths[record];
+    }
+
+    /**
+     * Gets the symbol table needed to read a record.
+     */
+    public SymbolTable getSymbolTable(int record)
+    {
+        checkRecord(record);
+        int i = Arrays.binarySearch(mySymbolTableStarts, record);
+        if (i < 0)
+        {
+            // The table whose run contains the record.
+            i = -i - 2;
+        }
+        return mySymbolTables[i];
+    }
+
+    /**
+     * Finds the first record that starts at or after the given offset.
+     *
+     * @return the record number, or {@link #size()} if there is none.
+     */
+    public int findRecord(long offset)
+    {
+        // Starts are strictly increasing; find the first that's >= offset.
+        int low = 0;
+        int high = mySize;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (myStarts[mid] < offset)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first record that finishes after the given offset.
+     *
+     * @return the record number, or {@link #size()} if there is none.
+     */
+    private int findRecordFinishingAfter(long offset)
+    {
+        // Records don't overlap, so finishes are increasing too.
+        int low = 0;
+        int high = mySize;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (myStarts[mid] + myLengths[mid] <= offset)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * Creates a reader over the run of records from {@code fromRecord}
+     * (inclusive) to {@code toRecord} (exclusive), over the indexed data.
+     * It's positioned before the first record, and reaches the end of its
+     * input after the last.
+     *
+     * @param builder configures the reader. Must not be null.
+     * @param data the indexed data, at the same offset and length as it was
+     *  indexed.
+     *
+     * @return a new reader instance.
+     * Callers must call {@link IonReader#close()} when finished with it.
+     *
+     * @throws IndexOutOfBoundsException if the records aren't in the index,
+     *  or extend past the end of the data.
+     * @throws IllegalArgumentException if the reader built over the data
+     *  isn't seekable, as when the data is GZIP-compressed.
+     *
+     * @see #newRangeReader(IonReaderBuilder, byte[], int, int, long, long)
+     */
+    public IonReader newReader(IonReaderBuilder builder,
+                               byte[] data, int offset, int length,
+                               int fromRecord, int toRecord)
+    {
+        if (fromRecord < 0 || toRecord > mySize || fromRecord > toRecord)
+        {
+            throw new IndexOutOfBoundsException("Records [" + fromRecord
+                                                + ", " + toRecord + ") of "
+                                                + mySize);
+        }
+        if (fromRecord < toRecord && getFinishOffset(toRecord - 1) > length)
+        {
+            throw new IndexOutOfBoundsException("Record " + (toRecord - 1)
+                                                + " finishes past the end of "
+                                                + length + " bytes of data");
+        }
+
+        IonReader reader = builder.build(data, offset, length);
+        SeekableReader seekable = reader.asFacet(SeekableReader.class);
+        if (seekable == null)
+        {
+            try
+            {
+                reader.close();
+            }
+            catch (IOException e)
+            {
+                // Nothing was read, so there's nothing to lose.
+            }
+            throw new IllegalArgumentException(
+                "The builder's readers aren't seekable");
+        }
+        if (fromRecord == toRecord)
+        {
+            seekable.hoist(newBinarySpan(0, 0, systemSymtab(1)));
+        }
+        else
+        {
+            seekable.hoist(newBinarySpan(getStartOffset(fromRecord),
+                                         getFinishOffset(toRecord - 1),
+                                         getSymbolTable(fromRecord)));
+        }
+        return reader;
+    }
+
+    /**
+     * Creates a reader over the records lying entirely within a range of
+     * offsets in the indexed data. Unlike
+     * {@link #newReader(IonReaderBuilder, byte[], int, int, int, int)},
+     * this takes byte offsets rather than record numbers.
+     *
+     * @param startOffset the offset at which the range starts, relative to
+     *  the start of the indexed data.
+     * @param finishOffset the offset at which the range ends.
+     *
+     * @see #newReader(IonReaderBuilder, byte[], int, int, int, int)
+     */
+    public IonReader newRangeReader(IonReaderBuilder builder,
+                                    byte[] data, int offset, int length,
+                                    long startOffset, long finishOffset)
+    {
+        int from = findRecord(startOffset);
+        int to = Math.max(from, findRecordFinishingAfter(finishOffset));
+        return newReader(builder, data, offset, length, from, to);
+    }
+
+
+    /**
+     * Writes this index as a single Ion value.
+     *
+     * @param writer must not be null.
+     */
+    public void writeTo(IonWriter writer)
+        throws IOException
+    {
+        writer.setTypeAnnotations(INDEX_ANNOTATION);
+        writer.stepIn(IonType.STRUCT);
+        {
+            writer.setFieldName(VERSION);
+            writer.writeInt(CURRENT_VERSION);
+
+            writer.setFieldName(SYMBOL_TABLES);
+            writer.stepIn(IonType.LIST);
+            for (SymbolTable symbols : mySymbolTables)
+            {
+                if (symbols.isSystemTable())
+                {
+                    writer.writeNull(IonType.STRUCT);
+                }
+                else
+                {
+                    symbols.writeTo(writer);
+                }
+            }
+            writer.stepOut();
+
+            writer.setFieldName(SYMBOL_TABLE_STARTS);
+            writer.stepIn(IonType.LIST);
+            for (int start : mySymbolTableStarts)
+            {
+                writer.writeInt(start);
+            }
+            writer.stepOut();
+
+            // Records are usually contiguous, so most gaps take a byte.
+            writer.setFieldName(GAPS);
+            writer.stepIn(IonType.LIST);
+            long previousFinish = 0;
+            for (int i = 0; i < mySize; i++)
+            {
+                writer.writeInt(myStarts[i] - previousFinish);
+                previousFinish = myStarts[i] + myLengths[i];
+            }
+            writer.stepOut();
+
+            writer.setFieldName(LENGTHS);
+            writer.stepIn(IonType.LIST);
+            for (int i = 0; i < mySize; i++)
+            {
+                writer.writeInt(myLengths[i]);
+            }
+            writer.stepOut();
+        }
+        writer.stepOut();
+    }
+
+    /**
+     * Reads an index written by {@link #writeTo}.
+     *
+     * @param reader positioned on the index value. Must not be null.
+     * @param catalog resolves the shared symbol tables imported by the
+     *  indexed data's local symbol tables. Must not be null.
+     *
+     * @return the index; not null.
+     *
+     * @throws IonException if the value isn't a valid index, as when its
+     *  records overlap or are out of order, or its symbol tables don't
+     *  start at ascending records within it.
+     */
+    public static IonOffsetIndex read(IonReader reader, IonCatalog catalog)
+    {
+        if (reader.getType() != IonType.STRUCT || reader.isNullValue()
+            || ! Arrays.asList(reader.getTypeAnnotations()).contains(INDEX_ANNOTATION))
+        {
+            throw new IonException("Not an offset index");
+        }
+
+        int version = -1;
+        List<SymbolTable> symbolTables = new ArrayList<SymbolTable>();
+        List<Integer> symbolTableStarts = new ArrayList<Integer>();
+        long[] starts = null;
+        int[] lengths = null;
+        int gapCount = 0;
+        int lengthCount = 0;
+
+        reader.stepIn();
+        while (reader.next() != null)
+        {
+            String field = reader.getFieldName();
+            if (VERSION.equals(field))
+            {
+                version = reader.intValue();
+            }
+            else if (SYMBOL_TABLES.equals(field))
+            {
+                reader.stepIn();
+                while (reader.next() != null)
+                {
+                    symbolTables.add(reader.isNullValue()
+                                     ? systemSymtab(1)
+                                     : readLocalSymbolTable(catalog, reader));
+                }
+                reader.stepOut();
+            }
+            else if (SYMBOL_TABLE_STARTS.equals(field))
+            {
+                reader.stepIn();
+                while (reader.next() != null)
+                {
+                    symbolTableStarts.add(reader.intValue());
+                }
+                reader.stepOut();
+            }
+            else if (GAPS.equals(field))
+            {
+                starts = new long[16];
+                gapCount = 0;
+                reader.stepIn();
+                while (reader.next() != null)
+                {
+                    if (gapCount == starts.length)
+                    {
+                        starts = copyOf(starts, gapCount * 2);
+                    }
+                    // Holds gaps until the lengths are known.
+                    starts[gapCount++] = reader.longValue();
+                }
+                reader.stepOut();
+            }
+            else if (LENGTHS.equals(field))
+            {
+                lengths = new int[16];
+                lengthCount = 0;
+                reader.stepIn();
+                while (reader.next() != null)
+                {
+                    if (lengthCount == lengths.length)
+                    {
+                        lengths = copyOf(lengths, lengthCount * 2);
+                    }
+                    lengths[lengthCount++] = reader.intValue();
+                }
+                reader.stepOut();
+            }
+        }
+        reader.stepOut();
+
+        if (version != CURRENT_VERSION)
+        {
+            throw new IonException("Unsupported offset index version: " + version);
+        }
+        int size = gapCount;
+        if (starts == null || lengths == null || gapCount != lengthCount
+            || symbolTables.size() != symbolTableStarts.size()
+            || (size != 0 && (symbolTables.isEmpty() || symbolTableStarts.get(0) != 0)))
+        {
+            throw new IonException("Malformed offset index");
+        }
+
+        for (int i = 0; i < symbolTableStarts.size(); i++)
+        {
+            int start = symbolTableStarts.get(i);
+            if (start >= size || (i > 0 && start <= symbolTableStarts.get(i - 1)))
+            {
+                throw new IonException("Malformed offset index: symbol table "
+                                       + i + " starts at record " + start);
+            }
+        }
+
+        // Indexed data is held in a byte array, so no offset exceeds an int.
+        long previousFinish = 0;
+        for (int i = 0; i < size; i++)
+        {
+            if (starts[i] < 0 || lengths[i] <= 0
+                || starts[i] > Integer.MAX_VALUE - previousFinish - lengths[i])
+            {
+                throw new IonException("Malformed offset index: record " + i
+                                       + " is out of range");
+            }
+            starts[i] += previousFinish;
+            previousFinish = starts[i] + lengths[i];
+        }
+
+        return new IonOffsetIndex(starts, lengths, size,
+                                  toIntArray(symbolTableStarts),
+                                  symbolTables.toArray(new SymbolTable[symbolTables.size()]));
+    }
+}
@@ -0,0 +1,495 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static com.amazon.ion.SymbolTable.UNKNOWN_SYMBOL_ID;
+import static com.amazon.ion.impl._Private_Utils.copyOf;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.SymbolTable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads selected values out of an Ion stream by their paths, without
+ * materializing anything else.
+ * <p>
+ * Search paths are registered with a {@link Builder}, each with a
+ * {@link Callback} that's invoked with the reader positioned on every value
+ * the path matches. {@link #match(IonReader)} then walks the stream, stepping
+ * into a container only if some search path may match beneath it; everything
+ * else is passed over by {@link IonReader#next()}, which skips binary values
+ * by their lengths and scans over text containers without parsing them.
+ * <p>
+ * A path is relative to each top-level value and consists of steps separated
+ * by {@code '.'}:
+ * <ul>
+ *   <li>{@code name} matches the struct field with that name. Names
+ *   containing {@code '.'}, {@code '['}, {@code ']'} or {@code '\''} must be
+ *   quoted with {@code '\''}, with {@code '\\'} escaping the next
+ *   character.</li>
+ *   <li>{@code *} matches every field of a struct.</li>
+ *   <li>{@code [n]} matches the child at (zero-based) index {@code n} of any
+ *   container.</li>
+ *   <li>{@code [*]} matches every child of any container.</li>
+ * </ul>
+ * For example, {@code order.items[*].sku} matches the {@code sku} field of
+ * each element of the {@code items} field of the {@code order} field. Index
+ * steps may follow a name without a separator. The empty path matches each
+ * top-level value itself.
+ * <p>
+ * Field names are compared by symbol ID where the reader provides one,
+ * resolving each ID's text only the first time it's seen with a given
+ * symbol table.
+ * <p>
+ * Instances are immutable and thread-safe, as long as the callbacks are.
+ */
+public final class IonPathExtractor
+{
+    /**
+     * Receives the values matched by a search path.
+     */
+    public interface Callback
+    {
+        /**
+         * Handles a matched value.
+         * <p>
+         * The callback may read the value, including stepping into and out
+         * of it, but must leave the reader at the same depth. It shouldn't
+         * step into a container that other search paths extend beneath,
+         * since those paths won't then be matched in it.
+         *
+         * @param reader positioned on the matched value.
+         */
+        void onMatch(IonReader reader);
+    }
+
+
+    /**
+     * Collects search paths for an {@link IonPathExtractor}.
+     */
+    public static final class Builder
+    {
+        private final List<List<Object>> myPaths = new ArrayList<List<Object>>();
+        private final List<Callback>     myCallbacks = new ArrayList<Callback>();
+
+        private Builder() {}
+
+        /**
+         * Registers a search path.
+         *
+         * @param path the path to match, in the syntax described by
+         *  {@link IonPathExtractor}. Must not be null.
+         * @param callback invoked with each match. Must not be null.
+         *
+         * @return this builder.
+         *
+         * @throws IllegalArgumentException if the path is malformed, or
+         *  {@value IonPathExtractor#MAX_SEARCH_PATHS} paths are already registered.
+         */
+        public Builder withSearchPath(String path, Callback callback)
+        {
+            if (callback == null)
+            {
+                throw new NullPointerException("callback");
+            }
+            if (myPaths.size() == MAX_SEARCH_PATHS)
+            {
+                throw new IllegalArgumentException("At most " + MAX_SEARCH_PATHS
+                                                   + " search paths are supported");
+            }
+            myPaths.add(parse(path));
+            myCallbacks.add(callback);
+            return this;
+        }
+
+        /**
+         * @return a new extractor for the search paths registered so far.
+         */
+        public IonPathExtractor build()
+        {
+            return new IonPathExtractor(myPaths, myCallbacks);
+        }
+    }
+
+    /**
+     * Creates a builder with no search paths.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+
+    /** Search paths are tracked as bits of a {@code long}. */
+    public static final int MAX_SEARCH_PATHS = 64;
+
+    /** A step matching any child; steps are otherwise Strings or Integers. */
+    private static final Object ANY = new Object();
+    /** A step matching any field of a struct. */
+    private static final Object ANY_FIELD = new Object();
+
+    private final Callback[] myCallbacks;
+    /** The paths that are complete at each depth. */
+    private final long[] myCompleteAt;
+    /** The paths that extend below each depth. */
+    private final long[] myLongerThan;
+    /** The paths whose step at each depth matches any field of a struct. */
+    private final long[] myAnyField;
+    /** The paths whose step at each depth matches any child. */
+    private final long[] myAnyChild;
+    /** The paths whose step at each depth is each name, by name ID. */
+    private final long[][] myNameSteps;
+    /** The indexes of the index steps at each depth. */
+    private final int[][] myIndexes;
+    /** The paths with each of those index steps. */
+    private final long[][] myIndexSteps;
+    /** Every name in a name step. */
+    private final Map<String, Integer> myNameIds;
+
+
+    private IonPathExtractor(List<List<Object>> paths, List<Callback> callbacks)
+    {
+        int maxDepth = 0;
+        for (List<Object> path : paths)
+        {
+            maxDepth = Math.max(maxDepth, path.size());
+        }
+
+        myCallbacks = callbacks.toArray(new Callback[callbacks.size()]);
+        myCompleteAt = new long[maxDepth + 1];
+        myLongerThan = new long[maxDepth + 1];
+        myAnyField = new long[maxDepth];
+        myAnyChild = new long[maxDepth];
+        myNameSteps = new long[maxDepth][];
+        myIndexes = new int[maxDepth][];
+        myIndexSteps = new long[maxDepth][];
+        myNameIds = new HashMap<String, Integer>();
+
+        for (List<Object> path : paths)
+        {
+            for (Object step : path)
+            {
+                if (step instanceof String && ! myNameIds.containsKey(step))
+                {
+                    myNameIds.put((String) step, myNameIds.size());
+                }
+            }
+        }
+
+        for (int p = 0; p < paths.size(); p++)
+        {
+            long bit = 1L << p;
+            List<Object> path = paths.get(p);
+            myCompleteAt[path.size()] |= bit;
+            for (int depth = 0; depth < path.size(); depth++)
+            {
+                myLongerThan[depth] |= bit;
+                Object step = path.get(depth);
+                if (step == ANY)
+                {
+                    myAnyChild[depth] |= bit;
+                }
+                else if (step == ANY_FIELD)
+                {
+                    myAnyField[depth] |= bit;
+                }
+                else if (step instanceof String)
+                {
+                    if (myNameSteps[depth] == null)
+                    {
+                        myNameSteps[depth] = new long[myNameIds.size()];
+                    }
+                    myNameSteps[depth][myNameIds.get(step)] |= bit;
+                }
+                else
+                {
+                    addIndexStep(depth, (Integer) step, bit);
+                }
+            }
+        }
+    }
+
+    private void addIndexStep(int depth, int index, long bit)
+    {
+        int[] indexes = myIndexes[depth];
+        if (indexes == null)
+        {
+            myIndexes[depth] = new int[] { index };
+            myIndexSteps[depth] = new long[] { bit };
+            return;
+        }
+        for (int i = 0; i < indexes.length; i++)
+        {
+            if (indexes[i] == index)
+            {
+                myIndexSteps[depth][i] |= bit;
+                return;
+            }
+        }
+        myIndexes[depth] = copyOf(indexes, indexes.length + 1);
+        myIndexes[depth][indexes.length] = index;
+        myIndexSteps[depth] = copyOf(myIndexSteps[depth], indexes.length + 1);
+        myIndexSteps[depth][indexes.length] = bit;
+    }
+
+
+    /**
+     * Reads the rest of the reader's current sequence, invoking the callbacks
+     * for every matching value.
+     * <p>
+     * The reader is usually positioned at the top level, but needn't be:
+     * paths are relative to the values of whatever sequence it's in.
+     *
+     * @param reader must not be null.
+     */
+    public void match(IonReader reader)
+    {
+        Matcher matcher = new Matcher(reader);
+        long all = (myCallbacks.length == 64 ? -1L : (1L << myCallbacks.length) - 1);
+        while (reader.next() != null)
+        {
+            matcher.matchValue(all, 0);
+        }
+    }
+
+
+    /** The state of a single call to {@link #match}. */
+    private final class Matcher
+    {
+        private final IonReader reader;
+        /** The table that {@link #nameIdsBySid} applies to. */
+        private SymbolTable symbols;
+        /**
+         * The name ID of each symbol ID of {@link #symbols}, offset by two:
+         * zero means not yet resolved, and one means no name.
+         */
+        private int[] nameIdsBySid = new int[0];
+
+        Matcher(IonReader reader)
+        {
+            this.reader = reader;
+        }
+
+        /**
+         * @param active the paths matched down to this value.
+         * @param depth the number of steps matched.
+         */
+        void matchValue(long active, int depth)
+        {
+            long complete = active & myCompleteAt[depth];
+            while (complete != 0)
+            {
+                int p = Long.numberOfTrailingZeros(complete);
+                complete &= complete - 1;
+                int readerDepth = reader.getDepth();
+                myCallbacks[p].onMatch(reader);
+                if (reader.getDepth() != readerDepth)
+                {
+                    throw new IllegalStateException("Callback for search path " + p
+                                                    + " didn't return the reader to depth "
+                                                    + readerDepth);
+                }
+            }
+
+            long deeper = active & myLongerThan[depth];
+            if (deeper == 0) return;
+
+            IonType type = reader.getType();
+            if (! IonType.isContainer(type) || reader.isNullValue()) return;
+
+            boolean inStruct = (type == IonType.STRUCT);
+            long anyChild = deeper & myAnyChild[depth];
+            long anyField = (inStruct ? deeper & myAnyField[depth] : 0);
+            long[] nameSteps = (inStruct ? myNameSteps[depth] : null);
+            int[] indexes = myIndexes[depth];
+
+            reader.stepIn();
+            for (int index = 0; reader.next() != null; index++)
+            {
+                long matched = anyChild | anyField;
+                if (nameSteps != null)
+                {
+                    int nameId = nameId();
+                    if (nameId >= 0)
+                    {
+                        matched |= nameSteps[nameId];
+                    }
+                }
+                if (indexes != null)
+                {
+                    for (int i = 0; i < indexes.length; i++)
+                    {
+                        if (indexes[i] == index)
+                        {
+                            matched |= myIndexSteps[depth][i];
+                        }
+                    }
+                }
+                matched &= deeper;
+                if (matched != 0)
+                {
+                    matchValue(matched, depth + 1);
+                }
+            }
+            reader.stepOut();
+        }
+
+        /**
+         * Finds the name ID of the current field name.
+         *
+         * @return the ID, or -1 if it isn't the name of any step.
+         */
+        @SuppressWarnings("deprecation")
+        private int nameId()
+        {
+            int sid = reader.getFieldId();
+            if (sid == UNKNOWN_SYMBOL_ID)
+            {
+                return lookupName();
+            }
+
+            SymbolTable current = reader.getSymbolTable();
+            if (current != symbols)
+            {
+                symbols = current;
+                nameIdsBySid = new int[Math.max(16, current.getMaxId() + 1)];
+            }
+            if (sid >= nameIdsBySid.length)
+            {
+                // Not declared by the table, so there may be no text.
+                return lookupName();
+            }
+            int cached = nameIdsBySid[sid];
+            if (cached == 0)
+            {
+                cached = lookupName() + 2;
+                nameIdsBySid[sid] = cached;
+            }
+            return cached - 2;
+        }
+
+        private int lookupName()
+        {
+            String name = reader.getFieldName();
+            if (name == null) return -1;
+            Integer id = myNameIds.get(name);
+            return (id == null ? -1 : id);
+        }
+    }
+
+
+    //=========================================================================
+    // Path parsing
+
+    private static List<Object> parse(String path)
+    {
+        List<Object> steps = new ArrayList<Object>();
+        int length = path.length();
+        int i = 0;
+        while (i < length)
+        {
+            char c = path.charAt(i);
+            if (c == '[')
+            {
+                int close = path.indexOf(']', i);
+                if (close < 0)
+                {
+                    throw badPath(path, "unclosed '['");
+                }
+                String index = path.substring(i + 1, close);
+                if ("*".equals(index))
+                {
+                    steps.add(ANY);
+                }
+                else
+                {
+                    try
+                    {
+                        int n = Integer.parseInt(index);
+                        if (n < 0) throw badPath(path, "negative index");
+                        steps.add(n);
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        throw badPath(path, "invalid index '" + index + "'");
+                    }
+                }
+                i = close + 1;
+            }
+            else
+            {
+                if (! steps.isEmpty())
+                {
+                    if (c != '.')
+                    {
+                        throw badPath(path, "expected '.' at " + i);
+                    }
+                    i++;
+                }
+                StringBuilder name = new StringBuilder();
+                boolean quoted = (i < length && path.charAt(i) == '\'');
+                if (quoted)
+                {
+                    i++;
+                    for (;;)
+                    {
+                        if (i >= length)
+                        {
+                            throw badPath(path, "unclosed quote");
+                        }
+                        c = path.charAt(i++);
+                        if (c == '\'') break;
+                        if (c == '\\')
+                        {
+                            if (i >= length)
+                            {
+                                throw badPath(path, "unclosed quote");
+                            }
+                            c = path.charAt(i++);
+                        }
+                        name.append(c);
+                    }
+                }
+                else
+                {
+                    while (i < length && ".[]'".indexOf(path.charAt(i)) < 0)
+                    {
+                        name.append(path.charAt(i++));
+                    }
+                    if (name.length() == 0)
+                    {
+                        throw badPath(path, "empty field name at " + i);
+                    }
+                }
+                // A quoted '*' is a name, not a wildcard.
+                steps.add(! quoted && "*".equals(name.toString())
+                          ? ANY_FIELD
+                          : name.toString());
+            }
+        }
+        return steps;
+    }
+
+    private static IllegalArgumentException badPath(String path, String problem)
+    {
+        return new IllegalArgumentException("Invalid search path \"" + path
+                                            + "\": " + problem);
+    }
+}
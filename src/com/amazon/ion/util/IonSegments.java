@@ -0,0 +1,338 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static com.amazon.ion.impl._Private_Utils.newBinarySegmentSpan;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.OffsetSpan;
+import com.amazon.ion.SeekableReader;
+import com.amazon.ion.Span;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Utility methods for reading large Ion binary buffers in independent
+ * segments, so that they can be processed in parallel.
+ * <p>
+ * Because every top-level binary value starts with its length, a first pass
+ * over the buffer can step from value to value without decoding their content.
+ * {@link #split} makes that pass and divides the top-level values into
+ * contiguous {@link Segment}s, recording the symbol table in effect at the
+ * start of each one. Each segment can then be read by its own reader, on any
+ * thread, with the same results as reading that part of the buffer in
+ * sequence; {@link #process} does so on an {@link ExecutorService}.
+ * <p>
+ * Only Ion binary data held in a byte array is supported.
+ */
+public final class IonSegments
+{
+    private IonSegments() {}
+
+
+    /**
+     * A contiguous run of top-level values within a buffer of Ion binary data,
+     * along with the symbol table context needed to read them.
+     * <p>
+     * Segments are immutable and may be shared between threads, provided the
+     * buffer isn't modified.
+     */
+    public static final class Segment
+    {
+        private final IonReaderBuilder myBuilder;
+        private final byte[]           myData;
+        private final int              myOffset;
+        private final int              myLength;
+        private final Span             mySpan;
+        private final int              myValueCount;
+
+        private Segment(IonReaderBuilder builder, byte[] data, int offset,
+                        int length, Span span, int valueCount)
+        {
+            myBuilder = builder;
+            myData = data;
+            myOffset = offset;
+            myLength = length;
+            mySpan = span;
+            myValueCount = valueCount;
+        }
+
+        /**
+         * Gets the offset of the first byte of the segment, relative to the
+         * start of the data given to {@link IonSegments#split}.
+         */
+        public long getStartOffset()
+        {
+            return ((OffsetSpan) mySpan).getStartOffset();
+        }
+
+        /**
+         * Gets the offset of the byte following the segment, relative to the
+         * start of the data given to {@link IonSegments#split}.
+         */
+        public long getFinishOffset()
+        {
+            return ((OffsetSpan) mySpan).getFinishOffset();
+        }
+
+        /**
+         * Gets the number of top-level user values in the segment.
+         */
+        public int getValueCount()
+        {
+            return myValueCount;
+        }
+
+        /**
+         * Creates a reader over the top-level values of this segment.
+         * It's positioned before the first value, and reaches the end of its
+         * input after the last.
+         *
+         * @return a new reader instance.
+         * Callers must call {@link IonReader#close()} when finished with it.
+         */
+        public IonReader newReader()
+        {
+            IonReader reader = myBuilder.build(myData, myOffset, myLength);
+            SeekableReader seekable = reader.asFacet(SeekableReader.class);
+            seekable.hoist(mySpan);
+            return reader;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Segment[" + getStartOffset() + ", " + getFinishOffset()
+                 + ") of " + myValueCount + " values";
+        }
+    }
+
+
+    /**
+     * Processes the values of one {@link Segment}.
+     *
+     * @param <T> the type of result.
+     */
+    public interface SegmentProcessor<T>
+    {
+        /**
+         * Reads the values of a segment.
+         * The reader is closed after this method returns.
+         *
+         * @param segment the segment being processed.
+         * @param reader a new reader, positioned before the segment's first
+         *  value.
+         *
+         * @return the result for the segment; may be null.
+         */
+        T process(Segment segment, IonReader reader)
+            throws Exception;
+    }
+
+
+    /**
+     * Divides a buffer of Ion binary data into segments of roughly the given
+     * size, each consisting of whole top-level values.
+     * <p>
+     * Segments only break before user values: symbol tables and version
+     * markers are part of the segment they precede, or the last segment if
+     * they trail the data. A segment ends after the first value that brings it
+     * to the target size, so a value larger than the target has a segment of
+     * its own.
+     *
+     * @param builder configures the readers used to split and to read the
+     *  segments. Must not be null.
+     * @param data the Ion binary data. Must not be null, and must not be
+     *  modified while any segment is in use.
+     * @param offset the position of the data in the buffer.
+     * @param length the number of bytes of data.
+     * @param targetSegmentSize the number of bytes at which to end a segment.
+     *  Must be positive.
+     *
+     * @return the segments, in order of their position in the data; empty if
+     *  the data contains no user values.
+     *
+     * @throws IllegalArgumentException if the data is neither empty nor Ion
+     *  binary, or the target size isn't positive.
+     */
+    public static List<Segment> split(IonReaderBuilder builder,
+                                      byte[] data, int offset, int length,
+                                      int targetSegmentSize)
+    {
+        if (targetSegmentSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid target segment size: "
+                                               + targetSegmentSize);
+        }
+        if (length == 0)
+        {
+            return Collections.emptyList();
+        }
+        if (! IonStreamUtils.isIonBinary(data, offset, length))
+        {
+            throw new IllegalArgumentException("Data isn't Ion binary");
+        }
+
+        List<Segment> segments = new ArrayList<Segment>();
+        IonReader reader = builder.build(data, offset, length);
+        try
+        {
+            SpanProvider spans = reader.asFacet(SpanProvider.class);
+            if (spans == null || reader.asFacet(SeekableReader.class) == null)
+            {
+                throw new IllegalArgumentException("Data isn't seekable Ion binary");
+            }
+
+            Span start = null;
+            long startOffset = 0;
+            long finishOffset = 0;
+            int valueCount = 0;
+            while (reader.next() != null)
+            {
+                OffsetSpan span = (OffsetSpan) spans.currentSpan();
+                if (start == null)
+                {
+                    start = (Span) span;
+                    startOffset = span.getStartOffset();
+                }
+                else if (span.getStartOffset() - startOffset >= targetSegmentSize)
+                {
+                    Span segment = newBinarySegmentSpan(start, span.getStartOffset());
+                    segments.add(new Segment(builder, data, offset, length,
+                                             segment, valueCount));
+                    start = (Span) span;
+                    startOffset = span.getStartOffset();
+                    valueCount = 0;
+                }
+                finishOffset = span.getFinishOffset();
+                valueCount++;
+            }
+            if (start != null)
+            {
+                Span segment = newBinarySegmentSpan(start, finishOffset);
+                segments.add(new Segment(builder, data, offset, length,
+                                         segment, valueCount));
+            }
+        }
+        finally
+        {
+            closeQuietly(reader);
+        }
+        return Collections.unmodifiableList(segments);
+    }
+
+
+    /**
+     * Processes each segment with its own reader, as tasks on the given
+     * executor, and waits for them all to complete.
+     * <p>
+     * If any task fails, the remaining tasks are cancelled and the first
+     * failure (in segment order) is rethrown: unchecked exceptions as-is,
+     * others wrapped in an {@link IonException}.
+     *
+     * @param segments the segments to process. Must not be null.
+     * @param executor runs the tasks. Must not be null.
+     * @param processor processes the segments, concurrently.
+     *  Must not be null.
+     *
+     * @return the processors' results, in the same order as the segments.
+     *
+     * @throws IonException if a processor throws a checked exception, or the
+     *  calling thread is interrupted while waiting.
+     */
+    public static <T> List<T> process(List<Segment> segments,
+                                      ExecutorService executor,
+                                      final SegmentProcessor<T> processor)
+    {
+        List<Future<T>> futures = new ArrayList<Future<T>>(segments.size());
+        try
+        {
+            for (final Segment segment : segments)
+            {
+                futures.add(executor.submit(new Callable<T>()
+                {
+                    public T call() throws Exception
+                    {
+                        IonReader reader = segment.newReader();
+                        try
+                        {
+                            return processor.process(segment, reader);
+                        }
+                        finally
+                        {
+                            reader.close();
+                        }
+                    }
+                }));
+            }
+
+            List<T> results = new ArrayList<T>(futures.size());
+            for (Future<T> future : futures)
+            {
+                results.add(future.get());
+            }
+            return results;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IonException(e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new IonException(cause);
+        }
+        finally
+        {
+            // No-op for tasks that are done.
+            for (Future<T> future : futures)
+            {
+                future.cancel(true);
+            }
+        }
+    }
+
+
+    private static void closeQuietly(IonReader reader)
+    {
+        try
+        {
+            reader.close();
+        }
+        catch (IOException e)
+        {
+            // Nothing was written, so there's nothing to lose.
+        }
+    }
+}
@@ -18,10 +18,14 @@ package com.amazon.ion.util;
 import static com.amazon.ion.impl._Private_IonConstants.BINARY_VERSION_MARKER_1_0;
 import static com.amazon.ion.util.GzipOrRawInputStream.GZIP_HEADER;
 
+import com.amazon.ion.IntegerSize;
+import com.amazon.ion.IonException;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonWriter;
+import com.amazon.ion.PrimitiveArrayReader;
 import com.amazon.ion.impl._Private_ListWriter;
+import com.amazon.ion.impl._Private_PrimitiveListWriter;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -138,8 +142,8 @@ public class IonStreamUtils
     public static void writeBoolList(IonWriter writer, boolean[] values)
         throws IOException
     {
-        if (writer instanceof _Private_ListWriter) {
-            ((_Private_ListWriter)writer).writeBoolList(values);
+        if (writer instanceof _Private_PrimitiveListWriter) {
+            ((_Private_PrimitiveListWriter)writer).writeBoolList(values);
             return;
         }
 
@@ -163,8 +167,8 @@ public class IonStreamUtils
     public static void writeFloatList(IonWriter writer, float[] values)
         throws IOException
     {
-        if (writer instanceof _Private_ListWriter) {
-            ((_Private_ListWriter)writer).writeFloatList(values);
+        if (writer instanceof _Private_PrimitiveListWriter) {
+            ((_Private_PrimitiveListWriter)writer).writeFloatList(values);
             return;
         }
 
@@ -186,8 +190,8 @@ public class IonStreamUtils
     public static void writeFloatList(IonWriter writer, double[] values)
         throws IOException
     {
-        if (writer instanceof _Private_ListWriter) {
-            ((_Private_ListWriter)writer).writeFloatList(values);
+        if (writer instanceof _Private_PrimitiveListWriter) {
+            ((_Private_PrimitiveListWriter)writer).writeFloatList(values);
             return;
         }
 
@@ -210,8 +214,8 @@ public class IonStreamUtils
     public static void writeIntList(IonWriter writer, byte[] values)
         throws IOException
     {
-        if (writer instanceof _Private_ListWriter) {
-            ((_Private_ListWriter)writer).writeIntList(values);
+        if (writer instanceof _Private_PrimitiveListWriter) {
+            ((_Private_PrimitiveListWriter)writer).writeIntList(values);
             return;
         }
 
@@ -233,8 +237,8 @@ public class IonStreamUtils
     public static void writeIntList(IonWriter writer, short[] values)
         throws IOException
     {
-        if (writer instanceof _Private_ListWriter) {
-            ((_Private_ListWriter)writer).writeIntList(values);
+        if (writer instanceof _Private_PrimitiveListWriter) {
+            ((_Private_PrimitiveListWriter)writer).writeIntList(values);
             return;
         }
 
@@ -256,8 +260,8 @@ public class IonStreamUtils
     public static void writeIntList(IonWriter writer, int[] values)
         throws IOException
     {
-        if (writer instanceof _Private_ListWriter) {
-            ((_Private_ListWriter)writer).writeIntList(values);
+        if (writer instanceof _Private_PrimitiveListWriter) {
+            ((_Private_PrimitiveListWriter)writer).writeIntList(values);
             return;
         }
 
@@ -279,8 +283,8 @@ public class IonStreamUtils
     public static void writeIntList(IonWriter writer, long[] values)
         throws IOException
     {
-        if (writer instanceof _Private_ListWriter) {
-            ((_Private_ListWriter)writer).writeIntList(values);
+        if (writer instanceof _Private_PrimitiveListWriter) {
+            ((_Private_PrimitiveListWriter)writer).writeIntList(values);
             return;
         }
 
@@ -314,4 +318,146 @@ public class IonStreamUtils
         }
         writer.stepOut();
     }
+
+
+    //=========================================================================
+
+
+    /**
+     * reads a run of IonInt values into an array.  This is the
+     * reading counterpart of {@link #writeIntList(IonWriter, long[])},
+     * typically called after stepping into the list.  Values are
+     * read until {@code length} have been read or until a value
+     * that isn't a non-null int that fits in a long is reached,
+     * which is left as the reader's current value.  Readers with
+     * the {@link PrimitiveArrayReader} facet, such as the binary
+     * reader, decode the run in bulk, for other readers this is
+     * just a convienience.
+     * @param dst the array to fill
+     * @param offset the index in dst of the first value read
+     * @param length the maximum number of values to read
+     * @return the number of values read
+     * @throws IonException if a value of the array's type is
+     * annotated, since its annotations would be lost.
+     * @throws IllegalStateException if the reader is in a struct,
+     * since the field names would be lost.
+     * @see PrimitiveArrayReader#readLongs(long[], int, int)
+     */
+    public static int readLongs(IonReader reader, long[] dst,
+                                int offset, int length)
+    {
+        PrimitiveArrayReader bulk =
+            reader.asFacet(PrimitiveArrayReader.class);
+        if (bulk != null) {
+            return onRunEnd(reader, length, bulk.readLongs(dst, offset, length));
+        }
+
+        checkRun(reader, dst.length, offset, length);
+        int count = 0;
+        while (count < length
+               && isRunValue(reader, IonType.INT)
+               && fitsInLong(reader)) {
+            dst[offset + count++] = reader.longValue();
+        }
+        return count;
+    }
+
+    /**
+     * reads a run of IonFloat values into an array.  This is the
+     * reading counterpart of {@link #writeFloatList(IonWriter, double[])}
+     * and behaves as {@link #readLongs} does, stopping at the
+     * first value that isn't a non-null float.
+     * @param dst the array to fill
+     * @param offset the index in dst of the first value read
+     * @param length the maximum number of values to read
+     * @return the number of values read
+     * @see PrimitiveArrayReader#readDoubles(double[], int, int)
+     */
+    public static int readDoubles(IonReader reader, double[] dst,
+                                  int offset, int length)
+    {
+        PrimitiveArrayReader bulk =
+            reader.asFacet(PrimitiveArrayReader.class);
+        if (bulk != null) {
+            return onRunEnd(reader, length, bulk.readDoubles(dst, offset, length));
+        }
+
+        checkRun(reader, dst.length, offset, length);
+        int count = 0;
+        while (count < length
+               && isRunValue(reader, IonType.FLOAT)) {
+            dst[offset + count++] = reader.doubleValue();
+        }
+        return count;
+    }
+
+    /**
+     * reads a run of IonBool values into an array.  This is the
+     * reading counterpart of {@link #writeBoolList(IonWriter, boolean[])}
+     * and behaves as {@link #readLongs} does, stopping at the
+     * first value that isn't a non-null bool.
+     * @param dst the array to fill
+     * @param offset the index in dst of the first value read
+     * @param length the maximum number of values to read
+     * @return the number of values read
+     * @see PrimitiveArrayReader#readBooleans(boolean[], int, int)
+     */
+    public static int readBooleans(IonReader reader, boolean[] dst,
+                                   int offset, int length)
+    {
+        PrimitiveArrayReader bulk =
+            reader.asFacet(PrimitiveArrayReader.class);
+        if (bulk != null) {
+            return onRunEnd(reader, length, bulk.readBooleans(dst, offset, length));
+        }
+
+        checkRun(reader, dst.length, offset, length);
+        int count = 0;
+        while (count < length
+               && isRunValue(reader, IonType.BOOL)) {
+            dst[offset + count++] = reader.booleanValue();
+        }
+        return count;
+    }
+
+    private static boolean fitsInLong(IonReader reader)
+    {
+        // Some readers size large values conservatively, so double check.
+        return reader.getIntegerSize() != IntegerSize.BIG_INTEGER
+            || reader.bigIntegerValue().bitLength() < 64;
+    }
+
+    /**
+     * The facet leaves the value that ends a run unread, so step onto it
+     * as the other readers do.
+     */
+    private static int onRunEnd(IonReader reader, int length, int count)
+    {
+        if (count < length) {
+            reader.next();
+        }
+        return count;
+    }
+
+    private static boolean isRunValue(IonReader reader, IonType type)
+    {
+        if (reader.next() != type || reader.isNullValue()) {
+            return false;
+        }
+        if (reader.getTypeAnnotationSymbols().length > 0) {
+            throw new IonException("annotated values can't be read into an array");
+        }
+        return true;
+    }
+
+    private static void checkRun(IonReader reader, int arrayLength,
+                                 int offset, int length)
+    {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IllegalArgumentException();
+        }
+        if (reader.isInStruct()) {
+            throw new IllegalStateException("field values can't be read into an array");
+        }
+    }
 }
@@ -65,20 +65,34 @@ import com.amazon.ion.ValueFactorySequenceTest;
 import com.amazon.ion.facet.FacetsTest;
 import com.amazon.ion.impl.ByteBufferTest;
 import com.amazon.ion.impl.CharacterReaderTest;
+import com.amazon.ion.impl.DoubleFormatterTest;
+import com.amazon.ion.impl.DoubleParserTest;
+import com.amazon.ion.impl.IonReaderTextNumericTest;
+import com.amazon.ion.impl.IonReaderTextTokensTest;
 import com.amazon.ion.impl.IonImplUtilsTest;
+import com.amazon.ion.impl.IonReaderBinaryIncrementalTest;
+import com.amazon.ion.impl.IonReaderBinaryRawStringTest;
+import com.amazon.ion.impl.IonReaderByteBufferTest;
 import com.amazon.ion.impl.IonMarkupWriterFilesTest;
 import com.amazon.ion.impl.IonMarkupWriterTest;
 import com.amazon.ion.impl.IonWriterTests;
 import com.amazon.ion.impl.IterationTest;
+import com.amazon.ion.impl.LocalSymbolTableCacheTest;
 import com.amazon.ion.impl.LocalSymbolTableTest;
 import com.amazon.ion.impl.SharedSymbolTableTest;
 import com.amazon.ion.impl.SymbolTableTest;
 import com.amazon.ion.impl.TreeReaderTest;
+import com.amazon.ion.impl.bin.DirectBlockAllocatorProviderTest;
+import com.amazon.ion.impl.bin.DirectWriteBufferTest;
+import com.amazon.ion.impl.bin.IonCanonicalBinaryWriterTest;
 import com.amazon.ion.impl.bin.IonManagedBinaryWriterTest;
 import com.amazon.ion.impl.bin.IonRawBinaryWriterTest;
 import com.amazon.ion.impl.bin.PooledBlockAllocatorProviderTest;
+import com.amazon.ion.impl.bin.ThreadLocalPooledBlockAllocatorProviderTest;
 import com.amazon.ion.impl.bin.WriteBufferTest;
+import com.amazon.ion.impl.lite.FieldNameIndexTest;
 import com.amazon.ion.impl.lite.IonContextTest;
+import com.amazon.ion.impl.lite.LazyLoadingTest;
 import com.amazon.ion.impl.lite.SIDPresentLifecycleTest;
 import com.amazon.ion.streaming.BadIonStreamingTest;
 import com.amazon.ion.streaming.BinaryStreamingTest;
@@ -92,11 +106,17 @@ import com.amazon.ion.streaming.ReaderTest;
 import com.amazon.ion.streaming.RoundTripStreamingTest;
 import com.amazon.ion.streaming.SpanTests;
 import com.amazon.ion.system.IonBinaryWriterBuilderTest;
+import com.amazon.ion.system.ConcurrentCatalogTest;
+import com.amazon.ion.system.FileCatalogTest;
 import com.amazon.ion.system.IonReaderBuilderTest;
 import com.amazon.ion.system.IonSystemBuilderTest;
 import com.amazon.ion.system.IonTextWriterBuilderTest;
 import com.amazon.ion.system.SimpleCatalogTest;
 import com.amazon.ion.util.EquivalenceTest;
+import com.amazon.ion.util.IonDigestTest;
+import com.amazon.ion.util.IonOffsetIndexTest;
+import com.amazon.ion.util.IonPathExtractorTest;
+import com.amazon.ion.util.IonSegmentsTest;
 import com.amazon.ion.util.IonStreamUtilsTest;
 import com.amazon.ion.util.JarInfoTest;
 import com.amazon.ion.util.PrinterTest;
@@ -117,12 +137,18 @@ import org.junit.runners.Suite;
     ByteBufferTest.class,
     TextTest.class,
     CharacterReaderTest.class,
+    IonReaderTextTokensTest.class,
+    IonReaderTextNumericTest.class,
+    DoubleParserTest.class,
+    DoubleFormatterTest.class,
     JavaNumericsTest.class,
     ExtendedDecimalTest.class,
     IonImplUtilsTest.class,
 
     // General framework tests
     SimpleCatalogTest.class,
+    ConcurrentCatalogTest.class,
+    FileCatalogTest.class,
 
     // Type-based DOM tests
     IonValueTest.class,
@@ -167,6 +193,7 @@ import org.junit.runners.Suite;
     SymbolTableTest.class,
     SharedSymbolTableTest.class,
     LocalSymbolTableTest.class,
+    LocalSymbolTableCacheTest.class,
     IonContextTest.class,
 
     // Equality tests
@@ -185,6 +212,10 @@ import org.junit.runners.Suite;
     IonWriterTests.class,
     SpanTests.class,
 
+    IonOffsetIndexTest.class,
+    IonPathExtractorTest.class,
+    IonSegmentsTest.class,
+    IonDigestTest.class,
     IonStreamUtilsTest.class,
     TreeReaderTest.class,
     MiscStreamingTest.class,
@@ -208,12 +239,19 @@ import org.junit.runners.Suite;
     BinaryReaderWrappedValueLengthTest.class,
     IonReaderBuilderTest.class,
     IonReaderBinaryRawLargeStreamTest.class,
+    IonReaderBinaryIncrementalTest.class,
+    IonReaderByteBufferTest.class,
+    IonReaderBinaryRawStringTest.class,
 
     // experimental binary writer tests
     PooledBlockAllocatorProviderTest.class,
+    ThreadLocalPooledBlockAllocatorProviderTest.class,
     WriteBufferTest.class,
+    DirectBlockAllocatorProviderTest.class,
+    DirectWriteBufferTest.class,
     IonRawBinaryWriterTest.class,
     IonManagedBinaryWriterTest.class,
+    IonCanonicalBinaryWriterTest.class,
 
     // Hash code tests
     HashCodeCorrectnessTest.class,
@@ -226,7 +264,9 @@ import org.junit.runners.Suite;
     RawValueSpanReaderTest.class,
 
     // DOM Lifecycle / mode tests
-    SIDPresentLifecycleTest.class
+    SIDPresentLifecycleTest.class,
+    LazyLoadingTest.class,
+    FieldNameIndexTest.class
 })
 public class AllTests
 {
@@ -15,6 +15,7 @@
 
 package com.amazon.ion;
 
+import com.amazon.ion.system.IonTextWriterBuilder;
 import java.math.BigDecimal;
 import org.junit.Test;
 
@@ -344,6 +345,80 @@ public class DecimalTest
         IonDecimal value = decimal("1.23");
         value.setValue(123);
         checkDecimal(123, 0, value.bigDecimalValue());
+
+        value.setValue(new BigDecimal("123456789012345678901234567890.5"));
+        assertEquals(new BigDecimal("123456789012345678901234567890.5"),
+                     value.bigDecimalValue());
+        value.setValue(Decimal.negativeZero(2));
+        testNegativeZero(2, value);
+        value.setValue(new BigDecimal("-19.99"));
+        checkDecimal(-1999, 2, value.bigDecimalValue());
+        assertEquals(-19.99, value.doubleValue());
+        assertEquals(-19.99f, value.floatValue());
+        assertEquals(decimal("-19.99"), value);
+        assertEquals(decimal("-19.99").hashCode(), value.hashCode());
+        assertFalse(decimal("-19.990").hashCode() == value.hashCode());
+        assertEquals("-19.99", value.toString());
+        assertEquals("-1999e-2", value.toString(IonTextWriterBuilder.json()));
+    }
+
+
+    @Test
+    public void testBinaryDecimalConversions()
+        throws Exception
+    {
+        IonReader reader = system().newReader(encode(
+            "19.99 -0.05 2147483647.5 -2147483648.5 9223372036854775807d0 " +
+            "12345678901234567890.1 1d400 -0d-3"));
+
+        assertEquals(IonType.DECIMAL, reader.next());
+        assertEquals(19.99, reader.doubleValue());
+        assertEquals(19, reader.intValue());
+        checkDecimal(1999, 2, reader.bigDecimalValue());
+
+        reader.next();
+        assertEquals(-0.05, reader.doubleValue());
+        assertEquals(0L, reader.longValue());
+        checkDecimal(-5, 2, reader.decimalValue());
+
+        reader.next();
+        assertEquals(2147483647L, reader.longValue());
+        try
+        {
+            reader.intValue();
+            fail("Expected exception");
+        }
+        catch (IonException e) { }
+
+        reader.next();
+        try
+        {
+            reader.intValue();
+            fail("Expected exception");
+        }
+        catch (IonException e) { }
+
+        reader.next();
+        assertEquals(Long.MAX_VALUE, reader.longValue());
+
+        reader.next();
+        assertEquals(1.2345678901234567e19, reader.doubleValue());
+        assertEquals(new BigDecimal("12345678901234567890.1"),
+                     reader.bigDecimalValue());
+
+        reader.next();
+        assertEquals(Double.POSITIVE_INFINITY, reader.doubleValue());
+        try
+        {
+            reader.longValue();
+            fail("Expected exception");
+        }
+        catch (IonException e) { }
+
+        reader.next();
+        assertTrue(Decimal.isNegativeZero(reader.decimalValue()));
+        assertEquals(3, reader.decimalValue().scale());
+        assertNull(reader.next());
     }
 
 }
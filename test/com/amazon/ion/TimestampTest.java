@@ -2944,6 +2944,102 @@ public class TimestampTest
         assertEquals(t1.getDecimalMillis(), t2.getDecimalMillis());
     }
 
+    @Test
+    public void testParsedFractionMatchesDecimalFraction()
+    {
+        Timestamp parsed = Timestamp.valueOf("2010-06-29T23:20:00.123-08:00");
+        Timestamp created =
+            createFromUtcFields(FRACTION, 2010, 6, 30, 7, 20, 0,
+                                new BigDecimal("0.123"), PST_OFFSET);
+        assertEquals(created, parsed);
+        assertEquals(created.hashCode(), parsed.hashCode());
+        assertEquals(0, created.compareTo(parsed));
+        assertEquals(new BigDecimal("0.123"), parsed.getZFractionalSecond());
+
+        // Same instant, different precision
+        Timestamp longer = Timestamp.valueOf("2010-06-29T23:20:00.1230-08:00");
+        assertFalse(parsed.equals(longer));
+        assertEquals(0, parsed.compareTo(longer));
+
+        Timestamp nanos = Timestamp.valueOf("2010-06-29T23:20:00.123000001-08:00");
+        assertTrue(parsed.compareTo(nanos) < 0);
+        assertTrue(nanos.compareTo(longer) > 0);
+        assertEquals("2010-06-29T23:20:00.123000001-08:00", nanos.toString());
+    }
+
+    @Test
+    public void testBinaryFractionMatchesParsedFraction()
+    {
+        String[] texts = {
+            "2010-06-29T23:20:00.123Z",
+            "2010-06-29T23:20:00.000Z",
+            "2010-06-29T23:20:00.123456789-08:00",
+            "2010-06-29T23:20:00.1234567890Z",
+            "2010-06-29T23:20:00Z",
+        };
+        for (String text : texts)
+        {
+            Timestamp parsed = Timestamp.valueOf(text);
+            IonDatagram dg = system().newDatagram(system().newTimestamp(parsed));
+            IonReader reader = system().newReader(dg.getBytes());
+            assertEquals(IonType.TIMESTAMP, reader.next());
+            Timestamp read = reader.timestampValue();
+            assertEquals(text, parsed, read);
+            assertEquals(text, parsed.hashCode(), read.hashCode());
+            assertEquals(text, parsed.toString(), read.toString());
+            assertEquals(text, parsed.getDecimalSecond(), read.getDecimalSecond());
+        }
+    }
+
+    @Test
+    public void testCreateFromUtcFieldsWithCoefficientAndScale()
+    {
+        Timestamp parsed = Timestamp.valueOf("2010-06-29T23:20:00.123-08:00");
+        Timestamp created =
+            createFromUtcFields(FRACTION, 2010, 6, 30, 7, 20, 0,
+                                123L, 3, PST_OFFSET);
+        assertEquals(parsed, created);
+        assertEquals(parsed.hashCode(), created.hashCode());
+
+        // Too many digits to be compact
+        created = createFromUtcFields(FRACTION, 2010, 6, 30, 7, 20, 0,
+                                      1230000000L, 10, PST_OFFSET);
+        assertEquals(Timestamp.valueOf("2010-06-29T23:20:00.1230000000-08:00"),
+                     created);
+
+        // A zero fraction without digits is no fraction
+        created = createFromUtcFields(SECOND, 2010, 6, 30, 7, 20, 0,
+                                      0L, 0, PST_OFFSET);
+        assertEquals(Timestamp.valueOf("2010-06-29T23:20:00-08:00"), created);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateFromUtcFieldsWithCoefficientOfOne()
+    {
+        createFromUtcFields(FRACTION, 2010, 6, 30, 7, 20, 0, 1000L, 3, PST_OFFSET);
+    }
+
+    @Test
+    public void testGetMillisAroundGregorianCutover()
+    {
+        GregorianCalendar cal = new GregorianCalendar(UTC);
+        int[][] dates = {
+            { 1, 1, 1 }, { 1582, 10, 4 }, { 1582, 10, 15 }, { 1583, 1, 1 },
+            { 1600, 2, 29 }, { 1900, 3, 1 }, { 2000, 2, 29 }, { 9999, 12, 31 }
+        };
+        for (int[] date : dates)
+        {
+            cal.clear();
+            cal.set(date[0], date[1] - 1, date[2], 12, 34, 56);
+            cal.set(Calendar.MILLISECOND, 789);
+            Timestamp ts = createFromUtcFields(FRACTION, date[0], date[1], date[2],
+                                               12, 34, 56, new BigDecimal("0.789"),
+                                               UTC_OFFSET);
+            assertEquals(cal.getTimeInMillis(), ts.getMillis());
+            assertEquals(ts, Timestamp.forMillis(ts.getMillis(), UTC_OFFSET));
+        }
+    }
+
     @Ignore
     @Test
     public void testInstantVsTimestampMillis() {
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.Test;
+
+public class DoubleFormatterTest
+{
+    private final char[] buffer = new char[DoubleFormatter.MAX_CHARS];
+
+    private String format(double value)
+    {
+        return new String(buffer, 0, DoubleFormatter.format(value, buffer));
+    }
+
+    /**
+     * The text must read back as the same double, and have no more digits
+     * than {@link Double#toString(double)}, which is shortest from JDK 19
+     * and sometimes longer before that. Both may use two digits where one
+     * would do, when the two are closer.
+     */
+    private void assertRoundTrips(double value)
+    {
+        String text = format(value);
+        assertEquals(text,
+                     Double.doubleToRawLongBits(value),
+                     Double.doubleToRawLongBits(Double.parseDouble(text)));
+        assertTrue(text,
+                   digits(text) <= Math.max(2, digits(Double.toString(value))));
+    }
+
+    private static int digits(String text)
+    {
+        int e = text.toUpperCase().indexOf('E');
+        String digits = (e < 0) ? text : text.substring(0, e);
+        BigDecimal significand = new BigDecimal(digits);
+        return significand.stripTrailingZeros().precision();
+    }
+
+    @Test
+    public void testKnownValues()
+    {
+        assertEquals("1e0", format(1));
+        assertEquals("-1e0", format(-1));
+        assertEquals("100e0", format(100));
+        assertEquals("0.1e0", format(0.1));
+        assertEquals("0.3333333333333333e0", format(1d / 3));
+        assertEquals("9999999e0", format(9999999));
+        assertEquals("1.0E7", format(1e7));
+        assertEquals("1.2345678E7", format(12345678));
+        assertEquals("0.001e0", format(0.001));
+        assertEquals("9.99E-4", format(0.000999));
+        assertEquals("1.0E22", format(1e22));
+        assertEquals("1.0E23", format(1e23));
+        assertEquals("2.0E23", format(2e23));
+        assertEquals("4.9E-324", format(Double.MIN_VALUE));
+        assertEquals("9.9E-324", format(2 * Double.MIN_VALUE));
+        assertEquals("2.2250738585072014E-308", format(Double.MIN_NORMAL));
+        assertEquals("-1.7976931348623157E308", format(-Double.MAX_VALUE));
+        assertEquals("9.007199254740991E15", format(9007199254740991d));
+        assertEquals("7.340431922593076E17", format(7.340431922593076E17));
+        // Digits either side of the split at 10^8.
+        assertEquals("1.00000001E8", format(100000001));
+        assertEquals("1.2345678E11", format(123456780000d));
+        assertEquals("1.2E10", format(12000000000d));
+        assertEquals("1.0000000000000002e0", format(1.0000000000000002));
+    }
+
+    @Test
+    public void testRoundTripsRandomBits()
+    {
+        Random random = new Random(11);
+        for (int i = 0; i < 100000; i++)
+        {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(d) || Double.isInfinite(d) || d == 0) continue;
+            assertRoundTrips(d);
+        }
+    }
+
+    @Test
+    public void testRoundTripsTypicalValues()
+    {
+        Random random = new Random(13);
+        for (int i = 0; i < 100000; i++)
+        {
+            assertRoundTrips(random.nextInt(10000000) / 100d);
+            assertRoundTrips(random.nextGaussian() * 1000);
+        }
+    }
+
+    @Test
+    public void testRoundTripsSubnormals()
+    {
+        for (long bits = 1; bits < 1000; bits++)
+        {
+            assertRoundTrips(Double.longBitsToDouble(bits));
+            assertRoundTrips(Double.longBitsToDouble(0x000FFFFFFFFFFFFFL - bits));
+        }
+    }
+
+    @Test
+    public void testRoundTripsPowersOfTwo()
+    {
+        for (int e = -1074; e <= 1023; e++)
+        {
+            double d = Math.scalb(1d, e);
+            assertRoundTrips(d);
+            assertRoundTrips(Math.nextUp(d));
+            if (e > -1074)
+            {
+                assertRoundTrips(Math.nextAfter(d, 0));
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.Test;
+
+public class DoubleParserTest
+{
+    private static void assertConverts(long significand, int exponent)
+    {
+        String text = significand + "e" + exponent;
+        double expected = Double.parseDouble(text);
+        double actual = DoubleParser.toDouble(significand, exponent);
+        if (Double.isNaN(actual))
+        {
+            // Allowed to give up, but only on subnormals and the like.
+            assertTrue(text, expected < Double.MIN_NORMAL
+                             || Double.isInfinite(expected)
+                             || exponent < -27 || exponent > 55);
+            return;
+        }
+        assertEquals(text,
+                     Double.doubleToRawLongBits(expected),
+                     Double.doubleToRawLongBits(actual));
+    }
+
+    @Test
+    public void testKnownValues()
+    {
+        assertConverts(0, 0);
+        assertConverts(0, 400);
+        assertConverts(1, 0);
+        assertConverts(1, 22);
+        assertConverts(1, 23);
+        assertConverts(1, -22);
+        assertConverts(1, -23);
+        assertConverts(9007199254740993L, 0);
+        assertConverts(9007199254740995L, 0);
+        assertConverts(9007199254740993L, 1);
+        assertConverts(30000000000000004L, -17);
+        assertConverts(17976931348623157L, 292);
+        assertConverts(22250738585072014L, -324);
+        assertConverts(49, -325);
+        assertConverts(999999999999999999L, -342);
+        assertConverts(1, 308);
+        assertConverts(2, 308);
+        assertConverts(123456789012345678L, 100);
+        assertConverts(7, -1);
+
+        assertTrue(Double.isNaN(DoubleParser.toDouble(1, -343)));
+        assertTrue(Double.isNaN(DoubleParser.toDouble(1, 309)));
+    }
+
+    @Test
+    public void testRoundTripsDoubles()
+    {
+        Random random = new Random(5);
+        for (int i = 0; i < 100000; i++)
+        {
+            double d = Math.abs(Double.longBitsToDouble(random.nextLong()));
+            if (Double.isNaN(d) || Double.isInfinite(d) || d == 0) continue;
+
+            // Shortest representation, as significand and exponent.
+            String text = Double.toString(d);
+            int e = text.indexOf('E');
+            int exponent = (e < 0) ? 0 : Integer.parseInt(text.substring(e + 1));
+            String digits = (e < 0) ? text : text.substring(0, e);
+            int point = digits.indexOf('.');
+            exponent -= digits.length() - point - 1;
+            long significand = Long.parseLong(digits.replace(".", ""));
+            double actual = DoubleParser.toDouble(significand, exponent);
+            if (d >= Double.MIN_NORMAL)
+            {
+                assertEquals(text, d, actual, 0);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomDecimals()
+    {
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++)
+        {
+            long significand = random.nextLong() >>> (1 + random.nextInt(63));
+            if (significand > 999999999999999999L)
+            {
+                significand /= 10;
+            }
+            assertConverts(significand, random.nextInt(660) - 342);
+        }
+    }
+
+    @Test
+    public void testRandomFloats()
+    {
+        Random random = new Random(11);
+        for (int i = 0; i < 100000; i++)
+        {
+            long significand = random.nextInt(1 << (1 + random.nextInt(25)));
+            int exponent = random.nextInt(25) - 12;
+            String text = significand + "e" + exponent;
+            float actual = DoubleParser.toFloat(significand, exponent);
+            if (significand > (1 << 24)
+                || (significand != 0 && Math.abs(exponent) > 10))
+            {
+                assertTrue(text, Float.isNaN(actual));
+            }
+            else
+            {
+                assertEquals(text, Float.parseFloat(text), actual, 0);
+            }
+        }
+    }
+
+    @Test
+    public void testMultiplyHigh()
+    {
+        Random random = new Random(3);
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int i = 0; i < 10000; i++)
+        {
+            long x = random.nextLong();
+            long y = (i == 0) ? -1 : random.nextLong();
+            BigInteger product = new BigInteger(1, toBytes(x))
+                .multiply(new BigInteger(1, toBytes(y)));
+            assertEquals(product.shiftRight(64).and(mask).longValue(),
+                         DoubleParser.multiplyHigh(x, y));
+        }
+    }
+
+    private static byte[] toBytes(long value)
+    {
+        byte[] bytes = new byte[8];
+        for (int i = 7; i >= 0; i--)
+        {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.AppendableReader;
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.UnexpectedEofException;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class IonReaderBinaryIncrementalTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final IonReaderBuilder BUILDER =
+        IonReaderBuilder.standard().withIncrementalReadingEnabled(true).immutable();
+
+    /**
+     * A stream that only hands out the bytes that have "arrived" so far,
+     * failing when none are available, as a blocking read would wait for
+     * them.
+     */
+    private static class TrickleInputStream extends InputStream
+    {
+        private final byte[] data;
+        private int available;
+        private int pos;
+        boolean closed;
+
+        TrickleInputStream(byte[] data)
+        {
+            this.data = data;
+        }
+
+        void arrive(int count)
+        {
+            available = Math.min(data.length, available + count);
+        }
+
+        boolean isExhausted()
+        {
+            return available == data.length;
+        }
+
+        @Override
+        public int read()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int available()
+        {
+            return available - pos;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len)
+        {
+            if (pos == data.length)
+            {
+                return -1;
+            }
+            if (pos == available)
+            {
+                throw new AssertionError("read would block");
+            }
+            int n = Math.min(len, available - pos);
+            System.arraycopy(data, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void close()
+        {
+            closed = true;
+        }
+    }
+
+    private static byte[] binary(String ionText) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        SYSTEM.getLoader().load(ionText).writeTo(writer);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * Feeds {@code data} to an incremental reader {@code chunk} bytes at a
+     * time, collecting each top-level value as soon as it's available.
+     */
+    private static List<IonValue> readInChunks(byte[] data, int chunk)
+        throws IOException
+    {
+        TrickleInputStream in = new TrickleInputStream(data);
+        IonReader reader = BUILDER.build(in);
+        List<IonValue> values = new ArrayList<IonValue>();
+        while (!in.isExhausted())
+        {
+            in.arrive(chunk);
+            while (reader.next() != null)
+            {
+                values.add(SYSTEM.newValue(reader));
+            }
+        }
+        reader.close();
+        return values;
+    }
+
+    private static void assertValues(String expectedText, List<IonValue> actual)
+    {
+        IonDatagram expected = SYSTEM.getLoader().load(expectedText);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void testByteAtATime() throws Exception
+    {
+        String text = "1 true null.struct a::{b:\"c\", d:[1.5, 2e0, 2019-01-01T]} "
+                    + "$ion_1_0 sym {e:f::g}";
+        assertValues(text, readInChunks(binary(text), 1));
+    }
+
+    @Test
+    public void testVariousChunkSizes() throws Exception
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++)
+        {
+            text.append("{id:").append(i).append(", name:\"name").append(i)
+                .append("\", tags:[t").append(i % 7).append("]} ");
+        }
+        byte[] data = binary(text.toString());
+        for (int chunk : new int[] { 3, 17, 1000, data.length })
+        {
+            assertValues(text.toString(), readInChunks(data, chunk));
+        }
+    }
+
+    @Test
+    public void testValueLargerThanBuffer() throws Exception
+    {
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 100000; i++)
+        {
+            big.append((char) ('a' + i % 26));
+        }
+        String text = "\"" + big + "\" 42";
+        assertValues(text, readInChunks(binary(text), 4096));
+    }
+
+    @Test
+    public void testNeedMoreDataThenResume() throws Exception
+    {
+        byte[] data = binary("{a:1} {b:2}");
+        TrickleInputStream in = new TrickleInputStream(data);
+        IonReader reader = BUILDER.build(in);
+
+        assertNull(reader.next());
+        in.arrive(data.length - 1);
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals("a", reader.getFieldName());
+        assertNull(reader.next());
+        reader.stepOut();
+        assertNull(reader.next());
+        assertNull(reader.next());
+
+        in.arrive(1);
+        assertEquals(IonType.STRUCT, reader.next());
+        reader.stepIn();
+        reader.next();
+        assertEquals("b", reader.getFieldName());
+        assertEquals(2, reader.intValue());
+        reader.stepOut();
+        assertNull(reader.next());
+        reader.close();
+        assertEquals(true, in.closed);
+    }
+
+    @Test
+    public void testCloseWithIncompleteValue() throws Exception
+    {
+        byte[] data = binary("\"hello\"");
+        TrickleInputStream in = new TrickleInputStream(data);
+        in.arrive(data.length - 2);
+        IonReader reader = BUILDER.build(in);
+        assertNull(reader.next());
+        try
+        {
+            reader.close();
+            fail("Expected UnexpectedEofException");
+        }
+        catch (UnexpectedEofException e)
+        {
+            // Expected
+        }
+        assertEquals(true, in.closed);
+    }
+
+    @Test
+    public void testTextFallsBack() throws Exception
+    {
+        String text = "abc {d:e}";
+        TrickleInputStream in = new TrickleInputStream(text.getBytes("UTF-8"));
+        in.arrive(text.length());
+        IonReader reader = BUILDER.build(in);
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("abc", reader.stringValue());
+        assertEquals(IonType.STRUCT, reader.next());
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testEmptyStream() throws Exception
+    {
+        TrickleInputStream in = new TrickleInputStream(new byte[0]);
+        IonReader reader = BUILDER.build(in);
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    //-------------------------------------------------------------------------
+
+    /**
+     * Appends {@code data} to a reader {@code chunk} bytes at a time,
+     * collecting each top-level value as soon as it's available.
+     */
+    private static List<IonValue> appendInChunks(byte[] data, int chunk)
+        throws IOException
+    {
+        IonReader reader = BUILDER.buildIncremental();
+        AppendableReader input = reader.asFacet(AppendableReader.class);
+        List<IonValue> values = new ArrayList<IonValue>();
+        for (int pos = 0; pos < data.length; pos += chunk)
+        {
+            input.appendBytes(data, pos, Math.min(chunk, data.length - pos));
+            while (reader.next() != null)
+            {
+                values.add(SYSTEM.newValue(reader));
+            }
+        }
+        reader.close();
+        return values;
+    }
+
+    @Test
+    public void testAppendInChunks() throws Exception
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++)
+        {
+            text.append("{id:").append(i).append(", name:\"name").append(i)
+                .append("\", tags:[t").append(i % 7).append("]} ");
+        }
+        text.append("$ion_1_0 \"").append(new String(new char[70000]).replace('\0', 'x'))
+            .append("\" last");
+        byte[] data = binary(text.toString());
+        for (int chunk : new int[] { 1, 17, 4096, data.length })
+        {
+            assertValues(text.toString(), appendInChunks(data, chunk));
+        }
+    }
+
+    @Test
+    public void testAppendNeedsWholeTopLevelValue() throws Exception
+    {
+        byte[] data = binary("[1, 2, 3] 4");
+        IonReader reader = BUILDER.buildIncremental();
+        AppendableReader input = reader.asFacet(AppendableReader.class);
+        assertNull(reader.next());
+
+        // Everything but the last byte of the list.
+        input.appendBytes(ByteBuffer.wrap(data, 0, data.length - 3));
+        assertNull(reader.next());
+        assertNull(reader.getType());
+
+        ByteBuffer rest = ByteBuffer.wrap(data, data.length - 3, 3);
+        input.appendBytes(rest);
+        assertEquals(0, rest.remaining());
+        assertEquals(IonType.LIST, reader.next());
+        reader.stepIn();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(3, reader.intValue());
+        assertNull(reader.next());
+        reader.stepOut();
+        assertEquals(IonType.INT, reader.next());
+        assertEquals(4, reader.intValue());
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testAppendCloseWithIncompleteValue() throws Exception
+    {
+        byte[] data = binary("\"hello\"");
+        IonReader reader = BUILDER.buildIncremental();
+        reader.asFacet(AppendableReader.class)
+              .appendBytes(data, 0, data.length - 1);
+        assertNull(reader.next());
+        try
+        {
+            reader.close();
+            fail("Expected UnexpectedEofException");
+        }
+        catch (UnexpectedEofException e)
+        {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testAwaitingDataThenFinish() throws Exception
+    {
+        byte[] data = binary("[1] 2");
+        IonReader reader = BUILDER.buildIncremental();
+        AppendableReader input = reader.asFacet(AppendableReader.class);
+        assertNull(reader.next());
+        assertTrue(input.isAwaitingData());
+
+        input.appendBytes(data, 0, data.length - 1);
+        assertEquals(IonType.LIST, reader.next());
+        assertFalse(input.isAwaitingData());
+        reader.stepIn();
+        assertEquals(IonType.INT, reader.next());
+        assertNull(reader.next());
+        assertFalse(input.isAwaitingData());
+        reader.stepOut();
+        assertNull(reader.next());
+        assertTrue(input.isAwaitingData());
+
+        input.appendBytes(data, data.length - 1, 1);
+        input.finishInput();
+        assertEquals(IonType.INT, reader.next());
+        assertNull(reader.next());
+        assertFalse(input.isAwaitingData());
+        reader.close();
+    }
+
+    @Test
+    public void testFinishEmptyInput() throws Exception
+    {
+        IonReader reader = BUILDER.buildIncremental();
+        AppendableReader input = reader.asFacet(AppendableReader.class);
+        input.finishInput();
+        assertNull(reader.next());
+        assertFalse(input.isAwaitingData());
+        reader.close();
+    }
+
+    @Test
+    public void testFinishWithIncompleteValue() throws Exception
+    {
+        byte[] data = binary("1 \"hello\"");
+        IonReader reader = BUILDER.buildIncremental();
+        AppendableReader input = reader.asFacet(AppendableReader.class);
+        input.appendBytes(data, 0, data.length - 1);
+        input.finishInput();
+        assertEquals(IonType.INT, reader.next());
+        try
+        {
+            reader.next();
+            fail("Expected UnexpectedEofException");
+        }
+        catch (UnexpectedEofException e)
+        {
+            // Expected
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAppendAfterFinish() throws Exception
+    {
+        IonReader reader = BUILDER.buildIncremental();
+        AppendableReader input = reader.asFacet(AppendableReader.class);
+        input.finishInput();
+        input.appendBytes(binary("1"), 0, 1);
+    }
+
+    @Test(expected = IonException.class)
+    public void testAppendText() throws Exception
+    {
+        IonReader reader = BUILDER.buildIncremental();
+        reader.asFacet(AppendableReader.class)
+              .appendBytes("abc".getBytes("UTF-8"), 0, 3);
+    }
+
+    @Test
+    public void testAppendableFacetOnlyWithoutStream() throws Exception
+    {
+        IonReader reader = BUILDER.buildIncremental();
+        AppendableReader input = reader.asFacet(AppendableReader.class);
+        assertNotNull(input);
+        assertSame(input, reader.asFacet(AppendableReader.class));
+        TrickleInputStream in = new TrickleInputStream(binary("1"));
+        assertNull(BUILDER.build(in).asFacet(AppendableReader.class));
+    }
+}
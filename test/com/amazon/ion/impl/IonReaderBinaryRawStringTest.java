@@ -1,5 +1,6 @@
 package com.amazon.ion.impl;
 
+import com.amazon.ion.IonException;
 import com.amazon.ion.IonReader;
 import com.amazon.ion.IonType;
 import com.amazon.ion.IonWriter;
@@ -17,6 +18,7 @@ import java.math.BigDecimal;
 
 import static com.amazon.ion.impl._Private_IonConstants.BINARY_VERSION_MARKER_1_0;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public class IonReaderBinaryRawStringTest {
 
@@ -94,4 +96,86 @@ public class IonReaderBinaryRawStringTest {
         reader.next();
         assertEquals(longestSong, reader.stringValue());
     }
+
+    private static byte[] writeStrings(String... strings) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        for (String string : strings) {
+            writer.writeString(string);
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static void assertStrings(IonReader reader, String... expected) throws Exception {
+        for (String string : expected) {
+            assertEquals(IonType.STRING, reader.next());
+            assertEquals(string, reader.stringValue());
+        }
+        assertEquals(null, reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testReadStringsAroundWordBoundaries() throws Exception {
+        // Non-ASCII characters at every position relative to the eight-byte scan.
+        String[] strings = new String[60];
+        for (int i = 0; i < 20; i++) {
+            StringBuilder ascii = new StringBuilder();
+            for (int j = 0; j < i; j++) {
+                ascii.append((char) ('a' + j));
+            }
+            strings[i * 3] = ascii.toString();
+            strings[i * 3 + 1] = ascii + "\u00e9";
+            strings[i * 3 + 2] = "\u20ac" + ascii + "\uD83D\uDE02" + ascii;
+        }
+        byte[] data = writeStrings(strings);
+        assertStrings(IonReaderBuilder.standard().build(data), strings);
+        assertStrings(IonReaderBuilder.standard().build(new ByteArrayInputStream(data)), strings);
+    }
+
+    @Test
+    public void testReadLargeStringsFromStream() throws Exception {
+        // Strings that span the stream's buffers can't be decoded in place.
+        StringBuilder ascii = new StringBuilder();
+        StringBuilder mixed = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            ascii.append((char) ('a' + i % 26));
+            mixed.append(i % 1000 == 0 ? '\u00e9' : (char) ('a' + i % 26));
+        }
+        String[] strings = { ascii.toString(), mixed.toString(), "tail" };
+        byte[] data = writeStrings(strings);
+        assertStrings(IonReaderBuilder.standard().build(new ByteArrayInputStream(data)), strings);
+    }
+
+    private static void assertInvalidUtf8(int... utf8) throws Exception {
+        byte[] data = new byte[BINARY_VERSION_MARKER_1_0.length + 1 + utf8.length];
+        System.arraycopy(BINARY_VERSION_MARKER_1_0, 0, data, 0, BINARY_VERSION_MARKER_1_0.length);
+        data[BINARY_VERSION_MARKER_1_0.length] = (byte) (0x80 | utf8.length);
+        for (int i = 0; i < utf8.length; i++) {
+            data[BINARY_VERSION_MARKER_1_0.length + 1 + i] = (byte) utf8[i];
+        }
+        IonReader reader = IonReaderBuilder.standard().build(data);
+        assertEquals(IonType.STRING, reader.next());
+        try {
+            reader.stringValue();
+            fail("Expected IonException");
+        }
+        catch (IonException e) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testReadInvalidUtf8() throws Exception {
+        assertInvalidUtf8('a', 0x80);                   // Stray continuation byte
+        assertInvalidUtf8('a', 0xFF);                   // Never valid
+        assertInvalidUtf8(0xC3);                        // Truncated
+        assertInvalidUtf8(0xC3, 'a');                   // Missing continuation
+        assertInvalidUtf8(0xC0, 0x80);                  // Overlong NUL
+        assertInvalidUtf8(0xE0, 0x80, 0x80);            // Overlong
+        assertInvalidUtf8(0xED, 0xA0, 0x80);            // Surrogate
+        assertInvalidUtf8(0xF0, 0x80, 0x80, 0x80);      // Overlong
+        assertInvalidUtf8(0xF4, 0x90, 0x80, 0x80);      // Beyond U+10FFFF
+    }
 }
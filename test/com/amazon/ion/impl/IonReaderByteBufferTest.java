@@ -0,0 +1,240 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SeekableReader;
+import com.amazon.ion.Span;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Test;
+
+public class IonReaderByteBufferTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+    private static final IonReaderBuilder BUILDER = IonReaderBuilder.standard();
+
+    /** Large enough to span several pages, with strings crossing page boundaries. */
+    private static final IonDatagram DATA = makeData();
+
+    private static IonDatagram makeData()
+    {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++)
+        {
+            text.append("{id:").append(i)
+                .append(", name:\"name é").append(i)
+                .append("\", when:2019-03-0").append(1 + i % 9).append("T")
+                .append(", amount:").append(i).append(".25")
+                .append(", tags:[a, b, c").append(i % 13).append("]} ");
+        }
+        return SYSTEM.getLoader().load(text.toString());
+    }
+
+    private static byte[] binary() throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        DATA.writeTo(writer);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static ByteBuffer direct(byte[] data)
+    {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void assertReadsData(IonReader reader) throws IOException
+    {
+        IonDatagram actual = SYSTEM.newDatagram();
+        IonWriter writer = SYSTEM.newWriter(actual);
+        writer.writeValues(reader);
+        writer.close();
+        reader.close();
+        assertEquals(DATA.size(), actual.size());
+        for (int i = 0; i < DATA.size(); i++)
+        {
+            assertEquals(DATA.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void testHeapBuffer() throws Exception
+    {
+        assertReadsData(BUILDER.build(ByteBuffer.wrap(binary())));
+    }
+
+    @Test
+    public void testHeapBufferSlice() throws Exception
+    {
+        byte[] data = binary();
+        byte[] padded = new byte[data.length + 20];
+        System.arraycopy(data, 0, padded, 7, data.length);
+        ByteBuffer buffer = ByteBuffer.wrap(padded, 7, data.length).slice();
+        assertReadsData(BUILDER.build(buffer));
+    }
+
+    @Test
+    public void testDirectBuffer() throws Exception
+    {
+        ByteBuffer buffer = direct(binary());
+        assertReadsData(BUILDER.build(buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testDirectBufferPosition() throws Exception
+    {
+        byte[] data = binary();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length + 3);
+        buffer.position(3);
+        buffer.put(data);
+        buffer.position(3);
+        assertReadsData(BUILDER.build(buffer));
+        assertEquals(3, buffer.position());
+    }
+
+    @Test
+    public void testReadOnlyBuffer() throws Exception
+    {
+        assertReadsData(BUILDER.build(ByteBuffer.wrap(binary()).asReadOnlyBuffer()));
+    }
+
+    @Test
+    public void testDirectText() throws Exception
+    {
+        assertReadsData(BUILDER.build(direct(DATA.toString().getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void testDirectGzip() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(binary());
+        gzip.close();
+        assertReadsData(BUILDER.build(direct(out.toByteArray())));
+    }
+
+    @Test
+    public void testEmptyDirectBuffer() throws Exception
+    {
+        IonReader reader = BUILDER.build(ByteBuffer.allocateDirect(0));
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testDirectTextSeek() throws Exception
+    {
+        IonReader reader =
+            BUILDER.build(direct("a {b:\"x\", c:[1, 2]} d".getBytes("UTF-8")));
+        assertSame(IonType.SYMBOL, reader.next());
+        assertSame(IonType.STRUCT, reader.next());
+        Span span = reader.asFacet(SpanProvider.class).currentSpan();
+        assertSame(IonType.SYMBOL, reader.next());
+        reader.asFacet(SeekableReader.class).hoist(span);
+        assertSame(IonType.STRUCT, reader.next());
+        assertEquals(SYSTEM.singleValue("{b:\"x\", c:[1, 2]}"),
+                     SYSTEM.newValue(reader));
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    private static File write(byte[] data) throws IOException
+    {
+        File file = File.createTempFile("IonReaderByteBufferTest", ".ion");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(data);
+        out.close();
+        return file;
+    }
+
+    private static void assertReadsFile(byte[] data, int regionSize)
+        throws IOException
+    {
+        File file = write(data);
+        try
+        {
+            assertReadsData(
+                _Private_IonReaderFactory.makeReader(null, file, regionSize));
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testMappedFile() throws Exception
+    {
+        File file = write(binary());
+        try
+        {
+            assertReadsData(BUILDER.build(file));
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    /** Regions far smaller than the values, so nearly every value spans several. */
+    @Test
+    public void testMappedRegionsBinary() throws Exception
+    {
+        assertReadsFile(binary(), 17);
+        assertReadsFile(binary(), 4096);
+    }
+
+    @Test
+    public void testMappedRegionsText() throws Exception
+    {
+        byte[] text = DATA.toString().getBytes("UTF-8");
+        assertReadsFile(text, 17);
+        assertReadsFile(text, 4096);
+    }
+
+    @Test
+    public void testMappedRegionsGzip() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(binary());
+        gzip.close();
+        assertReadsFile(out.toByteArray(), 4096);
+    }
+}
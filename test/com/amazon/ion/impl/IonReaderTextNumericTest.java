@@ -0,0 +1,164 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import com.amazon.ion.Decimal;
+import com.amazon.ion.IntegerSize;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Numbers read by the text reader, whose common forms are converted without
+ * the general-purpose parsers.
+ */
+public class IonReaderTextNumericTest
+{
+    private static final IonReaderBuilder BUILDER = IonReaderBuilder.standard();
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static void assertFloat(double expected, String text)
+    {
+        IonReader in = BUILDER.build(text);
+        assertEquals(IonType.FLOAT, in.next());
+        assertEquals(text,
+                     Double.doubleToRawLongBits(expected),
+                     Double.doubleToRawLongBits(in.doubleValue()));
+    }
+
+    private static void assertFloat(String text)
+    {
+        assertFloat(Double.parseDouble(text), text);
+    }
+
+    @Test
+    public void testFloats()
+    {
+        assertFloat("0e0");
+        assertFloat("-0e0");
+        assertFloat("0.000e-5");
+        assertFloat("1e0");
+        assertFloat("-1.5e3");
+        assertFloat("0.1e0");
+        assertFloat("123.456e-2");
+        assertFloat("1e22");
+        assertFloat("1e23");
+        assertFloat("1e-22");
+        assertFloat("1e-23");
+        assertFloat("9007199254740993e0");
+        assertFloat("9007199254740992e0");
+        assertFloat("123456789012345678e0");
+        assertFloat("1234567890123456789e0");
+        assertFloat("0.30000000000000004e0");
+        assertFloat("1.7976931348623157e308");
+        assertFloat("4.9e-324");
+        assertFloat("1e-400");
+        assertFloat("1e400");
+        assertFloat("1e+5");
+        assertFloat("1E5");
+        assertFloat(1000.5, "1_000.5e0");
+        assertFloat(Double.POSITIVE_INFINITY, "+inf");
+        assertFloat(Double.NaN, "nan");
+    }
+
+    @Test
+    public void testRandomFloats()
+    {
+        Random random = new Random(17);
+        for (int i = 0; i < 20000; i++)
+        {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(d) || Double.isInfinite(d)) continue;
+            String text = Double.toString(d);
+            assertFloat(text.contains("E") ? text.replace('E', 'e') : text + "e0");
+
+            // Prices and measurements, with few digits.
+            double price = random.nextInt(1000000) / 100.0;
+            assertFloat(String.format(Locale.US, "%.2fe0", price));
+            assertFloat(String.format(Locale.US, "%.3fe-%d", price, random.nextInt(30)));
+        }
+    }
+
+    private static void assertInt(String text, IntegerSize size)
+    {
+        IonReader in = BUILDER.build(text);
+        assertEquals(IonType.INT, in.next());
+        assertEquals(size, in.getIntegerSize());
+        assertEquals(new BigInteger(text.replace("_", "")), in.bigIntegerValue());
+
+        // The binary reader sizes the same value alike.
+        IonReader binary = BUILDER.build(SYSTEM.getLoader().load(text).getBytes());
+        assertEquals(IonType.INT, binary.next());
+        assertEquals(size, binary.getIntegerSize());
+    }
+
+    @Test
+    public void testInts()
+    {
+        assertInt("0", IntegerSize.INT);
+        assertInt("-0", IntegerSize.INT);
+        assertInt("2147483647", IntegerSize.INT);
+        assertInt("-2147483648", IntegerSize.INT);
+        assertInt("2147483648", IntegerSize.LONG);
+        assertInt("-2147483649", IntegerSize.LONG);
+        assertInt("999999999999999999", IntegerSize.LONG);
+        assertInt("9223372036854775807", IntegerSize.LONG);
+        assertInt("-9223372036854775808", IntegerSize.LONG);
+        assertInt("9223372036854775808", IntegerSize.BIG_INTEGER);
+        assertInt("1_000_000", IntegerSize.INT);
+
+        // Ten digits that fit in an int are INT, as in the binary reader.
+        assertInt("1999999999", IntegerSize.INT);
+        assertInt("1147483648", IntegerSize.INT);
+        assertInt("-1999999999", IntegerSize.INT);
+        assertInt("1_999_999_999", IntegerSize.INT);
+        assertInt("1000000000", IntegerSize.INT);
+        assertInt("2999999999", IntegerSize.LONG);
+        assertInt("-2999999999", IntegerSize.LONG);
+        assertInt("9999999999", IntegerSize.LONG);
+    }
+
+    private static void assertDecimal(String expected, String text)
+    {
+        IonReader in = BUILDER.build(text);
+        assertEquals(IonType.DECIMAL, in.next());
+        Decimal actual = in.decimalValue();
+        assertEquals(new BigDecimal(expected), actual);
+        assertEquals(expected.startsWith("-") && actual.signum() == 0,
+                     actual.isNegativeZero());
+    }
+
+    @Test
+    public void testDecimals()
+    {
+        assertDecimal("19.99", "19.99");
+        assertDecimal("-19.99", "-19.99");
+        assertDecimal("0", "0.");
+        assertDecimal("-0.00", "-0.00");
+        assertDecimal("-0E+3", "-0d3");
+        assertDecimal("1.5E-3", "1.5d-3");
+        assertDecimal("12345678901234567890.123", "12345678901234567890.123");
+    }
+}
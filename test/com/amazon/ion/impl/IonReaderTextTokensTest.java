@@ -0,0 +1,173 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonType;
+import com.amazon.ion.SpanProvider;
+import com.amazon.ion.TextSpan;
+import com.amazon.ion.system.IonReaderBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Strings and symbols read by the text tokenizer from each kind of input,
+ * including across the boundaries of its input pages.
+ */
+@RunWith(Parameterized.class)
+public class IonReaderTextTokensTest
+{
+    private static final IonReaderBuilder BUILDER = IonReaderBuilder.standard();
+
+    @Parameters(name = "{0}")
+    public static Iterable<Object[]> data()
+    {
+        return Arrays.asList(new Object[][] {
+            { "string" }, { "bytes" }, { "stream" }, { "trickle" }
+        });
+    }
+
+    @Parameter
+    public String input;
+
+    private IonReader read(String text) throws UnsupportedEncodingException
+    {
+        if ("string".equals(input))
+        {
+            return BUILDER.build(text);
+        }
+        byte[] bytes = text.getBytes("UTF-8");
+        if ("bytes".equals(input))
+        {
+            return BUILDER.build(bytes);
+        }
+        InputStream in = new ByteArrayInputStream(bytes);
+        if ("trickle".equals(input))
+        {
+            // Returns few bytes per read, so pages end at odd places.
+            in = new FilterInputStream(in)
+            {
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException
+                {
+                    return super.read(b, off, Math.min(len, 7));
+                }
+            };
+        }
+        return BUILDER.build(in);
+    }
+
+    @Test
+    public void testLongStringsAndSymbols() throws IOException
+    {
+        // Long enough to cross page boundaries at various points within
+        // plain runs, escapes and multi-byte characters.
+        StringBuilder expected = new StringBuilder();
+        StringBuilder text = new StringBuilder();
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 4000; i++)
+        {
+            expected.append("plain ").append(i).append(" é☃😀\n\"\\");
+            text.append("plain ").append(i).append(" é☃😀\\n\\\"\\\\");
+            name.append("name_").append(i).append('$');
+        }
+
+        IonReader in = read("{" + name + ":\"" + text + "\", b:" + name + ", '''"
+                            + text + "''':" + name + "} \"" + text + "\" " + name
+                            + " \"\" end");
+        assertEquals(IonType.STRUCT, in.next());
+        in.stepIn();
+        assertEquals(IonType.STRING, in.next());
+        assertEquals(name.toString(), in.getFieldName());
+        assertEquals(expected.toString(), in.stringValue());
+        assertEquals(IonType.SYMBOL, in.next());
+        assertEquals(name.toString(), in.symbolValue().getText());
+        assertEquals(IonType.SYMBOL, in.next());
+        assertEquals(expected.toString(), in.getFieldName());
+        in.stepOut();
+        // Skipped without being loaded.
+        assertEquals(IonType.STRING, in.next());
+        assertEquals(IonType.SYMBOL, in.next());
+        assertEquals(name.toString(), in.stringValue());
+        assertEquals(IonType.STRING, in.next());
+        assertEquals("", in.stringValue());
+        assertEquals(IonType.SYMBOL, in.next());
+        assertEquals("end", in.stringValue());
+        assertNull(in.next());
+        in.close();
+    }
+
+    @Test
+    public void testSurrogatesAfterPlainCharacters() throws IOException
+    {
+        IonReader in = read("\"ab\\ud83d\\ude00cd\" \"ab\\ud83dcd\"");
+        assertEquals(IonType.STRING, in.next());
+        assertEquals("ab😀cd", in.stringValue());
+        assertEquals(IonType.STRING, in.next());
+        try
+        {
+            in.stringValue();
+            fail("Expected IonException");
+        }
+        catch (IonException e)
+        {
+            // A high surrogate must be followed by a low one.
+        }
+    }
+
+    @Test
+    public void testControlCharacterInString() throws IOException
+    {
+        IonReader in = read("\"abc\u0001\"");
+        assertEquals(IonType.STRING, in.next());
+        try
+        {
+            in.stringValue();
+            fail("Expected IonException");
+        }
+        catch (IonException e)
+        {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testLineNumbersAfterStrings() throws IOException
+    {
+        IonReader in = read("\"abc\"\n\"def\"\n  xyz");
+        in.next();
+        in.next();
+        assertEquals(IonType.SYMBOL, in.next());
+        TextSpan span = in.asFacet(SpanProvider.class)
+            .currentSpan().asFacet(TextSpan.class);
+        assertEquals(3, span.getStartLine());
+        assertEquals(3, span.getStartColumn());
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.SimpleCatalog;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class LocalSymbolTableCacheTest
+{
+    private final SimpleCatalog catalog = new SimpleCatalog();
+    private final IonSystem system =
+        IonSystemBuilder.standard().withCatalog(catalog).build();
+
+    private static byte[] message(IonBinaryWriterBuilder writerBuilder,
+                                  String fieldName, boolean appendSymbols)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = writerBuilder.build(out);
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName(fieldName);
+        writer.writeSymbol("value");
+        writer.stepOut();
+        if (appendSymbols)
+        {
+            writer.flush();
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("appended");
+            writer.writeInt(1);
+            writer.stepOut();
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static byte[] message(String fieldName) throws IOException
+    {
+        return message(IonBinaryWriterBuilder.standard(), fieldName, false);
+    }
+
+    /** Reads the message, returning the symbol table of each value. */
+    private List<SymbolTable> read(IonReaderBuilder builder, byte[] data)
+        throws IOException
+    {
+        List<SymbolTable> symtabs = new ArrayList<SymbolTable>();
+        List<IonValue> values = new ArrayList<IonValue>();
+        IonReader reader = builder.build(data);
+        while (reader.next() != null)
+        {
+            symtabs.add(reader.getSymbolTable());
+            values.add(system.newValue(reader));
+        }
+        reader.close();
+
+        List<IonValue> expected = new ArrayList<IonValue>();
+        for (IonValue value : system.getLoader().load(data))
+        {
+            expected.add(value);
+        }
+        assertEquals(expected, values);
+        return symtabs;
+    }
+
+    @Test
+    public void testReusedAcrossReaders() throws IOException
+    {
+        IonReaderBuilder builder = IonReaderBuilder.standard()
+            .withCatalog(catalog)
+            .withLocalSymbolTableCacheSize(4);
+        byte[] data = message("first");
+
+        SymbolTable symtab = read(builder, data).get(0);
+        assertTrue(symtab.isLocalTable());
+        assertTrue(symtab.isReadOnly());
+        assertSame(symtab, read(builder, data).get(0));
+        assertSame(symtab, read(builder.copy(), data.clone()).get(0));
+
+        // Within a larger buffer.
+        byte[] padded = new byte[data.length + 5];
+        System.arraycopy(data, 0, padded, 3, data.length);
+        IonReader reader = builder.build(padded, 3, data.length);
+        reader.next();
+        assertSame(symtab, reader.getSymbolTable());
+        reader.close();
+
+        assertNotSame(symtab, read(builder, message("second")).get(0));
+    }
+
+    @Test
+    public void testNoCatalog() throws IOException
+    {
+        // A new catalog is used for each reader.
+        IonReaderBuilder builder =
+            IonReaderBuilder.standard().withLocalSymbolTableCacheSize(4);
+        byte[] data = message("first");
+        assertSame(read(builder, data).get(0), read(builder, data).get(0));
+    }
+
+    @Test
+    public void testNotCachedByDefault() throws IOException
+    {
+        IonReaderBuilder builder = IonReaderBuilder.standard();
+        byte[] data = message("first");
+        SymbolTable symtab = read(builder, data).get(0);
+        assertNotSame(symtab, read(builder, data).get(0));
+        assertTrue(! symtab.isReadOnly());
+    }
+
+    @Test
+    public void testAppendedTablesNotCached() throws IOException
+    {
+        IonReaderBuilder builder = IonReaderBuilder.standard()
+            .withLocalSymbolTableCacheSize(4);
+        byte[] data =
+            message(IonBinaryWriterBuilder.standard()
+                        .withLocalSymbolTableAppendEnabled(), "first", true);
+
+        List<SymbolTable> first = read(builder, data);
+        List<SymbolTable> second = read(builder, data);
+        assertSame(first.get(0), second.get(0));
+        assertNotSame(first.get(1), second.get(1));
+    }
+
+    @Test
+    public void testSharedImports() throws IOException
+    {
+        SymbolTable shared = system.newSharedSymbolTable(
+            "shared", 1, Arrays.asList("first", "value").iterator());
+        catalog.putTable(shared);
+        byte[] data = message(
+            IonBinaryWriterBuilder.standard().withImports(shared), "first", false);
+
+        IonReaderBuilder builder = IonReaderBuilder.standard()
+            .withCatalog(catalog)
+            .withLocalSymbolTableCacheSize(4);
+        SymbolTable symtab = read(builder, data).get(0);
+        assertSame(symtab, read(builder, data).get(0));
+
+        // Imports are resolved against each catalog.
+        IonReaderBuilder other = builder.copy().withCatalog(new SimpleCatalog());
+        IonReader reader = other.build(data);
+        reader.next();
+        SymbolTable substituted = reader.getSymbolTable();
+        assertNotSame(symtab, substituted);
+        assertTrue(substituted.getImportedTables()[0].isSubstitute());
+        reader.close();
+
+        // Tables with substitute imports aren't cached.
+        reader = other.build(data);
+        reader.next();
+        assertNotSame(substituted, reader.getSymbolTable());
+        reader.close();
+    }
+
+    @Test
+    public void testEviction() throws IOException
+    {
+        IonReaderBuilder builder = IonReaderBuilder.standard()
+            .withLocalSymbolTableCacheSize(2);
+        byte[] a = message("a");
+        byte[] b = message("b");
+        byte[] c = message("c");
+
+        SymbolTable symtabA = read(builder, a).get(0);
+        read(builder, b);
+        assertSame(symtabA, read(builder, a).get(0));
+        read(builder, c);
+
+        // b was least recently used.
+        SymbolTable symtabB = read(builder, b).get(0);
+        assertSame(symtabB, read(builder, b).get(0));
+        assertNotSame(symtabA, read(builder, a).get(0));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception
+    {
+        final IonReaderBuilder builder = IonReaderBuilder.standard()
+            .withLocalSymbolTableCacheSize(4)
+            .immutable();
+        final byte[][] messages = new byte[8][];
+        for (int i = 0; i < messages.length; i++)
+        {
+            messages[i] = message("field" + i);
+        }
+
+        final List<Throwable> failures = new ArrayList<Throwable>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int first = t;
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        for (int i = 0; i < 500; i++)
+                        {
+                            // Each thread cycles through more messages than
+                            // the cache holds, so tables are evicted as well.
+                            byte[] data = messages[(first + i) % messages.length];
+                            SymbolTable symtab = read(builder, data).get(0);
+                            assertTrue(symtab.isReadOnly());
+                        }
+                    }
+                    catch (Throwable e)
+                    {
+                        synchronized (failures)
+                        {
+                            failures.add(e);
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(Collections.<Throwable>emptyList(), failures);
+    }
+
+    @Test
+    public void testText() throws IOException
+    {
+        IonReaderBuilder builder = IonReaderBuilder.standard()
+            .withLocalSymbolTableCacheSize(4);
+        byte[] data = "$ion_symbol_table::{symbols:[\"s\"]} $10".getBytes("UTF-8");
+        IonReader reader = builder.build(data);
+        assertEquals(IonType.SYMBOL, reader.next());
+        assertEquals("s", reader.stringValue());
+        reader.close();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.channels.spi.AbstractSelectableChannel;
+import java.nio.channels.spi.SelectorProvider;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ByteChannelOutputStreamTest
+{
+    /** A selectable channel without gathering writes, which never accepts any bytes. */
+    private static class StalledChannel
+        extends AbstractSelectableChannel
+        implements WritableByteChannel
+    {
+        StalledChannel()
+        {
+            super(SelectorProvider.provider());
+        }
+
+        public int write(ByteBuffer src)
+        {
+            return 0;
+        }
+
+        @Override
+        public int validOps()
+        {
+            return 0;
+        }
+
+        @Override
+        protected void implCloseSelectableChannel() {}
+
+        @Override
+        protected void implConfigureBlocking(boolean block) {}
+    }
+
+    private StalledChannel channel;
+    private ByteChannelOutputStream out;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        channel = new StalledChannel();
+        out = new ByteChannelOutputStream(channel);
+        channel.configureBlocking(false);
+    }
+
+    @Test
+    public void testWriteAfterSwitchToNonBlocking()
+    {
+        try
+        {
+            out.write(new byte[] { 1, 2, 3 }, 0, 3);
+            fail("Expected IOException");
+        }
+        catch (IOException e)
+        {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testGatheringWriteAfterSwitchToNonBlocking()
+    {
+        try
+        {
+            WriteBuffer.writeFully(out.channel(),
+                                   Collections.singletonList(ByteBuffer.wrap(new byte[] { 1, 2, 3 })));
+            fail("Expected IOException");
+        }
+        catch (IOException e)
+        {
+            // Expected
+        }
+    }
+}
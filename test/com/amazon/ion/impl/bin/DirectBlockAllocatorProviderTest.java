@@ -0,0 +1,114 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DirectBlockAllocatorProviderTest
+{
+    @Test
+    public void testBlocksAreDirect()
+    {
+        final Block block = new DirectBlockAllocatorProvider(64).vendAllocator(8).allocateBlock();
+        assertNull(block.data);
+        assertTrue(block.direct.isDirect());
+        assertEquals(8, block.capacity());
+        assertEquals(0, block.limit);
+    }
+
+    @Test
+    public void testReuseBlockAfterClose()
+    {
+        final DirectBlockAllocatorProvider provider = new DirectBlockAllocatorProvider(64);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final Block block1 = allocator.allocateBlock();
+        final Block block2 = allocator.allocateBlock();
+        assertNotSame(block1.direct, block2.direct);
+        block1.limit = 7;
+        block1.close();
+        assertEquals(8, provider.retainedBytes());
+
+        final Block block1Again = provider.vendAllocator(8).allocateBlock();
+        assertSame(block1, block1Again);
+        assertEquals(0, block1Again.limit);
+        assertEquals(0, provider.retainedBytes());
+    }
+
+    @Test
+    public void testCloseReleasesFreeBlocks()
+    {
+        final DirectBlockAllocatorProvider provider = new DirectBlockAllocatorProvider(64);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final Block block1 = allocator.allocateBlock();
+        final Block block2 = allocator.allocateBlock();
+        block1.close();
+        assertEquals(8, provider.retainedBytes());
+
+        provider.close();
+        assertEquals(0, provider.retainedBytes());
+        block2.close();
+        assertEquals(0, provider.retainedBytes());
+        assertNotSame(block1, allocator.allocateBlock());
+        assertNotSame(block2, allocator.allocateBlock());
+    }
+
+    @Test
+    public void testRetainedBytesAreBounded()
+    {
+        final DirectBlockAllocatorProvider provider = new DirectBlockAllocatorProvider(20);
+        final Block small1 = provider.vendAllocator(8).allocateBlock();
+        final Block small2 = provider.vendAllocator(8).allocateBlock();
+        final Block small3 = provider.vendAllocator(8).allocateBlock();
+        final Block large = provider.vendAllocator(16).allocateBlock();
+
+        small1.close();
+        small2.close();
+        assertEquals(16, provider.retainedBytes());
+        // neither fits under the bound any longer
+        small3.close();
+        large.close();
+        assertEquals(16, provider.retainedBytes());
+
+        assertSame(small1, provider.vendAllocator(8).allocateBlock());
+        assertSame(small2, provider.vendAllocator(8).allocateBlock());
+        assertNotSame(small3, provider.vendAllocator(8).allocateBlock());
+        assertNotSame(large, provider.vendAllocator(16).allocateBlock());
+        assertEquals(0, provider.retainedBytes());
+    }
+
+    @Test
+    public void testSliceSharesContent()
+    {
+        final Block block = new DirectBlockAllocatorProvider(0).vendAllocator(8).allocateBlock();
+        block.put(0, new byte[] { 1, 2, 3, 4, 5 }, 0, 5);
+        block.limit = 5;
+        assertEquals(3, block.get(2));
+        assertEquals(3, block.slice(2, 2).get());
+        assertEquals(2, block.slice(2, 2).remaining());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBound()
+    {
+        new DirectBlockAllocatorProvider(-1);
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static com.amazon.ion.impl._Private_Utils.newSymbolToken;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.UnknownSymbolException;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IonCanonicalBinaryWriterTest
+{
+    private static final int IVM_LENGTH = 4;
+
+    private IonSystem system;
+    private ByteArrayOutputStream out;
+    private IonWriter writer;
+
+    @Before
+    public void setup()
+    {
+        system = IonSystemBuilder.standard().build();
+        out = new ByteArrayOutputStream();
+        writer = IonBinaryWriterBuilder.standard()
+                                       .withCanonicalEncoding(true)
+                                       .build(out);
+    }
+
+    private byte[] bytes() throws IOException
+    {
+        writer.close();
+        return out.toByteArray();
+    }
+
+    /** The bytes written after the IVM. */
+    private byte[] valueBytes() throws IOException
+    {
+        final byte[] bytes = bytes();
+        final byte[] value = new byte[bytes.length - IVM_LENGTH];
+        System.arraycopy(bytes, IVM_LENGTH, value, 0, value.length);
+        return value;
+    }
+
+    private byte[] canonicalBytes(final String ion) throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final IonWriter w = IonBinaryWriterBuilder.standard()
+                                                  .withCanonicalEncoding(true)
+                                                  .build(bytes);
+        w.writeValues(system.newReader(ion));
+        w.close();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] bytes(final int... values)
+    {
+        final byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++)
+        {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private void assertLoads(final String expected, final byte[] actual)
+    {
+        assertEquals(system.getLoader().load(expected), system.getLoader().load(actual));
+    }
+
+    @Test
+    public void testIntsAroundLongRange() throws IOException
+    {
+        writer.writeInt(Long.MAX_VALUE);
+        writer.writeInt(new BigInteger("9223372036854775808"));
+        writer.writeInt(new BigInteger("18446744073709551615"));
+        writer.writeInt(Long.MIN_VALUE);
+        writer.writeInt(new BigInteger("-9223372036854775809"));
+        assertArrayEquals(bytes(0x28, 0x7F, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF,
+                                0x28, 0x80, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                                0x28, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF,
+                                0x38, 0x80, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                                0x38, 0x80, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01),
+                          valueBytes());
+    }
+
+    @Test
+    public void testIntEncodingIndependentOfApi() throws IOException
+    {
+        assertArrayEquals(canonicalBytes("-9223372036854775808 123"),
+                          canonicalBytes("-0x8000000000000000 0x7B"));
+
+        writer.writeInt(BigInteger.valueOf(Long.MIN_VALUE));
+        writer.writeInt(BigInteger.valueOf(123));
+        assertArrayEquals(canonicalBytes("-9223372036854775808 123"), bytes());
+    }
+
+    @Test
+    public void testNanNormalized() throws IOException
+    {
+        writer.writeFloat(Double.longBitsToDouble(0x7FF8000000000001L));
+        writer.writeFloat(Double.longBitsToDouble(0xFFF0000000000001L));
+        writer.writeFloat(Double.NaN);
+        final byte[] nan = bytes(0x48, 0x7F, 0xF8, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00);
+        final byte[] expected = new byte[nan.length * 3];
+        for (int i = 0; i < 3; i++)
+        {
+            System.arraycopy(nan, 0, expected, i * nan.length, nan.length);
+        }
+        assertArrayEquals(expected, valueBytes());
+    }
+
+    @Test
+    public void testZerosAreFullWidthAndSigned() throws IOException
+    {
+        writer.writeFloat(0.0);
+        writer.writeFloat(-0.0);
+        assertArrayEquals(bytes(0x48, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+                                0x48, 0x80, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00),
+                          valueBytes());
+        assertArrayEquals(canonicalBytes("-0e0"), canonicalBytes("-0.0e0"));
+    }
+
+    @Test
+    public void testDuplicateFieldNames() throws IOException
+    {
+        final byte[] expected = canonicalBytes("{a:2, b:x, a:1, a:[]}");
+        assertArrayEquals(expected, canonicalBytes("{a:1, a:[], b:x, a:2}"));
+        assertArrayEquals(expected, canonicalBytes("{b:x, a:[], a:2, a:1}"));
+        assertLoads("{a:1, a:2, a:[], b:x}", expected);
+        assertFalse(Arrays.equals(expected, canonicalBytes("{a:1, a:1, a:[], b:x}")));
+    }
+
+    @Test
+    public void testNestedStructsSorted() throws IOException
+    {
+        final byte[] expected = canonicalBytes("{z:{y:[{d:1, c:2}], x:3}, a:w::{n:m, b:c}}");
+        assertArrayEquals(expected, canonicalBytes("{a:w::{b:c, n:m}, z:{x:3, y:[{c:2, d:1}]}}"));
+        assertLoads("{a:w::{b:c, n:m}, z:{x:3, y:[{c:2, d:1}]}}", expected);
+
+        // list and sexp order is data, so it isn't sorted
+        assertFalse(Arrays.equals(canonicalBytes("[{a:1}, {b:1}]"), canonicalBytes("[{b:1}, {a:1}]")));
+    }
+
+    @Test
+    public void testUnknownSymbolRejected() throws IOException
+    {
+        writer.stepIn(IonType.STRUCT);
+        try
+        {
+            writer.setFieldNameSymbol(newSymbolToken(99));
+            fail("Expected UnknownSymbolException");
+        }
+        catch (UnknownSymbolException e)
+        {
+            assertEquals(99, e.getSid());
+        }
+        try
+        {
+            writer.setTypeAnnotationSymbols(newSymbolToken(100));
+            fail("Expected UnknownSymbolException");
+        }
+        catch (UnknownSymbolException e)
+        {
+            assertEquals(100, e.getSid());
+        }
+        writer.setFieldName("f");
+        try
+        {
+            writer.writeSymbolToken(newSymbolToken(101));
+            fail("Expected UnknownSymbolException");
+        }
+        catch (UnknownSymbolException e)
+        {
+            assertEquals(101, e.getSid());
+        }
+    }
+
+    @Test
+    public void testSymbolZeroAllowed() throws IOException
+    {
+        writer.writeSymbolToken(newSymbolToken(0));
+        assertArrayEquals(bytes(0x71, 0x00), valueBytes());
+    }
+
+    @Test
+    public void testCallerIvmsAndSymbolTablesDropped() throws IOException
+    {
+        final byte[] expected = canonicalBytes("a {b:c}");
+
+        writer.writeSymbol("$ion_1_0");
+        writer.writeSymbol("a");
+        writer.writeSymbol("$ion_1_0");
+        writer.setTypeAnnotations("$ion_symbol_table");
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName("symbols");
+        writer.stepIn(IonType.LIST);
+        writer.writeString("q");
+        writer.stepOut();
+        writer.stepOut();
+        writer.stepIn(IonType.STRUCT);
+        writer.setFieldName("b");
+        writer.writeSymbol("c");
+        writer.stepOut();
+        assertArrayEquals(expected, bytes());
+
+        final IonDatagram dg = system.getLoader().load(expected);
+        assertEquals(system.getLoader().load("a {b:c}"), dg);
+        // one IVM, then each value preceded by its own symbol table
+        assertEquals(5, dg.systemSize());
+    }
+
+    @Test
+    public void testAnnotatedIvmSymbolIsData() throws IOException
+    {
+        writer.setTypeAnnotations("x");
+        writer.writeSymbol("$ion_1_0");
+        assertLoads("x::'$ion_1_0'", bytes());
+    }
+}
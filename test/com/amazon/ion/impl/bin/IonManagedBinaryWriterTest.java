@@ -35,6 +35,7 @@ import com.amazon.ion.SystemSymbols;
 import com.amazon.ion.impl.bin.IonManagedBinaryWriter.ImportedSymbolResolverMode;
 import com.amazon.ion.impl.bin._Private_IonManagedBinaryWriterBuilder.AllocatorMode;
 import com.amazon.ion.junit.Injected.Inject;
+import com.amazon.ion.util.IonStreamUtils;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -416,4 +417,209 @@ public class IonManagedBinaryWriterTest extends IonRawBinaryWriterTest
         bos.toByteArray();
 
     }
+
+    @Test
+    public void testWriteValueContainer() throws Exception
+    {
+        final String literal =
+            "a::{b:[c, d::e, (f g 1.5e0 1e100)], hello:{world:null.list, z:2019T}, name:[1.5, \"s\", {{YQ==}}]}";
+        writer.writeValue(system().singleValue(literal));
+        assertValue(literal);
+    }
+
+    @Test
+    public void testWriteValueExactLengths() throws Exception
+    {
+        writer.writeValue(system().singleValue("[[1]]"));
+        writer.finish();
+        // the IVM then 0xB3 0xB2 0x21 0x01, with no preallocated length padding
+        assertEquals(ivmLength() + 4, writer.getBytes().length);
+        assertValue("[[1]]");
+    }
+
+    @Test
+    public void testWriteValueNestedBeyondPreallocation() throws Exception
+    {
+        // Every level is long enough to overflow a preallocated length.
+        IonValue value = system().newString("leaf");
+        final StringBuilder literal = new StringBuilder("\"leaf\"");
+        for (int i = 0; i < 12; i++)
+        {
+            final IonStruct struct = system().newEmptyStruct();
+            literal.insert(0, "{f" + i + ":");
+            for (int j = 0; j < 400; j++)
+            {
+                struct.add("p" + j, system().newSymbol("s" + j));
+                literal.append(", p").append(j).append(":s").append(j);
+            }
+            struct.add("f" + i, value);
+            literal.append("}");
+            value = struct;
+        }
+        writer.writeValue(value);
+        assertValue(literal.toString());
+    }
+
+    @Test
+    public void testWriteValueInStruct() throws Exception
+    {
+        final IonStruct source = (IonStruct) system().singleValue("{x:[a, b], y:q::(e f)}");
+        writer.stepIn(IonType.STRUCT);
+        {
+            // field name and annotations from the value
+            writer.setTypeAnnotations("ignored");
+            writer.writeValue(source.get("y"));
+
+            // field name from the writer
+            writer.setFieldName("renamed");
+            writer.writeValue(source.get("x"));
+        }
+        writer.stepOut();
+        assertValue("{y:q::(e f), renamed:[a, b]}");
+    }
+
+    @Test
+    public void testWriteValueInternsInDocumentOrder() throws Exception
+    {
+        writer.writeValue(system().singleValue("a::{b:c, d:[e, f::g]}"));
+        final SymbolTable symbolTable = writer.getSymbolTable();
+        int previous = symbolTable.findSymbol("a");
+        for (final String text : new String[] {"b", "c", "d", "e", "f", "g"})
+        {
+            final int sid = symbolTable.findSymbol(text);
+            assertTrue(text + " interned after its predecessor", sid > previous);
+            previous = sid;
+        }
+        assertValue("a::{b:c, d:[e, f::g]}");
+    }
+
+    @Test
+    public void testWriteValueInternsManySymbolsInDocumentOrder() throws Exception
+    {
+        // enough new symbols that their SIDs outgrow one and two byte encodings
+        final StringBuilder text = new StringBuilder("{");
+        for (int i = 0; i < 400; i++)
+        {
+            text.append("f").append(i).append(":a").append(i).append("::s").append(i).append(',');
+        }
+        text.append('}');
+        writer.writeValue(system().singleValue(text.toString()));
+        final SymbolTable symbolTable = writer.getSymbolTable();
+        int previous = 0;
+        for (int i = 0; i < 400; i++)
+        {
+            for (final String prefix : new String[] {"f", "a", "s"})
+            {
+                final int sid = symbolTable.findSymbol(prefix + i);
+                assertTrue(prefix + i + " interned after its predecessor", sid > previous);
+                previous = sid;
+            }
+        }
+        assertValue(text.toString());
+    }
+
+    @Test
+    public void testWriteValueSymbolTable() throws Exception
+    {
+        // a top-level local symbol table is still interpreted as one
+        final IonStruct symbolTable = system().newEmptyStruct();
+        symbolTable.setTypeAnnotations(SystemSymbols.ION_SYMBOL_TABLE);
+        symbolTable.add(SystemSymbols.SYMBOLS, system().newList(system().newString("s1")));
+        writer.writeValue(symbolTable);
+        writer.writeValue(system().singleValue("[s1]"));
+        assertValue("[s1]");
+    }
+
+    @Test
+    public void testWriteIntLists() throws Exception
+    {
+        final IonWriter managed = writer.getDelegate();
+        managed.stepIn(IonType.SEXP);
+        {
+            IonStreamUtils.writeIntList(managed, new long[] { 0, 1, -1, 256, Long.MAX_VALUE, Long.MIN_VALUE });
+            IonStreamUtils.writeIntList(managed, new int[] { Integer.MIN_VALUE, 0, Integer.MAX_VALUE });
+            IonStreamUtils.writeIntList(managed, new short[] { Short.MIN_VALUE, 7 });
+            IonStreamUtils.writeIntList(managed, new byte[] { Byte.MIN_VALUE, 0 });
+            IonStreamUtils.writeIntList(managed, new long[0]);
+        }
+        managed.stepOut();
+        assertValue(
+            "([0, 1, -1, 256, 9223372036854775807, -9223372036854775808]"
+            + " [-2147483648, 0, 2147483647] [-32768, 7] [-128, 0] [])"
+        );
+    }
+
+    @Test
+    public void testWriteFloatAndBoolLists() throws Exception
+    {
+        final IonWriter managed = writer.getDelegate();
+        managed.stepIn(IonType.SEXP);
+        {
+            IonStreamUtils.writeFloatList(managed, new double[] { 1.5, 0.1, Double.NaN, Double.NEGATIVE_INFINITY });
+            IonStreamUtils.writeFloatList(managed, new float[] { 2.5f, -0.0f });
+            IonStreamUtils.writeBoolList(managed, new boolean[] { true, false });
+        }
+        managed.stepOut();
+        assertValue("([1.5e0, 0.1e0, nan, -inf] [2.5e0, -0e0] [true, false])");
+    }
+
+    @Test
+    public void testWriteListExactLengths() throws Exception
+    {
+        final IonWriter managed = writer.getDelegate();
+        IonStreamUtils.writeIntList(managed, new int[] { 1, 2 });
+        managed.finish();
+        // the IVM then 0xB4 0x21 0x01 0x21 0x02, with no preallocated length padding
+        assertEquals(ivmLength() + 5, writer.getBytes().length);
+        assertValue("[1, 2]");
+
+        final long[] values = new long[1000];
+        final StringBuilder literal = new StringBuilder("[");
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = (long) i * i * i * i;
+            literal.append(values[i]).append(',');
+        }
+        IonStreamUtils.writeIntList(managed, values);
+        assertValue(literal.append(']').toString());
+    }
+
+    @Test
+    public void testWriteListsInContext() throws Exception
+    {
+        final IonWriter managed = writer.getDelegate();
+        managed.stepIn(IonType.STRUCT);
+        {
+            managed.setFieldName("ints");
+            managed.setTypeAnnotations("a", "b");
+            IonStreamUtils.writeIntList(managed, new long[] { 1, 2, 3 });
+            managed.setFieldName("bools");
+            IonStreamUtils.writeBoolList(managed, new boolean[] { true });
+        }
+        managed.stepOut();
+        assertValue("{ints:a::b::[1, 2, 3], bools:[true]}");
+    }
+
+    @Test
+    public void testWriteListInSymbolTable() throws Exception
+    {
+        // lists within a user's symbol table still go through the symbol table state machine
+        final IonWriter managed = writer.getDelegate();
+        managed.setTypeAnnotations(SystemSymbols.ION_SYMBOL_TABLE);
+        managed.stepIn(IonType.STRUCT);
+        {
+            managed.setFieldName(SystemSymbols.SYMBOLS);
+            IonStreamUtils.writeStringList(managed, new String[] { "s1", "s2" });
+            managed.setFieldName("open_content");
+            IonStreamUtils.writeIntList(managed, new int[] { 1, 2 });
+        }
+        managed.stepOut();
+        managed.stepIn(IonType.SEXP);
+        {
+            managed.writeSymbol("s2");
+            IonStreamUtils.writeIntList(managed, new int[] { 3 });
+        }
+        managed.stepOut();
+        assertValue("(s2 [3])");
+    }
 }
@@ -239,6 +239,21 @@ public class IonRawBinaryWriterTest extends Assert
         assertValue("-0x8000000000000000");
     }
 
+    @Test
+    public void testIntBeyondLongHasNoSignByte() throws Exception
+    {
+        // 2 ** 63 has an 8 byte magnitude; BigInteger adds a ninth for the sign
+        writer.writeInt(new BigInteger("9223372036854775808"));
+        writer.finish();
+        assertEquals(ivmLength() + 9, writer.getBytes().length);
+        assertValue("9223372036854775808");
+
+        writer.writeInt(new BigInteger("-9223372036854775809"));
+        writer.finish();
+        assertEquals(ivmLength() + 9, writer.getBytes().length);
+        assertValue("-9223372036854775809");
+    }
+
     @Test
     public void testFloat() throws Exception
     {
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class ThreadLocalPooledBlockAllocatorProviderTest
+{
+    private static final long LONG_IDLE = 60 * 1000;
+
+    @Test
+    public void testReuseBlockAfterClose()
+    {
+        final ThreadLocalPooledBlockAllocatorProvider provider =
+            new ThreadLocalPooledBlockAllocatorProvider(1024, LONG_IDLE);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        assertSame(allocator, provider.vendAllocator(8));
+
+        final Block block1 = allocator.allocateBlock();
+        final Block block2 = allocator.allocateBlock();
+        assertNotSame(block1.data, block2.data);
+        assertEquals(8, block1.capacity());
+        block1.limit = 7;
+        block1.close();
+        // Held by this thread's cache, which counts towards the bound.
+        assertEquals(8, provider.getRetainedBytes());
+
+        final Block block1Again = allocator.allocateBlock();
+        assertSame(block1.data, block1Again.data);
+        assertEquals(0, block1Again.limit);
+        assertEquals(0, provider.getRetainedBytes());
+    }
+
+    @Test
+    public void testCloseReleasesCachedBlocks() throws Exception
+    {
+        final ThreadLocalPooledBlockAllocatorProvider provider =
+            new ThreadLocalPooledBlockAllocatorProvider(1024, LONG_IDLE, 1);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final List<Block> blocks = new ArrayList<Block>();
+        for (int i = 0; i < ThreadLocalPooledBlockAllocatorProvider.THREAD_CACHE_BLOCKS + 3; i++)
+        {
+            blocks.add(allocator.allocateBlock());
+        }
+
+        // Some blocks are cached by a thread that is still running when the pool is closed.
+        final Object lock = new Object();
+        final boolean[] cached = new boolean[1];
+        final Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                synchronized (lock)
+                {
+                    allocator.allocateBlock().close();
+                    cached[0] = true;
+                    lock.notifyAll();
+                    try
+                    {
+                        lock.wait();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        throw new AssertionError(e);
+                    }
+                }
+            }
+        };
+        synchronized (lock)
+        {
+            thread.start();
+            while (!cached[0])
+            {
+                lock.wait();
+            }
+        }
+        for (Block block : blocks.subList(0, blocks.size() - 1))
+        {
+            block.close();
+        }
+        assertEquals(8 * blocks.size(), provider.getRetainedBytes());
+
+        provider.close();
+        assertEquals(0, provider.getRetainedBytes());
+        synchronized (lock)
+        {
+            lock.notifyAll();
+        }
+        thread.join();
+
+        // Nothing is pooled from then on.
+        final Block last = blocks.get(blocks.size() - 1);
+        last.close();
+        assertEquals(0, provider.getRetainedBytes());
+        assertTrue(!blocks.contains(allocator.allocateBlock()));
+    }
+
+    @Test
+    public void testRetainedBytesAreBounded()
+    {
+        final ThreadLocalPooledBlockAllocatorProvider provider =
+            new ThreadLocalPooledBlockAllocatorProvider(100, LONG_IDLE);
+        final BlockAllocator allocator = provider.vendAllocator(10);
+        final List<Block> blocks = new ArrayList<Block>();
+        for (int i = 0; i < 50; i++)
+        {
+            blocks.add(allocator.allocateBlock());
+        }
+        for (Block block : blocks)
+        {
+            block.close();
+        }
+        assertEquals(100, provider.getRetainedBytes());
+
+        // Beyond the four in the thread cache and the six shared, blocks are new.
+        for (int i = 0; i < 10; i++)
+        {
+            assertTrue(blocks.contains(allocator.allocateBlock()));
+        }
+        assertEquals(0, provider.getRetainedBytes());
+        assertTrue(!blocks.contains(allocator.allocateBlock()));
+    }
+
+    @Test
+    public void testZeroRetainedBytesDisablesPooling()
+    {
+        final ThreadLocalPooledBlockAllocatorProvider provider =
+            new ThreadLocalPooledBlockAllocatorProvider(0, LONG_IDLE);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final Block block = allocator.allocateBlock();
+        block.close();
+        assertEquals(0, provider.getRetainedBytes());
+        assertNotSame(block, allocator.allocateBlock());
+    }
+
+    @Test
+    public void testIdleBlocksAreEvicted() throws Exception
+    {
+        final ThreadLocalPooledBlockAllocatorProvider provider =
+            new ThreadLocalPooledBlockAllocatorProvider(1024, 1);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final List<Block> blocks = new ArrayList<Block>();
+        for (int i = 0; i < 20; i++)
+        {
+            blocks.add(allocator.allocateBlock());
+        }
+        for (Block block : blocks)
+        {
+            block.close();
+        }
+        assertEquals(160, provider.getRetainedBytes());
+
+        Thread.sleep(20);
+        // Releasing any block sweeps out the idle ones, in the thread cache
+        // and the shared stripes alike.
+        final Block block = allocator.allocateBlock();
+        block.close();
+        assertEquals(8, provider.getRetainedBytes());
+        assertSame(block, allocator.allocateBlock());
+        assertEquals(0, provider.getRetainedBytes());
+        assertTrue(!blocks.contains(allocator.allocateBlock()));
+    }
+
+    @Test
+    public void testThreadChurn() throws Exception
+    {
+        final ThreadLocalPooledBlockAllocatorProvider provider =
+            new ThreadLocalPooledBlockAllocatorProvider(80, LONG_IDLE, 4);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final Set<Block> released = Collections.synchronizedSet(new HashSet<Block>());
+        for (int t = 0; t < 200; t++)
+        {
+            final Thread thread = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    final List<Block> blocks = new ArrayList<Block>();
+                    for (int i = 0; i < 8; i++)
+                    {
+                        blocks.add(allocator.allocateBlock());
+                    }
+                    for (Block block : blocks)
+                    {
+                        block.close();
+                    }
+                    released.addAll(blocks);
+                }
+            };
+            thread.start();
+            thread.join();
+        }
+        // Each thread reused all eight blocks of the one before it, including
+        // the four left in its cache, which were spilled into the shared
+        // stripes once it had died.
+        assertEquals(8, released.size());
+        assertEquals(64, provider.getRetainedBytes());
+
+        final List<Block> reused = new ArrayList<Block>();
+        for (int i = 0; i < 8; i++)
+        {
+            final Block block = allocator.allocateBlock();
+            assertTrue(released.contains(block));
+            reused.add(block);
+            assertEquals(64 - 8 * (i + 1), provider.getRetainedBytes());
+        }
+        assertTrue(!released.contains(allocator.allocateBlock()));
+
+        // And the pool still takes blocks back, up to the bound.
+        for (int i = 0; i < 4; i++)
+        {
+            reused.add(allocator.allocateBlock());
+        }
+        for (Block block : reused)
+        {
+            block.close();
+        }
+        assertEquals(80, provider.getRetainedBytes());
+    }
+
+    @Test
+    public void testThreadCacheIsCapped()
+    {
+        final ThreadLocalPooledBlockAllocatorProvider provider =
+            new ThreadLocalPooledBlockAllocatorProvider(1024, LONG_IDLE, 1);
+        final BlockAllocator allocator = provider.vendAllocator(8);
+        final List<Block> blocks = new ArrayList<Block>();
+        for (int i = 0; i < ThreadLocalPooledBlockAllocatorProvider.THREAD_CACHE_BLOCKS + 3; i++)
+        {
+            blocks.add(allocator.allocateBlock());
+        }
+        for (Block block : blocks)
+        {
+            block.close();
+        }
+        assertEquals(8 * blocks.size(), provider.getRetainedBytes());
+
+        // The overflow went to the shared stripe, where another thread finds it.
+        final List<Block> taken = Collections.synchronizedList(new ArrayList<Block>());
+        final Thread thread = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                for (int i = 0; i < 4; i++)
+                {
+                    taken.add(allocator.allocateBlock());
+                }
+            }
+        };
+        thread.start();
+        try
+        {
+            thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            throw new AssertionError(e);
+        }
+        for (int i = 0; i < 3; i++)
+        {
+            assertSame(blocks.get(blocks.size() - 1 - i), taken.get(i));
+        }
+        assertTrue(!blocks.contains(taken.get(3)));
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception
+    {
+        final long maxRetained = 16 * 64;
+        final ThreadLocalPooledBlockAllocatorProvider provider =
+            new ThreadLocalPooledBlockAllocatorProvider(maxRetained, LONG_IDLE);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int seed = t;
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        final BlockAllocator allocator = provider.vendAllocator(64);
+                        final List<Block> held = new ArrayList<Block>();
+                        for (int i = 0; i < 20000; i++)
+                        {
+                            if (held.size() < 1 + (i + seed) % 7)
+                            {
+                                final Block block = allocator.allocateBlock();
+                                assertEquals(0, block.limit);
+                                block.limit = 1 + seed;
+                                held.add(block);
+                            }
+                            else
+                            {
+                                final Block block = held.remove(held.size() - 1);
+                                assertEquals(1 + seed, block.limit);
+                                block.close();
+                            }
+                        }
+                        for (Block block : held)
+                        {
+                            block.close();
+                        }
+                    }
+                    catch (Throwable e)
+                    {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        if (failure.get() != null)
+        {
+            throw new AssertionError(failure.get());
+        }
+        assertTrue(provider.getRetainedBytes() <= maxRetained);
+        assertTrue(provider.getRetainedBytes() > 0);
+    }
+}
@@ -32,12 +32,17 @@ public class WriteBufferTest
     // XXX make this a prime to make it more likely that we collide on the edges of the buffer
     private static BlockAllocator ALLOCATOR = BlockAllocatorProviders.basicProvider().vendAllocator(11);
 
-    private WriteBuffer buf;
+    protected WriteBuffer buf;
+
+    protected BlockAllocator allocator()
+    {
+        return ALLOCATOR;
+    }
 
     @Before
     public void setup()
     {
-        buf = new WriteBuffer(ALLOCATOR);
+        buf = new WriteBuffer(allocator());
     }
 
     @After
@@ -46,7 +51,7 @@ public class WriteBufferTest
         buf = null;
     }
 
-    private byte[] bytes()
+    protected byte[] bytes()
     {
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
         try
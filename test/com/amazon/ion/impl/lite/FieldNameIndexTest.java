@@ -0,0 +1,140 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static com.amazon.ion.impl.lite.FieldNameIndex.NOT_FOUND;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.amazon.ion.IonInt;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class FieldNameIndexTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static void assertSameMappings(Map<String, Integer> expected,
+                                           FieldNameIndex actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (Map.Entry<String, Integer> e : expected.entrySet())
+        {
+            assertEquals(e.getValue().intValue(), actual.get(e.getKey()));
+        }
+        final Map<String, Integer> visited = new HashMap<String, Integer>();
+        actual.forEach(new FieldNameIndex.Visitor()
+        {
+            public void visit(String name, int index)
+            {
+                visited.put(name, index);
+            }
+        });
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    public void testMatchesHashMap()
+    {
+        Random random = new Random(42);
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        FieldNameIndex index = new FieldNameIndex(4);
+        for (int i = 0; i < 20000; i++)
+        {
+            // A small key space forces collisions, replacement and removal
+            // of entries in the middle of probe sequences.
+            String name = "f" + random.nextInt(500);
+            if (random.nextInt(3) == 0)
+            {
+                expected.remove(name);
+                index.remove(name);
+            }
+            else
+            {
+                expected.put(name, i);
+                index.put(name, i);
+            }
+            assertEquals(expected.containsKey(name) ? expected.get(name).intValue() : NOT_FOUND,
+                         index.get(name));
+        }
+        assertSameMappings(expected, index);
+    }
+
+    @Test
+    public void testNullName()
+    {
+        FieldNameIndex index = new FieldNameIndex(0);
+        assertEquals(NOT_FOUND, index.get(null));
+        index.put(null, 3);
+        index.put("a", 1);
+        assertEquals(3, index.get(null));
+        assertEquals(2, index.size());
+        index.remove(null);
+        assertEquals(NOT_FOUND, index.get(null));
+        assertEquals(1, index.get("a"));
+    }
+
+    @Test
+    public void testCopyIsIndependent()
+    {
+        FieldNameIndex index = new FieldNameIndex(0);
+        for (int i = 0; i < 100; i++)
+        {
+            index.put("f" + i, i);
+        }
+        FieldNameIndex copy = new FieldNameIndex(index);
+        copy.remove("f1");
+        copy.put("f2", 200);
+        copy.put("g", 300);
+        assertEquals(1, index.get("f1"));
+        assertEquals(2, index.get("f2"));
+        assertEquals(NOT_FOUND, index.get("g"));
+        assertEquals(100, index.size());
+        assertEquals(NOT_FOUND, copy.get("f1"));
+        assertEquals(200, copy.get("f2"));
+    }
+
+    @Test
+    public void testLargeStructWithDuplicates()
+    {
+        IonStructLite struct = (IonStructLite) SYSTEM.newEmptyStruct();
+        for (int i = 0; i < 2000; i++)
+        {
+            struct.add("f" + (i % 1500), SYSTEM.newInt(i));
+        }
+        assertNull(struct.validate());
+        assertEquals(1500, ((IonInt) struct.get("f0")).intValue());
+        assertEquals(1499, ((IonInt) struct.get("f1499")).intValue());
+
+        struct.remove(struct.get("f0"));
+        assertEquals(0, ((IonInt) struct.get("f0")).intValue());
+        struct.put("f1", SYSTEM.newInt(-1));
+        assertEquals(-1, ((IonInt) struct.get("f1")).intValue());
+        assertEquals(1998, struct.size());
+        assertNull(struct.validate());
+
+        IonStruct clone = struct.clone();
+        assertNull(((IonStructLite) clone).validate());
+        clone.remove("f2");
+        assertEquals(1502, ((IonInt) struct.get("f2")).intValue());
+        assertEquals(struct.size() - 1, clone.size());
+    }
+}
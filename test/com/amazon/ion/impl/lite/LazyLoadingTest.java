@@ -0,0 +1,269 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.impl.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonInt;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonString;
+import com.amazon.ion.IonStruct;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.ReadOnlyValueException;
+import com.amazon.ion.UnexpectedEofException;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class LazyLoadingTest
+{
+    private static final IonSystem EAGER = IonSystemBuilder.standard().build();
+    private static final IonSystem LAZY =
+        IonSystemBuilder.standard().withLazyLoadingEnabled(true).build();
+
+    private static final String DATA =
+        "{id:1, name:\"one\", tags:[a, b::c, (d e)], nested:{x:{y:[1, 2.5, 3e0]}}} "
+      + "[1, {a:1, a:2, b:null.int}, null.list, [], {}] "
+      + "ann::{f1:1, f2:2, f3:3, f4:4, f5:5, f6:6, f7:7, f8:8, f1:9} "
+      + "$ion_1_0 {after:ivm, s:sym} "
+      + "$ion_symbol_table::{symbols:[\"local\"]} {local:local} "
+      + "2019-01-01T \"top\" null";
+
+    private static byte[] binary(String ionText) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        EAGER.getLoader().load(ionText).writeTo(writer);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static void assertDatagramsEqual(IonDatagram expected,
+                                             IonDatagram actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void testLoadMatchesEagerLoad() throws Exception
+    {
+        byte[] data = binary(DATA);
+        IonDatagram expected = EAGER.getLoader().load(data);
+        IonDatagram actual = LAZY.getLoader().load(data);
+        assertDatagramsEqual(expected, actual);
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception
+    {
+        byte[] data = binary(DATA);
+        IonDatagram lazy = LAZY.getLoader().load(data);
+        assertDatagramsEqual(EAGER.getLoader().load(data),
+                             EAGER.getLoader().load(lazy.getBytes()));
+    }
+
+    @Test
+    public void testFieldAccess() throws Exception
+    {
+        IonDatagram dg = LAZY.getLoader().load(binary(DATA));
+        IonStruct first = (IonStruct) dg.get(0);
+        assertEquals("one", ((IonString) first.get("name")).stringValue());
+        IonStruct x = (IonStruct) ((IonStruct) first.get("nested")).get("x");
+        assertEquals(3, ((IonList) x.get("y")).size());
+        assertNull(first.get("missing"));
+
+        IonStruct big = (IonStruct) dg.get(2);
+        assertEquals(9, big.size());
+        assertEquals("ann", big.getTypeAnnotations()[0]);
+        assertEquals(8, ((IonInt) big.get("f8")).intValue());
+        assertTrue(big.containsKey("f6"));
+
+        IonStruct local = (IonStruct) dg.get(4);
+        assertEquals("local", local.get("local").toString());
+    }
+
+    @Test
+    public void testMutation() throws Exception
+    {
+        IonDatagram dg = LAZY.getLoader().load(binary(DATA));
+
+        IonStruct first = (IonStruct) dg.get(0);
+        first.put("name", LAZY.newString("uno"));
+        first.add("extra", LAZY.newInt(2));
+        first.remove("id");
+        assertEquals(EAGER.singleValue(
+            "{tags:[a, b::c, (d e)], nested:{x:{y:[1, 2.5, 3e0]}}, name:\"uno\", extra:2}"),
+            first);
+
+        IonStruct big = (IonStruct) dg.get(2);
+        big.put("f1", null);
+        assertNull(big.get("f1"));
+        assertEquals(7, big.size());
+
+        IonList list = (IonList) dg.get(1);
+        list.set(0, LAZY.newInt(7));
+        list.remove(4);
+        assertEquals(EAGER.singleValue("[7, {a:1, a:2, b:null.int}, null.list, []]"), list);
+    }
+
+    @Test
+    public void testClear() throws Exception
+    {
+        IonDatagram dg = LAZY.getLoader().load(binary(DATA));
+        IonStruct first = (IonStruct) dg.get(0);
+        first.clear();
+        assertTrue(first.isEmpty());
+        assertNull(first.get("id"));
+
+        IonList list = (IonList) dg.get(1);
+        list.makeNull();
+        assertTrue(list.isNullValue());
+    }
+
+    @Test
+    public void testCloneBeforeAccess() throws Exception
+    {
+        IonDatagram dg = LAZY.getLoader().load(binary(DATA));
+        IonStruct original = (IonStruct) dg.get(0);
+        IonStruct copy = original.clone();
+
+        copy.remove("nested");
+        ((IonList) copy.get("tags")).add(LAZY.newSymbol("z"));
+
+        IonDatagram expected = EAGER.getLoader().load(DATA);
+        assertEquals(expected.get(0), original);
+        assertEquals(3, ((IonList) original.get("tags")).size());
+        assertEquals(4, ((IonList) copy.get("tags")).size());
+        assertEquals(3, copy.size());
+    }
+
+    @Test
+    public void testReadOnly() throws Exception
+    {
+        IonDatagram dg = LAZY.getLoader().load(binary(DATA));
+        dg.makeReadOnly();
+        IonStruct first = (IonStruct) dg.get(0);
+        IonValue tags = first.get("tags");
+        assertTrue(tags.isReadOnly());
+        try
+        {
+            ((IonList) tags).add(LAZY.newInt(1));
+            fail("Expected ReadOnlyValueException");
+        }
+        catch (ReadOnlyValueException e)
+        {
+            // Expected
+        }
+        assertDatagramsEqual(EAGER.getLoader().load(DATA), dg);
+    }
+
+    @Test
+    public void testConcurrentReadOnlyAccess() throws Exception
+    {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < 200; i++)
+        {
+            text.append("{id:").append(i).append(", values:[")
+                .append(i).append(", ").append(i + 1).append("]}, ");
+        }
+        text.append("]");
+        final IonValue expected = EAGER.singleValue(text.toString());
+        final IonValue value = LAZY.singleValue(binary(text.toString()));
+        value.makeReadOnly();
+
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        assertEquals(expected, value);
+                    }
+                    catch (Throwable e)
+                    {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        if (failure.get() != null)
+        {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    @Test
+    public void testSingleValue() throws Exception
+    {
+        String text = "a::{b:[c, {d:e}]}";
+        IonValue value = LAZY.singleValue(binary(text));
+        assertEquals(EAGER.singleValue(text), value);
+        assertTrue(value.getSymbolTable() != null);
+
+        try
+        {
+            LAZY.singleValue(binary("1 2"));
+            fail("Expected IonException");
+        }
+        catch (IonException e)
+        {
+            assertFalse(e instanceof UnexpectedEofException);
+        }
+
+        try
+        {
+            LAZY.singleValue(binary(""));
+            fail("Expected UnexpectedEofException");
+        }
+        catch (UnexpectedEofException e)
+        {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testTextLoadsEagerly() throws Exception
+    {
+        IonDatagram dg = LAZY.getLoader().load(DATA.getBytes("UTF-8"));
+        assertDatagramsEqual(EAGER.getLoader().load(DATA), dg);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.SymbolTable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class ConcurrentCatalogTest
+{
+    private final IonSystem system = IonSystemBuilder.standard().build();
+
+    private SymbolTable table(String name, int version)
+    {
+        String text = "$ion_shared_symbol_table::{name:\"" + name + "\","
+            + " version:" + version + ", symbols:[\"" + name + version + "\"]}";
+        return system.newSharedSymbolTable(system.newReader(text));
+    }
+
+    @Test
+    public void testGetMissingVersion()
+    {
+        ConcurrentCatalog cat = new ConcurrentCatalog();
+        assertNull(cat.getTable("T"));
+        assertNull(cat.getTable("T", 3));
+
+        SymbolTable t1 = table("T", 1);
+        cat.putTable(t1);
+        assertSame(t1, cat.getTable("T", 1));
+        assertSame(t1, cat.getTable("T"));
+        assertSame(t1, cat.getTable("T", 5));
+
+        SymbolTable t2 = table("T", 2);
+        cat.putTable(t2);
+        assertSame(t2, cat.getTable("T"));
+        assertSame(t1, cat.getTable("T", 1));
+        assertSame(t2, cat.getTable("T", 5));
+
+        assertSame(t1, cat.removeTable("T", 1));
+        assertNull(cat.removeTable("T", 1));
+        assertSame(t2, cat.getTable("T"));
+        assertSame(t2, cat.getTable("T", 1));
+
+        assertSame(t2, cat.removeTable("T", 2));
+        assertNull(cat.getTable("T"));
+        assertFalse(cat.iterator().hasNext());
+    }
+
+    @Test
+    public void testMatchesSimpleCatalog()
+    {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++)
+        {
+            SimpleCatalog simple = new SimpleCatalog();
+            ConcurrentCatalog concurrent = new ConcurrentCatalog();
+            int count = 1 + random.nextInt(6);
+            for (int i = 0; i < count; i++)
+            {
+                SymbolTable table = table("T", 1 + random.nextInt(10));
+                simple.putTable(table);
+                concurrent.putTable(table);
+            }
+            assertSame(simple.getTable("T"), concurrent.getTable("T"));
+            for (int version = 1; version <= 12; version++)
+            {
+                assertSame(simple.getTable("T", version),
+                           concurrent.getTable("T", version));
+            }
+        }
+    }
+
+    @Test
+    public void testIteratorIsSnapshot()
+    {
+        ConcurrentCatalog cat = new ConcurrentCatalog();
+        cat.putTable(table("A", 1));
+        cat.putTable(table("A", 2));
+        cat.putTable(table("B", 1));
+
+        Iterator<SymbolTable> tables = cat.iterator();
+        cat.putTable(table("C", 1));
+        cat.removeTable("A", 1);
+
+        List<String> names = new ArrayList<String>();
+        while (tables.hasNext())
+        {
+            SymbolTable table = tables.next();
+            names.add(table.getName() + table.getVersion());
+        }
+        Collections.sort(names);
+        assertEquals(Arrays.asList("A1", "A2", "B1"), names);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutLocalTable()
+    {
+        new ConcurrentCatalog().putTable(system.newLocalSymbolTable());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetEmptyName()
+    {
+        new ConcurrentCatalog().getTable("", 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetInvalidVersion()
+    {
+        new ConcurrentCatalog().getTable("T", 0);
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException
+    {
+        final ConcurrentCatalog cat = new ConcurrentCatalog();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final SymbolTable[] tables = new SymbolTable[200];
+        for (int i = 0; i < tables.length; i++)
+        {
+            tables[i] = table("T" + (i % 10), 1 + i / 10);
+        }
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int first = t;
+            threads[t] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        for (int i = first; i < tables.length; i += 4)
+                        {
+                            cat.putTable(tables[i]);
+                            assertTrue(cat.getTable(tables[i].getName()) != null);
+                        }
+                    }
+                    catch (Throwable e)
+                    {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertNull(failure.get());
+
+        for (SymbolTable table : tables)
+        {
+            assertSame(table, cat.getTable(table.getName(), table.getVersion()));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileCatalogTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String table(String name, int version, String... symbols)
+    {
+        StringBuilder text = new StringBuilder();
+        text.append("$ion_shared_symbol_table::{name:\"").append(name)
+            .append("\", version:").append(version).append(", symbols:[");
+        for (String symbol : symbols)
+        {
+            text.append('"').append(symbol).append("\",");
+        }
+        return text.append("]}\n").toString();
+    }
+
+    private File write(String fileName, byte[] data) throws IOException
+    {
+        File file = new File(folder.getRoot(), fileName);
+        OutputStream out = new FileOutputStream(file);
+        out.write(data);
+        out.close();
+        return file;
+    }
+
+    private static byte[] binary(String text) throws IOException
+    {
+        return SYSTEM.getLoader().load(text).getBytes();
+    }
+
+    private static final String TABLES =
+        "\"café ☃\" other::{name:\"X\", version:9} "
+      + table("T", 1, "a", "b")
+      + "{name:\"not a table\"} local_symbol "
+      + table("T", 3, "a", "b", "c")
+      + table("U", 1, "ü");
+
+    private void assertTables(FileCatalog catalog)
+    {
+        assertEquals(3, catalog.size());
+
+        SymbolTable t1 = catalog.getTable("T", 1);
+        assertEquals("T", t1.getName());
+        assertEquals(1, t1.getVersion());
+        assertEquals(2, t1.getMaxId());
+        assertTrue(t1.isSharedTable());
+
+        SymbolTable t3 = catalog.getTable("T");
+        assertEquals(3, t3.getVersion());
+        assertEquals(3, t3.findSymbol("c"));
+        assertSame(t3, catalog.getTable("T", 2));
+        assertSame(t3, catalog.getTable("T", 5));
+        assertSame(t1, catalog.getTable("T", 1));
+
+        assertEquals(1, catalog.getTable("U", 1).findSymbol("ü"));
+        assertNull(catalog.getTable("X"));
+        assertNull(catalog.getTable("V", 1));
+    }
+
+    @Test
+    public void testTextFile() throws IOException
+    {
+        File file = write("tables.ion", TABLES.getBytes("UTF-8"));
+        assertTables(new FileCatalog(file, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testBinaryFile() throws IOException
+    {
+        File file = write("tables.10n", binary(TABLES));
+        assertTables(new FileCatalog(file, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testBinaryFileWithSymbolTables() throws IOException
+    {
+        // Tables after local symbol tables, whose symbols don't apply to them.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        for (int i = 0; i < 3; i++)
+        {
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("field" + i);
+            writer.writeSymbol("value" + i);
+            writer.stepOut();
+            SYSTEM.getLoader().load(table("T", 1 + i, "s" + i)).get(0).writeTo(writer);
+            writer.finish();
+        }
+        writer.close();
+
+        FileCatalog catalog = new FileCatalog(write("tables.10n", out.toByteArray()),
+                                              Long.MAX_VALUE);
+        assertEquals(3, catalog.size());
+        for (int i = 0; i < 3; i++)
+        {
+            assertEquals("s" + i, catalog.getTable("T", 1 + i).findKnownSymbol(1));
+        }
+    }
+
+    @Test
+    public void testDirectory() throws IOException
+    {
+        write("a.ion", (table("A", 1, "x") + table("T", 1, "old")).getBytes("UTF-8"));
+        write("b.10n", binary(table("B", 1, "y") + table("T", 1, "new")));
+        folder.newFolder("ignored");
+
+        FileCatalog catalog = new FileCatalog(folder.getRoot(), Long.MAX_VALUE);
+        assertEquals(3, catalog.size());
+        assertEquals("x", catalog.getTable("A").findKnownSymbol(1));
+        assertEquals("y", catalog.getTable("B").findKnownSymbol(1));
+        // The last one found wins.
+        assertEquals("new", catalog.getTable("T").findKnownSymbol(1));
+    }
+
+    @Test
+    public void testEviction() throws IOException
+    {
+        File file = write("tables.ion", TABLES.getBytes("UTF-8"));
+
+        FileCatalog catalog = new FileCatalog(file, 0);
+        assertEquals(0, catalog.getLoadedMemory());
+        SymbolTable t1 = catalog.getTable("T", 1);
+        long t1Size = catalog.getLoadedMemory();
+        assertTrue(t1Size > 0);
+        // Always keeps the most recent table.
+        assertSame(t1, catalog.getTable("T", 1));
+        SymbolTable u1 = catalog.getTable("U", 1);
+        assertNotSame(t1, catalog.getTable("T", 1));
+        assertNotSame(u1, catalog.getTable("U", 1));
+
+        // Room for T1 and T3, but not U1 as well.
+        catalog = new FileCatalog(file, Long.MAX_VALUE);
+        catalog.getTable("T", 3);
+        long budget = t1Size + catalog.getLoadedMemory();
+
+        catalog = new FileCatalog(file, budget);
+        t1 = catalog.getTable("T", 1);
+        u1 = catalog.getTable("U", 1);
+        assertSame(t1, catalog.getTable("T", 1));
+        // Evicts U, the least recently used.
+        SymbolTable t3 = catalog.getTable("T", 3);
+        assertEquals(budget, catalog.getLoadedMemory());
+        assertSame(t3, catalog.getTable("T", 3));
+        assertSame(t1, catalog.getTable("T", 1));
+        assertNotSame(u1, catalog.getTable("U", 1));
+        assertTrue(catalog.getLoadedMemory() <= budget);
+    }
+
+    @Test(expected = IonException.class)
+    public void testCompressedFile() throws IOException
+    {
+        File file = new File(folder.getRoot(), "tables.ion.gz");
+        OutputStream out = new GZIPOutputStream(new FileOutputStream(file));
+        out.write(TABLES.getBytes("UTF-8"));
+        out.close();
+        new FileCatalog(file, Long.MAX_VALUE);
+    }
+
+    @Test(expected = IonException.class)
+    public void testTableWithoutName() throws IOException
+    {
+        File file = write("tables.ion",
+                          "$ion_shared_symbol_table::{version:1}".getBytes("UTF-8"));
+        new FileCatalog(file, Long.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyName() throws IOException
+    {
+        File file = write("tables.ion", TABLES.getBytes("UTF-8"));
+        new FileCatalog(file, Long.MAX_VALUE).getTable("");
+    }
+}
@@ -24,6 +24,8 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import com.amazon.ion.IonCatalog;
+import com.amazon.ion.IonList;
+import com.amazon.ion.IonStruct;
 import com.amazon.ion.IonSystem;
 import com.amazon.ion.IonWriter;
 import com.amazon.ion.SymbolTable;
@@ -34,6 +36,11 @@ import com.amazon.ion.impl._Private_Utils;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -141,6 +148,56 @@ public class IonBinaryWriterBuilderTest
     }
 
 
+    //-------------------------------------------------------------------------
+
+    private static byte[] canonicalBytes(IonSystem system, String ion)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter w = IonBinaryWriterBuilder.standard()
+                                            .withCanonicalEncoding(true)
+                                            .build(out);
+        w.writeValues(system.newReader(ion));
+        w.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testCanonicalEncoding()
+        throws IOException
+    {
+        IonSystem system = IonSystemBuilder.standard().build();
+
+        String ion = "a::{b:[c, 1.0, 2e0], d:{{aGVsbG8=}}, b:nan} name";
+        byte[] expected = canonicalBytes(system, ion);
+        assertArrayEquals(expected,
+                          canonicalBytes(system, "a::{b:nan, d:{{aGVsbG8=}}, b:[c, 1.0, 2e0]} name"));
+        assertArrayEquals(expected,
+                          canonicalBytes(system, "$ion_symbol_table::{symbols:[\"d\"]} " + ion));
+        assertEquals(system.getLoader().load(ion),
+                     system.getLoader().load(expected));
+
+        // Each value's encoding is independent of the values before it.
+        byte[] single = canonicalBytes(system, "{x:y}");
+        byte[] stream = canonicalBytes(system, "{y:x} {x:y}");
+        int ivmLength = 4;
+        int valueLength = single.length - ivmLength;
+        assertArrayEquals(Arrays.copyOfRange(single, ivmLength, single.length),
+                          Arrays.copyOfRange(stream, stream.length - valueLength, stream.length));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCanonicalEncodingImmutability()
+    {
+        IonBinaryWriterBuilder b = IonBinaryWriterBuilder.standard();
+        b.setCanonicalEncoding(true);
+
+        IonBinaryWriterBuilder b2 = b.immutable();
+        assertTrue(b2.isCanonicalEncoding());
+        b2.setCanonicalEncoding(false);
+    }
+
+
     //-------------------------------------------------------------------------
 
     @Test
@@ -202,6 +259,223 @@ public class IonBinaryWriterBuilderTest
 
     //-------------------------------------------------------------------------
 
+    @Test
+    public void testWithThreadLocalBlockPool() throws IOException
+    {
+        IonSystem system = IonSystemBuilder.standard().build();
+
+        assertEquals(-1, IonBinaryWriterBuilder.standard()
+                         .getThreadLocalBlockPoolMaxRetainedBytes());
+        assertEquals(-1, IonBinaryWriterBuilder.standard()
+                         .getThreadLocalBlockPoolMaxIdleMillis());
+
+        IonBinaryWriterBuilder b = IonBinaryWriterBuilder.standard()
+            .withThreadLocalBlockPool(1024 * 1024, 1000)
+            .immutable();
+        assertEquals(1024 * 1024, b.getThreadLocalBlockPoolMaxRetainedBytes());
+        assertEquals(1000, b.getThreadLocalBlockPoolMaxIdleMillis());
+        assertEquals(1000, b.copy().getThreadLocalBlockPoolMaxIdleMillis());
+
+        // Writers built in turn reuse the pooled blocks.
+        for (int i = 0; i < 3; i++)
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            IonWriter writer = b.build(out);
+            writer.writeString("value " + i);
+            writer.close();
+            assertEquals(system.newString("value " + i),
+                         system.singleValue(out.toByteArray()));
+        }
+    }
+
+    @Test
+    public void testCloseBlockPools() throws IOException
+    {
+        IonSystem system = IonSystemBuilder.standard().build();
+        IonBinaryWriterBuilder mutable = IonBinaryWriterBuilder.standard();
+        IonBinaryWriterBuilder b = mutable
+            .withThreadLocalBlockPool(1024 * 1024, 1000)
+            .withDirectBlockPool(1024 * 1024)
+            .immutable();
+        // Declaring a pool on a copy leaves the original's pool alone.
+        IonBinaryWriterBuilder copy = b.copy();
+        copy.setThreadLocalBlockPool(1024, 1000);
+        assertEquals(1024 * 1024, b.getThreadLocalBlockPoolMaxRetainedBytes());
+
+        // Writers keep working once the pools are closed, only without reuse.
+        for (int i = 0; i < 2; i++)
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            IonWriter writer = b.build(out);
+            writer.writeString("value " + i);
+            writer.close();
+            assertEquals(system.newString("value " + i),
+                         system.singleValue(out.toByteArray()));
+            b.closeBlockPools();
+        }
+        mutable.closeBlockPools();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThreadLocalBlockPoolInvalidIdleTime()
+    {
+        IonBinaryWriterBuilder.standard().withThreadLocalBlockPool(1024, 0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testThreadLocalBlockPoolImmutability()
+    {
+        IonBinaryWriterBuilder b = IonBinaryWriterBuilder.standard().immutable();
+        b.setThreadLocalBlockPool(1024, 1000);
+    }
+
+    //-------------------------------------------------------------------------
+
+    @Test
+    public void testBuildChannel() throws IOException
+    {
+        IonSystem system = IonSystemBuilder.standard().build();
+        IonList expected = system.newEmptyList();
+        for (int i = 0; i < 20000; i++)
+        {
+            // Enough data to span many blocks.
+            expected.add(system.newString("value " + i));
+        }
+
+        IonBinaryWriterBuilder[] builders = {
+            IonBinaryWriterBuilder.standard(),
+            IonBinaryWriterBuilder.standard().withDirectBlockPool(1024 * 1024)
+        };
+        for (IonBinaryWriterBuilder b : builders)
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final boolean[] closed = new boolean[1];
+            WritableByteChannel channel = new FilterChannel(Channels.newChannel(out))
+            {
+                @Override
+                public void close() throws IOException
+                {
+                    closed[0] = true;
+                    super.close();
+                }
+            };
+
+            IonWriter writer = b.build(channel);
+            expected.writeTo(writer);
+            writer.close();
+            assertTrue(closed[0]);
+            assertEquals(expected, system.singleValue(out.toByteArray()));
+        }
+    }
+
+    @Test
+    public void testWithDirectBlockPool()
+    {
+        assertEquals(-1, IonBinaryWriterBuilder.standard()
+                         .getDirectBlockPoolMaxRetainedBytes());
+
+        IonBinaryWriterBuilder b = IonBinaryWriterBuilder.standard()
+            .withDirectBlockPool(1024 * 1024)
+            .immutable();
+        assertEquals(1024 * 1024, b.getDirectBlockPoolMaxRetainedBytes());
+        assertEquals(1024 * 1024, b.copy().getDirectBlockPoolMaxRetainedBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDirectBlockPoolInvalidBound()
+    {
+        IonBinaryWriterBuilder.standard().withDirectBlockPool(-1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDirectBlockPoolImmutability()
+    {
+        IonBinaryWriterBuilder b = IonBinaryWriterBuilder.standard().immutable();
+        b.setDirectBlockPool(1024);
+    }
+
+    @Test
+    public void testBuildChannelWithNestedContainers() throws IOException
+    {
+        IonSystem system = IonSystemBuilder.standard().build();
+        IonList expected = system.newEmptyList();
+        for (int i = 0; i < 200; i++)
+        {
+            // Containers too long for their lengths to be reserved in
+            // place, so the writer must patch them at each level.
+            IonStruct struct = system.newEmptyStruct();
+            IonList list = system.newEmptyList();
+            for (int j = 0; j < 50; j++)
+            {
+                list.add(system.newString("value " + i + "." + j));
+            }
+            struct.put("list", list);
+            expected.add(struct);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard()
+            .withDirectBlockPool(1024 * 1024)
+            .build(new FilterChannel(Channels.newChannel(out)));
+        expected.writeTo(writer);
+        writer.close();
+        assertEquals(expected, system.singleValue(out.toByteArray()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildNonBlockingChannel() throws Exception
+    {
+        Pipe pipe = Pipe.open();
+        try
+        {
+            pipe.sink().configureBlocking(false);
+            IonBinaryWriterBuilder.standard().build(pipe.sink());
+        }
+        finally
+        {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+
+    /** Delegates to another channel, writing at most a few bytes per call. */
+    private static class FilterChannel
+        implements WritableByteChannel
+    {
+        private final WritableByteChannel myChannel;
+
+        FilterChannel(WritableByteChannel channel)
+        {
+            myChannel = channel;
+        }
+
+        public int write(ByteBuffer src) throws IOException
+        {
+            int limit = src.limit();
+            src.limit(Math.min(limit, src.position() + 1000));
+            try
+            {
+                return myChannel.write(src);
+            }
+            finally
+            {
+                src.limit(limit);
+            }
+        }
+
+        public boolean isOpen()
+        {
+            return myChannel.isOpen();
+        }
+
+        public void close() throws IOException
+        {
+            myChannel.close();
+        }
+    }
+
+    //-------------------------------------------------------------------------
+
 
     @Test
     public void testSymtabValueFactory()
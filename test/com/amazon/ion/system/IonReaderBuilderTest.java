@@ -16,8 +16,10 @@
 package com.amazon.ion.system;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import com.amazon.ion.IonCatalog;
 import com.amazon.ion.IonReader;
@@ -98,6 +100,40 @@ public class IonReaderBuilderTest
         assertSame(mutableCopy, mutableSame);
     }
 
+    @Test
+    public void testIncrementalReadingEnabled()
+    {
+        IonReaderBuilder mutable = IonReaderBuilder.standard();
+        assertFalse(mutable.isIncrementalReadingEnabled());
+        IonReaderBuilder immutable = mutable.withIncrementalReadingEnabled(true).immutable();
+        mutable.setIncrementalReadingEnabled(false);
+        assertTrue(immutable.isIncrementalReadingEnabled());
+        assertTrue(immutable.copy().isIncrementalReadingEnabled());
+        thrown.expect(UnsupportedOperationException.class);
+        immutable.setIncrementalReadingEnabled(false);
+    }
+
+    @Test
+    public void testLocalSymbolTableCacheSize()
+    {
+        IonReaderBuilder mutable = IonReaderBuilder.standard();
+        assertEquals(0, mutable.getLocalSymbolTableCacheSize());
+        IonReaderBuilder immutable = mutable.withLocalSymbolTableCacheSize(8).immutable();
+        mutable.setLocalSymbolTableCacheSize(0);
+        assertEquals(0, mutable.getLocalSymbolTableCacheSize());
+        assertEquals(8, immutable.getLocalSymbolTableCacheSize());
+        assertEquals(8, immutable.copy().getLocalSymbolTableCacheSize());
+        thrown.expect(UnsupportedOperationException.class);
+        immutable.setLocalSymbolTableCacheSize(4);
+    }
+
+    @Test
+    public void testNegativeLocalSymbolTableCacheSizeFails()
+    {
+        thrown.expect(IllegalArgumentException.class);
+        IonReaderBuilder.standard().setLocalSymbolTableCacheSize(-1);
+    }
+
     @Test
     public void testSystemFreeRoundtrip() throws IOException
     {
@@ -134,6 +134,19 @@ public class IonSystemBuilderTest
     }
 
 
+    @Test
+    public void testLazyLoadingEnabled()
+    {
+        IonSystemBuilder b = IonSystemBuilder.standard().copy();
+        assertFalse(b.isLazyLoadingEnabled());
+        b.setLazyLoadingEnabled(true);
+        assertTrue(b.isLazyLoadingEnabled());
+        assertTrue(b.copy().isLazyLoadingEnabled());
+        assertTrue(b.immutable().isLazyLoadingEnabled());
+        assertFalse(IonSystemBuilder.standard().isLazyLoadingEnabled());
+    }
+
+
     //-------------------------------------------------------------------------
 
     @Test
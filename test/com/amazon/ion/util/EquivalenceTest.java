@@ -17,6 +17,7 @@ package com.amazon.ion.util;
 
 import com.amazon.ion.IonFloat;
 import com.amazon.ion.IonList;
+import com.amazon.ion.IonReader;
 import com.amazon.ion.IonStruct;
 import com.amazon.ion.IonTestCase;
 import com.amazon.ion.IonValue;
@@ -470,4 +471,68 @@ public class EquivalenceTest
         assertTrue(equivalence.ionValueEquals(list1, list2));
         assertTrue(equivalence.ionValueEquals(list2, list1));
     }
+
+    private IonReader textReader(final String text) {
+        return system().newReader(text);
+    }
+
+    private IonReader binaryReader(final String text) {
+        return system().newReader(loader().load(text).getBytes());
+    }
+
+    private void assertReadersEq(final String left, final String right) {
+        assertTrue(Equivalence.ionEquals(textReader(left), binaryReader(right)));
+        assertTrue(Equivalence.ionEquals(binaryReader(right), textReader(left)));
+        assertTrue(Equivalence.ionEqualsByContent(textReader(left), textReader(right)));
+    }
+
+    private void assertReadersNotEq(final String left, final String right) {
+        assertFalse(Equivalence.ionEquals(textReader(left), binaryReader(right)));
+        assertFalse(Equivalence.ionEquals(binaryReader(right), textReader(left)));
+    }
+
+    @Test
+    public void testReaders() {
+        assertReadersEq("", "");
+        assertReadersEq("1 a::b \"c\" 2.50 null.int", "1 a::b \"c\" 2.50 null.int");
+        assertReadersEq("[1, (2 {a:3})] {{aGVsbG8=}}", "[1, (2 {a:3})] {{aGVsbG8=}}");
+        assertReadersEq("18446744073709551616", "18446744073709551616");
+
+        assertReadersNotEq("1 2", "1 2 3");
+        assertReadersNotEq("[1, 2]", "[1, 2, 3]");
+        assertReadersNotEq("(1 2)", "[1, 2]");
+        assertReadersNotEq("2.50", "2.5");
+        assertReadersNotEq("-0.", "0.");
+        assertReadersNotEq("a::1", "b::1");
+        assertReadersNotEq("{{aGVsbG8=}}", "{{aGVsbA==}}");
+        assertReadersNotEq("2020-01-01T00:00Z", "2020-01-01T00:00:00Z");
+    }
+
+    @Test
+    public void testReaderStructs() {
+        assertReadersEq("{a:1, b:{c:[2], d:3}, a:1}", "{b:{d:3, c:[2]}, a:1, a:1}");
+        assertReadersEq("[{}, {a:null}]", "[{}, {a:null}]");
+
+        assertReadersNotEq("{a:1, a:1}", "{a:1}");
+        assertReadersNotEq("{a:1}", "{a:1, a:1}");
+        assertReadersNotEq("{a:1, a:2}", "{a:1, a:1}");
+        assertReadersNotEq("{a:1}", "{b:1}");
+        assertReadersNotEq("{a:x::1}", "{a:1}");
+    }
+
+    @Test
+    public void testReadersByContent() {
+        assertTrue(Equivalence.ionEqualsByContent(textReader("a::{b:c::2}"),
+                                                  binaryReader("{b:2}")));
+        assertTrue(Equivalence.ionEqualsByContent(textReader("2020-01-01T01:00+01:00"),
+                                                  binaryReader("2020-01-01T00:00:00.000Z")));
+        assertFalse(Equivalence.ionEquals(textReader("a::{b:c::2}"),
+                                          binaryReader("{b:2}")));
+
+        Equivalence equivalence = new Equivalence.Builder().withEpsilon(1e-6).build();
+        assertTrue(equivalence.ionValueEquals(textReader("{foo:[3.14e0]}"),
+                                              binaryReader("{foo:[3.1400001e0]}")));
+        assertFalse(equivalence.ionValueEquals(textReader("{foo:[3.14e0]}"),
+                                               binaryReader("{foo:[3.15e0]}")));
+    }
 }
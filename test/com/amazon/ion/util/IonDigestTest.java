@@ -0,0 +1,179 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class IonDigestTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String[] DATA = {
+        "{a:1, b:[x, \"s\", 2.50, 1e0, 2020-01-01T00:00Z], c:{d:null.int}}",
+        "ann::(foo 123456789012345678901234567890 {{aGVsbG8=}} {{\"clob\"}} -0. 0.)",
+        "[a::b::c, true, false, null, null.struct, {}, [], ()]",
+    };
+
+    private static long binaryReaderDigest(String text)
+    {
+        IonDatagram dg = SYSTEM.getLoader().load(text);
+        IonReader reader = SYSTEM.newReader(dg.getBytes());
+        reader.next();
+        return IonDigest.digest(reader);
+    }
+
+    @Test
+    public void testSourcesAgree()
+        throws IOException
+    {
+        for (String text : DATA)
+        {
+            long expected = IonDigest.digest(SYSTEM.singleValue(text));
+
+            IonReader reader = SYSTEM.newReader(text);
+            reader.next();
+            assertEquals(text, expected, IonDigest.digest(reader));
+            assertEquals(text, expected, binaryReaderDigest(text));
+
+            IonDigest digest = new IonDigest();
+            digest.writeValues(SYSTEM.newReader(text));
+            assertEquals(text, expected, digest.getValue());
+
+            digest.reset();
+            SYSTEM.getLoader().load(text).writeTo(digest);
+            assertEquals(text, expected, digest.getValue());
+        }
+    }
+
+    @Test
+    public void testReaderPosition()
+    {
+        String text = "1 {a:[b]} 2";
+        IonDatagram dg = SYSTEM.getLoader().load(text);
+        for (IonReader reader : new IonReader[] { SYSTEM.newReader(text),
+                                                  SYSTEM.newReader(dg.getBytes()) })
+        {
+            assertEquals(IonType.INT, reader.next());
+            IonDigest.digest(reader);
+            assertEquals(IonType.INT, reader.getType());
+            assertEquals(1, reader.intValue());
+
+            assertEquals(IonType.STRUCT, reader.next());
+            IonDigest.digest(reader);
+            assertEquals(IonType.INT, reader.next());
+            assertEquals(2, reader.intValue());
+        }
+    }
+
+    @Test
+    public void testEqualValues()
+    {
+        assertEquals(IonDigest.digest(SYSTEM.singleValue("{a:1, b:{c:2, d:3}}")),
+                     IonDigest.digest(SYSTEM.singleValue("{b:{d:3, c:2}, a:1}")));
+        assertEquals(IonDigest.digest(SYSTEM.singleValue("$ion_symbol_table::{symbols:[\"x\"]} $10")),
+                     IonDigest.digest(SYSTEM.singleValue("x")));
+        assertEquals(IonDigest.digest(SYSTEM.singleValue("12")),
+                     binaryReaderDigest("12"));
+    }
+
+    @Test
+    public void testUnequalValues()
+    {
+        String[] values = {
+            "1", "1.", "1.0", "1e0", "-0.", "0.", "\"a\"", "a", "null",
+            "null.int", "[1,2]", "[2,1]", "(1 2)", "{a:1}", "{b:1}", "{a:2}",
+            "{a:1,a:1}", "x::1", "a::b::1", "b::a::1", "[a,b]", "[a::b]",
+            "2020T", "2020-01T", "2020-01-01T00:00Z", "2020-01-01T00:00:00Z",
+            "2020-01-01T00:00-00:00", "[[]]", "[[],[]]", "{{}}", "{{\"\"}}",
+            "18446744073709551616", "-9223372036854775808",
+        };
+        Map<Long, String> seen = new HashMap<Long, String>();
+        for (String text : values)
+        {
+            long digest = IonDigest.digest(SYSTEM.singleValue(text));
+            String previous = seen.put(digest, text);
+            if (previous != null)
+            {
+                fail(text + " and " + previous + " have the same digest");
+            }
+        }
+    }
+
+    @Test
+    public void testStableValue()
+    {
+        // The digest may be stored, so it mustn't change between releases.
+        assertEquals(0x2410885d2990274dL,
+                     IonDigest.digest(SYSTEM.singleValue(DATA[0])));
+    }
+
+    @Test
+    public void testMultipleValues()
+    {
+        IonDigest digest = new IonDigest();
+        digest.writeInt(1);
+        digest.writeInt(2);
+        long ordered = digest.getValue();
+
+        digest.reset();
+        digest.writeInt(2);
+        digest.writeInt(1);
+        assertFalse(ordered == digest.getValue());
+
+        digest.reset();
+        assertEquals(0, digest.getValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFieldNameOutsideStruct()
+    {
+        new IonDigest().setFieldName("a");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingFieldName()
+    {
+        IonDigest digest = new IonDigest();
+        digest.stepIn(IonType.STRUCT);
+        digest.writeInt(1);
+    }
+
+    @Test
+    public void testReadOnlyHashCode()
+    {
+        for (String text : DATA)
+        {
+            IonValue value = SYSTEM.singleValue(text);
+            int expected = value.hashCode();
+            value.makeReadOnly();
+            assertEquals(text, expected, value.hashCode());
+            assertEquals(text, expected, value.hashCode());
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.SymbolTable;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.system.IonTextWriterBuilder;
+import com.amazon.ion.system.SimpleCatalog;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IonOffsetIndexTest
+{
+    private static final int RECORDS = 300;
+
+    private SimpleCatalog catalog;
+    private IonSystem system;
+    private IonReaderBuilder readerBuilder;
+    private byte[] data;
+    private List<IonValue> expected;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        catalog = new SimpleCatalog();
+        system = IonSystemBuilder.standard().withCatalog(catalog).build();
+        readerBuilder = IonReaderBuilder.standard().withCatalog(catalog);
+
+        SymbolTable shared =
+            system.newSharedSymbolTable("shared", 1, Arrays.asList("id", "kind").iterator());
+        catalog.putTable(shared);
+
+        // Records before, between and after changes of symbol table,
+        // some of which import a shared table.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().withImports(shared).build(out);
+        for (int i = 0; i < RECORDS; i++)
+        {
+            writer.addTypeAnnotation("record");
+            writer.stepIn(IonType.STRUCT);
+            writer.setFieldName("id");
+            writer.writeInt(i);
+            writer.setFieldName("kind");
+            writer.writeSymbol("kind" + (i % 13));
+            writer.stepOut();
+            if (i % 50 == 0)
+            {
+                writer.flush();
+            }
+            if (i % 120 == 0)
+            {
+                writer.finish();
+            }
+        }
+        writer.close();
+        data = out.toByteArray();
+
+        expected = new ArrayList<IonValue>();
+        for (IonValue value : system.getLoader().load(data))
+        {
+            expected.add(value);
+        }
+        assertEquals(RECORDS, expected.size());
+    }
+
+    private List<IonValue> readAll(IonReader reader) throws IOException
+    {
+        List<IonValue> values = new ArrayList<IonValue>();
+        while (reader.next() != null)
+        {
+            values.add(system.newValue(reader));
+        }
+        reader.close();
+        return values;
+    }
+
+    private void assertRecords(IonOffsetIndex index, int from, int to)
+        throws IOException
+    {
+        IonReader reader = index.newReader(readerBuilder, data, 0, data.length, from, to);
+        assertEquals(expected.subList(from, to), readAll(reader));
+    }
+
+    private void assertIndexReadsRecords(IonOffsetIndex index) throws IOException
+    {
+        assertEquals(RECORDS, index.size());
+        for (int i = 0; i < RECORDS; i++)
+        {
+            assertRecords(index, i, i + 1);
+
+            // Records are in order and don't overlap.
+            int start = (int) index.getStartOffset(i);
+            int finish = (int) index.getFinishOffset(i);
+            assertTrue(start < finish);
+            if (i > 0)
+            {
+                assertTrue(index.getFinishOffset(i - 1) <= start);
+            }
+        }
+        assertRecords(index, 0, RECORDS);
+        assertRecords(index, 49, 241);
+        assertRecords(index, 7, 7);
+    }
+
+    @Test
+    public void testBuild() throws IOException
+    {
+        IonOffsetIndex index = IonOffsetIndex.build(readerBuilder, data, 0, data.length);
+        assertIndexReadsRecords(index);
+        SymbolTable symbols = index.getSymbolTable(0);
+        assertTrue(symbols.isLocalTable());
+        assertEquals("shared", symbols.getImportedTables()[0].getName());
+        assertTrue(index.getSymbolTable(RECORDS - 1) != symbols);
+    }
+
+    @Test
+    public void testBinarySidecarRoundTrip() throws IOException
+    {
+        IonOffsetIndex index = IonOffsetIndex.build(readerBuilder, data, 0, data.length);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        index.writeTo(writer);
+        writer.close();
+        // A few bytes per record, plus the symbol tables.
+        assertTrue(out.size() < data.length / 2);
+
+        IonReader reader = readerBuilder.build(out.toByteArray());
+        reader.next();
+        assertIndexReadsRecords(IonOffsetIndex.read(reader, catalog));
+    }
+
+    @Test
+    public void testTextSidecarRoundTrip() throws IOException
+    {
+        IonOffsetIndex index = IonOffsetIndex.build(readerBuilder, data, 0, data.length);
+
+        StringBuilder out = new StringBuilder();
+        IonWriter writer = IonTextWriterBuilder.standard().build(out);
+        index.writeTo(writer);
+        writer.close();
+
+        IonReader reader = readerBuilder.build(out.toString());
+        reader.next();
+        assertIndexReadsRecords(IonOffsetIndex.read(reader, catalog));
+    }
+
+    @Test
+    public void testReadByOffsetRange() throws IOException
+    {
+        IonOffsetIndex index = IonOffsetIndex.build(readerBuilder, data, 0, data.length);
+        assertEquals(0, index.findRecord(0));
+        assertEquals(10, index.findRecord(index.getStartOffset(10)));
+        assertEquals(11, index.findRecord(index.getStartOffset(10) + 1));
+        assertEquals(RECORDS, index.findRecord(data.length));
+
+        // Only records entirely within the range.
+        IonReader reader = index.newRangeReader(readerBuilder, data, 0, data.length,
+                                                index.getStartOffset(10) + 1,
+                                                index.getFinishOffset(20));
+        assertEquals(expected.subList(11, 21), readAll(reader));
+
+        reader = index.newRangeReader(readerBuilder, data, 0, data.length,
+                                      index.getStartOffset(10),
+                                      index.getFinishOffset(10) - 1);
+        assertNull(reader.next());
+
+        // Int offsets are still taken as offsets, not record numbers.
+        int start = (int) index.getStartOffset(3);
+        int finish = (int) index.getFinishOffset(5);
+        reader = index.newRangeReader(readerBuilder, data, 0, data.length,
+                                      start, finish);
+        assertEquals(expected.subList(3, 6), readAll(reader));
+    }
+
+    @Test
+    public void testOffsetData() throws IOException
+    {
+        byte[] padded = new byte[data.length + 10];
+        System.arraycopy(data, 0, padded, 3, data.length);
+        IonOffsetIndex index = IonOffsetIndex.build(readerBuilder, padded, 3, data.length);
+        IonReader reader = index.newReader(readerBuilder, padded, 3, data.length, 150, 160);
+        assertEquals(expected.subList(150, 160), readAll(reader));
+    }
+
+    @Test
+    public void testEmpty() throws IOException
+    {
+        IonOffsetIndex index = IonOffsetIndex.build(readerBuilder, new byte[0], 0, 0);
+        assertEquals(0, index.size());
+
+        StringBuilder out = new StringBuilder();
+        IonWriter writer = IonTextWriterBuilder.standard().build(out);
+        index.writeTo(writer);
+        writer.close();
+        IonReader reader = readerBuilder.build(out.toString());
+        reader.next();
+        assertEquals(0, IonOffsetIndex.read(reader, catalog).size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRecordOutOfBounds()
+    {
+        IonOffsetIndex.build(readerBuilder, data, 0, data.length).getStartOffset(RECORDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewReaderNotSeekable() throws IOException
+    {
+        IonOffsetIndex index = IonOffsetIndex.build(readerBuilder, data, 0, data.length);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(data);
+        gzip.close();
+        byte[] compressed = out.toByteArray();
+        index.newReader(readerBuilder, compressed, 0, compressed.length, 0, 1);
+    }
+
+    @Test(expected = IonException.class)
+    public void testReadNotAnIndex()
+    {
+        IonReader reader = readerBuilder.build("{version:1}");
+        reader.next();
+        IonOffsetIndex.read(reader, catalog);
+    }
+
+    private IonOffsetIndex readIndex(String gaps, String lengths, String starts)
+    {
+        IonReader reader = readerBuilder.build(
+            "'$ion_offset_index'::{version:1, symbol_tables:[null, null],"
+            + " symbol_table_starts:" + starts + ","
+            + " gaps:" + gaps + ", lengths:" + lengths + "}");
+        reader.next();
+        return IonOffsetIndex.read(reader, catalog);
+    }
+
+    @Test
+    public void testReadValidates()
+    {
+        assertEquals(3, readIndex("[4, 0, 2]", "[1, 1, 1]", "[0, 2]").size());
+
+        String[][] malformed = {
+            { "[4, 0, 2]", "[1, 1, 1]", "[0, 3]" },   // Starts past the end.
+            { "[4, 0, 2]", "[1, 1, 1]", "[0, 0]" },   // Starts not ascending.
+            { "[4, -1, 2]", "[1, 1, 1]", "[0, 2]" },  // Records overlap.
+            { "[4, 0, 2]", "[1, 0, 1]", "[0, 2]" },   // Empty record.
+            { "[4, 0, 9223372036854775807]", "[1, 1, 1]", "[0, 2]" },
+        };
+        for (String[] index : malformed)
+        {
+            try
+            {
+                readIndex(index[0], index[1], index[2]);
+                fail("Expected IonException for " + Arrays.toString(index));
+            }
+            catch (IonException e) { }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testNewReaderPastEndOfData()
+    {
+        IonOffsetIndex index = IonOffsetIndex.build(readerBuilder, data, 0, data.length);
+        index.newReader(readerBuilder, data, 0,
+                        (int) index.getStartOffset(RECORDS - 1),
+                        0, RECORDS);
+    }
+}
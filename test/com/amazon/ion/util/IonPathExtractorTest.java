@@ -0,0 +1,207 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static org.junit.Assert.assertEquals;
+
+import com.amazon.ion.IonDatagram;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class IonPathExtractorTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+
+    private static final String DATA =
+        "{order:{id:1, items:[{sku:a, qty:2}, {sku:b, qty:1}], note:\"x\"}}"
+      + "{order:{id:2, items:[{sku:c}], extra:{sku:z}}}"
+      + "{other:{items:[{sku:q}]}}"
+      + "[{sku:list0}, {sku:list1}]"
+      + "{'a.b':1, '*':2, c:3}";
+
+    @Parameters(name = "{0}")
+    public static Iterable<Object[]> data()
+    {
+        return Arrays.asList(new Object[][] { { "text" }, { "binary" } });
+    }
+
+    @Parameter
+    public String format;
+
+    private IonReader newReader() throws IOException
+    {
+        if ("text".equals(format))
+        {
+            return IonReaderBuilder.standard().build(DATA);
+        }
+        // Write in two symbol table contexts to check the SID caching.
+        IonDatagram values = SYSTEM.getLoader().load(DATA);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        for (int i = 0; i < values.size(); i++)
+        {
+            values.get(i).writeTo(writer);
+            if (i == 1)
+            {
+                writer.finish();
+            }
+        }
+        writer.close();
+        return IonReaderBuilder.standard().build(out.toByteArray());
+    }
+
+    /** Collects each match as text. */
+    private static class Collector implements IonPathExtractor.Callback
+    {
+        final List<String> matches = new ArrayList<String>();
+
+        public void onMatch(IonReader reader)
+        {
+            matches.add(SYSTEM.newValue(reader).toString());
+        }
+    }
+
+    private List<String> extract(String path) throws IOException
+    {
+        Collector collector = new Collector();
+        IonPathExtractor extractor = IonPathExtractor.builder()
+            .withSearchPath(path, collector)
+            .build();
+        IonReader reader = newReader();
+        extractor.match(reader);
+        reader.close();
+        return collector.matches;
+    }
+
+    @Test
+    public void testFieldWildcardPath() throws IOException
+    {
+        assertEquals(Arrays.asList("a", "b", "c"), extract("order.items[*].sku"));
+    }
+
+    @Test
+    public void testIndexPath() throws IOException
+    {
+        assertEquals(Arrays.asList("b"), extract("order.items[1].sku"));
+        assertEquals(Arrays.asList("1", "2", "[{sku:q}]", "list0"), extract("[0][0]"));
+        assertEquals(Arrays.asList("list1"), extract("[1].sku"));
+    }
+
+    @Test
+    public void testAnyFieldPath() throws IOException
+    {
+        assertEquals(Arrays.asList("z"), extract("order.*.sku"));
+        assertEquals(Arrays.asList("a", "b", "c", "q"), extract("*.items[*].sku"));
+    }
+
+    @Test
+    public void testQuotedNames() throws IOException
+    {
+        assertEquals(Arrays.asList("1"), extract("'a.b'"));
+        assertEquals(Arrays.asList("2"), extract("'*'"));
+        assertEquals(Arrays.asList("1", "2", "3"), extract("*").subList(3, 6));
+    }
+
+    @Test
+    public void testEmptyPath() throws IOException
+    {
+        assertEquals(5, extract("").size());
+    }
+
+    @Test
+    public void testMultiplePaths() throws IOException
+    {
+        Collector ids = new Collector();
+        Collector skus = new Collector();
+        final Collector orders = new Collector();
+        IonPathExtractor extractor = IonPathExtractor.builder()
+            .withSearchPath("order.id", ids)
+            .withSearchPath("order.items[*].sku", skus)
+            .withSearchPath("order", new IonPathExtractor.Callback()
+            {
+                public void onMatch(IonReader reader)
+                {
+                    // Not stepping in leaves the container to be matched.
+                    orders.matches.add(reader.getType().toString());
+                }
+            })
+            .build();
+        IonReader reader = newReader();
+        extractor.match(reader);
+        reader.close();
+        assertEquals(Arrays.asList("1", "2"), ids.matches);
+        assertEquals(Arrays.asList("a", "b", "c"), skus.matches);
+        assertEquals(2, orders.matches.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCallbackMustRestoreDepth() throws IOException
+    {
+        IonPathExtractor extractor = IonPathExtractor.builder()
+            .withSearchPath("order", new IonPathExtractor.Callback()
+            {
+                public void onMatch(IonReader reader)
+                {
+                    reader.stepIn();
+                }
+            })
+            .build();
+        extractor.match(newReader());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnclosedIndex()
+    {
+        IonPathExtractor.builder().withSearchPath("a[1", new Collector());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidIndex()
+    {
+        IonPathExtractor.builder().withSearchPath("a[x]", new Collector());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyName()
+    {
+        IonPathExtractor.builder().withSearchPath("a..b", new Collector());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyPaths()
+    {
+        IonPathExtractor.Builder builder = IonPathExtractor.builder();
+        for (int i = 0; i <= IonPathExtractor.MAX_SEARCH_PATHS; i++)
+        {
+            builder.withSearchPath("f" + i, new Collector());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2007-2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package com.amazon.ion.util;
+
+import static com.amazon.ion.impl._Private_IonConstants.BINARY_VERSION_MARKER_1_0;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.IonValue;
+import com.amazon.ion.IonWriter;
+import com.amazon.ion.system.IonBinaryWriterBuilder;
+import com.amazon.ion.system.IonReaderBuilder;
+import com.amazon.ion.system.IonSystemBuilder;
+import com.amazon.ion.util.IonSegments.Segment;
+import com.amazon.ion.util.IonSegments.SegmentProcessor;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Test;
+
+public class IonSegmentsTest
+{
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
+    private static final IonReaderBuilder READER_BUILDER = IonReaderBuilder.standard();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Writes batches of structs, each batch with its own local symbol table,
+     * some of which append to the previous one.
+     */
+    private static byte[] logData(int batches, int valuesPerBatch)
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IonWriter writer = IonBinaryWriterBuilder.standard().build(out);
+        for (int b = 0; b < batches; b++)
+        {
+            for (int i = 0; i < valuesPerBatch; i++)
+            {
+                writer.addTypeAnnotation("batch" + b);
+                writer.stepIn(IonType.STRUCT);
+                writer.setFieldName("field" + b + "_" + (i % 7));
+                writer.writeSymbol("symbol" + i);
+                writer.setFieldName("n");
+                writer.writeInt(i);
+                writer.stepOut();
+                if (i == valuesPerBatch / 2)
+                {
+                    // Appends to the local symbol table.
+                    writer.flush();
+                }
+            }
+            // Starts a new local symbol table.
+            writer.finish();
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static List<IonValue> readAll(IonReader reader)
+    {
+        List<IonValue> values = new ArrayList<IonValue>();
+        while (reader.next() != null)
+        {
+            values.add(SYSTEM.newValue(reader));
+        }
+        return values;
+    }
+
+    private static List<IonValue> readAll(byte[] data, int offset, int length)
+        throws IOException
+    {
+        IonReader reader = READER_BUILDER.build(data, offset, length);
+        try
+        {
+            return readAll(reader);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    private static final SegmentProcessor<List<IonValue>> READ_ALL =
+        new SegmentProcessor<List<IonValue>>()
+        {
+            public List<IonValue> process(Segment segment, IonReader reader)
+            {
+                return readAll(reader);
+            }
+        };
+
+    private void assertSegmentsMatchSequentialRead(byte[] data, int offset,
+                                                   int length, int target)
+        throws IOException
+    {
+        List<IonValue> expected = readAll(data, offset, length);
+
+        List<Segment> segments =
+            IonSegments.split(READER_BUILDER, data, offset, length, target);
+        long previousFinish = -1;
+        for (Segment segment : segments)
+        {
+            assertTrue(segment.getValueCount() > 0);
+            assertTrue(segment.getStartOffset() < segment.getFinishOffset());
+            if (previousFinish >= 0)
+            {
+                assertEquals(previousFinish, segment.getStartOffset());
+            }
+            previousFinish = segment.getFinishOffset();
+        }
+
+        List<IonValue> actual = new ArrayList<IonValue>();
+        for (List<IonValue> values : IonSegments.process(segments, executor, READ_ALL))
+        {
+            actual.addAll(values);
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSplitAcrossSymbolTables() throws IOException
+    {
+        byte[] data = logData(5, 400);
+        List<Segment> segments = IonSegments.split(READER_BUILDER, data, 0, data.length, 1000);
+        assertTrue(segments.size() > 10);
+        int count = 0;
+        for (Segment segment : segments)
+        {
+            count += segment.getValueCount();
+        }
+        assertEquals(2000, count);
+
+        assertSegmentsMatchSequentialRead(data, 0, data.length, 1000);
+        assertSegmentsMatchSequentialRead(data, 0, data.length, 1);
+        assertSegmentsMatchSequentialRead(data, 0, data.length, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testSplitWithOffset() throws IOException
+    {
+        byte[] log = logData(3, 100);
+        byte[] data = new byte[log.length + 20];
+        System.arraycopy(log, 0, data, 7, log.length);
+        assertSegmentsMatchSequentialRead(data, 7, log.length, 500);
+    }
+
+    @Test
+    public void testSegmentReaderStopsAtSegmentEnd() throws IOException
+    {
+        byte[] data = logData(1, 10);
+        List<Segment> segments = IonSegments.split(READER_BUILDER, data, 0, data.length, 1);
+        assertEquals(10, segments.size());
+        IonReader reader = segments.get(3).newReader();
+        assertEquals(IonType.STRUCT, reader.next());
+        assertEquals("batch0", reader.getTypeAnnotations()[0]);
+        reader.stepIn();
+        reader.next();
+        assertEquals("symbol3", reader.stringValue());
+        reader.stepOut();
+        assertNull(reader.next());
+        reader.close();
+    }
+
+    @Test
+    public void testSplitEmpty() throws IOException
+    {
+        byte[] data = logData(0, 0);
+        assertTrue(IonSegments.split(READER_BUILDER, data, 0, data.length, 100).isEmpty());
+        data = BINARY_VERSION_MARKER_1_0;
+        assertTrue(IonSegments.split(READER_BUILDER, data, 0, data.length, 100).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplitText()
+    {
+        byte[] data = "{a:1} {b:2}".getBytes();
+        IonSegments.split(READER_BUILDER, data, 0, data.length, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplitInvalidTargetSize() throws IOException
+    {
+        byte[] data = logData(1, 10);
+        IonSegments.split(READER_BUILDER, data, 0, data.length, 0);
+    }
+
+    @Test
+    public void testProcessFailure() throws IOException
+    {
+        byte[] data = logData(1, 100);
+        List<Segment> segments = IonSegments.split(READER_BUILDER, data, 0, data.length, 100);
+        final Segment failing = segments.get(2);
+        try
+        {
+            IonSegments.process(segments, executor, new SegmentProcessor<Object>()
+            {
+                public Object process(Segment segment, IonReader reader)
+                    throws Exception
+                {
+                    if (segment == failing)
+                    {
+                        throw new IOException("failed");
+                    }
+                    return null;
+                }
+            });
+            fail("Expected IonException");
+        }
+        catch (IonException e)
+        {
+            assertEquals("failed", e.getCause().getMessage());
+        }
+    }
+}
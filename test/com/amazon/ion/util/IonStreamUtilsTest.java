@@ -18,13 +18,29 @@ package com.amazon.ion.util;
 import static com.amazon.ion.impl._Private_IonConstants.BINARY_VERSION_MARKER_1_0;
 import static com.amazon.ion.impl._Private_Utils.EMPTY_BYTE_ARRAY;
 import static com.amazon.ion.util.IonStreamUtils.isIonBinary;
+import static com.amazon.ion.util.IonStreamUtils.readBooleans;
+import static com.amazon.ion.util.IonStreamUtils.readDoubles;
+import static com.amazon.ion.util.IonStreamUtils.readLongs;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import com.amazon.ion.IonException;
+import com.amazon.ion.IonReader;
+import com.amazon.ion.IonSystem;
+import com.amazon.ion.IonType;
+import com.amazon.ion.PrimitiveArrayReader;
+import com.amazon.ion.system.IonSystemBuilder;
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
 import org.junit.Test;
 
 public class IonStreamUtilsTest
 {
+    private static final IonSystem SYSTEM = IonSystemBuilder.standard().build();
 
     public static final byte[] SHORT_BUFFER_1 = { (byte) 0xE0 };
     public static final byte[] SHORT_BUFFER_2 = { (byte) 0xE0,
@@ -69,4 +85,222 @@ public class IonStreamUtilsTest
         assertEquals(false, isIonBinary(BINARY_VERSION_MARKER_1_0, 0, 2));
         assertEquals(false, isIonBinary(BINARY_VERSION_MARKER_1_0, 0, 3));
     }
+
+
+    /**
+     * Creates text, binary and binary stream readers over the given data.
+     */
+    private static IonReader[] readers(String text)
+    {
+        byte[] binary = SYSTEM.getLoader().load(text).getBytes();
+        return new IonReader[] {
+            SYSTEM.newReader(text),
+            SYSTEM.newReader(binary),
+            SYSTEM.newReader(new ByteArrayInputStream(binary)),
+        };
+    }
+
+    @Test
+    public void testReadLongs()
+    {
+        String text = "[1, -2, 300, 9223372036854775807,"
+                    + " -9223372036854775808, 9223372036854775808,"
+                    + " 3, null.int, 4.0e0]";
+        for (IonReader reader : readers(text))
+        {
+            reader.next();
+            reader.stepIn();
+
+            long[] dst = new long[8];
+            assertEquals(2, readLongs(reader, dst, 1, 2));
+            assertEquals(-2, reader.longValue());
+            assertEquals(3, readLongs(reader, dst, 3, 5));
+            assertTrue(Arrays.equals(new long[] {
+                                         0, 1, -2, 300, Long.MAX_VALUE,
+                                         Long.MIN_VALUE, 0, 0
+                                     },
+                                     dst));
+
+            // The value that ends the run is left for the caller.
+            assertEquals(IonType.INT, reader.getType());
+            assertEquals(new BigInteger("9223372036854775808"),
+                         reader.bigIntegerValue());
+
+            assertEquals(1, readLongs(reader, dst, 0, 8));
+            assertEquals(3, dst[0]);
+            assertTrue(reader.isNullValue());
+            assertEquals(0, readLongs(reader, dst, 0, 8));
+            assertEquals(IonType.FLOAT, reader.getType());
+            assertEquals(0, readLongs(reader, dst, 0, 8));
+            assertNull(reader.getType());
+
+            reader.stepOut();
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testReadDoubles()
+    {
+        String text = "[1e0, -0e0, nan, +inf, 1, 2e0]";
+        for (IonReader reader : readers(text))
+        {
+            reader.next();
+            reader.stepIn();
+
+            double[] dst = new double[4];
+            assertEquals(4, readDoubles(reader, dst, 0, 4));
+            assertEquals(1.0, dst[0], 0.0);
+            assertEquals(Double.doubleToLongBits(-0.0),
+                         Double.doubleToLongBits(dst[1]));
+            assertTrue(Double.isNaN(dst[2]));
+            assertEquals(Double.POSITIVE_INFINITY, dst[3], 0.0);
+            assertEquals(Double.POSITIVE_INFINITY, reader.doubleValue(), 0.0);
+
+            assertEquals(0, readDoubles(reader, dst, 0, 4));
+            assertEquals(IonType.INT, reader.getType());
+            assertEquals(1, readDoubles(reader, dst, 0, 4));
+            assertEquals(2.0, dst[0], 0.0);
+            assertNull(reader.getType());
+        }
+    }
+
+    @Test
+    public void testReadBooleans()
+    {
+        String text = "(true false true null.bool false) true";
+        for (IonReader reader : readers(text))
+        {
+            reader.next();
+            reader.stepIn();
+
+            boolean[] dst = new boolean[5];
+            assertEquals(3, readBooleans(reader, dst, 0, 5));
+            assertEquals(IonType.BOOL, reader.getType());
+            assertTrue(reader.isNullValue());
+            assertEquals(1, readBooleans(reader, dst, 3, 2));
+            assertTrue(Arrays.equals(new boolean[] {
+                                         true, false, true, false, false
+                                     },
+                                     dst));
+            reader.stepOut();
+
+            assertEquals(1, readBooleans(reader, dst, 0, 5));
+            assertTrue(dst[0]);
+        }
+    }
+
+    @Test
+    public void testReadLongsAtTopLevel()
+    {
+        String text = "1 2 $ion_symbol_table::{symbols:[\"x\"]} 3 x 4";
+        for (IonReader reader : readers(text))
+        {
+            long[] dst = new long[4];
+            assertEquals(3, readLongs(reader, dst, 0, 4));
+            assertEquals(IonType.SYMBOL, reader.getType());
+            assertEquals("x", reader.stringValue());
+            assertEquals(1, readLongs(reader, dst, 3, 1));
+            assertTrue(Arrays.equals(new long[] { 1, 2, 3, 4 }, dst));
+        }
+    }
+
+    @Test
+    public void testReadLongsAfterHasNext()
+    {
+        for (IonReader reader : readers("[1, 2]"))
+        {
+            reader.next();
+            reader.stepIn();
+            assertTrue(reader.hasNext());
+
+            long[] dst = new long[2];
+            assertEquals(2, readLongs(reader, dst, 0, 2));
+            assertTrue(Arrays.equals(new long[] { 1, 2 }, dst));
+        }
+    }
+
+    @Test
+    public void testReadAnnotated()
+    {
+        for (IonReader reader : readers("[1, a::2]"))
+        {
+            reader.next();
+            reader.stepIn();
+            long[] dst = new long[2];
+            try
+            {
+                readLongs(reader, dst, 0, 2);
+                fail("Expected IonException");
+            }
+            catch (IonException e) { }
+            assertEquals(1, dst[0]);
+        }
+    }
+
+    @Test
+    public void testReadInStruct()
+    {
+        for (IonReader reader : readers("{a:1}"))
+        {
+            reader.next();
+            reader.stepIn();
+            try
+            {
+                readLongs(reader, new long[1], 0, 1);
+                fail("Expected IllegalStateException");
+            }
+            catch (IllegalStateException e) { }
+        }
+    }
+
+    @Test
+    public void testFacetLeavesRunEndUnread()
+    {
+        String text = "[1, 2e0, a::3, 4]";
+        for (IonReader reader : readers(text))
+        {
+            PrimitiveArrayReader bulk = reader.asFacet(PrimitiveArrayReader.class);
+            if (bulk == null)
+            {
+                continue;
+            }
+            reader.next();
+            reader.stepIn();
+
+            long[] dst = new long[4];
+            assertEquals(1, bulk.readLongs(dst, 0, 4));
+            assertEquals(0, bulk.readLongs(dst, 1, 3));
+            assertEquals(IonType.FLOAT, reader.next());
+            assertEquals(2.0, reader.doubleValue(), 0.0);
+            try
+            {
+                bulk.readLongs(dst, 1, 3);
+                fail("Expected IonException");
+            }
+            catch (IonException e) { }
+            assertEquals(IonType.INT, reader.next());
+            assertEquals("a", reader.getTypeAnnotations()[0]);
+            assertEquals(3, reader.intValue());
+            assertEquals(1, bulk.readLongs(dst, 1, 3));
+            assertTrue(Arrays.equals(new long[] { 1, 4, 0, 0 }, dst));
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testBinaryReaderHasFacet()
+    {
+        IonReader reader = readers("[]")[1];
+        assertNotNull(reader.asFacet(PrimitiveArrayReader.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadLongsBadRange()
+    {
+        IonReader reader = readers("[1]")[1];
+        reader.next();
+        reader.stepIn();
+        readLongs(reader, new long[2], 1, 2);
+    }
 }
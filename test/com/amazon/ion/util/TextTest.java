@@ -21,6 +21,7 @@ import com.amazon.ion.Decimal;
 import com.amazon.ion.IonTestCase;
 import com.amazon.ion.impl._Private_IonTextAppender;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import org.junit.Test;
 
 
@@ -168,6 +169,27 @@ public class TextTest
         checkDecimal("-0.", Decimal.NEGATIVE_ZERO);
         checkDecimal("0.",  Decimal.ZERO);
         checkDecimal("1.",  Decimal.ONE);
+        checkDecimal("-12.34", new BigDecimal("-12.34"));
+        checkDecimal("0.0012", new BigDecimal("0.0012"));
+        checkDecimal("12d-9", new BigDecimal("12e-9"));
+        checkDecimal("12d3", new BigDecimal("12e3"));
+        checkDecimal("-0.00", Decimal.negativeZero(2));
+        checkDecimal("-9223372036854775808.", BigDecimal.valueOf(Long.MIN_VALUE));
+        checkDecimal("9223372036854775807.", BigDecimal.valueOf(Long.MAX_VALUE));
+        checkDecimal("-92233720368547758.09",
+                     new BigDecimal("-92233720368547758.09"));
+        checkDecimal("123456789012345678901234567890.5",
+                     new BigDecimal("123456789012345678901234567890.5"));
+
+        // Either side of the widest unscaled value printed from a long.
+        checkDecimal("-99999999999999999.9",
+                     new BigDecimal("-99999999999999999.9"));
+        checkDecimal("-999999999999999999.9",
+                     new BigDecimal("-999999999999999999.9"));
+        checkDecimal("12d-30", new BigDecimal("12e-30"));
+        checkDecimal("-0d3", Decimal.negativeZero(-3));
+        checkDecimal("-12.34",
+                     new BigDecimal(BigInteger.valueOf(-1234), 2));
     }
 
 
@@ -200,6 +222,18 @@ public class TextTest
         checkFloat("null.float", null);
         checkFloat("0e0", 0.0);
         checkFloat("1e0", 1.0);
+        checkFloat("-0e0", -0.0);
+        checkFloat("nan", Double.NaN);
+        checkFloat("+inf", Double.POSITIVE_INFINITY);
+        checkFloat("-inf", Double.NEGATIVE_INFINITY);
+        checkFloat("-123.45e0", -123.45);
+        checkFloat("1234567e0", 1234567.0);
+        checkFloat("0.001e0", 0.001);
+        checkFloat("1.0E7", 1e7);
+        checkFloat("1.0E-4", 1e-4);
+        checkFloat("1.0E23", 1e23);
+        checkFloat("4.9E-324", Double.MIN_VALUE);
+        checkFloat("1.7976931348623157E308", Double.MAX_VALUE);
     }
 
 